@@ -0,0 +1,121 @@
+package pt.pa.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pt.pa.Document;
+import pt.pa.MyFile;
+import pt.pa.PFS;
+import pt.pa.Generator.TreeGenerator;
+import pt.pa.adts.Position;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CalendarBenchmark class measures the queries behind the monthly charts and the yearly listing of the Info
+ * window, on a tree whose documents were created over ten years, 2014 to 2023.
+ * <p>
+ * The charts used to read the creation date of every document of the tree for any year; they now read the counts
+ * of the year from the calendar index, built by the first query.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarBenchmark {
+
+    /**
+     * The first second of 2014.
+     */
+    private static final long FROM = 1388534400L;
+
+    /**
+     * The last second of 2023.
+     */
+    private static final long TO = 1704067199L;
+
+    /**
+     * The year queried, in the middle of the range.
+     */
+    private static final int YEAR = 2019;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private PFS pfs;
+
+    /**
+     * Generates the tree and builds the index.
+     */
+    @Setup
+    public void setUp() {
+        pfs = new PFS(new TreeGenerator(42, size).creationRange(FROM, TO).generate());
+        pfs.getCreatedFilesDataByMonth(YEAR);
+    }
+
+    /**
+     * Counts the files created in each month of the year the way the chart did before the index, reading every
+     * document of the tree.
+     *
+     * @param blackhole Consumes the counts.
+     */
+    @Benchmark
+    public void createdByScan(Blackhole blackhole) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Position<Document> position : pfs.getPfs().positions()) {
+            if (position.element() instanceof MyFile file) {
+                LocalDateTime created = LocalDateTime.ofEpochSecond(file.getCreationDate(), 0, ZoneOffset.UTC);
+                if (created.getYear() == YEAR) {
+                    counts.merge(created.getMonth().toString(), 1, Integer::sum);
+                }
+            }
+        }
+        blackhole.consume(counts);
+    }
+
+    /**
+     * Counts the files created in each month of the year from the index.
+     *
+     * @param blackhole Consumes the counts.
+     */
+    @Benchmark
+    public void createdByIndex(Blackhole blackhole) {
+        blackhole.consume(pfs.getCreatedFilesDataByMonth(YEAR));
+    }
+
+    /**
+     * Counts the files last changed in each month of the year from the index.
+     *
+     * @param blackhole Consumes the counts.
+     */
+    @Benchmark
+    public void changedByIndex(Blackhole blackhole) {
+        blackhole.consume(pfs.getChangedFilesDataByMonth(YEAR));
+    }
+
+    /**
+     * Lists the documents created in the year from the index.
+     *
+     * @param blackhole Consumes the documents.
+     */
+    @Benchmark
+    public void documentsOfYear(Blackhole blackhole) {
+        blackhole.consume(pfs.getDocumentsBySelectedYear(YEAR));
+    }
+}
@@ -0,0 +1,87 @@
+package pt.pa.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pt.pa.Document;
+import pt.pa.PFS;
+import pt.pa.View.DocumentGridRows;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The OpenFolderBenchmark class measures the work done outside JavaFX when a large folder is opened in the document
+ * grid: listing its documents and preparing what the grid shows. Creating the nodes needs the JavaFX toolkit and is
+ * not measured, but the grid used to create one node per document and now creates one per visible document.
+ * <p>
+ * The folder is the root of a {@link TreeShape#WIDE} tree, holding every document.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenFolderBenchmark {
+
+    /**
+     * The number of documents in each row of the grid.
+     */
+    private static final int COLUMNS = 7;
+
+    /**
+     * The number of rows the grid shows at once.
+     */
+    private static final int VISIBLE_ROWS = 8;
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    private PFS pfs;
+
+    /**
+     * Builds the folder.
+     */
+    @Setup
+    public void setUp() {
+        pfs = new PFS(TreeShape.WIDE.build(size));
+    }
+
+    /**
+     * Opens the folder the way the grid did before it was virtualized, finding the position of every document in
+     * the tree so an item could be created for each.
+     *
+     * @param blackhole Consumes the positions.
+     */
+    @Benchmark
+    public void openByLookup(Blackhole blackhole) {
+        for (Document document : pfs.getDirectDescendants(pfs.getRoot(), "all")) {
+            blackhole.consume(pfs.findPositionByElement(document));
+        }
+    }
+
+    /**
+     * Opens the folder in the virtualized grid, splitting its documents into rows and reading the visible ones.
+     *
+     * @param blackhole Consumes the visible documents.
+     */
+    @Benchmark
+    public void openByRows(Blackhole blackhole) {
+        List<Document> documents = List.copyOf(pfs.getDirectDescendants(pfs.getRoot(), "all"));
+        DocumentGridRows rows = new DocumentGridRows(documents, COLUMNS);
+        for (int row = 0; row < Math.min(VISIBLE_ROWS, rows.size()); row++) {
+            rows.get(row).forEach(blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package pt.pa.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PathBenchmark class compares finding a document by its path with {@link PFS#resolve(String)} against
+ * searching for its name with {@link PFS#find(String)}, on trees of every {@link TreeShape}.
+ * <p>
+ * The last document created is the one a depth-first search reaches last. Resolving its path again is answered from
+ * the cache; resolving the paths of every document in turn, more than the cache holds on the larger trees, starts
+ * from the cached path of the folder when a sibling was resolved before, or walks the indexes of the folders.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"DEEP", "WIDE", "BALANCED"})
+    public TreeShape shape;
+
+    private PFS pfs;
+    private Position<Document> last;
+    private String lastPath;
+    private String[] paths;
+    private int next;
+
+    /**
+     * Builds the file system and writes the path of every document.
+     */
+    @Setup
+    public void setUp() {
+        TreeLinked<Document> tree = new TreeLinked<>(new Folder("root"));
+        List<Position<Document>> positions = shape.build(tree, size);
+        pfs = new PFS(tree);
+        last = positions.get(positions.size() - 1);
+        lastPath = pfs.pathOf(last);
+        paths = positions.stream().map(pfs::pathOf).toArray(String[]::new);
+    }
+
+    /**
+     * Searches the tree for the name of the last document.
+     *
+     * @return Its position.
+     */
+    @Benchmark
+    public Position<Document> find() {
+        return pfs.find(last.element().getName());
+    }
+
+    /**
+     * Resolves the path of the last document, from the cache after the first call.
+     *
+     * @return Its position.
+     */
+    @Benchmark
+    public Position<Document> resolveCached() {
+        return pfs.resolve(lastPath);
+    }
+
+    /**
+     * Resolves the path of the next document, cycling through every document of the tree.
+     *
+     * @return Its position.
+     */
+    @Benchmark
+    public Position<Document> resolveEach() {
+        String path = paths[next];
+        next = next + 1 == paths.length ? 0 : next + 1;
+        return pfs.resolve(path);
+    }
+
+    /**
+     * Writes the path of the last document.
+     *
+     * @return Its path.
+     */
+    @Benchmark
+    public String pathOf() {
+        return pfs.pathOf(last);
+    }
+}
@@ -0,0 +1,104 @@
+package pt.pa.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pt.pa.Backup.FileBackupHandler;
+import pt.pa.Backup.Memento;
+import pt.pa.Document;
+import pt.pa.PFS;
+import pt.pa.adts.TreeLinked;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PersistenceBenchmark class measures saving and loading the file system and writing and reading backups, on
+ * trees of every {@link TreeShape}.
+ * <p>
+ * Both write to paths relative to the working directory ("Explorer.pfs" and the backup folder), so the benchmark
+ * profile runs them in "target/jmh" rather than in the project.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    private static final String BACKUP_FOLDER = "src/main/java/pt/pa/Backup/Backups/";
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"DEEP", "WIDE", "BALANCED"})
+    public TreeShape shape;
+
+    private PFS pfs;
+    private String backupName;
+
+    /**
+     * Builds the file system, then saves it and backs it up once so there is something to load and restore.
+     *
+     * @throws Exception If the file system cannot be created or saved.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        pfs = new PFS(shape.build(size));
+        PFS.saveFileSystem(pfs.getPfs());
+        FileBackupHandler.saveToFile(pfs.saveState());
+        File[] backups = new File(BACKUP_FOLDER).listFiles((folder, name) -> name.endsWith(".bak"));
+        backupName = Arrays.stream(backups).max(Comparator.comparingLong(File::lastModified)).orElseThrow().getName();
+    }
+
+    /**
+     * Serializes the file system to "Explorer.pfs".
+     *
+     * @throws Exception If the file cannot be written.
+     */
+    @Benchmark
+    public void saveFileSystem() throws Exception {
+        PFS.saveFileSystem(pfs.getPfs());
+    }
+
+    /**
+     * Deserializes the file system from "Explorer.pfs".
+     *
+     * @return The loaded tree.
+     * @throws Exception If the file cannot be read.
+     */
+    @Benchmark
+    public TreeLinked<Document> loadFileSystem() throws Exception {
+        return pfs.loadFileSystem();
+    }
+
+    /**
+     * Writes a backup of the file system.
+     */
+    @Benchmark
+    public void saveBackup() {
+        FileBackupHandler.saveToFile(pfs.saveState());
+    }
+
+    /**
+     * Reads the backup written by the setup.
+     *
+     * @return The restored memento.
+     */
+    @Benchmark
+    public Memento restoreBackup() {
+        return FileBackupHandler.restoreFromFile(backupName);
+    }
+}
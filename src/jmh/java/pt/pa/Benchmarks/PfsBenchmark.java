@@ -0,0 +1,112 @@
+package pt.pa.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PfsBenchmark class measures the searches, the paste and the recent files query of {@link PFS} on trees of
+ * every {@link TreeShape}. The searches look for the last document created, which a depth-first search reaches
+ * last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PfsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"DEEP", "WIDE", "BALANCED"})
+    public TreeShape shape;
+
+    private PFS pfs;
+    private Position<Document> last;
+    private Position<Document> pasteFolder;
+
+    /**
+     * Builds the file system, adds an empty folder as the first child of the root to paste into, and copies the
+     * last document to the clipboard. A document cannot be pasted into one of its ancestors, so the folder is not
+     * on the path of the last document.
+     */
+    @Setup
+    public void setUp() {
+        TreeLinked<Document> tree = new TreeLinked<>(new Folder("root"));
+        List<Position<Document>> positions = shape.build(tree, size);
+        pasteFolder = tree.insert(tree.root(), new Folder("paste"), 0);
+        pfs = new PFS(tree);
+        last = positions.get(positions.size() - 1);
+        pfs.copy(last);
+    }
+
+    /**
+     * Finds the last document by name.
+     *
+     * @return Its position.
+     */
+    @Benchmark
+    public Position<Document> find() {
+        return pfs.find(last.element().getName());
+    }
+
+    /**
+     * Searches the whole tree for a name no document has.
+     *
+     * @return Null.
+     */
+    @Benchmark
+    public Position<Document> findMissing() {
+        return pfs.find("missing");
+    }
+
+    /**
+     * Finds the position of the last document.
+     *
+     * @return Its position.
+     */
+    @Benchmark
+    public Position<Document> findPositionByElement() {
+        return pfs.findPositionByElement(last.element());
+    }
+
+    /**
+     * Pastes a copy of the last document in the empty folder and removes it.
+     *
+     * @return The position of the copy.
+     */
+    @Benchmark
+    public Position<Document> pasteAndRemove() {
+        Position<Document> copy = pfs.paste(pasteFolder);
+        pfs.remove(copy);
+        return copy;
+    }
+
+    /**
+     * Lists the 20 most recently created documents.
+     *
+     * @return The documents.
+     */
+    @Benchmark
+    public List<Document> getLast20CreatedFiles() {
+        return pfs.getLast20CreatedFiles();
+    }
+}
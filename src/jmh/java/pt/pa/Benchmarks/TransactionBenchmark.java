@@ -0,0 +1,96 @@
+package pt.pa.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pt.pa.Commands.Command;
+import pt.pa.Commands.CommandManager;
+import pt.pa.Commands.CompositeCommand;
+import pt.pa.Commands.CreateFileCommand;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TransactionBenchmark class compares creating many files one command at a time, as the GUI does for a single
+ * document, with creating them in one transaction through {@link CommandManager#executeAll(List)}.
+ * <p>
+ * Each invocation creates {@code count} files in a folder of a new file system and, like the GUI, saves the file
+ * system after every history entry: after every file one at a time, once for the transaction. The save writes
+ * "Explorer.pfs" in the working directory, so the benchmark profile runs it in "target/jmh".
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TransactionBenchmark {
+
+    @Param({"100", "1000"})
+    public int count;
+
+    private PFS pfs;
+    private CommandManager manager;
+    private List<Command> commands;
+
+    /**
+     * Builds an empty file system and the commands creating the files, before every invocation.
+     *
+     * @throws Exception If the file system cannot be created.
+     */
+    @Setup(Level.Invocation)
+    public void setUp() throws Exception {
+        pfs = new PFS(new Folder("root"));
+        manager = pfs.getCommandManager();
+        manager.setCoalesceWindowMillis(0);
+        Position<Document> folder = pfs.createFolder("Batch", pfs.getRoot());
+        commands = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            commands.add(new CreateFileCommand(pfs, folder, "file" + i));
+        }
+    }
+
+    /**
+     * Executes each command on its own, saving the file system after each of them.
+     *
+     * @return The number of history entries recorded.
+     * @throws Exception If a command fails or the file system cannot be saved.
+     */
+    @Benchmark
+    public int perCommand() throws Exception {
+        for (Command command : commands) {
+            manager.executeCommand(command);
+            pfs.saveFileSystem();
+        }
+        return manager.getHistorySize();
+    }
+
+    /**
+     * Executes every command in one transaction and saves the file system once.
+     *
+     * @return The transaction recorded.
+     * @throws Exception If a command fails or the file system cannot be saved.
+     */
+    @Benchmark
+    public CompositeCommand transaction() throws Exception {
+        CompositeCommand batch = manager.executeAll(commands);
+        pfs.saveFileSystem();
+        return batch;
+    }
+}
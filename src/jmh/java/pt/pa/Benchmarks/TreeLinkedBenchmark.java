@@ -0,0 +1,137 @@
+package pt.pa.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.MyFile;
+import pt.pa.PathResolver;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TreeLinkedBenchmark class measures the operations of {@link TreeLinked} on trees of every {@link TreeShape}.
+ * The operations that change the tree undo their change in the same invocation, so every invocation runs on the
+ * same tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeLinkedBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"DEEP", "WIDE", "BALANCED"})
+    public TreeShape shape;
+
+    private TreeLinked<Document> tree;
+    private Position<Document> root;
+    private Position<Document> last;
+    private Position<Document> lastParent;
+    private final MyFile inserted = new MyFile("inserted", ".txt");
+    private Object lastName;
+    private boolean movedToRoot;
+
+    /**
+     * Builds the tree.
+     */
+    @Setup
+    public void setUp() {
+        tree = new TreeLinked<>(new Folder("root"));
+        tree.indexChildrenBy(PathResolver::segmentOf);
+        List<Position<Document>> positions = shape.build(tree, size);
+        root = tree.root();
+        last = positions.get(positions.size() - 1);
+        lastParent = size > 1 ? tree.parent(last) : root;
+        lastName = PathResolver.segmentOf(last.element());
+    }
+
+    /**
+     * Inserts a file in the folder of the last document and removes it.
+     *
+     * @return The position of the inserted file.
+     */
+    @Benchmark
+    public Position<Document> insertAndRemove() {
+        Position<Document> position = tree.insert(lastParent, inserted);
+        tree.remove(position);
+        return position;
+    }
+
+    /**
+     * Moves the last document to the root, or back to its folder if it was moved to the root by the previous call.
+     */
+    @Benchmark
+    public void move() {
+        if (last != root) {
+            tree.move(last, movedToRoot ? lastParent : root);
+            movedToRoot = !movedToRoot;
+        }
+    }
+
+    /**
+     * Lists the children of the root.
+     *
+     * @return The children.
+     */
+    @Benchmark
+    public Iterable<Position<Document>> children() {
+        return tree.children(root);
+    }
+
+    /**
+     * Lists every position of the tree.
+     *
+     * @return The positions.
+     */
+    @Benchmark
+    public Iterable<Position<Document>> positions() {
+        return tree.positions();
+    }
+
+    /**
+     * Counts the documents of the tree.
+     *
+     * @return The size.
+     */
+    @Benchmark
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Checks that the root is an ancestor of the last document.
+     *
+     * @return True unless the tree only has its root.
+     */
+    @Benchmark
+    public boolean isAncestor() {
+        return tree.isAncestor(last, root);
+    }
+
+    /**
+     * Finds the last document by its name in its folder.
+     *
+     * @return The position of the last document.
+     */
+    @Benchmark
+    public Position<Document> childByName() {
+        return tree.child(lastParent, lastName);
+    }
+}
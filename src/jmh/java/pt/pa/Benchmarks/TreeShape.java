@@ -0,0 +1,146 @@
+package pt.pa.Benchmarks;
+
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.MyFile;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The TreeShape enum lists the shapes of the trees the benchmarks run on and builds them.
+ * <p>
+ * Every tree has a root folder named "root" and its other documents are named "d1", "d2", ... in creation order,
+ * so a depth-first search for the last document visits the whole tree. Folders hold the other documents and files
+ * are the leaves, each with {@value #CONTENT_LENGTH} bytes of content. The trees are built straight into a
+ * {@link TreeLinked}, so building one does not go through the commands, the logger or the metrics of a PFS.
+ * </p>
+ */
+public enum TreeShape {
+    /**
+     * Chains of {@value #CHAIN_LENGTH} nested folders hanging from the root, each ending in a file.
+     */
+    DEEP {
+        @Override
+        int parentOf(int index, int size) {
+            return (index - 1) % CHAIN_LENGTH == 0 ? 0 : index - 1;
+        }
+
+        @Override
+        boolean isFolder(int index, int size) {
+            return index % CHAIN_LENGTH != 0 && index != size - 1;
+        }
+    },
+    /**
+     * Every document directly under the root, one folder for every ten documents.
+     */
+    WIDE {
+        @Override
+        int parentOf(int index, int size) {
+            return 0;
+        }
+
+        @Override
+        boolean isFolder(int index, int size) {
+            return index % 10 == 0;
+        }
+    },
+    /**
+     * A complete tree in which every folder has {@value #FAN_OUT} children.
+     */
+    BALANCED {
+        @Override
+        int parentOf(int index, int size) {
+            return (index - 1) / FAN_OUT;
+        }
+
+        @Override
+        boolean isFolder(int index, int size) {
+            return (long) index * FAN_OUT + 1 < size;
+        }
+    };
+
+    /**
+     * The number of nested folders of each chain of a deep tree. Java serialization recurses once per level, and
+     * "Explorer.pfs" can no longer be written with the default thread stack at about 500 levels.
+     */
+    public static final int CHAIN_LENGTH = 256;
+    /**
+     * The number of children of each folder of a balanced tree.
+     */
+    public static final int FAN_OUT = 8;
+    /**
+     * The content size of each file, in bytes.
+     */
+    public static final int CONTENT_LENGTH = 64;
+
+    /**
+     * Finds the parent of a document.
+     *
+     * @param index The creation index of the document, at least 1.
+     * @param size  The number of documents of the tree.
+     * @return The creation index of the parent, lower than the index of the document.
+     */
+    abstract int parentOf(int index, int size);
+
+    /**
+     * Checks if a document is a folder.
+     *
+     * @param index The creation index of the document, at least 1.
+     * @param size  The number of documents of the tree.
+     * @return True if the document is a folder, false if it is a file.
+     */
+    abstract boolean isFolder(int index, int size);
+
+    /**
+     * Builds a tree of this shape under the root of a tree.
+     *
+     * @param tree The tree, holding only its root.
+     * @param size The number of documents, the root included.
+     * @return The positions of the documents in creation order, the root first.
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    public List<Position<Document>> build(TreeLinked<Document> tree, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A tree has at least its root.");
+        }
+        List<Position<Document>> positions = new ArrayList<>(size);
+        positions.add(tree.root());
+        for (int index = 1; index < size; index++) {
+            Position<Document> parent = positions.get(parentOf(index, size));
+            positions.add(tree.insert(parent, isFolder(index, size) ? new Folder("d" + index) : file(index)));
+        }
+        return positions;
+    }
+
+    /**
+     * Builds a tree of this shape with a new root folder.
+     *
+     * @param size The number of documents, the root included.
+     * @return The tree.
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    public TreeLinked<Document> build(int size) {
+        TreeLinked<Document> tree = new TreeLinked<>(new Folder("root"));
+        build(tree, size);
+        return tree;
+    }
+
+    /**
+     * Creates the file of a document.
+     *
+     * @param index The creation index of the document.
+     * @return The file, with {@value #CONTENT_LENGTH} bytes of content.
+     */
+    private static MyFile file(int index) {
+        MyFile file = new MyFile("d" + index, ".txt");
+        StringBuilder content = new StringBuilder(CONTENT_LENGTH).append("document ").append(index).append(';');
+        while (content.length() < CONTENT_LENGTH) {
+            content.append('x');
+        }
+        file.setContent(content.toString());
+        return file;
+    }
+}
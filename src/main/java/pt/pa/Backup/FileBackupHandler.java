@@ -1,6 +1,7 @@
 package pt.pa.Backup;
 
 import pt.pa.Exceptions.NoMementoException;
+import pt.pa.Profiling.BackupEvent;
 
 import java.io.*;
 import java.time.LocalDateTime;
@@ -28,10 +29,19 @@ public class FileBackupHandler {
      */
     public static void saveToFile(Memento memento) {
         String fileName = generateBackupFileName();
+        BackupEvent event = new BackupEvent();
+        event.begin();
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(BACKUP_FOLDER + fileName))) {
             oos.writeObject(memento);
         } catch (IOException e) {
             e.printStackTrace();
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = BACKUP_FOLDER + fileName;
+            event.bytes = new File(BACKUP_FOLDER + fileName).length();
+            event.commit();
         }
     }
 
@@ -0,0 +1,259 @@
+package pt.pa;
+
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The CalendarIndex class buckets the documents of a file system by the year they were created in, and counts its
+ * files by the month they were created in and by the month they were last changed in, following the changes
+ * reported by the {@link PFS}. A chart of any year reads its twelve counts, and the documents of a year are listed
+ * without looking at the other years.
+ * <p>
+ * Dates are read in UTC. Each document is kept with the dates it was counted under, so it is taken out of the
+ * right buckets when it is removed or changed. Like {@link RecentDocuments}, the index is built when it is first
+ * queried, and again after the tree is replaced.
+ * </p>
+ */
+public class CalendarIndex implements PfsChangeListener {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final PFS pfs;
+    private final Map<Integer, Set<Document>> documentsByYear = new HashMap<>();
+    private final Map<Integer, int[]> createdFilesByMonth = new HashMap<>();
+    private final Map<Integer, int[]> changedFilesByMonth = new HashMap<>();
+    private final Map<Document, Dates> indexed = new IdentityHashMap<>();
+    private boolean built;
+
+    /**
+     * The dates a document is counted under.
+     *
+     * @param created The creation date, in epoch seconds.
+     * @param changed The date of the last change of a file, in epoch seconds, or the creation date of a folder.
+     */
+    private record Dates(long created, long changed) {
+    }
+
+    /**
+     * Constructs a CalendarIndex for a file system.
+     *
+     * @param pfs The file system.
+     */
+    public CalendarIndex(PFS pfs) {
+        this.pfs = pfs;
+    }
+
+    /**
+     * Lists the documents created in a year.
+     *
+     * @param year The year.
+     * @return The documents, in the order they were indexed.
+     */
+    public synchronized List<Document> getDocumentsCreatedIn(int year) {
+        build();
+        return new ArrayList<>(documentsByYear.getOrDefault(year, Collections.emptySet()));
+    }
+
+    /**
+     * Counts the files created in each month of a year.
+     *
+     * @param year The year.
+     * @return The number of files created in each month that has any, by month name, in calendar order.
+     */
+    public synchronized Map<String, Integer> getFilesCreatedByMonth(int year) {
+        build();
+        return byMonth(createdFilesByMonth.get(year));
+    }
+
+    /**
+     * Counts the files last changed in each month of a year.
+     *
+     * @param year The year.
+     * @return The number of files last changed in each month that has any, by month name, in calendar order.
+     */
+    public synchronized Map<String, Integer> getFilesChangedByMonth(int year) {
+        build();
+        return byMonth(changedFilesByMonth.get(year));
+    }
+
+    /**
+     * Counts an inserted document, with the documents it holds when an undo put it back.
+     *
+     * @param parent   The folder holding the document.
+     * @param position The position of the inserted document.
+     */
+    @Override
+    public synchronized void documentInserted(Position<Document> parent, Position<Document> position) {
+        if (!built) {
+            return;
+        }
+        TreeLinked<Document> tree = pfs.getPfs();
+        Deque<Position<Document>> pending = new ArrayDeque<>();
+        pending.push(position);
+        while (!pending.isEmpty()) {
+            Position<Document> next = pending.pop();
+            add(next.element());
+            tree.children(next).forEach(pending::push);
+        }
+    }
+
+    /**
+     * Stops counting a removed document and the documents it held.
+     *
+     * @param parent   The folder that held the document.
+     * @param position The position of the removed document.
+     */
+    @Override
+    public synchronized void documentRemoved(Position<Document> parent, Position<Document> position) {
+        if (!built) {
+            return;
+        }
+        TreeLinked<Document> tree = pfs.getPfs();
+        Deque<Position<Document>> pending = new ArrayDeque<>();
+        pending.push(position);
+        while (!pending.isEmpty()) {
+            Position<Document> next = pending.pop();
+            remove(next.element());
+            tree.children(next).forEach(pending::push);
+        }
+    }
+
+    /**
+     * Moves a changed file to the month of its last change.
+     *
+     * @param position The position of the file.
+     */
+    @Override
+    public synchronized void contentChanged(Position<Document> position) {
+        if (built && position.element() instanceof MyFile file) {
+            Dates dates = indexed.get(file);
+            if (dates != null && dates.changed() != file.getLastChangeDate()) {
+                count(changedFilesByMonth, dates.changed(), -1);
+                count(changedFilesByMonth, file.getLastChangeDate(), 1);
+                indexed.put(file, new Dates(dates.created(), file.getLastChangeDate()));
+            }
+        }
+    }
+
+    /**
+     * Drops the index, to be built from the new tree when it is next queried.
+     */
+    @Override
+    public synchronized void treeReplaced() {
+        built = false;
+        documentsByYear.clear();
+        createdFilesByMonth.clear();
+        changedFilesByMonth.clear();
+        indexed.clear();
+    }
+
+    /**
+     * Counts every document of the tree, in the order of {@link TreeLinked#positions()}, unless it was done.
+     */
+    private void build() {
+        if (built) {
+            return;
+        }
+        built = true;
+        TreeLinked<Document> tree = pfs.getPfs();
+        if (!tree.isEmpty()) {
+            for (Position<Document> position : tree.positions()) {
+                add(position.element());
+            }
+        }
+    }
+
+    /**
+     * Counts a document, unless it is already counted.
+     *
+     * @param document The document.
+     */
+    private void add(Document document) {
+        if (indexed.containsKey(document)) {
+            return;
+        }
+        long created = document.getCreationDate();
+        long changed = document instanceof MyFile file ? file.getLastChangeDate() : created;
+        indexed.put(document, new Dates(created, changed));
+        documentsByYear.computeIfAbsent(yearOf(created), year -> new LinkedHashSet<>()).add(document);
+        if (document instanceof MyFile) {
+            count(createdFilesByMonth, created, 1);
+            count(changedFilesByMonth, changed, 1);
+        }
+    }
+
+    /**
+     * Stops counting a document.
+     *
+     * @param document The document.
+     */
+    private void remove(Document document) {
+        Dates dates = indexed.remove(document);
+        if (dates == null) {
+            return;
+        }
+        Set<Document> documents = documentsByYear.get(yearOf(dates.created()));
+        documents.remove(document);
+        if (documents.isEmpty()) {
+            documentsByYear.remove(yearOf(dates.created()));
+        }
+        if (document instanceof MyFile) {
+            count(createdFilesByMonth, dates.created(), -1);
+            count(changedFilesByMonth, dates.changed(), -1);
+        }
+    }
+
+    /**
+     * Adds to the count of the month of a date.
+     *
+     * @param counts The counts of each month, by year.
+     * @param date   The date, in epoch seconds.
+     * @param delta  What to add.
+     */
+    private static void count(Map<Integer, int[]> counts, long date, int delta) {
+        LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(date, SECONDS_PER_DAY));
+        counts.computeIfAbsent(day.getYear(), year -> new int[12])[day.getMonthValue() - 1] += delta;
+    }
+
+    /**
+     * Retrieves the year of a date.
+     *
+     * @param date The date, in epoch seconds.
+     * @return The year.
+     */
+    private static int yearOf(long date) {
+        return LocalDate.ofEpochDay(Math.floorDiv(date, SECONDS_PER_DAY)).getYear();
+    }
+
+    /**
+     * Names the months of a year that have a count.
+     *
+     * @param counts The counts of each month of the year, or null if there are none.
+     * @return The counts by month name, in calendar order.
+     */
+    private static Map<String, Integer> byMonth(int[] counts) {
+        Map<String, Integer> months = new LinkedHashMap<>();
+        if (counts != null) {
+            for (Month month : Month.values()) {
+                if (counts[month.ordinal()] > 0) {
+                    months.put(month.toString(), counts[month.ordinal()]);
+                }
+            }
+        }
+        return months;
+    }
+}
@@ -0,0 +1,284 @@
+package pt.pa;
+
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The ChangeLog class records every edit made to the files of a {@link PFS}: which file, when, and by how many
+ * bytes its content grew or shrank.
+ * <p>
+ * The log is kept in columns of primitive arrays, one row per edit, so an edit costs 20 bytes and no object. Rows
+ * are appended in time order, so the edits of a period are found by binary search and only they are read. Each
+ * file gets a small id the first time it is edited, with its number of edits and bytes churned kept by id, so the
+ * most changed files are ranked from the files that were edited rather than from every file of the tree.
+ * </p>
+ * <p>
+ * Removed files keep their rows but leave the ranking until an undo puts them back. A restored tree holds copies of
+ * the files, which start with no edits of their own; the rows of the old files still count in the periods.
+ * </p>
+ */
+public class ChangeLog implements PfsChangeListener {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final PFS pfs;
+
+    private int[] fileIds = new int[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private long[] deltas = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private final Map<MyFile, Integer> ids = new IdentityHashMap<>();
+    private final List<MyFile> files = new ArrayList<>();
+    private int[] changes = new int[INITIAL_CAPACITY];
+    private long[] churned = new long[INITIAL_CAPACITY];
+    private final BitSet present = new BitSet();
+
+    /**
+     * The edits made to a file.
+     *
+     * @param file         The file.
+     * @param changes      The number of edits recorded.
+     * @param bytesChurned The bytes added and removed by those edits.
+     */
+    public record FileChanges(MyFile file, int changes, long bytesChurned) {
+    }
+
+    /**
+     * Constructs an empty ChangeLog for a file system.
+     *
+     * @param pfs The file system.
+     */
+    public ChangeLog(PFS pfs) {
+        this.pfs = pfs;
+    }
+
+    /**
+     * Records an edit of a file, at the date of its last change. A date earlier than the last row, which only
+     * happens when the clock goes back, is recorded as the date of the last row to keep the rows in order.
+     *
+     * @param file  The edited file.
+     * @param delta The number of bytes the content grew by, negative if it shrank.
+     */
+    public synchronized void record(MyFile file, long delta) {
+        Integer id = ids.get(file);
+        if (id == null) {
+            id = files.size();
+            ids.put(file, id);
+            files.add(file);
+            if (id == changes.length) {
+                changes = Arrays.copyOf(changes, id * 2);
+                churned = Arrays.copyOf(churned, id * 2);
+            }
+            present.set(id);
+        }
+        if (size == fileIds.length) {
+            fileIds = Arrays.copyOf(fileIds, size * 2);
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            deltas = Arrays.copyOf(deltas, size * 2);
+        }
+        long timestamp = size > 0 ? Math.max(file.getLastChangeDate(), timestamps[size - 1]) : file.getLastChangeDate();
+        fileIds[size] = id;
+        timestamps[size] = timestamp;
+        deltas[size] = delta;
+        size++;
+        changes[id]++;
+        churned[id] += Math.abs(delta);
+    }
+
+    /**
+     * Retrieves the number of edits recorded.
+     *
+     * @return The number of edits.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Ranks the files in the file system by the number of edits recorded, the most edited first. Files edited as
+     * often are ranked by the bytes they churned.
+     *
+     * @param limit The most files to return.
+     * @return The files and their edits.
+     * @throws IllegalArgumentException If the limit is negative.
+     */
+    public synchronized List<FileChanges> getMostChanged(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("The limit cannot be negative.");
+        }
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(limit, 1), this::compareById);
+        for (int id = present.nextSetBit(0); id >= 0 && limit > 0; id = present.nextSetBit(id + 1)) {
+            if (top.size() < limit) {
+                top.add(id);
+            } else if (compareById(id, top.peek()) > 0) {
+                top.poll();
+                top.add(id);
+            }
+        }
+        FileChanges[] ranked = new FileChanges[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int id = top.poll();
+            ranked[i] = new FileChanges(files.get(id), changes[id], churned[id]);
+        }
+        return Arrays.asList(ranked);
+    }
+
+    /**
+     * Counts the edits made on each day of a period, in UTC.
+     *
+     * @param from The start of the period, in epoch seconds, included.
+     * @param to   The end of the period, in epoch seconds, excluded.
+     * @return The number of edits of each day that has any, in date order.
+     * @throws IllegalArgumentException If the period ends before it starts.
+     */
+    public synchronized Map<LocalDate, Integer> getChangesPerDay(long from, long to) {
+        checkPeriod(from, to);
+        Map<LocalDate, Integer> perDay = new LinkedHashMap<>();
+        int end = firstRowAtOrAfter(to);
+        int row = firstRowAtOrAfter(from);
+        while (row < end) {
+            long day = Math.floorDiv(timestamps[row], SECONDS_PER_DAY);
+            int count = 0;
+            while (row < end && Math.floorDiv(timestamps[row], SECONDS_PER_DAY) == day) {
+                count++;
+                row++;
+            }
+            perDay.put(LocalDate.ofEpochDay(day), count);
+        }
+        return perDay;
+    }
+
+    /**
+     * Sums the bytes added and removed by the edits of a period.
+     *
+     * @param from The start of the period, in epoch seconds, included.
+     * @param to   The end of the period, in epoch seconds, excluded.
+     * @return The bytes churned.
+     * @throws IllegalArgumentException If the period ends before it starts.
+     */
+    public synchronized long getBytesChurned(long from, long to) {
+        checkPeriod(from, to);
+        long bytes = 0;
+        for (int row = firstRowAtOrAfter(from), end = firstRowAtOrAfter(to); row < end; row++) {
+            bytes += Math.abs(deltas[row]);
+        }
+        return bytes;
+    }
+
+    /**
+     * Puts the edited files of an inserted document back into the ranking, when an undo put it back.
+     *
+     * @param parent   The folder holding the document.
+     * @param position The position of the inserted document.
+     */
+    @Override
+    public synchronized void documentInserted(Position<Document> parent, Position<Document> position) {
+        mark(position, true);
+    }
+
+    /**
+     * Takes the edited files of a removed document out of the ranking.
+     *
+     * @param parent   The folder that held the document.
+     * @param position The position of the removed document.
+     */
+    @Override
+    public synchronized void documentRemoved(Position<Document> parent, Position<Document> position) {
+        mark(position, false);
+    }
+
+    /**
+     * Ranks only the edited files still in the new tree.
+     */
+    @Override
+    public synchronized void treeReplaced() {
+        present.clear();
+        if (!ids.isEmpty() && !pfs.getPfs().isEmpty()) {
+            mark(pfs.getPfs().root(), true);
+        }
+    }
+
+    /**
+     * Marks the edited files of a subtree as in the file system or not.
+     *
+     * @param position The root of the subtree.
+     * @param value    True if the files are in the file system.
+     */
+    private void mark(Position<Document> position, boolean value) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        TreeLinked<Document> tree = pfs.getPfs();
+        Deque<Position<Document>> pending = new ArrayDeque<>();
+        pending.push(position);
+        while (!pending.isEmpty()) {
+            Position<Document> next = pending.pop();
+            if (next.element() instanceof MyFile file) {
+                Integer id = ids.get(file);
+                if (id != null) {
+                    present.set(id, value);
+                }
+            }
+            tree.children(next).forEach(pending::push);
+        }
+    }
+
+    /**
+     * Compares two edited files by their number of edits, then by the bytes they churned.
+     *
+     * @param first  The id of the first file.
+     * @param second The id of the second file.
+     * @return A negative number, zero or a positive number as the first file was edited less, as much or more.
+     */
+    private int compareById(int first, int second) {
+        int byChanges = Integer.compare(changes[first], changes[second]);
+        return byChanges != 0 ? byChanges : Long.compare(churned[first], churned[second]);
+    }
+
+    /**
+     * Finds the first row recorded at or after a date.
+     *
+     * @param date The date, in epoch seconds.
+     * @return The index of the row, or the number of rows if every row is earlier.
+     */
+    private int firstRowAtOrAfter(long date) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] < date) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks that a period does not end before it starts.
+     *
+     * @param from The start of the period.
+     * @param to   The end of the period.
+     * @throws IllegalArgumentException If the period ends before it starts.
+     */
+    private static void checkPeriod(long from, long to) {
+        if (to < from) {
+            throw new IllegalArgumentException("The period cannot end before it starts.");
+        }
+    }
+}
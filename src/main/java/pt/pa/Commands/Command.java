@@ -1,9 +1,43 @@
 package pt.pa.Commands;
 
+import pt.pa.Document;
+import pt.pa.adts.Position;
+
 import java.io.IOException;
+import java.util.List;
 
 public interface Command {
      void execute() throws IOException;
 
      void unexecute() throws IOException;
+
+     /**
+      * Estimates the memory retained by this command while it is kept in the undo history.
+      *
+      * @return The estimated retained size in bytes.
+      */
+     default long estimatedSize() {
+          return 64;
+     }
+
+     /**
+      * Tries to absorb a command that was executed right after this one, so that both are undone and
+      * redone as a single step. The next command has already been executed when this is called.
+      *
+      * @param next The command executed right after this one.
+      * @return True if this command now also covers the next one, false otherwise.
+      */
+     default boolean mergeWith(Command next) {
+          return false;
+     }
+
+     /**
+      * Retrieves the documents this command operates on, as recorded by the operation log.
+      * Positions that do not exist yet (for example, before the command is executed) may be null.
+      *
+      * @return The target positions, empty by default.
+      */
+     default List<Position<Document>> getTargets() {
+          return List.of();
+     }
 }
@@ -3,20 +3,109 @@ package pt.pa.Commands;
 import pt.pa.Log.ProcedureLogger;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Collections;
 import java.util.EmptyStackException;
-import java.util.Stack;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * The CommandManager class manages the execution, undo, and redo of commands in the system.
  * It maintains stacks of executed commands and undone commands, allowing for navigation and
  * modification of the command history.
+ * <p>
+ * The history is bounded both by number of commands and by the estimated memory the commands retain
+ * (see {@link Command#estimatedSize()}). When a limit is exceeded the oldest executed commands are
+ * evicted first and can no longer be undone; if that is not enough, the redo entries furthest from
+ * the current state are evicted next.
+ * </p>
+ * <p>
+ * A command executed within the coalescing window of the previous one is offered to it through
+ * {@link Command#mergeWith(Command)}, so that, for example, a burst of edits to the same file becomes a
+ * single undo entry. Merged commands are not logged separately. Undo and redo close the current burst.
+ * </p>
+ * <p>
+ * After {@link #startWriter()}, commands run on a single dedicated writer thread, which becomes the only
+ * thread that mutates the file system. {@link #submit(Command)}, {@link #submitUndo()},
+ * {@link #submitRedo()} and {@link #submitTask(Callable)} queue work and return immediately with a
+ * {@link CompletableFuture}, so long operations do not block the caller (typically the JavaFX application
+ * thread). The synchronous methods keep working in this mode: called from another thread, they hand the
+ * work to the writer and wait for it. Transactions must be run on the writer, for example inside
+ * {@link #submitTask(Callable)}; {@link #submitAll(List)} does this for a list of commands known up front.
+ * </p>
+ * <p>
+ * Every execute, undo and redo is timed and counted per command class in a {@link CommandMetrics}, readable
+ * at any time through {@link #getMetrics()} and optionally dumped periodically with
+ * {@link #startMetricsDump(long, Consumer)}.
+ * </p>
  */
 public class CommandManager {
 
-    private final Stack<Command> commandLog = new Stack<>();
-    private final Stack<Command> undoneCommands = new Stack<>();
+    /**
+     * Default maximum number of commands kept in the history.
+     */
+    public static final int DEFAULT_MAX_COMMANDS = 1000;
+    /**
+     * Default maximum estimated memory retained by the history, in bytes.
+     */
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+    /**
+     * Default time window, in milliseconds, within which consecutive commands may be merged.
+     */
+    public static final long DEFAULT_COALESCE_WINDOW_MILLIS = 1000;
+
+    private final Deque<Command> commandLog = new ArrayDeque<>();
+    private final Deque<Command> undoneCommands = new ArrayDeque<>();
     private ProcedureLogger procedureLogger = new ProcedureLogger();
 
+    private int maxCommands;
+    private long maxRetainedBytes;
+    private long retainedBytes;
+    private long peakRetainedBytes;
+    private long evictedCommands;
+    private long evictedBytes;
+    private long coalesceWindowMillis = DEFAULT_COALESCE_WINDOW_MILLIS;
+    private long lastExecuteMillis;
+    private boolean coalescing;
+    private long coalescedCommands;
+    private volatile ExecutorService writer;
+    private volatile Thread writerThread;
+    private final Map<Class<?>, CommandMetrics> metrics = new ConcurrentHashMap<>();
+    private ScheduledExecutorService metricsDump;
+
+    /**
+     * Constructs a CommandManager with the default history limits.
+     */
+    public CommandManager() {
+        this(DEFAULT_MAX_COMMANDS, DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    /**
+     * Constructs a CommandManager with the given history limits.
+     *
+     * @param maxCommands      The maximum number of commands kept in the history.
+     * @param maxRetainedBytes The maximum estimated memory retained by the history, in bytes.
+     * @throws IllegalArgumentException If a limit is not positive.
+     */
+    public CommandManager(int maxCommands, long maxRetainedBytes) {
+        setMaxCommands(maxCommands);
+        setMaxRetainedBytes(maxRetainedBytes);
+    }
+
     /**
      * Executes a command and adds it to the command log.
      *
@@ -24,12 +113,118 @@ public class CommandManager {
      * @throws IOException If an I/O error occurs during command execution.
      */
     public void executeCommand(Command command) throws IOException {
-        command.execute();
-        commandLog.push(command);
-        undoneCommands.clear();
+        if (mustHandOff()) {
+            await(submit(command));
+            return;
+        }
+        CommandMetrics commandMetrics = metricsFor(command);
+        long started = System.nanoTime();
+        try {
+            command.execute();
+        } catch (IOException | RuntimeException e) {
+            commandMetrics.recordFailure();
+            throw e;
+        }
+        long duration = System.nanoTime() - started;
+        commandMetrics.getExecuteLatency().record(duration);
+        clearUndoneCommands();
+
+        long now = System.currentTimeMillis();
+        boolean withinWindow = coalescing && coalesceWindowMillis > 0 && now - lastExecuteMillis <= coalesceWindowMillis;
+        lastExecuteMillis = now;
+        coalescing = true;
+        if (withinWindow && merge(command)) {
+            return;
+        }
+        push(commandLog, command);
+        procedureLogger.infoLog("Execute:", command, duration);
+    }
+
+    /**
+     * Starts a transaction whose commands are recorded as a single history entry when committed.
+     *
+     * @return The new transaction.
+     * @see Transaction
+     */
+    public Transaction beginTransaction() {
+        return new Transaction(this);
+    }
+
+    /**
+     * Executes commands in order as one transaction, recording them as a single history entry with a single log
+     * record. If a command fails, the ones already executed are rolled back and the failure is rethrown.
+     *
+     * @param commands The commands to be executed.
+     * @return The composite command recorded, which is empty if no command was given.
+     * @throws IOException If an I/O error occurs during the execution of a command.
+     */
+    public CompositeCommand executeAll(List<? extends Command> commands) throws IOException {
+        if (mustHandOff()) {
+            return awaitResult(submitAll(commands));
+        }
+        try (Transaction transaction = beginTransaction()) {
+            for (Command command : commands) {
+                transaction.execute(command);
+            }
+            return transaction.commit();
+        }
+    }
+
+    /**
+     * Queues commands to be executed on the writer thread as one transaction, as {@link #executeAll(List)} would.
+     * Without a writer thread, the commands are executed immediately on the calling thread.
+     *
+     * @param commands The commands to be executed.
+     * @return A future holding the composite command recorded, or completed exceptionally if a command failed.
+     */
+    public CompletableFuture<CompositeCommand> submitAll(List<? extends Command> commands) {
+        return submitTask(() -> executeAll(commands));
+    }
+
+    /**
+     * Adds a command that has already been executed to the command log, without merging it.
+     *
+     * @param command The executed command.
+     */
+    void record(Command command) {
+        clearUndoneCommands();
+        coalescing = false;
+        push(commandLog, command);
         procedureLogger.infoLog("Execute:", command);
     }
 
+    /**
+     * Discards the undone commands, which can no longer be redone once a new command is executed.
+     */
+    private void clearUndoneCommands() {
+        for (Command undone : undoneCommands) {
+            retainedBytes -= undone.estimatedSize();
+        }
+        undoneCommands.clear();
+    }
+
+    /**
+     * Offers an executed command to the last command of the log to be merged into it.
+     *
+     * @param command The command that was just executed.
+     * @return True if the command was merged, false otherwise.
+     */
+    private boolean merge(Command command) {
+        Command last = commandLog.peek();
+        if (last == null) {
+            return false;
+        }
+        long sizeBefore = last.estimatedSize();
+        if (!last.mergeWith(command)) {
+            return false;
+        }
+        retainedBytes += last.estimatedSize() - sizeBefore;
+        peakRetainedBytes = Math.max(peakRetainedBytes, retainedBytes);
+        coalescedCommands++;
+        evictIfNeeded();
+        return true;
+    }
+
     /**
      * Undoes the last executed command.
      *
@@ -37,11 +232,26 @@ public class CommandManager {
      * @throws EmptyStackException If attempting to undo when the command log is empty.
      */
     public void undoCommand() throws IOException, EmptyStackException {
+        if (mustHandOff()) {
+            await(submitUndo());
+            return;
+        }
         if (!commandLog.isEmpty()) {
             Command command = commandLog.pop();
-            command.unexecute();
-            undoneCommands.push(command);
-            procedureLogger.infoLog("Unexecute:", command);
+            retainedBytes -= command.estimatedSize();
+            coalescing = false;
+            CommandMetrics commandMetrics = metricsFor(command);
+            long started = System.nanoTime();
+            try {
+                command.unexecute();
+            } catch (IOException | RuntimeException e) {
+                commandMetrics.recordFailure();
+                throw e;
+            }
+            long duration = System.nanoTime() - started;
+            commandMetrics.getUndoLatency().record(duration);
+            push(undoneCommands, command);
+            procedureLogger.infoLog("Unexecute:", command, duration);
         } else {
             throw new EmptyStackException();
         }
@@ -54,21 +264,454 @@ public class CommandManager {
      * @throws EmptyStackException If attempting to redo when the undone command stack is empty.
      */
     public void redoCommand() throws IOException, EmptyStackException {
+        if (mustHandOff()) {
+            await(submitRedo());
+            return;
+        }
         if (!undoneCommands.isEmpty()) {
             Command command = undoneCommands.pop();
-            command.execute();
-            commandLog.push(command);
-            procedureLogger.infoLog("Redo:", command);
+            retainedBytes -= command.estimatedSize();
+            coalescing = false;
+            CommandMetrics commandMetrics = metricsFor(command);
+            long started = System.nanoTime();
+            try {
+                command.execute();
+            } catch (IOException | RuntimeException e) {
+                commandMetrics.recordFailure();
+                throw e;
+            }
+            long duration = System.nanoTime() - started;
+            commandMetrics.getRedoLatency().record(duration);
+            push(commandLog, command);
+            procedureLogger.infoLog("Redo:", command, duration);
         } else {
             throw new EmptyStackException();
         }
     }
 
-    public Stack<Command> getCommandLog() {
+    /**
+     * Starts the writer thread. From then on every command is executed on that thread.
+     * Calling this method when the writer is already running has no effect.
+     */
+    public synchronized void startWriter() {
+        if (writer == null) {
+            writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "pfs-command-writer");
+                thread.setDaemon(true);
+                writerThread = thread;
+                return thread;
+            }) {
+                @Override
+                protected void terminated() {
+                    writerStopped(this);
+                }
+            };
+        }
+    }
+
+    /**
+     * Stops the writer thread once the work already submitted is done, returning to synchronous execution.
+     * Called from another thread, this method waits for that work; called from the writer thread, it returns at
+     * once and the writer stops after the work queued behind the current task. Until the writer has stopped,
+     * work is still handed to it, or waits for it to stop if it no longer accepts work, so the file system is
+     * never changed by two threads at once.
+     */
+    public void stopWriter() {
+        ExecutorService stopping = writer;
+        if (stopping == null) {
+            return;
+        }
+        stopping.shutdown();
+        if (Thread.currentThread() != writerThread) {
+            awaitStopped(stopping);
+        }
+    }
+
+    /**
+     * Returns to synchronous execution once a writer has run all its work and its thread has ended.
+     *
+     * @param stopped The writer that stopped.
+     */
+    private synchronized void writerStopped(ExecutorService stopped) {
+        if (writer == stopped) {
+            writer = null;
+            writerThread = null;
+        }
+    }
+
+    /**
+     * Waits until a stopping writer has run all its work.
+     *
+     * @param stopping The writer.
+     * @throws IllegalStateException If the calling thread is interrupted while waiting.
+     */
+    private static void awaitStopped(ExecutorService stopping) {
+        try {
+            while (!stopping.awaitTermination(1, TimeUnit.SECONDS)) {
+                Thread.onSpinWait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the command writer to stop.", e);
+        }
+    }
+
+    /**
+     * Checks if commands are executed on the writer thread.
+     *
+     * @return True if the writer thread is running, false otherwise.
+     */
+    public boolean isWriterRunning() {
+        return writer != null;
+    }
+
+    /**
+     * Queues a command to be executed on the writer thread, as {@link #executeCommand(Command)} would.
+     * Without a writer thread, the command is executed immediately on the calling thread.
+     *
+     * @param command The command to be executed.
+     * @return A future completed when the command has been executed, or completed exceptionally if it failed.
+     */
+    public CompletableFuture<Void> submit(Command command) {
+        return submitTask(() -> {
+            executeCommand(command);
+            return null;
+        });
+    }
+
+    /**
+     * Queues an undo of the last executed command on the writer thread.
+     *
+     * @return A future completed when the command has been undone.
+     */
+    public CompletableFuture<Void> submitUndo() {
+        return submitTask(() -> {
+            undoCommand();
+            return null;
+        });
+    }
+
+    /**
+     * Queues a redo of the last undone command on the writer thread.
+     *
+     * @return A future completed when the command has been redone.
+     */
+    public CompletableFuture<Void> submitRedo() {
+        return submitTask(() -> {
+            redoCommand();
+            return null;
+        });
+    }
+
+    /**
+     * Queues any work that reads or mutates the file system, such as a backup or a transaction, so that it runs
+     * in order with the commands on the writer thread.
+     * Without a writer thread, the task runs immediately on the calling thread.
+     *
+     * @param task The work to run.
+     * @param <T>  The type of the result of the task.
+     * @return A future holding the result of the task, or completed exceptionally if it failed.
+     */
+    public <T> CompletableFuture<T> submitTask(Callable<T> task) {
+        ExecutorService executor = writer;
+        if (executor == null || Thread.currentThread() == writerThread) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            awaitStopped(executor);
+            return submitTask(task);
+        }
+        return future;
+    }
+
+    /**
+     * Checks if a synchronous call has to be handed to the writer thread.
+     *
+     * @return True if the writer is running and the caller is another thread.
+     */
+    private boolean mustHandOff() {
+        return writer != null && Thread.currentThread() != writerThread;
+    }
+
+    /**
+     * Waits for work handed to the writer thread and rethrows its failure as the synchronous call would.
+     *
+     * @param future The future of the work.
+     * @throws IOException If the work failed with an I/O error or the wait was interrupted.
+     */
+    private static void await(CompletableFuture<?> future) throws IOException {
+        awaitResult(future);
+    }
+
+    /**
+     * Waits for work handed to the writer thread and returns its result, rethrowing its failure as the synchronous
+     * call would.
+     *
+     * @param future The future of the work.
+     * @param <T>    The type of the result of the work.
+     * @return The result of the work.
+     * @throws IOException If the work failed with an I/O error or the wait was interrupted.
+     */
+    private static <T> T awaitResult(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the command writer.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Pushes a command onto one of the history stacks and evicts old entries if a limit is exceeded.
+     *
+     * @param stack   The stack receiving the command.
+     * @param command The command to push.
+     */
+    private void push(Deque<Command> stack, Command command) {
+        stack.push(command);
+        retainedBytes += command.estimatedSize();
+        peakRetainedBytes = Math.max(peakRetainedBytes, retainedBytes);
+        evictIfNeeded();
+    }
+
+    /**
+     * Evicts the oldest history entries until the history fits the configured limits.
+     * The most recent command is always kept so it can still be undone or redone.
+     */
+    private void evictIfNeeded() {
+        while (getHistorySize() > 1 && (getHistorySize() > maxCommands || retainedBytes > maxRetainedBytes)) {
+            Command evicted = commandLog.size() > 1 || undoneCommands.isEmpty()
+                    ? commandLog.removeLast()
+                    : undoneCommands.removeLast();
+            retainedBytes -= evicted.estimatedSize();
+            evictedCommands++;
+            evictedBytes += evicted.estimatedSize();
+        }
+    }
+
+    /**
+     * Retrieves the metrics of a command's class, creating them the first time the class is seen.
+     *
+     * @param command The command.
+     * @return The metrics of its class.
+     */
+    private CommandMetrics metricsFor(Command command) {
+        CommandMetrics existing = metrics.get(command.getClass());
+        if (existing != null) {
+            return existing;
+        }
+        return metrics.computeIfAbsent(command.getClass(), type ->
+                new CommandMetrics(type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName()));
+    }
+
+    /**
+     * Retrieves the metrics of every command class executed so far.
+     * The metrics keep being updated after they are returned.
+     *
+     * @return An unmodifiable map of the metrics, keyed and sorted by command type.
+     */
+    public Map<String, CommandMetrics> getMetrics() {
+        Map<String, CommandMetrics> byType = new TreeMap<>();
+        for (CommandMetrics commandMetrics : metrics.values()) {
+            byType.put(commandMetrics.getCommandType(), commandMetrics);
+        }
+        return Collections.unmodifiableMap(byType);
+    }
+
+    /**
+     * Formats the metrics of every command class, one line per class.
+     *
+     * @return The formatted metrics.
+     */
+    public String formatMetrics() {
+        StringBuilder text = new StringBuilder();
+        for (CommandMetrics commandMetrics : getMetrics().values()) {
+            text.append(commandMetrics).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Starts dumping the formatted metrics periodically, replacing any dump already running.
+     *
+     * @param periodMillis The time between dumps, in milliseconds.
+     * @param output       Receives each dump, on a background thread.
+     * @throws IllegalArgumentException If the period is not positive.
+     */
+    public synchronized void startMetricsDump(long periodMillis, Consumer<String> output) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("The dump period must be positive.");
+        }
+        stopMetricsDump();
+        metricsDump = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pfs-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metricsDump.scheduleAtFixedRate(() -> output.accept(formatMetrics()), periodMillis, periodMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic metrics dump. Calling this method when no dump is running has no effect.
+     */
+    public synchronized void stopMetricsDump() {
+        if (metricsDump != null) {
+            metricsDump.shutdownNow();
+            metricsDump = null;
+        }
+    }
+
+    public Deque<Command> getCommandLog() {
         return commandLog;
     }
 
-    public Stack<Command> getUndoneCommands() {
+    public Deque<Command> getUndoneCommands() {
         return undoneCommands;
     }
+
+    /**
+     * Retrieves the number of commands currently kept in the history, undone commands included.
+     *
+     * @return The number of commands in the history.
+     */
+    public int getHistorySize() {
+        return commandLog.size() + undoneCommands.size();
+    }
+
+    /**
+     * Retrieves the estimated memory currently retained by the history.
+     *
+     * @return The retained size in bytes.
+     */
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    /**
+     * Retrieves the highest estimated memory ever retained by the history.
+     *
+     * @return The peak retained size in bytes.
+     */
+    public long getPeakRetainedBytes() {
+        return peakRetainedBytes;
+    }
+
+    /**
+     * Retrieves the number of commands evicted from the history so far.
+     *
+     * @return The number of evicted commands.
+     */
+    public long getEvictedCommands() {
+        return evictedCommands;
+    }
+
+    /**
+     * Retrieves the estimated memory released by evicting commands from the history.
+     *
+     * @return The evicted size in bytes.
+     */
+    public long getEvictedBytes() {
+        return evictedBytes;
+    }
+
+    /**
+     * Retrieves the number of commands merged into a previous command instead of being added to the history.
+     *
+     * @return The number of coalesced commands.
+     */
+    public long getCoalescedCommands() {
+        return coalescedCommands;
+    }
+
+    /**
+     * Retrieves the time window within which consecutive commands may be merged.
+     *
+     * @return The coalescing window in milliseconds.
+     */
+    public long getCoalesceWindowMillis() {
+        return coalesceWindowMillis;
+    }
+
+    /**
+     * Sets the time window within which consecutive commands may be merged.
+     *
+     * @param coalesceWindowMillis The coalescing window in milliseconds, or 0 to disable coalescing.
+     * @throws IllegalArgumentException If the window is negative.
+     */
+    public void setCoalesceWindowMillis(long coalesceWindowMillis) {
+        if (coalesceWindowMillis < 0) {
+            throw new IllegalArgumentException("The coalescing window cannot be negative.");
+        }
+        this.coalesceWindowMillis = coalesceWindowMillis;
+    }
+
+    /**
+     * Retrieves the maximum number of commands kept in the history.
+     *
+     * @return The command limit.
+     */
+    public int getMaxCommands() {
+        return maxCommands;
+    }
+
+    /**
+     * Sets the maximum number of commands kept in the history, evicting old entries if needed.
+     *
+     * @param maxCommands The command limit.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    public void setMaxCommands(int maxCommands) {
+        if (maxCommands <= 0) {
+            throw new IllegalArgumentException("The command limit must be positive.");
+        }
+        this.maxCommands = maxCommands;
+        evictIfNeeded();
+    }
+
+    /**
+     * Retrieves the maximum estimated memory retained by the history.
+     *
+     * @return The memory limit in bytes.
+     */
+    public long getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    /**
+     * Sets the maximum estimated memory retained by the history, evicting old entries if needed.
+     *
+     * @param maxRetainedBytes The memory limit in bytes.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    public void setMaxRetainedBytes(long maxRetainedBytes) {
+        if (maxRetainedBytes <= 0) {
+            throw new IllegalArgumentException("The memory limit must be positive.");
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+        evictIfNeeded();
+    }
 }
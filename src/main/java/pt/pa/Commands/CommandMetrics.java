@@ -0,0 +1,120 @@
+package pt.pa.Commands;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The CommandMetrics class holds the counters and latency histograms of one command class in a
+ * {@link CommandManager}: how many times its commands were executed, undone and redone, how long each of
+ * those took and how many of them failed.
+ *
+ * @see CommandManager#getMetrics()
+ */
+public class CommandMetrics {
+    private final String commandType;
+    private final LatencyHistogram executeLatency = new LatencyHistogram();
+    private final LatencyHistogram undoLatency = new LatencyHistogram();
+    private final LatencyHistogram redoLatency = new LatencyHistogram();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Constructs empty metrics for a command class.
+     *
+     * @param commandType The simple class name of the commands.
+     */
+    CommandMetrics(String commandType) {
+        this.commandType = commandType;
+    }
+
+    /**
+     * Retrieves the command class these metrics describe.
+     *
+     * @return The simple class name of the commands.
+     */
+    public String getCommandType() {
+        return commandType;
+    }
+
+    /**
+     * Retrieves the latencies of successful executions, merged executions included.
+     *
+     * @return The execute latency histogram.
+     */
+    public LatencyHistogram getExecuteLatency() {
+        return executeLatency;
+    }
+
+    /**
+     * Retrieves the latencies of successful undos.
+     *
+     * @return The undo latency histogram.
+     */
+    public LatencyHistogram getUndoLatency() {
+        return undoLatency;
+    }
+
+    /**
+     * Retrieves the latencies of successful redos.
+     *
+     * @return The redo latency histogram.
+     */
+    public LatencyHistogram getRedoLatency() {
+        return redoLatency;
+    }
+
+    /**
+     * Retrieves the number of successful executions.
+     *
+     * @return The execute count.
+     */
+    public long getExecutes() {
+        return executeLatency.getCount();
+    }
+
+    /**
+     * Retrieves the number of successful undos.
+     *
+     * @return The undo count.
+     */
+    public long getUndos() {
+        return undoLatency.getCount();
+    }
+
+    /**
+     * Retrieves the number of successful redos.
+     *
+     * @return The redo count.
+     */
+    public long getRedos() {
+        return redoLatency.getCount();
+    }
+
+    /**
+     * Retrieves the number of executions, undos and redos that threw an exception.
+     *
+     * @return The failure count.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Counts a failed execution, undo or redo.
+     */
+    void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    /**
+     * Returns a string representation of this CommandMetrics.
+     * The string contains the command type, the counts and the execute latency percentiles in microseconds.
+     *
+     * @return A string representation of this CommandMetrics.
+     */
+    @Override
+    public String toString() {
+        return String.format("%-20s executes=%d undos=%d redos=%d failures=%d execute(us) p50=%.1f p99=%.1f max=%.1f",
+                commandType, getExecutes(), getUndos(), getRedos(), getFailures(),
+                executeLatency.getValueAtPercentile(50) / 1e3, executeLatency.getValueAtPercentile(99) / 1e3,
+                executeLatency.getMax() / 1e3);
+    }
+}
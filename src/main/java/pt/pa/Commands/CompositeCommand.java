@@ -0,0 +1,173 @@
+package pt.pa.Commands;
+
+import pt.pa.Document;
+import pt.pa.adts.Position;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The CompositeCommand class groups several commands into a single unit of work.
+ * It implements the Command interface, so the whole group is executed, logged, undone and redone as one
+ * entry of the command history.
+ * <p>
+ * Execution is atomic: if one of the commands fails, the commands already executed are unexecuted in
+ * reverse order before the failure is rethrown, leaving the file system as it was. Undo works the same
+ * way in the opposite direction.
+ * </p>
+ *
+ * @see Command
+ * @see CommandManager#beginTransaction()
+ */
+public class CompositeCommand implements Command {
+    private final List<Command> commands;
+
+    /**
+     * Constructs an empty CompositeCommand.
+     */
+    public CompositeCommand() {
+        this.commands = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a CompositeCommand with the given commands, executed in list order.
+     *
+     * @param commands The commands to group.
+     */
+    public CompositeCommand(List<? extends Command> commands) {
+        this.commands = new ArrayList<>(commands);
+    }
+
+    /**
+     * Adds a command to the end of the group.
+     *
+     * @param command The command to add.
+     * @return This composite, to allow chaining.
+     */
+    public CompositeCommand add(Command command) {
+        commands.add(command);
+        return this;
+    }
+
+    /**
+     * Retrieves the commands of the group.
+     *
+     * @return An unmodifiable view of the commands, in execution order.
+     */
+    public List<Command> getCommands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    /**
+     * Executes every command in order, rolling back the ones already executed if one fails.
+     *
+     * @throws IOException If an I/O error occurs during the execution of a command.
+     */
+    @Override
+    public void execute() throws IOException {
+        for (int i = 0; i < commands.size(); i++) {
+            try {
+                commands.get(i).execute();
+            } catch (IOException | RuntimeException e) {
+                rollBackExecuted(i, e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Unexecutes every command in reverse order, re-executing the ones already unexecuted if one fails.
+     *
+     * @throws IOException If an I/O error occurs during the unexecution of a command.
+     */
+    @Override
+    public void unexecute() throws IOException {
+        for (int i = commands.size() - 1; i >= 0; i--) {
+            try {
+                commands.get(i).unexecute();
+            } catch (IOException | RuntimeException e) {
+                rollBackUnexecuted(i, e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Unexecutes the first {@code count} commands in reverse order after a failed execution.
+     *
+     * @param count   The number of commands that were executed.
+     * @param failure The failure, which collects any error raised while rolling back.
+     */
+    void rollBackExecuted(int count, Exception failure) {
+        for (int i = count - 1; i >= 0; i--) {
+            try {
+                commands.get(i).unexecute();
+            } catch (IOException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Re-executes the commands after {@code index} in order after a failed unexecution.
+     *
+     * @param index   The index of the command whose unexecution failed.
+     * @param failure The failure, which collects any error raised while rolling back.
+     */
+    private void rollBackUnexecuted(int index, Exception failure) {
+        for (int i = index + 1; i < commands.size(); i++) {
+            try {
+                commands.get(i).execute();
+            } catch (IOException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Estimates the memory retained by this command as the sum of the grouped commands.
+     *
+     * @return The estimated retained size in bytes.
+     */
+    @Override
+    public long estimatedSize() {
+        long size = 64;
+        for (Command command : commands) {
+            size += command.estimatedSize();
+        }
+        return size;
+    }
+
+    /**
+     * Retrieves the documents the grouped commands operate on, in execution order.
+     *
+     * @return The target positions of every grouped command.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        List<Position<Document>> targets = new ArrayList<>();
+        for (Command command : commands) {
+            targets.addAll(command.getTargets());
+        }
+        return targets;
+    }
+
+    /**
+     * Returns a string representation of this CompositeCommand.
+     * The string contains the class name, the number of grouped commands and how many there are of each type.
+     *
+     * @return A string representation of this CompositeCommand.
+     */
+    @Override
+    public String toString() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Command command : commands) {
+            counts.merge(command.getClass().getSimpleName(), 1, Integer::sum);
+        }
+        return this.getClass().getSimpleName() + " - " + commands.size() + " commands " + counts;
+    }
+}
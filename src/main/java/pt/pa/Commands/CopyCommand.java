@@ -5,6 +5,8 @@ import pt.pa.PFS;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The CopyCommand class represents a command to copy a document within a PFS (Persistent File System).
@@ -62,6 +64,16 @@ public class CopyCommand implements Command {
         pfs.getClipboard().setContent(copiedDocument);
     }
 
+    /**
+     * Retrieves the documents this command operates on: the copied document.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Collections.singletonList(source);
+    }
+
     /**
      * Returns a string representation of this CopyCommand.
      * The string contains the class name, the name of the copied document, and the action performed.
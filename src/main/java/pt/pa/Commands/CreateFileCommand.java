@@ -5,6 +5,8 @@ import pt.pa.PFS;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * The CreateFileCommand class represents a command to create a new document (file) in the file system.
@@ -62,6 +64,16 @@ public class CreateFileCommand implements Command {
         return newPosition;
     }
 
+    /**
+     * Retrieves the documents this command operates on: the created file and its parent folder.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Arrays.asList(newPosition, parent);
+    }
+
     /**
      * Returns a string representation of this CreateFileCommand.
      * The string contains the class name, the type of document created, its name, and the parent's name.
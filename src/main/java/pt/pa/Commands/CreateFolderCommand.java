@@ -5,6 +5,8 @@ import pt.pa.PFS;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * The CreateFolderCommand class represents a command to create a new folder in the file system.
@@ -66,6 +68,16 @@ public class CreateFolderCommand implements Command {
         return newPosition;
     }
 
+    /**
+     * Retrieves the documents this command operates on: the created folder and its parent folder.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Arrays.asList(newPosition, parent);
+    }
+
     /**
      * Returns a string representation of this CreateFolderCommand.
      * The string contains the class name, the type of document created (folder), its name, and the parent's name.
@@ -6,13 +6,17 @@ import pt.pa.PFS;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The EditCommand class represents a command to edit the content of a document in a file system.
  * It implements the Command interface and allows executing and undoing the edit operation.
  * <p>This command is specifically designed for editing documents, where the document can be either a
- * file or a folder in a file system. The command saves the old content before execution, allowing
- * the undo operation to revert the content to its previous state.</p>
+ * file or a folder in a file system. Instead of keeping the old and new content, the command keeps only
+ * the region that changed: the length of the common prefix and suffix of both versions, plus the old and
+ * new text in between. Undoing or redoing a one-character change in a large file therefore retains a few
+ * bytes instead of two copies of the file.</p>
  *
  * @author [Author's Name]
  * @version 1.0
@@ -24,10 +28,14 @@ import java.io.IOException;
 public class EditCommand implements Command {
     private final PFS pfs;
     private Position<Document> document;
-    private String content, oldContent;
+    private int prefixLength, suffixLength;
+    private String oldMiddle, newMiddle;
+    private String pendingContent;
 
     /**
      * Constructs an EditCommand with the specified parameters.
+     * The changed region is worked out when the command is first executed, against the content the document
+     * has at that moment, so the command can be built before earlier queued commands have run.
      *
      * @param pfs        The file system (PFS) where the edit operation will be performed.
      * @param document   The position of the document to be edited.
@@ -36,14 +44,9 @@ public class EditCommand implements Command {
     public EditCommand(PFS pfs, Position<Document> document, String newContent) {
         this.pfs = pfs;
         this.document = document;
-        this.content = newContent;
-
-        // Save the old content before execution
-        if (document.element() instanceof MyFile myFile) {
-            this.oldContent = myFile.getContent();
-        } else {
-            this.oldContent = "";
-        }
+        this.pendingContent = newContent;
+        this.oldMiddle = "";
+        this.newMiddle = newContent;
     }
 
     /**
@@ -53,7 +56,37 @@ public class EditCommand implements Command {
      */
     @Override
     public void execute() throws IOException {
-        pfs.edit(document, content);
+        if (pendingContent != null) {
+            String newContent = pendingContent;
+            computeChangedRegion(newContent);
+            pfs.edit(document, newContent);
+            pendingContent = null;
+        } else {
+            apply(oldMiddle, newMiddle);
+        }
+    }
+
+    /**
+     * Saves only the region of the current content that the new content changes.
+     *
+     * @param newContent The new content for the document.
+     */
+    private void computeChangedRegion(String newContent) {
+        String oldContent = document.element() instanceof MyFile myFile ? myFile.getContent() : "";
+        int maxAffix = Math.min(oldContent.length(), newContent.length());
+        int prefix = 0;
+        while (prefix < maxAffix && oldContent.charAt(prefix) == newContent.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < maxAffix - prefix
+                && oldContent.charAt(oldContent.length() - 1 - suffix) == newContent.charAt(newContent.length() - 1 - suffix)) {
+            suffix++;
+        }
+        this.prefixLength = prefix;
+        this.suffixLength = suffix;
+        this.oldMiddle = oldContent.substring(prefix, oldContent.length() - suffix);
+        this.newMiddle = newContent.substring(prefix, newContent.length() - suffix);
     }
 
     /**
@@ -63,17 +96,111 @@ public class EditCommand implements Command {
      */
     @Override
     public void unexecute() throws IOException {
-        pfs.edit(document, oldContent);
+        apply(newMiddle, oldMiddle);
+    }
+
+    /**
+     * Replaces the changed region of the current content of the document.
+     *
+     * @param expected    The text the changed region is expected to hold now.
+     * @param replacement The text to put in the changed region.
+     * @throws IllegalStateException If the document content no longer matches this edit.
+     */
+    private void apply(String expected, String replacement) {
+        if (!(document.element() instanceof MyFile myFile)) {
+            pfs.edit(document, replacement);
+            return;
+        }
+        String current = myFile.getContent();
+        if (current.length() != prefixLength + expected.length() + suffixLength
+                || !current.regionMatches(prefixLength, expected, 0, expected.length())) {
+            throw new IllegalStateException("The content of '" + myFile.getName() + "' changed since this edit.");
+        }
+        StringBuilder updated = new StringBuilder(prefixLength + replacement.length() + suffixLength);
+        updated.append(current, 0, prefixLength)
+                .append(replacement)
+                .append(current, current.length() - suffixLength, current.length());
+        pfs.edit(document, updated.toString());
+    }
+
+    /**
+     * Merges a following edit of the same file into this one when the regions they change overlap or touch,
+     * as happens when typing. The merged edit goes straight from the content before this edit to the
+     * current content, and only keeps the combined changed region.
+     *
+     * @param next The command executed right after this one.
+     * @return True if the next edit was merged into this one, false otherwise.
+     */
+    @Override
+    public boolean mergeWith(Command next) {
+        if (!(next instanceof EditCommand edit) || edit.document != document
+                || !(document.element() instanceof MyFile myFile)) {
+            return false;
+        }
+        if (edit.oldMiddle.isEmpty() && edit.newMiddle.isEmpty()) {
+            return true;
+        }
+        int length = prefixLength + newMiddle.length() + suffixLength;
+        String current = myFile.getContent();
+        if (length != edit.prefixLength + edit.oldMiddle.length() + edit.suffixLength
+                || current.length() != edit.prefixLength + edit.newMiddle.length() + edit.suffixLength
+                || Math.max(prefixLength, edit.prefixLength) > length - Math.max(suffixLength, edit.suffixLength)) {
+            return false;
+        }
+
+        int prefix = Math.min(prefixLength, edit.prefixLength);
+        int suffix = Math.min(suffixLength, edit.suffixLength);
+        // Combined region of the intermediate content, rebuilt from the current content and the next edit
+        String middle = current.substring(prefix, edit.prefixLength) + edit.oldMiddle
+                + current.substring(current.length() - edit.suffixLength, current.length() - suffix);
+        this.oldMiddle = middle.substring(0, prefixLength - prefix) + oldMiddle
+                + middle.substring(middle.length() - (suffixLength - suffix));
+        this.newMiddle = current.substring(prefix, current.length() - suffix);
+        this.prefixLength = prefix;
+        this.suffixLength = suffix;
+        return true;
+    }
+
+    /**
+     * Estimates the memory retained by this command, dominated by the old and new text of the changed region.
+     *
+     * @return The estimated retained size in bytes.
+     */
+    @Override
+    public long estimatedSize() {
+        return 64 + stringSize(oldMiddle) + stringSize(newMiddle);
+    }
+
+    /**
+     * Estimates the heap size of a string, assuming two bytes per character.
+     *
+     * @param value The string, possibly null.
+     * @return The estimated size in bytes.
+     */
+    private static long stringSize(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    /**
+     * Retrieves the documents this command operates on: the edited file.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Collections.singletonList(document);
     }
 
     /**
      * Returns a string representation of this EditCommand.
-     * The string contains the class name, the name of the document, and the new content applied.
+     * The string contains the class name, the name of the document, and the new text of the changed region
+     * together with its offset.
      *
      * @return A string representation of this EditCommand.
      */
     @Override
     public String toString() {
-        return this.getClass().getSimpleName() + " - " + document.element().getName() + " content changed to: " + content;
+        return this.getClass().getSimpleName() + " - " + document.element().getName()
+                + " content changed at " + prefixLength + " to: " + newMiddle;
     }
 }
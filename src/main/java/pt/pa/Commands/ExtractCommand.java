@@ -5,6 +5,8 @@ import pt.pa.*;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 public class ExtractCommand implements Command {
     private final PFS pfs;
@@ -62,6 +64,16 @@ public class ExtractCommand implements Command {
         }
     }
 
+    /**
+     * Retrieves the documents this command operates on: the extracted document.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Collections.singletonList(targetPosition);
+    }
+
     /**
      * Returns a string representation of this ExtractCommand.
      * The string contains the class name, the name of the extracted document, and the operation performed.
@@ -0,0 +1,158 @@
+package pt.pa.Commands;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The LatencyHistogram class counts latencies in log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values below 128 ns have a bucket each. Above that, every power of two is split into 64 buckets, so any
+ * recorded value is reported with an error below 1.6% while the whole range, up to about 2.4 hours, fits in
+ * 2432 counters. Recording is a bucket computation and two atomic increments: it never allocates or locks, so
+ * it can sit on the hot path, and the histogram can be read from another thread while it is being recorded.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_BIT = 42;
+
+    /**
+     * The largest value that can be recorded, in nanoseconds; larger values are counted as this one.
+     */
+    public static final long MAX_VALUE = (1L << (MAX_BIT + 1)) - 1;
+
+    private static final int BUCKETS = SUB_BUCKET_COUNT + (MAX_BIT - SUB_BUCKET_BITS + 1) * HALF_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds. Negative values are counted as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Retrieves the number of recorded latencies.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Retrieves the highest recorded latency.
+     *
+     * @return The maximum in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Calculates the mean of the recorded latencies.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    /**
+     * Calculates a percentile of the recorded latencies.
+     * The result is the highest value of the bucket holding the percentile, capped at the recorded maximum.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in nanoseconds at or below which the given percentage of latencies fall, or 0 if
+     * nothing was recorded.
+     * @throws IllegalArgumentException If the percentile is outside [0, 100].
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+        }
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Adds the latencies of another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalNanos.addAndGet(other.totalNanos.get());
+        long value = other.maxNanos.get();
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Finds the bucket of a value.
+     *
+     * @param value The value, between 0 and {@link #MAX_VALUE}.
+     * @return The bucket index.
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_COUNT + (int) (value >>> shift) - HALF_COUNT;
+    }
+
+    /**
+     * Finds the highest value counted in a bucket.
+     *
+     * @param index The bucket index.
+     * @return The highest value of the bucket.
+     */
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_COUNT + 1;
+        long mantissa = (index - SUB_BUCKET_COUNT) % HALF_COUNT + HALF_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -5,6 +5,8 @@ import pt.pa.PFS;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * The MoveCommand class represents a command to move a document within a PFS (Persistent File System).
@@ -60,6 +62,16 @@ public class MoveCommand implements Command {
         pfs.move(initial, oldPosition);
     }
 
+    /**
+     * Retrieves the documents this command operates on: the moved document and its destination.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Arrays.asList(initial, end);
+    }
+
     /**
      * Returns a string representation of this MoveCommand.
      * The string contains the class name, the name of the document being moved, and the destination position.
@@ -5,6 +5,8 @@ import pt.pa.PFS;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * A command representing the paste operation in a file system.
@@ -59,6 +61,16 @@ public class PasteCommand implements Command {
         }
     }
 
+    /**
+     * Retrieves the documents this command operates on: the pasted document and its destination.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Arrays.asList(pastedDocument, destination);
+    }
+
     /**
      * Returns a string representation of this PasteCommand.
      * The string contains the class name, the name of the pasted document, and the destination position.
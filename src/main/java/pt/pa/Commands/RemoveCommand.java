@@ -5,6 +5,8 @@ import pt.pa.PFS;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 /**
  * The RemoveCommand class represents a command to remove a document from a PFS (Persistent File System).
  * Implements the Command interface.
@@ -50,6 +52,16 @@ public class RemoveCommand implements Command {
     }
 
 
+    /**
+     * Retrieves the documents this command operates on: the removed document and the folder it was removed from.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Arrays.asList(document, oldPosition);
+    }
+
     /**
      * Returns a string representation of this RemoveCommand.
      * The string contains the class name, the name of the removed document, and the original position.
@@ -5,6 +5,9 @@ import pt.pa.Exceptions.InvalidNameException;
 import pt.pa.PFS;
 import pt.pa.adts.Position;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * A command to rename a document within a PFS.
  * Implements the Command interface.
@@ -63,6 +66,16 @@ public class RenameCommand implements Command {
         pfs.rename(document, oldName);
     }
 
+    /**
+     * Retrieves the documents this command operates on: the renamed document.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Collections.singletonList(document);
+    }
+
     /**
      * Returns a string representation of this RenameCommand.
      * The string contains the class name, the name of the renamed document, and the new name.
@@ -0,0 +1,114 @@
+package pt.pa.Commands;
+
+import java.io.IOException;
+
+/**
+ * The Transaction class runs a sequence of commands as a single unit of work of a {@link CommandManager}.
+ * Each command is executed as soon as it is submitted, so later commands can be built from the results of
+ * earlier ones (for example, creating files inside a folder created in the same transaction).
+ * <p>
+ * Committing records all the commands as one {@link CompositeCommand}, with a single log record and a
+ * single undo entry. If a command fails, or the transaction is closed without being committed, every
+ * command already executed is unexecuted in reverse order.
+ * </p>
+ * <pre>{@code
+ * try (Transaction transaction = commandManager.beginTransaction()) {
+ *     transaction.execute(new CreateFolderCommand(pfs, parent, "Reports"));
+ *     transaction.execute(new CreateFileCommand(pfs, parent, "summary"));
+ *     transaction.commit();
+ * }
+ * }</pre>
+ */
+public class Transaction implements AutoCloseable {
+    private final CommandManager commandManager;
+    private final CompositeCommand composite = new CompositeCommand();
+    private boolean open = true;
+
+    /**
+     * Constructs a Transaction recording into the given command manager.
+     *
+     * @param commandManager The command manager that receives the committed commands.
+     */
+    Transaction(CommandManager commandManager) {
+        this.commandManager = commandManager;
+    }
+
+    /**
+     * Executes a command as part of this transaction.
+     * If the command fails, the whole transaction is rolled back and closed before the failure is rethrown.
+     *
+     * @param command The command to execute.
+     * @throws IOException           If an I/O error occurs during the execution of the command.
+     * @throws IllegalStateException If the transaction is no longer open.
+     */
+    public void execute(Command command) throws IOException {
+        checkOpen();
+        try {
+            command.execute();
+        } catch (IOException | RuntimeException e) {
+            open = false;
+            composite.rollBackExecuted(composite.getCommands().size(), e);
+            throw e;
+        }
+        composite.add(command);
+    }
+
+    /**
+     * Commits the transaction, recording its commands in the command history as a single entry.
+     *
+     * @return The composite command recorded, which is empty if no command was executed.
+     * @throws IllegalStateException If the transaction is no longer open.
+     */
+    public CompositeCommand commit() {
+        checkOpen();
+        open = false;
+        if (!composite.getCommands().isEmpty()) {
+            commandManager.record(composite);
+        }
+        return composite;
+    }
+
+    /**
+     * Rolls the transaction back, unexecuting its commands in reverse order.
+     *
+     * @throws IOException           If an I/O error occurs while unexecuting a command.
+     * @throws IllegalStateException If the transaction is no longer open.
+     */
+    public void rollback() throws IOException {
+        checkOpen();
+        open = false;
+        composite.unexecute();
+    }
+
+    /**
+     * Checks if the transaction can still execute commands.
+     *
+     * @return True if the transaction has not been committed, rolled back or failed.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Rolls the transaction back if it was neither committed nor rolled back.
+     *
+     * @throws IOException If an I/O error occurs while unexecuting a command.
+     */
+    @Override
+    public void close() throws IOException {
+        if (open) {
+            rollback();
+        }
+    }
+
+    /**
+     * Ensures the transaction is still open.
+     *
+     * @throws IllegalStateException If the transaction is no longer open.
+     */
+    private void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("The transaction is no longer open.");
+        }
+    }
+}
@@ -12,6 +12,8 @@ import pt.pa.*;
 import pt.pa.adts.Position;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 public class ZipCommand implements Command {
     private final PFS pfs;
@@ -68,6 +70,16 @@ public class ZipCommand implements Command {
         }
     }
 
+    /**
+     * Retrieves the documents this command operates on: the zipped document.
+     *
+     * @return The target positions.
+     */
+    @Override
+    public List<Position<Document>> getTargets() {
+        return Collections.singletonList(targetPosition);
+    }
+
     /**
      * Returns a string representation of this ZipCommand.
      * The string contains the class name, the name of the zipped/unzipped document, and the operation performed.
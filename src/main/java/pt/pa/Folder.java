@@ -13,6 +13,7 @@ public class Folder extends Document implements Copyable {
 
     private boolean isAccessable;
     private long sizeInBytes;
+    private ZipArchive archive;
     private static final long DEFAULT_SIZE_BYTES = 3000;
 
     /**
@@ -64,6 +65,24 @@ public class Folder extends Document implements Copyable {
         return sizeInBytes;
     }
 
+    /**
+     * Retrieves the archive created when the folder was zipped.
+     *
+     * @return The archive of the folder, or null if the folder is not zipped.
+     */
+    public ZipArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Sets the archive of the folder.
+     *
+     * @param archive The archive created when zipping the folder, or null when unzipping it.
+     */
+    void setArchive(ZipArchive archive) {
+        this.archive = archive;
+    }
+
     /**
      * Provides a string representation of the folder.
      * The string representation includes the name of the folder.
@@ -0,0 +1,91 @@
+package pt.pa.Generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * The IntDistribution interface draws whole numbers, such as fan-outs or content sizes, for the {@link TreeGenerator}.
+ * <p>
+ * Distributions only use {@link SplittableRandom#nextDouble()} and {@link SplittableRandom#nextInt(int, int)}, whose
+ * sequences are fixed by the seed, so a generator given the same seed builds the same tree on any JVM.
+ * </p>
+ */
+@FunctionalInterface
+public interface IntDistribution {
+
+    /**
+     * Draws a value.
+     *
+     * @param random The source of randomness.
+     * @return The value.
+     */
+    int sample(SplittableRandom random);
+
+    /**
+     * Creates a distribution that always returns the same value.
+     *
+     * @param value The value.
+     * @return The distribution.
+     */
+    static IntDistribution constant(int value) {
+        return random -> value;
+    }
+
+    /**
+     * Creates a distribution returning every value of a range with the same probability.
+     *
+     * @param min The lowest value.
+     * @param max The highest value.
+     * @return The distribution.
+     * @throws IllegalArgumentException If the maximum is lower than the minimum.
+     */
+    static IntDistribution uniform(int min, int max) {
+        if (max < min) {
+            throw new IllegalArgumentException("The maximum cannot be lower than the minimum.");
+        }
+        return random -> random.nextInt(min, max + 1);
+    }
+
+    /**
+     * Creates a geometric distribution over 1, 2, 3, ...: most values are small, with a long tail of large ones.
+     *
+     * @param mean The mean, at least 1.
+     * @return The distribution.
+     * @throws IllegalArgumentException If the mean is lower than 1.
+     */
+    static IntDistribution geometric(double mean) {
+        if (!(mean >= 1)) {
+            throw new IllegalArgumentException("The mean of a geometric distribution must be at least 1.");
+        }
+        if (mean == 1) {
+            return constant(1);
+        }
+        double logFailure = Math.log(1 - 1 / mean);
+        return random -> {
+            double value = Math.floor(Math.log(1 - random.nextDouble()) / logFailure) + 1;
+            return (int) Math.min(value, Integer.MAX_VALUE);
+        };
+    }
+
+    /**
+     * Creates a log-normal distribution, the usual shape of file sizes: half of the values are below the median and
+     * a few are many times larger.
+     *
+     * @param median The median, at least 1.
+     * @param sigma  The standard deviation of the logarithm of the values; 0 always returns the median.
+     * @param max    The highest value; larger values are cut to it.
+     * @return The distribution.
+     * @throws IllegalArgumentException If the median is lower than 1, sigma is negative or the maximum is negative.
+     */
+    static IntDistribution logNormal(double median, double sigma, int max) {
+        if (!(median >= 1) || !(sigma >= 0) || max < 0) {
+            throw new IllegalArgumentException("Invalid log-normal distribution.");
+        }
+        double mu = Math.log(median);
+        return random -> {
+            double u1 = 1 - random.nextDouble();
+            double u2 = random.nextDouble();
+            double gaussian = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+            return (int) Math.min(Math.round(Math.exp(mu + sigma * gaussian)), max);
+        };
+    }
+}
@@ -0,0 +1,636 @@
+package pt.pa.Generator;
+
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.MyFile;
+import pt.pa.MyFile.FileExtensions;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The TreeGenerator class builds large synthetic file systems for load testing.
+ * <p>
+ * The generator is deterministic: the same seed and settings always produce the same tree, names, contents and
+ * dates. The tree has exactly the requested number of documents. Each folder draws its number of children from the
+ * fan-out distribution and makes each child a folder with the folder ratio; the documents left to create are split
+ * at random between its subfolders, so subtrees have uneven sizes, as in real file systems. Folders at the maximum
+ * depth only hold files.
+ * </p>
+ * <p>
+ * Documents are streamed to a {@link TreeSink} in depth-first pre-order while the generator only keeps the folders
+ * on the current path, so the memory used is that of the destination: a {@link TreeLinked}, or nothing more than the
+ * path when the sink writes the documents elsewhere. When contents are shared, files whose sizes fall in the same
+ * size class share one string, which keeps trees of tens of millions of files within reach of one JVM.
+ * </p>
+ * Names are a stem and the creation index of the document, so they are unique unless a name collision rate is set,
+ * in which case that fraction of documents take the name of an earlier document.
+ */
+public class TreeGenerator {
+
+    private static final String[] STEMS = {"report", "notes", "invoice", "photo", "draft", "summary", "data",
+            "budget", "song", "clip", "letter", "backup", "project", "archive", "shared"};
+    private static final String[] WORDS = {"the", "file", "system", "tree", "folder", "data", "report", "value",
+            "total", "client", "order", "project", "year", "month", "name", "date", "size", "list"};
+    private static final int[] NO_FOLDERS = new int[0];
+
+    private final long seed;
+    private final int nodeCount;
+    private IntDistribution fanOut = IntDistribution.geometric(16);
+    private double folderRatio = 0.25;
+    private int maxDepth = 64;
+    private double nameCollisionRate;
+    private FileExtensions[] extensions = FileExtensions.values();
+    private double[] cumulativeWeights = uniformWeights(extensions.length);
+    private IntDistribution contentSize = IntDistribution.logNormal(512, 1.0, 64 * 1024);
+    private boolean sharedContent = true;
+    private long createdFrom = 1672531200L;
+    private long createdTo = 1704067199L;
+    private double changeProbability = 0.3;
+    private IntDistribution changeCount = IntDistribution.geometric(3);
+
+    private long folders;
+    private long files;
+    private long contentBytes;
+    private int deepest;
+
+    /**
+     * Constructs a TreeGenerator with the default settings: a geometric fan-out of mean 16, one folder in four
+     * documents, a maximum depth of 64, unique names, every extension equally likely, log-normal contents of median
+     * 512 bytes, creation dates spread over 2023 and three files in ten changed.
+     *
+     * @param seed      The seed of the random choices.
+     * @param nodeCount The number of documents of the tree, the root included.
+     * @throws IllegalArgumentException If the number of documents is not positive.
+     */
+    public TreeGenerator(long seed, int nodeCount) {
+        if (nodeCount < 1) {
+            throw new IllegalArgumentException("A tree has at least its root.");
+        }
+        this.seed = seed;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Sets the distribution of the number of children of each folder.
+     *
+     * @param fanOut The distribution; values below 1 count as 1.
+     * @return This generator.
+     */
+    public TreeGenerator fanOut(IntDistribution fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    /**
+     * Sets the probability that a child of a folder is a folder rather than a file.
+     *
+     * @param folderRatio The probability, between 0 and 1.
+     * @return This generator.
+     * @throws IllegalArgumentException If the probability is outside [0, 1].
+     */
+    public TreeGenerator folderRatio(double folderRatio) {
+        this.folderRatio = probability(folderRatio);
+        return this;
+    }
+
+    /**
+     * Sets the maximum depth of a document, the root being at depth 0.
+     * Trees deeper than about 450 levels cannot be saved with the default thread stack, because Java serialization
+     * recurses once per level.
+     *
+     * @param maxDepth The maximum depth, at least 1.
+     * @return This generator.
+     * @throws IllegalArgumentException If the depth is lower than 1.
+     */
+    public TreeGenerator maxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("The maximum depth must be at least 1.");
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Sets the fraction of documents that reuse the name of an earlier document.
+     *
+     * @param nameCollisionRate The fraction, between 0 and 1.
+     * @return This generator.
+     * @throws IllegalArgumentException If the fraction is outside [0, 1].
+     */
+    public TreeGenerator nameCollisionRate(double nameCollisionRate) {
+        this.nameCollisionRate = probability(nameCollisionRate);
+        return this;
+    }
+
+    /**
+     * Sets the relative frequency of each file extension. Extensions missing from the map are not used.
+     *
+     * @param weights The weight of each extension.
+     * @return This generator.
+     * @throws IllegalArgumentException If a weight is negative or no weight is positive.
+     */
+    public TreeGenerator extensionWeights(Map<FileExtensions, Double> weights) {
+        Map<FileExtensions, Double> used = new EnumMap<>(FileExtensions.class);
+        for (Map.Entry<FileExtensions, Double> entry : weights.entrySet()) {
+            if (!(entry.getValue() >= 0)) {
+                throw new IllegalArgumentException("Extension weights cannot be negative.");
+            }
+            if (entry.getValue() > 0) {
+                used.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (used.isEmpty()) {
+            throw new IllegalArgumentException("At least one extension must have a positive weight.");
+        }
+        extensions = used.keySet().toArray(new FileExtensions[0]);
+        cumulativeWeights = new double[extensions.length];
+        double total = 0;
+        for (int i = 0; i < extensions.length; i++) {
+            total += used.get(extensions[i]);
+            cumulativeWeights[i] = total;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the distribution of the content size of files.
+     *
+     * @param contentSize The distribution of sizes in bytes; values below 0 count as 0.
+     * @return This generator.
+     */
+    public TreeGenerator contentSize(IntDistribution contentSize) {
+        this.contentSize = contentSize;
+        return this;
+    }
+
+    /**
+     * Sets whether files share their contents. Shared contents are rounded to one of 16 sizes per power of two and
+     * files of the same size share the same string; otherwise every file gets its own text of the exact size drawn.
+     *
+     * @param sharedContent True to share contents.
+     * @return This generator.
+     */
+    public TreeGenerator sharedContent(boolean sharedContent) {
+        this.sharedContent = sharedContent;
+        return this;
+    }
+
+    /**
+     * Sets the range of creation dates, which are spread evenly over it.
+     *
+     * @param fromEpochSecond The earliest date, in epoch seconds.
+     * @param toEpochSecond   The latest date, in epoch seconds.
+     * @return This generator.
+     * @throws IllegalArgumentException If the range is empty.
+     */
+    public TreeGenerator creationRange(long fromEpochSecond, long toEpochSecond) {
+        if (toEpochSecond < fromEpochSecond) {
+            throw new IllegalArgumentException("The range of creation dates is empty.");
+        }
+        this.createdFrom = fromEpochSecond;
+        this.createdTo = toEpochSecond;
+        return this;
+    }
+
+    /**
+     * Sets how many files have been changed since they were created and how often. The last change of a changed file
+     * falls between its creation and the end of the creation range.
+     *
+     * @param probability The probability that a file was changed, between 0 and 1.
+     * @param count       The distribution of the number of changes of a changed file.
+     * @return This generator.
+     * @throws IllegalArgumentException If the probability is outside [0, 1].
+     */
+    public TreeGenerator changes(double probability, IntDistribution count) {
+        this.changeProbability = probability(probability);
+        this.changeCount = count;
+        return this;
+    }
+
+    /**
+     * Generates the tree into a new {@link TreeLinked}.
+     *
+     * @return The tree.
+     */
+    public TreeLinked<Document> generate() {
+        TreeLinkedSink sink = new TreeLinkedSink();
+        generate(sink);
+        return sink.tree;
+    }
+
+    /**
+     * Generates the tree and saves it in the format of {@link pt.pa.PFS#saveFileSystem(TreeLinked)}.
+     * That format is the Java serialization of the whole tree, so the tree is built in memory first.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeFileSystem(Path file) throws IOException {
+        TreeLinked<Document> tree = generate();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+             ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(tree);
+        }
+    }
+
+    /**
+     * Generates the tree into a sink.
+     *
+     * @param sink The sink receiving the documents in depth-first pre-order.
+     * @param <H>  The type of the handles of the sink.
+     */
+    public <H> void generate(TreeSink<H> sink) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<Integer, String> contents = new HashMap<>();
+        folders = 1;
+        files = 0;
+        contentBytes = 0;
+        deepest = 0;
+
+        int index = 0;
+        Folder root = new Folder("root");
+        root.setCreationDate(creationDate(random));
+        Deque<Frame<H>> path = new ArrayDeque<>();
+        path.push(plan(sink.root(root), 0, nodeCount - 1, random));
+        while (!path.isEmpty()) {
+            Frame<H> frame = path.peek();
+            int foldersLeft = frame.folderBudgets.length - frame.foldersDone;
+            int left = frame.filesLeft + foldersLeft;
+            if (left == 0) {
+                path.pop();
+                continue;
+            }
+            index++;
+            deepest = Math.max(deepest, frame.depth + 1);
+            if (random.nextInt(left) < frame.filesLeft) {
+                frame.filesLeft--;
+                sink.add(frame.handle, file(index, random, contents));
+            } else {
+                int budget = frame.folderBudgets[frame.foldersDone++];
+                H folder = sink.add(frame.handle, folder(index, random));
+                path.push(plan(folder, frame.depth + 1, budget, random));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of folders of the last generated tree, the root included.
+     *
+     * @return The number of folders.
+     */
+    public long getFolders() {
+        return folders;
+    }
+
+    /**
+     * Retrieves the number of files of the last generated tree.
+     *
+     * @return The number of files.
+     */
+    public long getFiles() {
+        return files;
+    }
+
+    /**
+     * Retrieves the total content size of the files of the last generated tree.
+     *
+     * @return The size in bytes.
+     */
+    public long getContentBytes() {
+        return contentBytes;
+    }
+
+    /**
+     * Retrieves the depth of the deepest document of the last generated tree.
+     *
+     * @return The depth, the root being at depth 0.
+     */
+    public int getMaxDepth() {
+        return deepest;
+    }
+
+    /**
+     * Generates a file system and saves it, so it can be opened by the application or the workload driver.
+     * Usage: {@code TreeGenerator <seed> <documents> [file]}, the file being "Explorer.pfs" by default.
+     *
+     * @param args The seed, the number of documents and the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TreeGenerator <seed> <documents> [file]");
+            System.exit(2);
+        }
+        TreeGenerator generator = new TreeGenerator(Long.parseLong(args[0]), Integer.parseInt(args[1]));
+        Path file = Paths.get(args.length > 2 ? args[2] : "Explorer.pfs");
+        long start = System.nanoTime();
+        generator.writeFileSystem(file);
+        System.out.printf("%d folders, %d files, %d content bytes, depth %d, written to %s in %.1f s%n",
+                generator.getFolders(), generator.getFiles(), generator.getContentBytes(), generator.getMaxDepth(),
+                file, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Decides the children of a folder: how many there are, which are folders and how many documents each subfolder
+     * will hold.
+     *
+     * @param handle The handle of the folder.
+     * @param depth  The depth of the folder.
+     * @param budget The number of documents to create under the folder.
+     * @param random The source of randomness.
+     * @param <H>    The type of the handles of the sink.
+     * @return The plan of the folder.
+     */
+    private <H> Frame<H> plan(H handle, int depth, int budget, SplittableRandom random) {
+        if (budget == 0) {
+            return new Frame<>(handle, depth, 0, NO_FOLDERS);
+        }
+        if (depth + 1 >= maxDepth) {
+            return new Frame<>(handle, depth, budget, NO_FOLDERS);
+        }
+        int children = Math.min(Math.max(fanOut.sample(random), 1), budget);
+        int subfolders = 0;
+        for (int i = 0; i < children; i++) {
+            if (random.nextDouble() < folderRatio) {
+                subfolders++;
+            }
+        }
+        if (subfolders == 0 && budget > children) {
+            subfolders = 1;
+        }
+        return new Frame<>(handle, depth, children - subfolders, split(budget - children, subfolders, random));
+    }
+
+    /**
+     * Splits a number of documents at random between subfolders.
+     *
+     * @param total      The number of documents.
+     * @param subfolders The number of subfolders.
+     * @param random     The source of randomness.
+     * @return The number of documents of each subfolder, adding up to the total.
+     */
+    private static int[] split(int total, int subfolders, SplittableRandom random) {
+        if (subfolders == 0) {
+            return NO_FOLDERS;
+        }
+        int[] budgets = new int[subfolders];
+        if (total == 0) {
+            return budgets;
+        }
+        double[] weights = new double[subfolders];
+        double sum = 0;
+        for (int i = 0; i < subfolders; i++) {
+            weights[i] = -Math.log(1 - random.nextDouble());
+            sum += weights[i];
+        }
+        int assigned = 0;
+        for (int i = 0; i < subfolders; i++) {
+            budgets[i] = (int) (total * (weights[i] / sum));
+            assigned += budgets[i];
+        }
+        for (int i = random.nextInt(subfolders); assigned < total; i = (i + 1) % subfolders) {
+            budgets[i]++;
+            assigned++;
+        }
+        return budgets;
+    }
+
+    /**
+     * Creates a folder.
+     *
+     * @param index  The creation index of the folder.
+     * @param random The source of randomness.
+     * @return The folder.
+     */
+    private Folder folder(int index, SplittableRandom random) {
+        int nameIndex = nameIndex(index, random);
+        Folder folder = new Folder(name(nameIndex));
+        folder.setCreationDate(creationDate(random));
+        folders++;
+        return folder;
+    }
+
+    /**
+     * Creates a file with its extension, content and dates.
+     *
+     * @param index    The creation index of the file.
+     * @param random   The source of randomness.
+     * @param contents The shared contents, by size.
+     * @return The file.
+     */
+    private MyFile file(int index, SplittableRandom random, Map<Integer, String> contents) {
+        int nameIndex = nameIndex(index, random);
+        MyFile file = new MyFile(name(nameIndex), extension(random).getExtension());
+        int size = Math.max(contentSize.sample(random), 0);
+        String content;
+        if (sharedContent) {
+            int rounded = roundSize(size);
+            content = contents.computeIfAbsent(rounded, key -> text(key, new SplittableRandom(seed ^ key)));
+        } else {
+            content = text(size, random);
+        }
+        file.setContent(content);
+        long created = creationDate(random);
+        file.setCreationDate(created);
+        if (random.nextDouble() < changeProbability) {
+            long lastChange = created + (long) (random.nextDouble() * (createdTo - created + 1));
+            file.setChangeHistory(Math.max(changeCount.sample(random), 1), lastChange);
+        } else {
+            file.setChangeHistory(0, created);
+        }
+        files++;
+        contentBytes += content.length();
+        return file;
+    }
+
+    /**
+     * Picks the index whose name a document takes: its own, or an earlier one for a name collision.
+     *
+     * @param index  The creation index of the document.
+     * @param random The source of randomness.
+     * @return The index to name the document after.
+     */
+    private int nameIndex(int index, SplittableRandom random) {
+        if (!collides(index)) {
+            return index;
+        }
+        int earlier;
+        do {
+            earlier = random.nextInt(1, index);
+        } while (collides(earlier));
+        return earlier;
+    }
+
+    /**
+     * Decides whether a document takes the name of an earlier one. The decision is a hash of the seed and the index,
+     * so the names of earlier documents can be told without remembering them: a colliding document only picks among
+     * those that kept their own name.
+     *
+     * @param index The creation index of the document.
+     * @return True if the document takes the name of an earlier one.
+     */
+    private boolean collides(int index) {
+        if (index <= 1 || nameCollisionRate == 0) {
+            return false;
+        }
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53 < nameCollisionRate;
+    }
+
+    /**
+     * Names the document of an index.
+     *
+     * @param index The creation index.
+     * @return The name.
+     */
+    private static String name(int index) {
+        return STEMS[index % STEMS.length] + "_" + index;
+    }
+
+    /**
+     * Picks a file extension according to the weights.
+     *
+     * @param random The source of randomness.
+     * @return The extension.
+     */
+    private FileExtensions extension(SplittableRandom random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < extensions.length - 1; i++) {
+            if (target < cumulativeWeights[i]) {
+                return extensions[i];
+            }
+        }
+        return extensions[extensions.length - 1];
+    }
+
+    /**
+     * Picks a creation date in the creation range.
+     *
+     * @param random The source of randomness.
+     * @return The date in epoch seconds.
+     */
+    private long creationDate(SplittableRandom random) {
+        return createdFrom + (long) (random.nextDouble() * (createdTo - createdFrom + 1));
+    }
+
+    /**
+     * Rounds a size down to its size class: sizes up to 16 are exact, larger sizes keep their 4 highest bits.
+     *
+     * @param size The size.
+     * @return The rounded size.
+     */
+    static int roundSize(int size) {
+        if (size <= 16) {
+            return size;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(size) - 4;
+        return size >>> shift << shift;
+    }
+
+    /**
+     * Writes ASCII text of words and line breaks.
+     *
+     * @param length The length of the text in characters, which is also its size in bytes.
+     * @param random The source of randomness.
+     * @return The text.
+     */
+    private static String text(int length, SplittableRandom random) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(8) == 0 ? '\n' : ' ');
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    /**
+     * Creates weights giving every extension the same frequency.
+     *
+     * @param count The number of extensions.
+     * @return The cumulative weights.
+     */
+    private static double[] uniformWeights(int count) {
+        double[] cumulative = new double[count];
+        for (int i = 0; i < count; i++) {
+            cumulative[i] = i + 1;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Checks that a value is a probability.
+     *
+     * @param value The value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is outside [0, 1].
+     */
+    private static double probability(double value) {
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException("A probability must be between 0 and 1.");
+        }
+        return value;
+    }
+
+    /**
+     * The TreeLinkedSink class inserts the generated documents in a {@link TreeLinked}.
+     */
+    private static final class TreeLinkedSink implements TreeSink<Position<Document>> {
+        private TreeLinked<Document> tree;
+
+        @Override
+        public Position<Document> root(Folder root) {
+            tree = new TreeLinked<>(root);
+            return tree.root();
+        }
+
+        @Override
+        public Position<Document> add(Position<Document> parent, Document document) {
+            return tree.insert(parent, document);
+        }
+    }
+
+    /**
+     * The Frame class holds the children a folder on the current path still has to receive.
+     *
+     * @param <H> The type of the handles of the sink.
+     */
+    private static final class Frame<H> {
+        private final H handle;
+        private final int depth;
+        private final int[] folderBudgets;
+        private int filesLeft;
+        private int foldersDone;
+
+        /**
+         * Constructs the plan of a folder.
+         *
+         * @param handle        The handle of the folder.
+         * @param depth         The depth of the folder.
+         * @param files         The number of files it holds.
+         * @param folderBudgets The number of documents under each of its subfolders.
+         */
+        Frame(H handle, int depth, int files, int[] folderBudgets) {
+            this.handle = handle;
+            this.depth = depth;
+            this.filesLeft = files;
+            this.folderBudgets = folderBudgets;
+        }
+    }
+}
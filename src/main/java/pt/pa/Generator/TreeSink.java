@@ -0,0 +1,34 @@
+package pt.pa.Generator;
+
+import pt.pa.Document;
+import pt.pa.Folder;
+
+/**
+ * The TreeSink interface receives the documents of a generated tree, in depth-first pre-order: every document is
+ * added after its parent and before any document of a later sibling of its parent.
+ * <p>
+ * A sink only has to remember the handles of the folders on the current path, so trees of any size can be streamed
+ * into it without keeping the generated documents anywhere else.
+ * </p>
+ *
+ * @param <H> The type of the handles the sink gives to the documents it received, such as tree positions.
+ */
+public interface TreeSink<H> {
+
+    /**
+     * Receives the root folder.
+     *
+     * @param root The root folder.
+     * @return The handle of the root.
+     */
+    H root(Folder root);
+
+    /**
+     * Receives a document.
+     *
+     * @param parent   The handle of the folder holding the document.
+     * @param document The document.
+     * @return The handle of the document; only the handles of folders are used again.
+     */
+    H add(H parent, Document document);
+}
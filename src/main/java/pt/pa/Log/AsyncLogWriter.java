@@ -0,0 +1,271 @@
+package pt.pa.Log;
+
+import pt.pa.Commands.Command;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The AsyncLogWriter class writes log records to a file from a background thread.
+ * <p>
+ * Logging threads claim a slot of a fixed-size ring buffer of preallocated {@link LogEvent}s, store the
+ * timestamp, message and the text of the command in it and publish it. The command is turned into text on the
+ * logging thread, so a record shows the command as it was when it ran, and the background thread never reads the
+ * file system that thread is changing. Logging threads never touch the file.
+ * The background thread drains the published slots in order, lays them out and writes them in batches,
+ * flushing once per batch. When the ring buffer is full, logging threads wait for the background thread
+ * to free a slot, so no record is lost while the writer is open. Records logged once it is closed, such as those
+ * of commands finishing while the application shuts down, are dropped and counted instead.
+ * </p>
+ * Each record is written to every sink of the writer: the text log, in the same two-line layout as
+ * {@link java.util.logging.SimpleFormatter}, and/or the binary operation log read by {@link OperationLogReader}.
+ */
+public class AsyncLogWriter implements AutoCloseable {
+
+    /**
+     * The default number of slots of the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LogEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<LogSink> sinks;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long batches;
+    private long producerWaits;
+
+    /**
+     * Constructs an AsyncLogWriter that appends text records to the given file and starts its background thread.
+     *
+     * @param file     The log file, created if it does not exist.
+     * @param capacity The number of slots of the ring buffer, rounded up to a power of two.
+     * @throws IOException If the log file cannot be opened.
+     */
+    public AsyncLogWriter(Path file, int capacity) throws IOException {
+        this(List.of(new TextLogSink(file)), capacity);
+    }
+
+    /**
+     * Constructs an AsyncLogWriter that writes every record to the given sinks and starts its background thread.
+     *
+     * @param sinks    The sinks, which are closed with the writer.
+     * @param capacity The number of slots of the ring buffer, rounded up to a power of two.
+     */
+    AsyncLogWriter(List<LogSink> sinks, int capacity) {
+        this.sinks = List.copyOf(sinks);
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new LogEvent[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new LogEvent();
+        }
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.mask = size - 1;
+        this.thread = new Thread(this::drainLoop, "pfs-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Enqueues a log record. The command is turned into text now; the record is written later by the background
+     * thread.
+     *
+     * @param message The message to be logged.
+     * @param command The command associated with the message.
+     */
+    public void publish(String message, Command command) {
+        publish(message, command, 0);
+    }
+
+    /**
+     * Enqueues a log record with the time the command took to run. The record is dropped if the writer has been
+     * closed.
+     *
+     * @param message       The message to be logged.
+     * @param command       The command associated with the message.
+     * @param durationNanos The time the command took, in nanoseconds.
+     */
+    public void publish(String message, Command command, long durationNanos) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        if (sequence - consumed.get() >= slots.length && !waitForSlot(sequence)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        int index = (int) (sequence & mask);
+        slots[index].set(System.currentTimeMillis(), durationNanos, message, command);
+        published.set(index, sequence);
+    }
+
+    /**
+     * Waits until every record enqueued so far has been written to the file.
+     *
+     * @param timeoutMillis The maximum time to wait, in milliseconds.
+     * @return True if every record was written, false if the timeout elapsed first.
+     */
+    public boolean flush(long timeoutMillis) {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (consumed.get() < target) {
+            if (!thread.isAlive() || System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.unpark(thread);
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the number of records written to the file.
+     *
+     * @return The number of records written.
+     */
+    public long getWrittenRecords() {
+        return consumed.get();
+    }
+
+    /**
+     * Retrieves the number of records dropped because they were logged after the writer was closed.
+     *
+     * @return The number of records dropped.
+     */
+    public long getDroppedRecords() {
+        return dropped.get();
+    }
+
+    /**
+     * Retrieves the number of batches written, that is, the number of times the file was flushed.
+     *
+     * @return The number of batches.
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Retrieves the number of times a logging thread had to wait because the ring buffer was full.
+     *
+     * @return The number of waits.
+     */
+    public synchronized long getProducerWaits() {
+        return producerWaits;
+    }
+
+    /**
+     * Stops accepting records, writes the ones already enqueued and closes the file.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Parks the calling thread until the slot of the given sequence has been freed. Once the writer is closed, the
+     * background thread still drains every sequence claimed before it stops, so the wait only gives up if that
+     * thread has already stopped.
+     *
+     * @param sequence The sequence claimed by the calling thread.
+     * @return True if the slot was freed, false if the writer was closed and will never free it.
+     */
+    private boolean waitForSlot(long sequence) {
+        synchronized (this) {
+            producerWaits++;
+        }
+        while (sequence - consumed.get() >= slots.length) {
+            if (!running && !thread.isAlive()) {
+                return false;
+            }
+            LockSupport.unpark(thread);
+            Thread.yield();
+        }
+        return true;
+    }
+
+    /**
+     * The body of the background thread: drains published records in batches until the writer is closed.
+     */
+    private void drainLoop() {
+        long next = 0;
+        while (true) {
+            long start = next;
+            int index = (int) (next & mask);
+            while (published.get(index) == next && next - start < slots.length) {
+                write(slots[index]);
+                slots[index].clear();
+                next++;
+                consumed.lazySet(next);
+                index = (int) (next & mask);
+            }
+            if (next != start) {
+                flushBatch();
+            } else if (!running && next == claimed.get()) {
+                break;
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        for (LogSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Writes a record to every sink.
+     *
+     * @param event The record to write.
+     */
+    private void write(LogEvent event) {
+        for (LogSink sink : sinks) {
+            try {
+                sink.write(event);
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Flushes the records written since the last batch to every sink.
+     */
+    private void flushBatch() {
+        batches++;
+        for (LogSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
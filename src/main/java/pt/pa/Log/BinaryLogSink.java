@@ -0,0 +1,286 @@
+package pt.pa.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static pt.pa.Log.OperationLogReader.*;
+
+/**
+ * The BinaryLogSink class writes records to the binary operation log described in {@link OperationLogReader}.
+ * <p>
+ * Records are encoded into a 1 MB direct buffer and written through a {@link FileChannel} once per batch or
+ * when the buffer fills. Targets are recorded by the names their documents had when the command was logged:
+ * documents have no identifier that outlives a save and load or a backup restore, and a name read when the record
+ * is written could already belong to a later rename. Command types and actions are written as string records once per log and referenced
+ * by id afterwards. Every {@link #BLOCK_RECORDS} operations, the block is closed and its offsets and time range
+ * are appended to the index file.
+ * </p>
+ * When an existing log is reopened, a record left incomplete by a crash is truncated and the index is rewritten
+ * to cover every complete record, so appending continues from a consistent state.
+ */
+class BinaryLogSink implements LogSink {
+
+    /**
+     * The number of operations of each indexed block.
+     */
+    static final int BLOCK_RECORDS = 1024;
+
+    private static final int DATA_BUFFER_SIZE = 1024 * 1024;
+    private static final int INDEX_BUFFER_SIZE = 128 * 1024;
+    private static final int MAX_SHORT = 0xFFFF;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final ByteBuffer dataBuffer = ByteBuffer.allocateDirect(DATA_BUFFER_SIZE);
+    private final ByteBuffer indexBuffer = ByteBuffer.allocateDirect(INDEX_BUFFER_SIZE);
+    private final Map<String, Integer> ids = new HashMap<>();
+    private int nextId;
+    private long dataWritten;
+    private long indexWritten;
+    private Block block;
+
+    /**
+     * Constructs a BinaryLogSink appending to the given file.
+     *
+     * @param file The operation log file, created if it does not exist.
+     * @throws IOException If the file cannot be opened or exists but is not an operation log.
+     */
+    BinaryLogSink(Path file) throws IOException {
+        List<String> strings = Collections.emptyList();
+        List<Block> blocks = Collections.emptyList();
+        long validLength = 0;
+        if (Files.isRegularFile(file) && Files.size(file) > 0) {
+            try (OperationLogReader reader = new OperationLogReader(file)) {
+                strings = reader.getStrings();
+                blocks = reader.getBlocks();
+                validLength = reader.getValidLength();
+            }
+        }
+        this.data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(OperationLogReader.indexOf(file), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        data.truncate(validLength);
+        dataWritten = validLength;
+        if (validLength == 0) {
+            dataBuffer.put(DATA_MAGIC).putInt(VERSION);
+        }
+        indexBuffer.put(INDEX_MAGIC).putInt(VERSION);
+        for (int id = 0; id < strings.size(); id++) {
+            if (strings.get(id) != null) {
+                ids.put(strings.get(id), id);
+                putIndexString(id, strings.get(id));
+            }
+        }
+        nextId = strings.size();
+        for (Block existing : blocks) {
+            putIndexBlock(existing);
+        }
+        block = new Block(Math.max(validLength, HEADER_SIZE));
+        flush();
+    }
+
+    /**
+     * Encodes an operation record, and the string records of any command type or action not seen before.
+     *
+     * @param event The record to write.
+     * @throws IOException If an I/O error occurs while writing a full buffer.
+     */
+    @Override
+    public void write(LogEvent event) throws IOException {
+        int action = intern(String.valueOf(event.message));
+        int type = intern(event.commandType);
+        byte[][] names = new byte[Math.min(event.targets.length, MAX_SHORT)][];
+        int length = 1 + 8 + 8 + 4 + 4 + 2;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = utf8(event.targets[i]);
+            length += 2 + names[i].length;
+        }
+        int count = names.length;
+
+        ByteBuffer target = reserve(4 + length);
+        target.putInt(length).put(TAG_OPERATION)
+                .putLong(event.timestamp).putLong(event.durationNanos)
+                .putInt(action).putInt(type).putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            target.putShort((short) names[i].length).put(names[i]);
+        }
+        release(target);
+        block.add(event.timestamp);
+        if (block.count >= BLOCK_RECORDS) {
+            closeBlock();
+        }
+    }
+
+    /**
+     * Writes the buffered records to the log, then the buffered entries to the index.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void flush() throws IOException {
+        dataWritten += drain(dataBuffer, data, dataWritten);
+        indexWritten += drain(indexBuffer, index, indexWritten);
+    }
+
+    /**
+     * Closes the current block, flushes and closes the log and index files.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            closeBlock();
+            flush();
+        } finally {
+            data.close();
+            index.close();
+        }
+    }
+
+    /**
+     * Retrieves the id of a string, writing a string record the first time it is used.
+     *
+     * @param value The string.
+     * @return The id of the string.
+     * @throws IOException If an I/O error occurs while writing a full buffer.
+     */
+    private int intern(String value) throws IOException {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        int newId = nextId++;
+        ids.put(value, newId);
+        byte[] bytes = utf8(value);
+        ByteBuffer target = reserve(4 + 1 + 4 + bytes.length);
+        target.putInt(1 + 4 + bytes.length).put(TAG_STRING).putInt(newId).put(bytes);
+        release(target);
+        putIndexString(newId, value);
+        return newId;
+    }
+
+    /**
+     * Finds room for a record of the given size, writing the buffer to the log if it is too full.
+     *
+     * @param size The size of the record, including its length prefix.
+     * @return The data buffer, or a buffer of its own for a record larger than the data buffer.
+     * @throws IOException If an I/O error occurs while writing the buffer.
+     */
+    private ByteBuffer reserve(int size) throws IOException {
+        if (dataBuffer.remaining() < size) {
+            dataWritten += drain(dataBuffer, data, dataWritten);
+        }
+        return size <= dataBuffer.capacity() ? dataBuffer : ByteBuffer.allocate(size);
+    }
+
+    /**
+     * Accounts for a record encoded into a buffer returned by {@link #reserve(int)}, writing it if it has its own buffer.
+     *
+     * @param target The buffer the record was encoded into.
+     * @throws IOException If an I/O error occurs while writing the record.
+     */
+    private void release(ByteBuffer target) throws IOException {
+        if (target != dataBuffer) {
+            dataWritten += drain(target, data, dataWritten);
+            block.end = dataWritten;
+        } else {
+            block.end = dataWritten + dataBuffer.position();
+        }
+    }
+
+    /**
+     * Appends the current block to the index and starts a new one.
+     *
+     * @throws IOException If an I/O error occurs while writing a full buffer.
+     */
+    private void closeBlock() throws IOException {
+        if (block.end > block.start) {
+            putIndexBlock(block);
+            block = new Block(block.end);
+        }
+    }
+
+    /**
+     * Buffers an index entry defining a string.
+     *
+     * @param id    The id of the string.
+     * @param value The string.
+     * @throws IOException If an I/O error occurs while writing a full buffer.
+     */
+    private void putIndexString(int id, String value) throws IOException {
+        byte[] bytes = utf8(value);
+        int length = Math.min(bytes.length, MAX_SHORT);
+        reserveIndex(1 + 4 + 2 + length);
+        indexBuffer.put(INDEX_STRING).putInt(id).putShort((short) length).put(bytes, 0, length);
+    }
+
+    /**
+     * Buffers an index entry describing a block.
+     *
+     * @param indexed The block.
+     * @throws IOException If an I/O error occurs while writing a full buffer.
+     */
+    private void putIndexBlock(Block indexed) throws IOException {
+        reserveIndex(1 + 8 + 8 + 8 + 8 + 4);
+        indexBuffer.put(INDEX_BLOCK).putLong(indexed.start).putLong(indexed.end)
+                .putLong(indexed.minTimestamp).putLong(indexed.maxTimestamp).putInt(indexed.count);
+    }
+
+    /**
+     * Makes room in the index buffer, writing the log first so the index never points past the written records.
+     *
+     * @param size The size of the entry.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void reserveIndex(int size) throws IOException {
+        if (indexBuffer.remaining() < size) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the content of a buffer at the given offset of a file and clears the buffer.
+     *
+     * @param buffer   The buffer, in write mode.
+     * @param channel  The file.
+     * @param position The offset to write at.
+     * @return The number of bytes written.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static int drain(ByteBuffer buffer, FileChannel channel, long position) throws IOException {
+        buffer.flip();
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        buffer.clear();
+        return written;
+    }
+
+    /**
+     * Encodes a string as UTF-8, cut to the maximum length of a string field.
+     *
+     * @param value The string.
+     * @return The UTF-8 bytes, at most 65535 of them.
+     */
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_SHORT) {
+            byte[] cut = new byte[MAX_SHORT];
+            System.arraycopy(bytes, 0, cut, 0, MAX_SHORT);
+            return cut;
+        }
+        return bytes;
+    }
+}
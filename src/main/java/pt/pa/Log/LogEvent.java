@@ -0,0 +1,76 @@
+package pt.pa.Log;
+
+import pt.pa.Commands.Command;
+import pt.pa.Document;
+import pt.pa.adts.Position;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The LogEvent class is a reusable slot of the {@link AsyncLogWriter} ring buffer.
+ * Slots are allocated once, when the ring buffer is created, and filled in place by the threads that log.
+ * <p>
+ * A slot never holds the command it describes: the text of the command and the names of its targets are read when
+ * the slot is filled, on the thread that logs, since they come from the file system that thread changes. The
+ * background thread only writes what the slot holds.
+ * </p>
+ */
+final class LogEvent {
+    long timestamp;
+    long durationNanos;
+    String message;
+    String command;
+    String commandType;
+    String[] targets;
+
+    /**
+     * Fills the slot with a record of a command, as the command is at this moment.
+     *
+     * @param timestamp     The time of the record, in milliseconds since the epoch.
+     * @param durationNanos The time the command took, in nanoseconds.
+     * @param message       The message to be logged.
+     * @param command       The command associated with the message.
+     */
+    void set(long timestamp, long durationNanos, String message, Command command) {
+        this.timestamp = timestamp;
+        this.durationNanos = durationNanos;
+        this.message = message;
+        this.command = String.valueOf(command);
+        this.commandType = command.getClass().getSimpleName();
+        List<Position<Document>> positions = command.getTargets();
+        String[] names = new String[positions.size()];
+        int count = 0;
+        for (Position<Document> position : positions) {
+            String name = nameOf(position);
+            if (name != null) {
+                names[count++] = name;
+            }
+        }
+        this.targets = count == names.length ? names : Arrays.copyOf(names, count);
+    }
+
+    /**
+     * Releases the references held by the slot once it has been written.
+     */
+    void clear() {
+        message = null;
+        command = null;
+        commandType = null;
+        targets = null;
+    }
+
+    /**
+     * Retrieves the name of a target document.
+     *
+     * @param position The target position, which may be null.
+     * @return The document name, or null if it is not available.
+     */
+    private static String nameOf(Position<Document> position) {
+        try {
+            return position == null ? null : position.element().getName();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
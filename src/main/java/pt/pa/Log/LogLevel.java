@@ -0,0 +1,55 @@
+package pt.pa.Log;
+
+import pt.pa.Commands.Command;
+import pt.pa.Commands.RemoveCommand;
+
+/**
+ * The LogLevel enum lists the values of the "LOGLEVEL" property of the "LogProperties" file and decides
+ * which commands each of them logs.
+ */
+public enum LogLevel {
+    /**
+     * Logs every command except removals.
+     */
+    FILES,
+    /**
+     * Logs removals only.
+     */
+    DEL,
+    /**
+     * Logs every command.
+     */
+    ALL;
+
+    /**
+     * Checks if a command is logged at this level.
+     *
+     * @param command The command to check.
+     * @return True if the command is logged, false otherwise.
+     */
+    public boolean accepts(Command command) {
+        return switch (this) {
+            case FILES -> !(command instanceof RemoveCommand);
+            case DEL -> command instanceof RemoveCommand;
+            case ALL -> true;
+        };
+    }
+
+    /**
+     * Parses the value of the "LOGLEVEL" property.
+     *
+     * @param value The property value.
+     * @return The corresponding level.
+     * @throws IllegalArgumentException If the value is not a valid level.
+     */
+    public static LogLevel parse(String value) {
+        if (value != null) {
+            for (LogLevel level : values()) {
+                if (level.name().equals(value.trim())) {
+                    return level;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid log property");
+    }
+}
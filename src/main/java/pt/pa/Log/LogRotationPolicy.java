@@ -0,0 +1,111 @@
+package pt.pa.Log;
+
+import java.util.Properties;
+
+/**
+ * The LogRotationPolicy class describes when log files are rotated and how many rotated segments are kept.
+ * <p>
+ * A log file is rotated when it reaches {@link #getMaxBytes()} or, if daily rotation is enabled, when the first
+ * record of a new day is logged. Rotated segments are compressed with gzip in the background; the oldest are
+ * deleted once there are more than {@link #getMaxSegments()} of them or they are older than {@link #getMaxAgeDays()}.
+ * A limit of 0 disables that rule.
+ * </p>
+ * The policy is read from the "LogProperties" file with the properties "LOGMAXBYTES", "LOGROTATEDAILY",
+ * "LOGMAXSEGMENTS" and "LOGMAXAGEDAYS".
+ */
+public final class LogRotationPolicy {
+
+    /**
+     * The default maximum size of a log file before it is rotated: 10 MB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+
+    /**
+     * The default number of rotated segments kept for each log.
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 30;
+
+    /**
+     * The default age, in days, after which rotated segments are deleted.
+     */
+    public static final int DEFAULT_MAX_AGE_DAYS = 90;
+
+    private final long maxBytes;
+    private final boolean daily;
+    private final int maxSegments;
+    private final int maxAgeDays;
+
+    /**
+     * Constructs a LogRotationPolicy.
+     *
+     * @param maxBytes    The size at which a log file is rotated, or 0 to not rotate by size.
+     * @param daily       True to rotate when the day changes.
+     * @param maxSegments The number of rotated segments to keep, or 0 to keep any number.
+     * @param maxAgeDays  The age in days after which rotated segments are deleted, or 0 to keep them regardless of age.
+     * @throws IllegalArgumentException If a limit is negative.
+     */
+    public LogRotationPolicy(long maxBytes, boolean daily, int maxSegments, int maxAgeDays) {
+        if (maxBytes < 0 || maxSegments < 0 || maxAgeDays < 0) {
+            throw new IllegalArgumentException("Log rotation limits cannot be negative.");
+        }
+        this.maxBytes = maxBytes;
+        this.daily = daily;
+        this.maxSegments = maxSegments;
+        this.maxAgeDays = maxAgeDays;
+    }
+
+    /**
+     * Reads a policy from the properties of the "LogProperties" file, using the defaults for missing properties.
+     *
+     * @param appProps The properties.
+     * @return The policy.
+     * @throws IllegalArgumentException If an invalid log property is specified.
+     */
+    public static LogRotationPolicy fromProperties(Properties appProps) {
+        try {
+            return new LogRotationPolicy(
+                    Long.parseLong(appProps.getProperty("LOGMAXBYTES", String.valueOf(DEFAULT_MAX_BYTES)).trim()),
+                    Boolean.parseBoolean(appProps.getProperty("LOGROTATEDAILY", "true").trim()),
+                    Integer.parseInt(appProps.getProperty("LOGMAXSEGMENTS", String.valueOf(DEFAULT_MAX_SEGMENTS)).trim()),
+                    Integer.parseInt(appProps.getProperty("LOGMAXAGEDAYS", String.valueOf(DEFAULT_MAX_AGE_DAYS)).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid log property", e);
+        }
+    }
+
+    /**
+     * Retrieves the size at which a log file is rotated.
+     *
+     * @return The size in bytes, or 0 if logs are not rotated by size.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Checks if log files are rotated when the day changes.
+     *
+     * @return True if logs are rotated daily, false otherwise.
+     */
+    public boolean isDaily() {
+        return daily;
+    }
+
+    /**
+     * Retrieves the number of rotated segments kept for each log.
+     *
+     * @return The number of segments, or 0 if any number is kept.
+     */
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    /**
+     * Retrieves the age after which rotated segments are deleted.
+     *
+     * @return The age in days, or 0 if segments are kept regardless of age.
+     */
+    public int getMaxAgeDays() {
+        return maxAgeDays;
+    }
+}
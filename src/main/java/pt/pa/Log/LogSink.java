@@ -0,0 +1,32 @@
+package pt.pa.Log;
+
+import java.io.IOException;
+
+/**
+ * The LogSink interface is implemented by the log file formats written by an {@link AsyncLogWriter}.
+ * Its methods are only called from the background thread of the writer.
+ */
+interface LogSink {
+
+    /**
+     * Writes one record. The record may stay buffered until the next {@link #flush()}.
+     *
+     * @param event The record to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    void write(LogEvent event) throws IOException;
+
+    /**
+     * Writes the buffered records to the file. Called once per batch.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Flushes and closes the file.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    void close() throws IOException;
+}
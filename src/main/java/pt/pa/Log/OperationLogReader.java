@@ -0,0 +1,510 @@
+package pt.pa.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The OperationLogReader class reads and queries the binary operation log written by {@link ProcedureLogger}.
+ * <p>
+ * The log file starts with an 8-byte magic and a version number, followed by length-prefixed records:
+ * string records, which assign an id to a command type or action the first time it is used, and operation
+ * records, holding the timestamp, duration, action id, command type id and the names the target documents had
+ * when the command was logged.
+ * </p>
+ * <p>
+ * A sidecar ".idx" file repeats the string records and, for every block of {@link BinaryLogSink#BLOCK_RECORDS}
+ * operations, stores its file offsets and its earliest and latest timestamps. A query by time range only reads the
+ * blocks that overlap the range, and a query by command type compares integer ids instead of strings. Records
+ * written after the last indexed block (the block still being filled, or the tail left by a crash) are found by
+ * scanning, and a missing or damaged index is rebuilt the same way.
+ * </p>
+ * It can also be run from the command line:
+ * <pre>
+ * java pt.pa.Log.OperationLogReader &lt;log file&gt; [command type|*] [from] [to]
+ * </pre>
+ * where {@code from} and {@code to} are ISO-8601 instants or epoch milliseconds.
+ */
+public class OperationLogReader implements AutoCloseable {
+
+    static final byte[] DATA_MAGIC = "PFSOPLOG".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] INDEX_MAGIC = "PFSOPIDX".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final byte TAG_STRING = 1;
+    static final byte TAG_OPERATION = 2;
+    static final byte INDEX_STRING = 1;
+    static final byte INDEX_BLOCK = 2;
+    static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<Block> blocks = new ArrayList<>();
+    private final long validLength;
+
+    /**
+     * Opens an operation log for reading, loading its index and scanning the records the index does not cover.
+     *
+     * @param file The operation log file.
+     * @throws IOException If the file cannot be read or is not an operation log.
+     */
+    public OperationLogReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            checkHeader(file, size);
+            long indexedEnd = readIndex(indexOf(file), size);
+
+            Block tail = new Block(indexedEnd);
+            validLength = scan(indexedEnd, size, (tag, record) -> {
+                if (tag == TAG_STRING) {
+                    readString(record);
+                } else if (tag == TAG_OPERATION) {
+                    tail.add(record.getLong(record.position()));
+                }
+            });
+            tail.end = validLength;
+            if (tail.end > tail.start) {
+                blocks.add(tail);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the path of the index file of an operation log.
+     *
+     * @param file The operation log file.
+     * @return The path of its ".idx" sidecar file.
+     */
+    static Path indexOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    /**
+     * Finds the operations of a command type logged within a time range.
+     *
+     * @param commandType The simple class name of the command, or null for every type.
+     * @param fromMillis  The start of the range, inclusive, in milliseconds since the epoch.
+     * @param toMillis    The end of the range, inclusive, in milliseconds since the epoch.
+     * @return The matching operations, in the order they were logged.
+     * @throws IOException If an I/O error occurs while reading the log.
+     */
+    public List<OperationRecord> query(String commandType, long fromMillis, long toMillis) throws IOException {
+        int typeId = -1;
+        if (commandType != null) {
+            Integer id = ids.get(commandType);
+            if (id == null) {
+                return Collections.emptyList();
+            }
+            typeId = id;
+        }
+        int wantedType = typeId;
+        List<OperationRecord> result = new ArrayList<>();
+        for (Block block : blocks) {
+            if (block.maxTimestamp < fromMillis || block.minTimestamp > toMillis) {
+                continue;
+            }
+            scan(block.start, block.end, (tag, record) -> {
+                if (tag != TAG_OPERATION) {
+                    return;
+                }
+                long timestamp = record.getLong();
+                if (timestamp < fromMillis || timestamp > toMillis) {
+                    return;
+                }
+                long duration = record.getLong();
+                int action = record.getInt();
+                int type = record.getInt();
+                if (wantedType >= 0 && type != wantedType) {
+                    return;
+                }
+                int count = record.getShort() & 0xFFFF;
+                String[] targets = new String[count];
+                for (int i = 0; i < count; i++) {
+                    targets[i] = readUtf(record, record.getShort() & 0xFFFF);
+                }
+                result.add(new OperationRecord(timestamp, duration, stringAt(action), stringAt(type),
+                        Collections.unmodifiableList(Arrays.asList(targets))));
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Reads every operation of the log.
+     *
+     * @return The operations, in the order they were logged.
+     * @throws IOException If an I/O error occurs while reading the log.
+     */
+    public List<OperationRecord> readAll() throws IOException {
+        return query(null, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves the number of operations in the log.
+     *
+     * @return The number of operation records.
+     */
+    public long getRecordCount() {
+        long count = 0;
+        for (Block block : blocks) {
+            count += block.count;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the number of blocks the log is divided into, including the unindexed tail.
+     *
+     * @return The number of blocks.
+     */
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * Closes the log file.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Retrieves the strings defined in the log, indexed by id.
+     *
+     * @return The strings, with null for unused ids.
+     */
+    List<String> getStrings() {
+        return strings;
+    }
+
+    /**
+     * Retrieves the blocks of the log, including the unindexed tail.
+     *
+     * @return The blocks, in file order.
+     */
+    List<Block> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Retrieves the length of the log up to its last complete record.
+     *
+     * @return The valid length in bytes.
+     */
+    long getValidLength() {
+        return validLength;
+    }
+
+    /**
+     * Checks the magic and version at the start of the log.
+     *
+     * @param file The log file, for the error message.
+     * @param size The size of the log file.
+     * @throws IOException If the file is not an operation log of a supported version.
+     */
+    private void checkHeader(Path file, long size) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            if (header.position() >= size) {
+                break;
+            }
+        }
+        header.flip();
+        if (!hasHeader(header, DATA_MAGIC)) {
+            throw new IOException("Not an operation log: " + file);
+        }
+    }
+
+    /**
+     * Reads and checks the magic and version at the start of a buffer.
+     *
+     * @param buffer The buffer, positioned at the header.
+     * @param magic  The expected magic.
+     * @return True if the header is complete and matches, false otherwise.
+     */
+    private static boolean hasHeader(ByteBuffer buffer, byte[] magic) {
+        if (buffer.remaining() < HEADER_SIZE) {
+            return false;
+        }
+        byte[] actual = new byte[magic.length];
+        buffer.get(actual);
+        return Arrays.equals(actual, magic) && buffer.getInt() == VERSION;
+    }
+
+    /**
+     * Loads the string ids and the blocks from the index file.
+     * Reading stops at the first truncated entry or at a block that does not follow the previous one.
+     *
+     * @param indexFile The index file.
+     * @param size      The size of the log file.
+     * @return The log offset up to which the index covers the records.
+     * @throws IOException If an I/O error occurs while reading the index.
+     */
+    private long readIndex(Path indexFile, long size) throws IOException {
+        long indexedEnd = HEADER_SIZE;
+        if (!Files.isRegularFile(indexFile)) {
+            return indexedEnd;
+        }
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        if (!hasHeader(index, INDEX_MAGIC)) {
+            return indexedEnd;
+        }
+        while (index.hasRemaining()) {
+            byte tag = index.get();
+            if (tag == INDEX_STRING && index.remaining() >= 6) {
+                int id = index.getInt();
+                int length = index.getShort() & 0xFFFF;
+                if (index.remaining() < length) {
+                    break;
+                }
+                define(id, readUtf(index, length));
+            } else if (tag == INDEX_BLOCK && index.remaining() >= 36) {
+                Block block = new Block(index.getLong());
+                block.end = index.getLong();
+                block.minTimestamp = index.getLong();
+                block.maxTimestamp = index.getLong();
+                block.count = index.getInt();
+                if (block.start != indexedEnd || block.end > size || block.end < block.start) {
+                    break;
+                }
+                blocks.add(block);
+                indexedEnd = block.end;
+            } else {
+                break;
+            }
+        }
+        return indexedEnd;
+    }
+
+    /**
+     * Reads the records between two offsets of the log, passing each one to a visitor.
+     * The buffer given to the visitor is positioned after the record tag and limited to the end of the record.
+     *
+     * @param start   The offset of the first record.
+     * @param end     The offset at which to stop.
+     * @param visitor The visitor of the records.
+     * @return The offset after the last complete record read.
+     * @throws IOException If an I/O error occurs while reading the log.
+     */
+    private long scan(long start, long end, RecordVisitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(READ_BUFFER_SIZE, Math.max(16, end - start)));
+        buffer.flip();
+        long readPosition = start;
+        long recordOffset = start;
+        while (true) {
+            if (buffer.remaining() < 4) {
+                int before = buffer.remaining();
+                buffer = refill(buffer, 4, readPosition, end);
+                readPosition += buffer.remaining() - before;
+            }
+            if (buffer.remaining() < 4) {
+                break;
+            }
+            int length = buffer.getInt(buffer.position());
+            if (length < 1 || length > MAX_RECORD_SIZE) {
+                break;
+            }
+            if (buffer.remaining() < 4 + length) {
+                int before = buffer.remaining();
+                buffer = refill(buffer, 4 + length, readPosition, end);
+                readPosition += buffer.remaining() - before;
+                if (buffer.remaining() < 4 + length) {
+                    break;
+                }
+            }
+            int recordEnd = buffer.position() + 4 + length;
+            int limit = buffer.limit();
+            buffer.position(buffer.position() + 4);
+            byte tag = buffer.get();
+            buffer.limit(recordEnd);
+            try {
+                visitor.visit(tag, buffer);
+            } catch (RuntimeException e) {
+                break;
+            }
+            buffer.limit(limit);
+            buffer.position(recordEnd);
+            recordOffset += 4 + length;
+        }
+        return recordOffset;
+    }
+
+    /**
+     * Moves the unread bytes of the buffer to its start and reads more of the log after them.
+     *
+     * @param buffer       The buffer, ready to be read.
+     * @param needed       The number of bytes the caller needs.
+     * @param readPosition The log offset of the first byte not yet read into the buffer.
+     * @param end          The offset at which to stop reading.
+     * @return The buffer, replaced by a larger one if it could not hold the needed bytes, ready to be read.
+     * @throws IOException If an I/O error occurs while reading the log.
+     */
+    private ByteBuffer refill(ByteBuffer buffer, int needed, long readPosition, long end) throws IOException {
+        if (buffer.capacity() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(needed);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        long position = readPosition;
+        while (buffer.hasRemaining() && position < end) {
+            if (end - position < buffer.remaining()) {
+                buffer.limit(buffer.position() + (int) (end - position));
+            }
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads a string record and registers its id.
+     *
+     * @param record The record, positioned after its tag.
+     */
+    private void readString(ByteBuffer record) {
+        int id = record.getInt();
+        define(id, readUtf(record, record.remaining()));
+    }
+
+    /**
+     * Registers the string of an id.
+     *
+     * @param id    The id.
+     * @param value The string.
+     */
+    private void define(int id, String value) {
+        while (strings.size() <= id) {
+            strings.add(null);
+        }
+        strings.set(id, value);
+        ids.put(value, id);
+    }
+
+    /**
+     * Retrieves the string of an id.
+     *
+     * @param id The id.
+     * @return The string, or "?" if the id is unknown.
+     */
+    private String stringAt(int id) {
+        String value = id >= 0 && id < strings.size() ? strings.get(id) : null;
+        return value == null ? "?" : value;
+    }
+
+    /**
+     * Decodes UTF-8 bytes from a buffer.
+     *
+     * @param buffer The buffer, positioned at the bytes.
+     * @param length The number of bytes.
+     * @return The decoded string.
+     */
+    private static String readUtf(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Prints the operations of a log that match a command type and time range.
+     *
+     * @param args The log file, and optionally the command type ("*" for every type) and the time range.
+     * @throws IOException If the log cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: OperationLogReader <log file> [command type|*] [from] [to]");
+            return;
+        }
+        String type = args.length > 1 && !args[1].equals("*") ? args[1] : null;
+        long from = args.length > 2 ? parseTime(args[2]) : Long.MIN_VALUE;
+        long to = args.length > 3 ? parseTime(args[3]) : Long.MAX_VALUE;
+        try (OperationLogReader reader = new OperationLogReader(Paths.get(args[0]))) {
+            List<OperationRecord> records = reader.query(type, from, to);
+            for (OperationRecord record : records) {
+                System.out.println(record);
+            }
+            System.out.println(records.size() + " of " + reader.getRecordCount() + " operations");
+        }
+    }
+
+    /**
+     * Parses a time given on the command line.
+     *
+     * @param value An ISO-8601 instant or a number of milliseconds since the epoch.
+     * @return The time in milliseconds since the epoch.
+     */
+    private static long parseTime(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return Instant.parse(value).toEpochMilli();
+        }
+    }
+
+    /**
+     * The RecordVisitor interface receives the records read by {@link #scan(long, long, RecordVisitor)}.
+     */
+    private interface RecordVisitor {
+        void visit(byte tag, ByteBuffer record) throws IOException;
+    }
+
+    /**
+     * The Block class describes a run of consecutive records of the log and the time range of its operations.
+     */
+    static final class Block {
+        final long start;
+        long end;
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        int count;
+
+        /**
+         * Constructs an empty Block starting at the given offset.
+         *
+         * @param start The offset of the first record of the block.
+         */
+        Block(long start) {
+            this.start = start;
+            this.end = start;
+        }
+
+        /**
+         * Accounts for an operation of the block.
+         *
+         * @param timestamp The timestamp of the operation.
+         */
+        void add(long timestamp) {
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            count++;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package pt.pa.Log;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The OperationRecord class is one entry of the binary operation log: what was done, to which documents,
+ * when and how long it took.
+ *
+ * @see OperationLogReader
+ */
+public final class OperationRecord {
+    private final long timestamp;
+    private final long durationNanos;
+    private final String action;
+    private final String commandType;
+    private final List<String> targets;
+
+    /**
+     * Constructs an OperationRecord.
+     *
+     * @param timestamp     The time the operation was logged, in milliseconds since the epoch.
+     * @param durationNanos The time the operation took, in nanoseconds, or 0 if it was not measured.
+     * @param action        The log message, such as "Execute:", "Unexecute:" or "Redo:".
+     * @param commandType   The simple class name of the command.
+     * @param targets       The names the documents the command operated on had when it was logged.
+     */
+    OperationRecord(long timestamp, long durationNanos, String action, String commandType, List<String> targets) {
+        this.timestamp = timestamp;
+        this.durationNanos = durationNanos;
+        this.action = action;
+        this.commandType = commandType;
+        this.targets = targets;
+    }
+
+    /**
+     * Retrieves the time the operation was logged.
+     *
+     * @return The timestamp, in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Retrieves the time the operation took.
+     *
+     * @return The duration in nanoseconds, or 0 if it was not measured.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Retrieves the log message of the operation.
+     *
+     * @return The action, such as "Execute:", "Unexecute:" or "Redo:".
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * Retrieves the type of command of the operation.
+     *
+     * @return The simple class name of the command.
+     */
+    public String getCommandType() {
+        return commandType;
+    }
+
+    /**
+     * Retrieves the documents the command operated on.
+     *
+     * @return An unmodifiable list with the names the documents had when the command was logged.
+     */
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    /**
+     * Returns a string representation of this OperationRecord.
+     * The string contains the time, the action, the command type, the targets and the duration.
+     *
+     * @return A string representation of this OperationRecord.
+     */
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestamp) + " " + action + " " + commandType + " " + targets
+                + " (" + durationNanos / 1000 + " us)";
+    }
+}
@@ -1,74 +1,207 @@
 package pt.pa.Log;
 
 import pt.pa.Commands.Command;
-import pt.pa.Commands.RemoveCommand;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.List;
 import java.util.Properties;
-import java.util.logging.FileHandler;
-import java.util.logging.Handler;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-import java.util.logging.SimpleFormatter;
 
 /**
  * The ProcedureLogger class provides logging functionality for procedures and exceptions in the application.
  * It supports different logging levels based on the application properties.
+ * <p>
+ * Every instance shares one {@link AsyncLogWriter}, so creating loggers is cheap and the log file is opened once
+ * per application. The logging level is read from the "LogProperties" file when the first logger is created and
+ * again on {@link #reload()}; commands that the level filters out are discarded before anything is formatted.
+ * </p>
+ * The "LOGFORMAT" property selects the files written: "TEXT" (the default) appends to "procedure_log.txt",
+ * "BINARY" appends to the "operation_log.bin" log read by {@link OperationLogReader}, and "BOTH" writes both.
+ * Both files are rotated by size and by day, and their rotated segments gzipped, as set by {@link LogRotationPolicy}.
  */
 public class ProcedureLogger {
 
-    private static final Logger logger = Logger.getLogger(ProcedureLogger.class.getName());
-    private Properties appProps = new Properties();
+    private static final String LOG_FOLDER = "src/main/java/pt/pa/Log";
+    private static final Path LOG_FILE = Paths.get(LOG_FOLDER, "procedure_log.txt");
+    private static final Path OPERATION_LOG_FILE = Paths.get(LOG_FOLDER, "operation_log.bin");
+    private static final Path PROPERTIES_FILE = Paths.get(LOG_FOLDER, "LogProperties");
+
+    private static volatile LogLevel level;
+    private static volatile AsyncLogWriter writer;
+    private static boolean started;
 
     /**
      * Constructs a ProcedureLogger and initializes logging configurations based on properties files.
-     * The logger is configured to append log messages to the "procedure_log.txt" file.
-     * The logging level is determined by the "LOGLEVEL" property in the "LogProperties" file.
+     * The first logger created opens the "procedure_log.txt" file, to which every logger appends, and reads
+     * the "LOGLEVEL" property of the "LogProperties" file.
+     *
+     * @throws IllegalArgumentException If an invalid log property is specified.
      */
     public ProcedureLogger() {
-        try {
-            String logFilePath = Paths.get("src/main/java/pt/pa/Log", "procedure_log.txt").toString();
-            Handler fileHandler = new FileHandler(logFilePath, true);
-            fileHandler.setFormatter(new SimpleFormatter());
-            logger.setLevel(Level.ALL);
-            logger.addHandler(fileHandler);
+        start();
+    }
 
-            String logPropertiesFilePath = Paths.get("src/main/java/pt/pa/Log", "LogProperties").toString();
-            appProps.load(new FileInputStream(logPropertiesFilePath));
+    /**
+     * Logs information based on the specified message and command.
+     * The record is enqueued and written to the log file by a background thread.
+     *
+     * @param message The message to be logged.
+     * @param command The command associated with the log message.
+     */
+    public void infoLog(String message, Command command) {
+        infoLog(message, command, 0);
+    }
+
+    /**
+     * Logs information based on the specified message and command, with the time the command took to run.
+     * The duration is recorded by the binary operation log.
+     *
+     * @param message       The message to be logged.
+     * @param command       The command associated with the log message.
+     * @param durationNanos The time the command took, in nanoseconds.
+     */
+    public void infoLog(String message, Command command, long durationNanos) {
+        AsyncLogWriter current = writer;
+        if (current != null && level.accepts(command)) {
+            current.publish(message, command, durationNanos);
+        }
+    }
 
+    /**
+     * Retrieves the logging level currently in use.
+     *
+     * @return The logging level.
+     */
+    public static LogLevel getLevel() {
+        start();
+        return level;
+    }
+
+    /**
+     * Reads the "LOGLEVEL" property of the "LogProperties" file again, applying it to every logger.
+     *
+     * @throws IllegalArgumentException If an invalid log property is specified.
+     */
+    public static synchronized void reload() {
+        level = readLevel();
+    }
+
+    /**
+     * Waits until every record logged so far has been written to the log file.
+     *
+     * @param timeoutMillis The maximum time to wait, in milliseconds.
+     * @return True if every record was written, false if the timeout elapsed first.
+     */
+    public static boolean flush(long timeoutMillis) {
+        AsyncLogWriter current = writer;
+        return current == null || current.flush(timeoutMillis);
+    }
+
+    /**
+     * Opens the shared log writer and reads the logging level, if this has not been done yet.
+     * The writer is closed by a shutdown hook, so the records still queued reach the file when the application exits.
+     * If the log files cannot be opened, nothing is logged.
+     */
+    private static synchronized void start() {
+        if (started) {
+            return;
+        }
+        Properties appProps = readProperties();
+        level = levelOf(appProps);
+        started = true;
+        try {
+            AsyncLogWriter opened = new AsyncLogWriter(openSinks(appProps), AsyncLogWriter.DEFAULT_CAPACITY);
+            Runtime.getRuntime().addShutdownHook(new Thread(opened::close, "pfs-log-shutdown"));
+            writer = opened;
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Logs information based on the specified message and command.
-     * The logging behavior is determined by the "LOGLEVEL" property in the "LogProperties" file.
+     * Opens the log files selected by the "LOGFORMAT" property, rotated as described by the {@link LogRotationPolicy}.
      *
-     * @param message The message to be logged.
-     * @param command The command associated with the log message.
+     * @param appProps The properties of the "LogProperties" file.
+     * @return The sinks writing the selected files.
+     * @throws IOException              If a log file cannot be opened.
      * @throws IllegalArgumentException If an invalid log property is specified.
      */
-    public void infoLog(String message, Command command) {
-        String logLevel = (String) appProps.get("LOGLEVEL");
-        switch (logLevel) {
-            case "FILES":
-                if (!(command instanceof RemoveCommand)) {
-                    logger.info(message + " " + command);
-                }
-                break;
-            case "DEL":
-                if (command instanceof RemoveCommand) {
-                    logger.info(message + " " + command);
-                }
-                break;
-            case "ALL":
-                logger.info(message + " " + command);
-                break;
+    private static List<LogSink> openSinks(Properties appProps) throws IOException {
+        LogRotationPolicy policy = LogRotationPolicy.fromProperties(appProps);
+        switch (appProps.getProperty("LOGFORMAT", "TEXT").trim()) {
+            case "TEXT":
+                return List.of(textSink(policy));
+            case "BINARY":
+                return List.of(binarySink(policy));
+            case "BOTH":
+                return List.of(textSink(policy), binarySink(policy));
             default:
                 throw new IllegalArgumentException("Invalid log property");
         }
     }
+
+    /**
+     * Opens the rotated text log.
+     *
+     * @param policy The rotation policy.
+     * @return The sink writing "procedure_log.txt".
+     * @throws IOException If the log file cannot be opened.
+     */
+    private static LogSink textSink(LogRotationPolicy policy) throws IOException {
+        return new RotatingLogSink(List.of(LOG_FILE), () -> new TextLogSink(LOG_FILE), policy,
+                SegmentCompressor.SHARED, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Opens the rotated binary operation log, whose segments include their index.
+     *
+     * @param policy The rotation policy.
+     * @return The sink writing "operation_log.bin".
+     * @throws IOException If the log file cannot be opened.
+     */
+    private static LogSink binarySink(LogRotationPolicy policy) throws IOException {
+        return new RotatingLogSink(List.of(OPERATION_LOG_FILE, OperationLogReader.indexOf(OPERATION_LOG_FILE)),
+                () -> new BinaryLogSink(OPERATION_LOG_FILE), policy, SegmentCompressor.SHARED, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Reads the "LOGLEVEL" property of the "LogProperties" file.
+     * If the file cannot be read, every command is logged.
+     *
+     * @return The logging level.
+     * @throws IllegalArgumentException If an invalid log property is specified.
+     */
+    private static LogLevel readLevel() {
+        return levelOf(readProperties());
+    }
+
+    /**
+     * Retrieves the logging level from the properties.
+     *
+     * @param appProps The properties of the "LogProperties" file.
+     * @return The logging level, or {@link LogLevel#ALL} if the property is missing.
+     * @throws IllegalArgumentException If an invalid log property is specified.
+     */
+    private static LogLevel levelOf(Properties appProps) {
+        return LogLevel.parse(appProps.getProperty("LOGLEVEL", LogLevel.ALL.name()));
+    }
+
+    /**
+     * Reads the "LogProperties" file.
+     *
+     * @return The properties, empty if the file cannot be read.
+     */
+    private static Properties readProperties() {
+        Properties appProps = new Properties();
+        try (InputStream in = new FileInputStream(PROPERTIES_FILE.toFile())) {
+            appProps.load(in);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return appProps;
+    }
 }
@@ -0,0 +1,275 @@
+package pt.pa.Log;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The RotatingLogSink class rotates the files of another sink according to a {@link LogRotationPolicy}.
+ * <p>
+ * The size of the log is checked after each batch and the day of each record before it is written, so a batch
+ * is never split across files and every record lands in the segment of its day. Rotating closes the sink, renames
+ * its files to {@code <name>-<yyyy-MM-dd>-<n><extension>} (the day the segment was started and a sequence number)
+ * and opens a fresh sink. The renamed files are then compressed and the retention policy applied by the
+ * {@link SegmentCompressor} thread, so the log writer only pays for a close, a rename and an open.
+ * </p>
+ * Rotation only happens while records are being written, so opening a log never renames it. Segments left
+ * uncompressed by an earlier run, and temporary files left by an interrupted compression, are handled when the
+ * sink is created.
+ */
+class RotatingLogSink implements LogSink {
+
+    /**
+     * The SinkFactory interface opens a new sink on the log files.
+     */
+    interface SinkFactory {
+        LogSink open() throws IOException;
+    }
+
+    private final List<Path> files;
+    private final SinkFactory factory;
+    private final LogRotationPolicy policy;
+    private final SegmentCompressor compressor;
+    private final Clock clock;
+    private final Path folder;
+    private final String stem;
+    private final String extension;
+    private final Pattern segmentPattern;
+    private LogSink current;
+    private LocalDate openedDay;
+    private long rotations;
+
+    /**
+     * Constructs a RotatingLogSink appending to the existing log, whose segment is dated by its last modification.
+     * An existing log of an earlier day, or one that is too large, is rotated when the next record is written.
+     *
+     * @param files      The files written by the sink: the log file first, then any companion files whose names
+     *                   start with the name of the log file (such as its index).
+     * @param factory    Opens the sink on the log files.
+     * @param policy     The rotation policy.
+     * @param compressor The compressor of rotated segments.
+     * @param clock      The clock giving the current day.
+     * @throws IOException If the log cannot be rotated or opened.
+     */
+    RotatingLogSink(List<Path> files, SinkFactory factory, LogRotationPolicy policy, SegmentCompressor compressor,
+                    Clock clock) throws IOException {
+        this.files = List.copyOf(files);
+        this.factory = factory;
+        this.policy = policy;
+        this.compressor = compressor;
+        this.clock = clock;
+        Path main = this.files.get(0);
+        this.folder = main.toAbsolutePath().getParent();
+        String name = main.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.stem = dot > 0 ? name.substring(0, dot) : name;
+        this.extension = dot > 0 ? name.substring(dot) : "";
+        this.segmentPattern = Pattern.compile(Pattern.quote(stem) + "-(\\d{4}-\\d{2}-\\d{2})-(\\d+)"
+                + Pattern.quote(extension) + "(.*)");
+
+        openedDay = LocalDate.now(clock);
+        if (Files.isRegularFile(main) && Files.size(main) > 0) {
+            openedDay = LocalDate.ofInstant(Files.getLastModifiedTime(main).toInstant(), clock.getZone());
+        }
+        current = factory.open();
+        compressor.submit(this::compressLeftovers);
+    }
+
+    /**
+     * Writes a record, rotating the log first if the record belongs to a later day than the current segment.
+     *
+     * @param event The record to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void write(LogEvent event) throws IOException {
+        if (policy.isDaily()) {
+            LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(event.timestamp), clock.getZone());
+            if (day.isAfter(openedDay)) {
+                rotate(day);
+            }
+        }
+        if (current == null) {
+            current = factory.open();
+        }
+        current.write(event);
+    }
+
+    /**
+     * Flushes the batch, then rotates the log if it has reached the maximum size.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (current == null) {
+            return;
+        }
+        current.flush();
+        if (exceedsSize()) {
+            rotate(LocalDate.now(clock));
+        }
+    }
+
+    /**
+     * Closes the current log file without rotating it.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    /**
+     * Retrieves the number of times the log was rotated by this sink.
+     *
+     * @return The number of rotations.
+     */
+    long getRotations() {
+        return rotations;
+    }
+
+    /**
+     * Checks if the log file has reached the maximum size.
+     *
+     * @return True if the log must be rotated by size, false otherwise.
+     * @throws IOException If the size of the file cannot be read.
+     */
+    private boolean exceedsSize() throws IOException {
+        Path main = files.get(0);
+        return policy.getMaxBytes() > 0 && Files.isRegularFile(main) && Files.size(main) >= policy.getMaxBytes();
+    }
+
+    /**
+     * Closes the log, renames its files to a new segment, opens a fresh log and queues the segment for compression.
+     *
+     * @param newDay The day of the new segment.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void rotate(LocalDate newDay) throws IOException {
+        close();
+        String segment = stem + "-" + openedDay + "-" + nextSequence(openedDay);
+        String mainName = files.get(0).getFileName().toString();
+        List<Path> rotated = new ArrayList<>();
+        for (Path file : files) {
+            if (Files.exists(file)) {
+                String suffix = file.getFileName().toString().substring(mainName.length());
+                rotated.add(Files.move(file, folder.resolve(segment + extension + suffix)));
+            }
+        }
+        openedDay = newDay;
+        rotations++;
+        current = factory.open();
+        compressor.submit(() -> {
+            for (Path file : rotated) {
+                try {
+                    if (Files.exists(file)) {
+                        SegmentCompressor.gzip(file);
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            applyRetention();
+        });
+    }
+
+    /**
+     * Finds the next free sequence number of the segments of a day.
+     *
+     * @param day The day.
+     * @return The sequence number.
+     * @throws IOException If the folder cannot be listed.
+     */
+    private int nextSequence(LocalDate day) throws IOException {
+        int last = 0;
+        for (Map.Entry<String, List<Path>> entry : listSegments().entrySet()) {
+            if (entry.getKey().startsWith(day.toString())) {
+                last = Math.max(last, Integer.parseInt(entry.getKey().substring(11)));
+            }
+        }
+        return last + 1;
+    }
+
+    /**
+     * Deletes the segments older than the maximum age, then the oldest ones beyond the maximum number of segments.
+     * Runs on the compression thread.
+     */
+    private void applyRetention() {
+        try {
+            TreeMap<String, List<Path>> segments = listSegments();
+            LocalDate oldestKept = LocalDate.now(clock).minusDays(policy.getMaxAgeDays());
+            while (!segments.isEmpty()) {
+                Map.Entry<String, List<Path>> oldest = segments.firstEntry();
+                boolean tooOld = policy.getMaxAgeDays() > 0
+                        && LocalDate.parse(oldest.getKey().substring(0, 10)).isBefore(oldestKept);
+                boolean tooMany = policy.getMaxSegments() > 0 && segments.size() > policy.getMaxSegments();
+                if (!tooOld && !tooMany) {
+                    break;
+                }
+                for (Path file : oldest.getValue()) {
+                    Files.deleteIfExists(file);
+                }
+                segments.pollFirstEntry();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Compresses the segments an earlier run rotated but did not compress, and removes unfinished compressions.
+     * Runs on the compression thread.
+     */
+    private void compressLeftovers() {
+        try {
+            for (List<Path> segment : listSegments().values()) {
+                for (Path file : segment) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".gz.tmp")) {
+                        Files.deleteIfExists(file);
+                    } else if (!name.endsWith(".gz")) {
+                        SegmentCompressor.gzip(file);
+                    }
+                }
+            }
+            applyRetention();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lists the rotated segments of the log.
+     *
+     * @return The files of each segment, keyed by "yyyy-MM-dd-nnnnnnnnnn" so that keys sort from oldest to newest.
+     * @throws IOException If the folder cannot be listed.
+     */
+    private TreeMap<String, List<Path>> listSegments() throws IOException {
+        TreeMap<String, List<Path>> segments = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, stem + "-*")) {
+            for (Path file : stream) {
+                Matcher matcher = segmentPattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    String key = matcher.group(1) + "-" + String.format("%010d", Long.parseLong(matcher.group(2)));
+                    segments.computeIfAbsent(key, k -> new ArrayList<>()).add(file);
+                }
+            }
+        }
+        return segments;
+    }
+}
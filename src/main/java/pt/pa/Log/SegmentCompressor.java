@@ -0,0 +1,61 @@
+package pt.pa.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The SegmentCompressor class compresses rotated log segments on a background thread, so rotating a log
+ * never makes the log writer wait for the compression of the previous segment.
+ */
+final class SegmentCompressor {
+
+    /**
+     * The compressor shared by the loggers of the application.
+     */
+    static final SegmentCompressor SHARED = new SegmentCompressor();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pfs-log-compressor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Runs a task on the compression thread, after the tasks submitted before it.
+     *
+     * @param task The task.
+     * @return A future completed when the task has run.
+     */
+    Future<?> submit(Runnable task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Compresses a file with gzip, replacing it with a ".gz" file.
+     * The compressed data is written to a temporary file first, so a crash never leaves a truncated ".gz" file.
+     *
+     * @param file The file to compress.
+     * @return The compressed file.
+     * @throws IOException If an I/O error occurs.
+     */
+    static Path gzip(Path file) throws IOException {
+        Path compressed = file.resolveSibling(file.getFileName() + ".gz");
+        Path temporary = file.resolveSibling(file.getFileName() + ".gz.tmp");
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary), 64 * 1024)) {
+            in.transferTo(out);
+        }
+        Files.move(temporary, compressed, StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(file);
+        return compressed;
+    }
+}
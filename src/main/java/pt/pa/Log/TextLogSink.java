@@ -0,0 +1,74 @@
+package pt.pa.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * The TextLogSink class writes records in the two-line layout of {@link java.util.logging.SimpleFormatter},
+ * the format of "procedure_log.txt".
+ */
+class TextLogSink implements LogSink {
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("MMM dd, yyyy h:mm:ss a", Locale.US).withZone(ZoneId.systemDefault());
+    private static final String SOURCE = ProcedureLogger.class.getName() + " infoLog";
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * Constructs a TextLogSink appending to the given file.
+     *
+     * @param file The log file, created if it does not exist.
+     * @throws IOException If the file cannot be opened.
+     */
+    TextLogSink(Path file) throws IOException {
+        this.out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE), 64 * 1024);
+    }
+
+    /**
+     * Formats a record and appends it to the file buffer.
+     *
+     * @param event The record to write.
+     * @throws IOException If an I/O error occurs while writing a full buffer.
+     */
+    @Override
+    public void write(LogEvent event) throws IOException {
+        line.setLength(0);
+        DATE_FORMAT.formatTo(Instant.ofEpochMilli(event.timestamp), line);
+        line.append(' ').append(SOURCE).append(System.lineSeparator())
+                .append("INFO: ").append(event.message).append(' ').append(event.command)
+                .append(System.lineSeparator());
+        out.append(line);
+    }
+
+    /**
+     * Writes the buffered records to the file.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the file.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
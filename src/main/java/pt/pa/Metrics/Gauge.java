@@ -0,0 +1,29 @@
+package pt.pa.Metrics;
+
+/**
+ * The Gauge interface represents a named value that can go up and down, such as the number of documents in a tree.
+ * Gauges are registered in a {@link MetricsRegistry} and read by its exporters, possibly from another thread.
+ */
+public interface Gauge {
+
+    /**
+     * Retrieves the name of the gauge, which follows the Prometheus naming rules.
+     *
+     * @return The name.
+     */
+    String getName();
+
+    /**
+     * Retrieves the description of the gauge.
+     *
+     * @return The help text.
+     */
+    String getHelp();
+
+    /**
+     * Retrieves the current value of the gauge.
+     *
+     * @return The value.
+     */
+    double getValue();
+}
@@ -0,0 +1,81 @@
+package pt.pa.Metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The LongGauge class is a gauge holding a whole number that is set or adjusted by the code it measures.
+ * Updates are atomic, so the gauge can be updated by one thread while an exporter reads it from another.
+ */
+public class LongGauge implements Gauge {
+    private final String name;
+    private final String help;
+    private final AtomicLong value = new AtomicLong();
+
+    /**
+     * Constructs a LongGauge with the value 0.
+     *
+     * @param name The name of the gauge.
+     * @param help The description of the gauge.
+     */
+    LongGauge(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    /**
+     * Retrieves the name of the gauge.
+     *
+     * @return The name.
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the description of the gauge.
+     *
+     * @return The help text.
+     */
+    @Override
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * Retrieves the current value of the gauge.
+     *
+     * @return The value.
+     */
+    @Override
+    public double getValue() {
+        return value.get();
+    }
+
+    /**
+     * Retrieves the current value of the gauge as a whole number.
+     *
+     * @return The value.
+     */
+    public long get() {
+        return value.get();
+    }
+
+    /**
+     * Sets the value of the gauge.
+     *
+     * @param newValue The new value.
+     */
+    public void set(long newValue) {
+        value.set(newValue);
+    }
+
+    /**
+     * Adds to the value of the gauge.
+     *
+     * @param delta The amount to add, negative to subtract.
+     */
+    public void add(long delta) {
+        value.addAndGet(delta);
+    }
+}
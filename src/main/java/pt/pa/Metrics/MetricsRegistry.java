@@ -0,0 +1,113 @@
+package pt.pa.Metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * The MetricsRegistry class holds the gauges of an application under unique names.
+ * <p>
+ * Gauges are either {@link LongGauge}s, updated by the code they measure as it runs, or gauges computed by a
+ * supplier whenever they are read, for values that are already available at no cost. Any other {@link Gauge}
+ * implementation can be registered as well. The registry does not compute anything itself: reading it costs one
+ * call per gauge, so it can be exported as often as needed.
+ * </p>
+ *
+ * @see PrometheusExporter
+ */
+public class MetricsRegistry {
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private final Map<String, Gauge> gauges = new LinkedHashMap<>();
+
+    /**
+     * Registers a gauge.
+     *
+     * @param gauge The gauge.
+     * @param <G>   The type of the gauge.
+     * @return The registered gauge.
+     * @throws IllegalArgumentException If the name of the gauge is invalid or already registered.
+     */
+    public synchronized <G extends Gauge> G register(G gauge) {
+        if (gauge.getName() == null || !NAME_PATTERN.matcher(gauge.getName()).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + gauge.getName());
+        }
+        if (gauges.containsKey(gauge.getName())) {
+            throw new IllegalArgumentException("A metric named " + gauge.getName() + " is already registered.");
+        }
+        gauges.put(gauge.getName(), gauge);
+        return gauge;
+    }
+
+    /**
+     * Registers a new gauge holding a whole number, starting at 0.
+     *
+     * @param name The name of the gauge.
+     * @param help The description of the gauge.
+     * @return The registered gauge.
+     * @throws IllegalArgumentException If the name is invalid or already registered.
+     */
+    public LongGauge longGauge(String name, String help) {
+        return register(new LongGauge(name, help));
+    }
+
+    /**
+     * Registers a new gauge whose value is computed by a supplier every time it is read.
+     *
+     * @param name     The name of the gauge.
+     * @param help     The description of the gauge.
+     * @param supplier Computes the value; it is called by the exporters, so it must be cheap and thread-safe.
+     * @return The registered gauge.
+     * @throws IllegalArgumentException If the name is invalid or already registered.
+     */
+    public Gauge gauge(String name, String help, DoubleSupplier supplier) {
+        return register(new Gauge() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getHelp() {
+                return help;
+            }
+
+            @Override
+            public double getValue() {
+                return supplier.getAsDouble();
+            }
+        });
+    }
+
+    /**
+     * Removes a gauge. Removing a name that is not registered has no effect.
+     *
+     * @param name The name of the gauge.
+     */
+    public synchronized void unregister(String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * Retrieves a gauge by name.
+     *
+     * @param name The name of the gauge.
+     * @return The gauge, or null if no gauge has that name.
+     */
+    public synchronized Gauge get(String name) {
+        return gauges.get(name);
+    }
+
+    /**
+     * Retrieves the registered gauges.
+     *
+     * @return A copy of the gauges, in registration order.
+     */
+    public synchronized List<Gauge> getGauges() {
+        return new ArrayList<>(gauges.values());
+    }
+}
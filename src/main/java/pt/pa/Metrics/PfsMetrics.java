@@ -0,0 +1,289 @@
+package pt.pa.Metrics;
+
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.MyFile;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * The PfsMetrics class keeps the gauges describing the shape and size of a file system in a {@link MetricsRegistry}.
+ * <p>
+ * The gauges are updated by the file system as it changes, each update costing in proportion to the documents it
+ * touched: inserting a document counts one document, removing or moving a folder walks that folder only, and an
+ * edit adds the difference in size. The tree is only scanned as a whole when it is replaced, by a restore or a
+ * load. The maximum depth is kept by counting the documents at each depth, so it can also go down when the deepest
+ * documents are removed.
+ * </p>
+ * The undo stack size and clipboard state are read from the file system when the gauges are exported.
+ */
+public class PfsMetrics {
+
+    /**
+     * The name of the gauge counting every document, folders and files.
+     */
+    public static final String DOCUMENTS = "pfs_documents";
+    /**
+     * The name of the gauge counting folders.
+     */
+    public static final String FOLDERS = "pfs_folders";
+    /**
+     * The name of the gauge counting files.
+     */
+    public static final String FILES = "pfs_files";
+    /**
+     * The name of the gauge adding the uncompressed content size of every file.
+     */
+    public static final String CONTENT_BYTES = "pfs_content_bytes";
+    /**
+     * The name of the gauge holding the depth of the deepest document, the root being at depth 0.
+     */
+    public static final String MAX_DEPTH = "pfs_max_depth";
+    /**
+     * The name of the gauge counting the commands that can be undone.
+     */
+    public static final String UNDO_STACK_SIZE = "pfs_undo_stack_size";
+    /**
+     * The name of the gauge that is 1 while the clipboard holds a document and 0 otherwise.
+     */
+    public static final String CLIPBOARD_OCCUPIED = "pfs_clipboard_occupied";
+    /**
+     * The name of the gauge holding how long the last save of the file system took, in seconds.
+     */
+    public static final String LAST_SAVE_DURATION = "pfs_last_save_duration_seconds";
+
+    private final MetricsRegistry registry;
+    private final LongGauge documents;
+    private final LongGauge folders;
+    private final LongGauge files;
+    private final LongGauge contentBytes;
+    private final LongGauge maxDepth;
+    private volatile long lastSaveNanos;
+    private long[] documentsAtDepth = new long[16];
+    private int deepest;
+
+    /**
+     * Constructs the metrics of an empty file system and registers their gauges.
+     *
+     * @param registry          The registry to register the gauges in.
+     * @param undoStackSize     Reads the number of commands that can be undone; called from the exporting thread.
+     * @param clipboardOccupied Reads whether the clipboard holds a document; called from the exporting thread.
+     * @throws IllegalArgumentException If the registry already has gauges with these names.
+     */
+    public PfsMetrics(MetricsRegistry registry, IntSupplier undoStackSize, BooleanSupplier clipboardOccupied) {
+        this.registry = registry;
+        documents = registry.longGauge(DOCUMENTS, "Number of documents in the file system.");
+        folders = registry.longGauge(FOLDERS, "Number of folders in the file system.");
+        files = registry.longGauge(FILES, "Number of files in the file system.");
+        contentBytes = registry.longGauge(CONTENT_BYTES, "Uncompressed size of the content of every file, in bytes.");
+        maxDepth = registry.longGauge(MAX_DEPTH, "Depth of the deepest document, the root being at depth 0.");
+        registry.gauge(UNDO_STACK_SIZE, "Number of commands that can be undone.", undoStackSize::getAsInt);
+        registry.gauge(CLIPBOARD_OCCUPIED, "1 if the clipboard holds a document, 0 otherwise.",
+                () -> clipboardOccupied.getAsBoolean() ? 1 : 0);
+        registry.gauge(LAST_SAVE_DURATION, "Duration of the last save of the file system, in seconds.",
+                () -> lastSaveNanos / 1e9);
+    }
+
+    /**
+     * Retrieves the registry holding the gauges.
+     *
+     * @return The registry.
+     */
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Counts every document of a tree again, replacing the previous counts.
+     *
+     * @param tree The tree, which may be empty.
+     */
+    public synchronized void reset(TreeLinked<Document> tree) {
+        documents.set(0);
+        folders.set(0);
+        files.set(0);
+        contentBytes.set(0);
+        Arrays.fill(documentsAtDepth, 0);
+        deepest = 0;
+        if (!tree.isEmpty()) {
+            subtreeAdded(tree, tree.root(), 0);
+        }
+    }
+
+    /**
+     * Counts a document inserted in the tree.
+     *
+     * @param document The document.
+     * @param depth    The depth of the document.
+     */
+    public synchronized void documentAdded(Document document, int depth) {
+        count(document, depth, 1);
+        updateMaxDepth();
+    }
+
+    /**
+     * Counts a subtree inserted in the tree.
+     *
+     * @param tree     The tree.
+     * @param position The root of the subtree.
+     * @param depth    The depth of the root of the subtree.
+     */
+    public synchronized void subtreeAdded(TreeLinked<Document> tree, Position<Document> position, int depth) {
+        countSubtree(tree, position, depth, 1);
+        updateMaxDepth();
+    }
+
+    /**
+     * Stops counting a subtree removed from the tree.
+     *
+     * @param tree     The tree.
+     * @param position The root of the subtree.
+     * @param depth    The depth the root of the subtree had.
+     */
+    public synchronized void subtreeRemoved(TreeLinked<Document> tree, Position<Document> position, int depth) {
+        countSubtree(tree, position, depth, -1);
+        updateMaxDepth();
+    }
+
+    /**
+     * Moves the documents of a subtree to their new depths.
+     *
+     * @param tree     The tree.
+     * @param position The root of the moved subtree.
+     * @param oldDepth The depth the root of the subtree had.
+     * @param newDepth The depth the root of the subtree has now.
+     */
+    public synchronized void subtreeMoved(TreeLinked<Document> tree, Position<Document> position, int oldDepth,
+                                          int newDepth) {
+        if (oldDepth != newDepth) {
+            countSubtree(tree, position, oldDepth, -1);
+            countSubtree(tree, position, newDepth, 1);
+            updateMaxDepth();
+        }
+    }
+
+    /**
+     * Accounts for a change in the size of the content of a file.
+     *
+     * @param delta The new size minus the old size, in bytes.
+     */
+    public void contentChanged(long delta) {
+        contentBytes.add(delta);
+    }
+
+    /**
+     * Records the duration of a save of the file system.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void saveCompleted(long nanos) {
+        lastSaveNanos = nanos;
+    }
+
+    /**
+     * Retrieves the number of documents in the file system.
+     *
+     * @return The number of documents.
+     */
+    public long getDocuments() {
+        return documents.get();
+    }
+
+    /**
+     * Retrieves the number of folders in the file system.
+     *
+     * @return The number of folders.
+     */
+    public long getFolders() {
+        return folders.get();
+    }
+
+    /**
+     * Retrieves the number of files in the file system.
+     *
+     * @return The number of files.
+     */
+    public long getFiles() {
+        return files.get();
+    }
+
+    /**
+     * Retrieves the uncompressed size of the content of every file.
+     *
+     * @return The size in bytes.
+     */
+    public long getContentBytes() {
+        return contentBytes.get();
+    }
+
+    /**
+     * Retrieves the depth of the deepest document.
+     *
+     * @return The depth, the root being at depth 0.
+     */
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Retrieves the duration of the last save of the file system.
+     *
+     * @return The duration in nanoseconds, or 0 if the file system was not saved.
+     */
+    public long getLastSaveNanos() {
+        return lastSaveNanos;
+    }
+
+    /**
+     * Adds or subtracts every document of a subtree.
+     *
+     * @param tree     The tree.
+     * @param position The root of the subtree.
+     * @param depth    The depth of the root of the subtree.
+     * @param sign     1 to add the documents, -1 to subtract them.
+     */
+    private void countSubtree(TreeLinked<Document> tree, Position<Document> position, int depth, int sign) {
+        count(position.element(), depth, sign);
+        for (Position<Document> child : tree.children(position)) {
+            countSubtree(tree, child, depth + 1, sign);
+        }
+    }
+
+    /**
+     * Adds or subtracts one document.
+     *
+     * @param document The document.
+     * @param depth    The depth of the document.
+     * @param sign     1 to add the document, -1 to subtract it.
+     */
+    private void count(Document document, int depth, int sign) {
+        documents.add(sign);
+        if (document instanceof MyFile file) {
+            files.add(sign);
+            contentBytes.add(sign * file.getSizeInBytes());
+        } else if (document instanceof Folder) {
+            folders.add(sign);
+        }
+        if (depth >= documentsAtDepth.length) {
+            documentsAtDepth = Arrays.copyOf(documentsAtDepth, Math.max(depth + 1, documentsAtDepth.length * 2));
+        }
+        documentsAtDepth[depth] += sign;
+        if (sign > 0 && depth > deepest) {
+            deepest = depth;
+        }
+    }
+
+    /**
+     * Lowers the maximum depth past the depths left without documents, and publishes it.
+     */
+    private void updateMaxDepth() {
+        while (deepest > 0 && documentsAtDepth[deepest] == 0) {
+            deepest--;
+        }
+        maxDepth.set(deepest);
+    }
+}
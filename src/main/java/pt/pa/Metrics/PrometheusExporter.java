@@ -0,0 +1,215 @@
+package pt.pa.Metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PrometheusExporter class exports the gauges of a {@link MetricsRegistry} in the Prometheus text exposition
+ * format, version 0.0.4.
+ * <p>
+ * The metrics can be written to a file, once or periodically, for a collector that reads text files, or served
+ * over HTTP at {@code /metrics} on the loopback interface for a scraper running on the same machine. Files are
+ * written to a temporary file and renamed, so a collector never reads a half-written file. The HTTP server is
+ * never reachable from other machines.
+ * </p>
+ */
+public class PrometheusExporter implements AutoCloseable {
+
+    /**
+     * The content type of the text exposition format.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ScheduledExecutorService fileExport;
+
+    /**
+     * Constructs a PrometheusExporter for a registry.
+     *
+     * @param registry The registry to export.
+     */
+    public PrometheusExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Formats the current value of every gauge of the registry.
+     *
+     * @return The metrics in the text exposition format.
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        for (Gauge gauge : registry.getGauges()) {
+            text.append("# HELP ").append(gauge.getName()).append(' ').append(escapeHelp(gauge.getHelp())).append('\n');
+            text.append("# TYPE ").append(gauge.getName()).append(" gauge\n");
+            text.append(gauge.getName()).append(' ').append(formatValue(gauge.getValue())).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes the metrics to a file, replacing it atomically.
+     *
+     * @param file The file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temporary, format(), StandardCharsets.UTF_8);
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Starts writing the metrics to a file periodically, replacing any periodic export already running.
+     * The file is written immediately, then once per period.
+     *
+     * @param file         The file.
+     * @param periodMillis The time between writes, in milliseconds.
+     * @throws IllegalArgumentException If the period is not positive.
+     */
+    public synchronized void startFileExport(Path file, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("The export period must be positive.");
+        }
+        stopFileExport();
+        fileExport = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pfs-metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fileExport.scheduleAtFixedRate(() -> {
+            try {
+                writeTo(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic file export. Calling this method when no export is running has no effect.
+     */
+    public synchronized void stopFileExport() {
+        if (fileExport != null) {
+            fileExport.shutdownNow();
+            fileExport = null;
+        }
+    }
+
+    /**
+     * Starts serving the metrics at {@code http://127.0.0.1:<port>/metrics}, replacing any server already running.
+     *
+     * @param port The port, or 0 to pick a free one.
+     * @return The port the server listens on.
+     * @throws IOException If the server cannot be started.
+     */
+    public synchronized int serve(int port) throws IOException {
+        stopServer();
+        HttpServer newServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        newServer.createContext("/metrics", this::handle);
+        serverExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pfs-metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        newServer.setExecutor(serverExecutor);
+        newServer.start();
+        server = newServer;
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the HTTP server. Calling this method when no server is running has no effect.
+     */
+    public synchronized void stopServer() {
+        if (server != null) {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            server = null;
+            serverExecutor = null;
+        }
+    }
+
+    /**
+     * Stops the HTTP server and the periodic file export.
+     */
+    @Override
+    public void close() {
+        stopServer();
+        stopFileExport();
+    }
+
+    /**
+     * Answers a scrape: GET and HEAD requests receive the metrics, other methods are refused.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = format().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Formats a sample value, writing whole numbers without a fraction.
+     *
+     * @param value The value.
+     * @return The formatted value.
+     */
+    static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Escapes a help text as required by the exposition format.
+     *
+     * @param help The help text.
+     * @return The escaped text.
+     */
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
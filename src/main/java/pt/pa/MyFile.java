@@ -20,6 +20,9 @@ public class MyFile extends Document implements Copyable {
     private String content;
     private boolean isAccessable;
     private long sizeInBytes;
+    private byte[] compressedContent;
+    private byte[] dictionary;
+    private int uncompressedLength;
 
     /**
      * Constructs a MyFile with the specified name and extension.
@@ -40,19 +43,71 @@ public class MyFile extends Document implements Copyable {
 
     /**
      * Retrieves the content of the file.
+     * If the file is compressed, the content is decompressed on demand without storing it.
      *
      * @return The content of the file.
      */
     public String getContent() {
+        if (compressedContent != null) {
+            return new String(Zipper.inflate(compressedContent, dictionary, uncompressedLength),
+                    StandardCharsets.UTF_8);
+        }
         return content;
     }
     /**
-     * Modifies the content of the file.
+     * Modifies the content of the file, discarding any compressed copy of the old content.
      *
      * @param content The new content for the file.
      */
     public void setContent(String content) {
         this.content = content;
+        this.compressedContent = null;
+        this.dictionary = null;
+    }
+
+    /**
+     * Compresses the content of the file and releases the plain content.
+     * The dictionary is shared with the other files of the same archive, not copied.
+     *
+     * @param dictionary The preset dictionary to compress with, or null to compress without one.
+     */
+    void compress(byte[] dictionary) {
+        if (compressedContent != null) {
+            return;
+        }
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        this.compressedContent = Zipper.deflate(data, dictionary);
+        this.dictionary = dictionary;
+        this.uncompressedLength = data.length;
+        this.content = null;
+    }
+
+    /**
+     * Restores the plain content of a compressed file.
+     */
+    void decompress() {
+        if (compressedContent != null) {
+            String plain = getContent();
+            setContent(plain);
+        }
+    }
+
+    /**
+     * Checks if the content of the file is stored compressed.
+     *
+     * @return True if the file is compressed, false otherwise.
+     */
+    public boolean isCompressed() {
+        return compressedContent != null;
+    }
+
+    /**
+     * Retrieves the size of the stored content, which is the compressed size when the file is compressed.
+     *
+     * @return The size of the stored content in bytes.
+     */
+    public long getCompressedSizeInBytes() {
+        return compressedContent != null ? compressedContent.length : getSizeInBytes();
     }
 
     /**
@@ -69,6 +124,15 @@ public class MyFile extends Document implements Copyable {
         return null;
     }
 
+    /**
+     * Retrieves the file extension as it was given when the file was created.
+     *
+     * @return The file extension string.
+     */
+    public String getExtensionName() {
+        return extension;
+    }
+
     /**
      * Retrieves the lock status of the file.
      *
@@ -111,6 +175,9 @@ public class MyFile extends Document implements Copyable {
      * @return The size of the file in bytes.
      */
     public long getSizeInBytes() {
+        if (compressedContent != null) {
+            return sizeInBytes = uncompressedLength;
+        }
         return sizeInBytes = content.getBytes(StandardCharsets.UTF_8).length;
     }
 
@@ -230,4 +297,19 @@ public class MyFile extends Document implements Copyable {
         return lastChangeDate;
     }
 
+    /**
+     * Sets the change history of the file, for files whose history was recorded elsewhere.
+     *
+     * @param changes        The number of changes made to the file.
+     * @param lastChangeDate The date of the last change, in epoch seconds.
+     * @throws IllegalArgumentException If the number of changes is negative.
+     */
+    public void setChangeHistory(int changes, long lastChangeDate) {
+        if (changes < 0) {
+            throw new IllegalArgumentException("The number of changes cannot be negative.");
+        }
+        this.changes = changes;
+        this.lastChangeDate = lastChangeDate;
+    }
+
 }
@@ -7,28 +7,49 @@ import pt.pa.Exceptions.InvalidMoveException;
 import pt.pa.Exceptions.InvalidNameException;
 import pt.pa.Factories.FolderFactory;
 import pt.pa.Factories.MyFileFactory;
+import pt.pa.Metrics.MetricsRegistry;
+import pt.pa.Metrics.PfsMetrics;
+import pt.pa.Profiling.FindEvent;
+import pt.pa.Profiling.LoadFileSystemEvent;
+import pt.pa.Profiling.MoveEvent;
+import pt.pa.Profiling.PasteEvent;
+import pt.pa.Profiling.SaveFileSystemEvent;
 import pt.pa.adts.InvalidPositionException;
 import pt.pa.adts.Position;
 import pt.pa.adts.TreeLinked;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * The PFS (File System) class represents a hierarchical file system using a tree data structure.
  * It allows creating, managing, and manipulating documents, which can be files or folders.
  * Documents are organized in a tree structure, where each node in the tree represents a document.
+ * Every change made through this class is reported to the registered {@link PfsChangeListener}s.
  */
 public class PFS implements Originator {
+    /**
+     * The name the children of a folder are indexed by: the name of a folder, or the name and extension of a file.
+     */
+    private static final Function<Document, String> NAME = PathResolver::segmentOf;
+
     private TreeLinked<Document> pfs;
-    private List<Document> allDocuments;
     private FolderFactory folderFactory = new FolderFactory();
     private MyFileFactory fileFactory = new MyFileFactory();
     private final CommandManager commandManager = new CommandManager();
     private final Clipboard clipboard = new Clipboard();
+    private final PfsMetrics metrics = new PfsMetrics(new MetricsRegistry(),
+            () -> commandManager.getCommandLog().size(), clipboard::hasContent);
+    private final List<PfsChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+    private final RecentDocuments recentDocuments;
+    private final CalendarIndex calendarIndex;
+    private final ChangeLog changeLog;
+    private final PathResolver pathResolver;
     private Zipper zipper;
 
 
@@ -38,13 +59,27 @@ public class PFS implements Originator {
      * @param root The root document of the file system.
      */
     public PFS(Document root) throws IOException {
-        this.pfs = new TreeLinked<>(root);
-        this.zipper = new Zipper(this);
+        this(new TreeLinked<>(root));
     }
 
+    /**
+     * Constructs a PFS instance over an existing tree of documents.
+     *
+     * @param tree The tree structure representing the file system.
+     */
     public PFS(TreeLinked<Document> tree) {
         this.pfs = tree;
+        pfs.indexChildrenBy(NAME);
         this.zipper = new Zipper(this);
+        metrics.reset(pfs);
+        this.recentDocuments = new RecentDocuments(this);
+        addChangeListener(recentDocuments);
+        this.calendarIndex = new CalendarIndex(this);
+        addChangeListener(calendarIndex);
+        this.changeLog = new ChangeLog(this);
+        addChangeListener(changeLog);
+        this.pathResolver = new PathResolver(this);
+        addChangeListener(pathResolver);
     }
 
     /**
@@ -64,7 +99,17 @@ public class PFS implements Originator {
      * @throws InvalidNameException If the specified name is null.
      */
     public Position<Document> find(String name) {
-        return findPositionByName(name, pfs.root());
+        FindEvent event = new FindEvent();
+        event.begin();
+        Position<Document> result = findPositionByName(name, pfs.root());
+        event.end();
+        if (event.shouldCommit()) {
+            event.describeSearch(pfs, result);
+            event.query = name;
+            event.found = result != null;
+            event.commit();
+        }
+        return result;
     }
 
     /**
@@ -112,7 +157,17 @@ public class PFS implements Originator {
         if (document == null) {
             return null;
         }
-        return findPositionByElementHelper(document, pfs.root());
+        FindEvent event = new FindEvent();
+        event.begin();
+        Position<Document> result = findPositionByElementHelper(document, pfs.root());
+        event.end();
+        if (event.shouldCommit()) {
+            event.describeSearch(pfs, result);
+            event.query = document.getName();
+            event.found = result != null;
+            event.commit();
+        }
+        return result;
     }
 
     /**
@@ -135,6 +190,31 @@ public class PFS implements Originator {
         return null;
     }
 
+    /**
+     * Finds the document at a path, such as {@code /root/Documents/notes.txt}. Each segment is the name of a folder,
+     * or the name and extension of a file. Unlike {@link #find(String)}, only the folders on the path are looked
+     * at, and recently resolved paths are answered from a cache.
+     *
+     * @param path The absolute path, starting with the name of the root.
+     * @return The position of the document, or null if there is none.
+     * @throws InvalidNameException If the path is null or not absolute.
+     * @see PathResolver
+     */
+    public Position<Document> resolve(String path) {
+        return pathResolver.resolve(path);
+    }
+
+    /**
+     * Retrieves the path of a document, as accepted by {@link #resolve(String)}.
+     *
+     * @param position The position of the document.
+     * @return The absolute path of the document.
+     * @throws InvalidPositionException If the position is null.
+     */
+    public String pathOf(Position<Document> position) {
+        return pathResolver.pathOf(position);
+    }
+
     /**
      * Inserts a document into the file system under a specified parent position.
      *
@@ -145,9 +225,9 @@ public class PFS implements Originator {
      */
     public Position<Document> insertDocument(Position<Document> parent, Document document) {
         if (document instanceof MyFile file) {
-            return pfs.insert(parent, fileFactory.create(file.getName()));
+            return inserted(pfs.insert(parent, fileFactory.create(file.getName())));
         } else if (document instanceof Folder folder) {
-            return pfs.insert(parent, folderFactory.create(folder.getName()));
+            return inserted(pfs.insert(parent, folderFactory.create(folder.getName())));
         } else {
             throw new IllegalArgumentException("Unsupported document type: " + document.getClass());
         }
@@ -161,7 +241,7 @@ public class PFS implements Originator {
      * @return The position of the inserted document in the file system.
      */
     public Position<Document> insertDoc(Position<Document> parent, Document document) {
-        return pfs.insert(parent, document);
+        return inserted(pfs.insert(parent, document));
     }
 
 
@@ -171,9 +251,12 @@ public class PFS implements Originator {
      * @param name   The name of the new file.
      * @param parent The position of the parent folder.
      * @return The position of the newly created file.
+     * @throws InvalidNameException If the folder already holds a document with that name.
      */
     public Position<Document> createFile(String name, Position<Document> parent) {
-        return pfs.insert(parent, fileFactory.create(name));
+        MyFile file = fileFactory.create(name);
+        checkNameFree(parent, file);
+        return inserted(pfs.insert(parent, file));
     }
 
     /**
@@ -182,9 +265,12 @@ public class PFS implements Originator {
      * @param name   The name of the new file.
      * @param parent The position of the parent folder.
      * @return The position of the newly created file.
+     * @throws InvalidNameException If the folder already holds a document with that name.
      */
     public Position<Document> createFile(String name, String extension, Position<Document> parent) {
-        return pfs.insert(parent, fileFactory.create(name, extension));
+        MyFile file = fileFactory.create(name, extension);
+        checkNameFree(parent, file);
+        return inserted(pfs.insert(parent, file));
     }
 
     /**
@@ -193,9 +279,12 @@ public class PFS implements Originator {
      * @param name   The name of the new folder.
      * @param parent The position of the parent folder.
      * @return The position of the newly created folder.
+     * @throws InvalidNameException If the folder already holds a document with that name.
      */
     public Position<Document> createFolder(String name, Position<Document> parent) {
-        return pfs.insert(parent, folderFactory.create(name));
+        Folder folder = folderFactory.create(name);
+        checkNameFree(parent, folder);
+        return inserted(pfs.insert(parent, folder));
     }
 
 
@@ -205,14 +294,30 @@ public class PFS implements Originator {
      * @param document The position of the document to be renamed.
      * @param newName  The new name for the document.
      * @throws InvalidPositionException If the specified position is invalid.
-     * @throws InvalidNameException     If the specified new name is null.
+     * @throws InvalidNameException     If the specified new name is null, or if another document of the same folder
+     *                                  already has it.
      */
     public void rename(Position<Document> document, String newName)
             throws InvalidPositionException, InvalidNameException {
+        Position<Document> parent = document == null || pfs.isEmpty() || pfs.isRoot(document)
+                ? null : pfs.parent(document);
+        if (parent != null && newName != null) {
+            String newKey = document.element() instanceof MyFile file ? newName + file.getExtensionName() : newName;
+            Position<Document> existing = pfs.child(parent, newKey);
+            if (existing != null && existing != document) {
+                throw new InvalidNameException(nameTakenMessage(newKey, parent));
+            }
+        }
         try {
             Document doc = document.element();
             String oldName = doc.getName();
+            String oldKey = PathResolver.segmentOf(doc);
             doc.rename(newName);
+            pfs.rekey(document, oldKey);
+            version.incrementAndGet();
+            for (PfsChangeListener listener : changeListeners) {
+                listener.documentRenamed(document);
+            }
             System.out.println("The " + (doc instanceof MyFile ? "file" : "folder") +
                     " '" + oldName + "' has been renamed to '" + newName + "'.");
         } catch (InvalidPositionException | InvalidNameException e) {
@@ -231,8 +336,14 @@ public class PFS implements Originator {
         if (document == null) {
             throw new InvalidPositionException("Invalid Position");
         }
+        int depth = depthOf(document);
         pfs.remove(document);
-        pfs.parent(document);
+        Position<Document> parent = pfs.parent(document);
+        metrics.subtreeRemoved(pfs, document, depth);
+        version.incrementAndGet();
+        for (PfsChangeListener listener : changeListeners) {
+            listener.documentRemoved(parent, document);
+        }
 
     }
 
@@ -250,7 +361,16 @@ public class PFS implements Originator {
         if (document.element().isAccessable()) {
             Document doc = document.element();
             if (doc instanceof MyFile myFile) {
+                long oldSize = myFile.getSizeInBytes();
                 myFile.setContent(newContent);
+                myFile.incrementChanges();
+                long delta = myFile.getSizeInBytes() - oldSize;
+                changeLog.record(myFile, delta);
+                metrics.contentChanged(delta);
+                version.incrementAndGet();
+                for (PfsChangeListener listener : changeListeners) {
+                    listener.contentChanged(document);
+                }
                 System.out.println("Content of '" + myFile.getName() + "' has been updated.");
             } else {
                 System.out.println("Cannot edit. Not a file.");
@@ -323,16 +443,41 @@ public class PFS implements Originator {
      *                                  or if the document position is an ancestor of the parent position.
      */
     public Position<Document> paste(Position<Document> parentPosition, Position<Document> documentPosition) {
+        PasteEvent event = new PasteEvent();
+        event.begin();
+        Position<Document> newPosition = pasteSubtree(parentPosition, documentPosition);
+        event.end();
+        if (event.shouldCommit()) {
+            event.describe(pfs, newPosition);
+            event.commit();
+        }
+        return newPosition;
+    }
+
+    /**
+     * Copies a subtree under the specified parent position, one document at a time.
+     *
+     * @param parentPosition   The parent position where the document will be pasted.
+     * @param documentPosition The source position of the document to be pasted.
+     * @return The position of the pasted document in the file system.
+     * @throws InvalidPositionException If the parent position is invalid, or if the document position is invalid
+     *                                  or if the document position is an ancestor of the parent position.
+     */
+    private Position<Document> pasteSubtree(Position<Document> parentPosition, Position<Document> documentPosition) {
         if (parentPosition != null && documentPosition != null && !pfs.isAncestor(documentPosition, parentPosition)) {
             Position<Document> newPosition = null;
 
             if (documentPosition.element() instanceof MyFile) {
-                newPosition = insertDoc(parentPosition, fileFactory.createCopy((MyFile) documentPosition.element()));
+                MyFile copy = fileFactory.createCopy((MyFile) documentPosition.element());
+                copy.rename(freeName(parentPosition, copy.getName(), copy.getExtensionName()));
+                newPosition = insertDoc(parentPosition, copy);
             } else if (documentPosition.element() instanceof Folder) {
-                newPosition = insertDoc(parentPosition, folderFactory.createCopy((Folder) documentPosition.element()));
+                Folder copy = folderFactory.createCopy((Folder) documentPosition.element());
+                copy.rename(freeName(parentPosition, copy.getName(), ""));
+                newPosition = insertDoc(parentPosition, copy);
 
                 for (Position<Document> child : pfs.children(documentPosition)) {
-                    paste(newPosition, child);
+                    pasteSubtree(newPosition, child);
                 }
             }
 
@@ -345,17 +490,46 @@ public class PFS implements Originator {
 
     /**
      * Moves a document from the initial position to the end position in the file system.
+     * A removed document is put back the same way, when its removal is undone. The folder must not hold another
+     * document with the same name in either case: undo runs in the reverse order of the commands, so whatever took
+     * the name of a removed document since is undone before the document is put back.
      *
      * @param initial The position of the document to be moved.
      * @param end     The position where the document will be moved.
-     * @throws InvalidMoveException If the move operation is invalid.
+     * @throws InvalidMoveException If the move operation is invalid or the name is taken in the end folder.
      */
     public void move(Position<Document> initial, Position<Document> end) throws InvalidMoveException {
         if (end.element() instanceof Folder) {
             if (initial == null || end == null) {
                 throw new InvalidMoveException("Invalid move operation: Positions cannot be null.");
             }
+            MoveEvent event = new MoveEvent();
+            event.begin();
+            boolean attached = isAttached(initial);
+            Position<Document> existing = pfs.child(end, PathResolver.segmentOf(initial.element()));
+            if (existing != null && existing != initial) {
+                throw new InvalidMoveException(nameTakenMessage(PathResolver.segmentOf(initial.element()), end));
+            }
+            int oldDepth = depthOf(initial);
+            Position<Document> oldParent = pfs.parent(initial);
             pfs.move(initial, end);
+            version.incrementAndGet();
+            if (attached) {
+                metrics.subtreeMoved(pfs, initial, oldDepth, depthOf(initial));
+                for (PfsChangeListener listener : changeListeners) {
+                    listener.documentMoved(oldParent, end, initial);
+                }
+            } else {
+                metrics.subtreeAdded(pfs, initial, depthOf(initial));
+                for (PfsChangeListener listener : changeListeners) {
+                    listener.documentInserted(end, initial);
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.describe(pfs, initial);
+                event.commit();
+            }
         } else {
             throw new InvalidMoveException(" Invalid end position");
         }
@@ -391,6 +565,12 @@ public class PFS implements Originator {
     public void setState(Memento savedMemento) {
         if (savedMemento instanceof PFSMemento) {
             pfs = ((PFSMemento) savedMemento).getPfsCopy();
+            pfs.indexChildrenBy(NAME);
+            metrics.reset(pfs);
+            version.incrementAndGet();
+            for (PfsChangeListener listener : changeListeners) {
+                listener.treeReplaced();
+            }
         } else {
             throw new IllegalArgumentException("Unsupported error");
         }
@@ -404,10 +584,31 @@ public class PFS implements Originator {
      */
     public static void saveFileSystem(TreeLinked<Document> explorer) throws IOException {
         String fileName = "Explorer.pfs";
+        SaveFileSystemEvent event = new SaveFileSystemEvent();
+        event.begin();
         FileOutputStream fin = new FileOutputStream(fileName);
         ObjectOutputStream oos = new ObjectOutputStream(fin);
         oos.writeObject(explorer);
         oos.close();
+        event.end();
+        if (event.shouldCommit()) {
+            event.describe(explorer, explorer.root());
+            event.bytes = new File(fileName).length();
+            event.path = fileName;
+            event.commit();
+        }
+    }
+
+    /**
+     * Saves this file system to a file, recording how long the save took in its metrics.
+     *
+     * @throws IOException If an I/O error occurs during the saving process.
+     * @see #saveFileSystem(TreeLinked)
+     */
+    public void saveFileSystem() throws IOException {
+        long start = System.nanoTime();
+        saveFileSystem(pfs);
+        metrics.saveCompleted(System.nanoTime() - start);
     }
 
     /**
@@ -419,10 +620,19 @@ public class PFS implements Originator {
      */
     public TreeLinked<Document> loadFileSystem() throws IOException, ClassNotFoundException {
         String fileName = "Explorer.pfs";
+        LoadFileSystemEvent event = new LoadFileSystemEvent();
+        event.begin();
         FileInputStream fin = new FileInputStream(fileName);
         ObjectInputStream ois = new ObjectInputStream(fin);
         TreeLinked<Document> tree = (TreeLinked<Document>) ois.readObject();
         ois.close();
+        event.end();
+        if (event.shouldCommit()) {
+            event.describe(tree, tree.root());
+            event.bytes = new File(fileName).length();
+            event.path = fileName;
+            event.commit();
+        }
         return tree;
     }
 
@@ -435,6 +645,97 @@ public class PFS implements Originator {
         return commandManager;
     }
 
+    /**
+     * Retrieves the metrics describing this file system.
+     * They follow the changes made through this class; changes made directly to the tree returned by
+     * {@link #getPfs()} are only counted after the next restore.
+     *
+     * @return The metrics of this file system.
+     */
+    public PfsMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Retrieves the version of the file system, which goes up with every change made through this class, so
+     * anything computed from the tree can be kept until the version moves on.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Registers a listener to be told of every change made to the file system through this class.
+     *
+     * @param listener The listener.
+     */
+    public void addChangeListener(PfsChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener. Removing a listener that is not registered has no effect.
+     *
+     * @param listener The listener.
+     */
+    public void removeChangeListener(PfsChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Counts a newly inserted document in the metrics and the version, and tells the listeners about it.
+     *
+     * @param position The position of the inserted document.
+     * @return The same position.
+     */
+    private Position<Document> inserted(Position<Document> position) {
+        metrics.documentAdded(position.element(), depthOf(position));
+        version.incrementAndGet();
+        if (!changeListeners.isEmpty()) {
+            Position<Document> parent = pfs.parent(position);
+            for (PfsChangeListener listener : changeListeners) {
+                listener.documentInserted(parent, position);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Calculates the depth of a position by walking up to the root.
+     *
+     * @param position The position.
+     * @return The number of ancestors of the position.
+     */
+    private int depthOf(Position<Document> position) {
+        int depth = 0;
+        for (Position<Document> parent = pfs.parent(position); parent != null; parent = pfs.parent(parent)) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Checks if a position is still linked to the tree, which is not the case of a removed document that an undo
+     * moves back into place.
+     *
+     * @param position The position.
+     * @return True if the position is the root or one of the children of its parent, false otherwise.
+     */
+    private boolean isAttached(Position<Document> position) {
+        Position<Document> parent = pfs.parent(position);
+        if (parent == null) {
+            return pfs.isRoot(position);
+        }
+        for (Position<Document> sibling : pfs.children(parent)) {
+            if (sibling == position) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Gets the direct descendants of a directory based on file type.
      *
@@ -484,25 +785,74 @@ public class PFS implements Originator {
     }
 
     /**
-     * Checks if a document has a child with the specified name in the file system.
+     * Checks if a document has a child with the specified name in the file system. The name of a file includes its
+     * extension. The children of a folder are indexed by name, so this takes constant time however many children
+     * the folder holds.
      *
      * @param folder   The position of the folder to check for children.
-     * @param document The document to check for as a child.
-     * @return true if the folder has a child with the specified document, false otherwise.
+     * @param document The document whose name is looked for among the children.
+     * @return true if the folder has a child with the name of the document, false otherwise.
      * @throws InvalidPositionException If the specified position is invalid.
      */
     public boolean hasChild(Position<Document> folder, Document document) throws InvalidPositionException {
         if (folder == null || folder.element() == null || !(folder.element() instanceof Folder)) {
             throw new InvalidPositionException("Invalid folder position");
         }
+        return pfs.child(folder, PathResolver.segmentOf(document)) != null;
+    }
 
-        for (Position<Document> child : pfs.children(folder)) {
-            if (child.element().equals(document)) {
-                return true;
-            }
+    /**
+     * Finds the child of a folder with the specified name, in constant time.
+     *
+     * @param folder The position of the folder.
+     * @param name   The name of the child, followed by its extension for a file.
+     * @return The position of the child, or null if the folder holds no document with that name.
+     * @throws InvalidPositionException If the specified position is invalid.
+     */
+    public Position<Document> findChild(Position<Document> folder, String name) throws InvalidPositionException {
+        return pfs.child(folder, name);
+    }
+
+    /**
+     * Finds a name no child of a folder has, adding a number to the specified name when it is taken: "name",
+     * then "name (2)", "name (3)", and so on.
+     *
+     * @param folder    The position of the folder.
+     * @param name      The preferred name.
+     * @param extension The extension of the document, or an empty string for a folder.
+     * @return A free name, without the extension.
+     * @throws InvalidPositionException If the specified position is invalid.
+     */
+    public String freeName(Position<Document> folder, String name, String extension) throws InvalidPositionException {
+        String candidate = name;
+        for (int number = 2; pfs.child(folder, candidate + extension) != null; number++) {
+            candidate = name + " (" + number + ")";
         }
+        return candidate;
+    }
 
-        return false;
+    /**
+     * Checks that no child of a folder has the name of a new document.
+     *
+     * @param parent   The position of the folder, or null for the root of an empty file system.
+     * @param document The new document.
+     * @throws InvalidNameException If the folder already holds a document with that name.
+     */
+    private void checkNameFree(Position<Document> parent, Document document) {
+        if (parent != null && pfs.child(parent, PathResolver.segmentOf(document)) != null) {
+            throw new InvalidNameException(nameTakenMessage(PathResolver.segmentOf(document), parent));
+        }
+    }
+
+    /**
+     * Builds the message of a name that is already taken in a folder.
+     *
+     * @param name   The name, with its extension for a file.
+     * @param folder The position of the folder.
+     * @return The message.
+     */
+    private static String nameTakenMessage(String name, Position<Document> folder) {
+        return "A document named '" + name + "' already exists in '" + folder.element().getName() + "'.";
     }
 
     /**
@@ -552,110 +902,110 @@ public class PFS implements Originator {
      * @return A list of the last 20 files or directories created.
      */
     public List<Document> getLast20CreatedFiles() {
-        List<Document> allDocuments = new ArrayList<>();
-
-        for (Position<Document> position : pfs.positions()) {
-            allDocuments.add(position.element());
-        }
-        allDocuments.sort(Comparator.comparing(Document::getCreationDate).reversed());
-
-        return allDocuments.stream().limit(20).collect(Collectors.toList());
+        return getRecentlyCreated(0, 20);
     }
 
     /**
-     * Gets the last 10 files altered, sorted in descending order by the date of creation.
+     * Gets the last 10 files altered, sorted in descending order by the date of their last change.
      *
      * @return A list of the last 10 files altered.
      */
     public List<MyFile> getLast10Altered() {
-        List<MyFile> files = new ArrayList<>();
-        for (Position<Document> position : pfs.positions()) {
-            Document document = position.element();
-            if (document instanceof MyFile) {
-                files.add((MyFile) document);
-            }
-        }
+        return getRecentlyChanged(0, 10);
+    }
 
-        files.sort(Comparator.comparing(MyFile::getLastChangeDate).reversed());
+    /**
+     * Gets a page of the files and directories, sorted in descending order by creation date. The documents are kept
+     * in that order as they are created and removed, so a page costs in proportion to its end, not to the size of
+     * the file system.
+     *
+     * @param offset The number of more recently created documents to skip.
+     * @param limit  The most documents to return.
+     * @return The documents of the page.
+     * @throws IllegalArgumentException If the offset or the limit is negative.
+     */
+    public List<Document> getRecentlyCreated(int offset, int limit) {
+        return recentDocuments.getCreated(offset, limit);
+    }
 
-        return files.subList(0, Math.min(10, files.size()));
+    /**
+     * Gets a page of the files, sorted in descending order by the date of their last change.
+     *
+     * @param offset The number of more recently changed files to skip.
+     * @param limit  The most files to return.
+     * @return The files of the page.
+     * @throws IllegalArgumentException If the offset or the limit is negative.
+     */
+    public List<MyFile> getRecentlyChanged(int offset, int limit) {
+        return recentDocuments.getChanged(offset, limit);
     }
 
     /**
      * Retrieves a list of documents filtered by the specified selected year.
+     * The documents are kept by year as they are created and removed, so only the documents of the year are read.
      *
      * @param selectedYear The target year for filtering documents.
      * @return A list of documents that match the selected year.
      */
     public List<Document> getDocumentsBySelectedYear(int selectedYear) {
-        return allDocuments.stream()
-                .filter(document -> isYearMatch(document, selectedYear))
-                .collect(Collectors.toList());
+        return calendarIndex.getDocumentsCreatedIn(selectedYear);
     }
 
     /**
      * Obtains data about files created per month in a specific year.
      *
      * @param year The year for which you want to obtain the data.
-     * @return A Map where the key is the month and the value is the number of created files.
+     * @return A Map where the key is the month and the value is the number of created files, in calendar order.
      */
     public Map<String, Integer> getCreatedFilesDataByMonth(int year) {
-        Map<String, Integer> createdFilesData = new HashMap<>();
-
-        for (Document document : allDocuments) {
-            if (document instanceof MyFile && isYearMatch(document, year)) {
-                LocalDateTime creationDateTime = unixToLocalDateTime(document.getCreationDate());
-                String month = creationDateTime.getMonth().toString();
-
-                createdFilesData.merge(month, 1, Integer::sum);
-            }
-        }
-
-        return createdFilesData;
+        return calendarIndex.getFilesCreatedByMonth(year);
     }
 
     /**
-     * Obtains data about files changed per month in a specific year.
+     * Obtains data about files changed per month in a specific year, counting each file in the month of its last
+     * change.
      *
      * @param year The year for which you want to obtain the data.
-     * @return A Map where the key is the month and the value is the number of changed files.
+     * @return A Map where the key is the month and the value is the number of changed files, in calendar order.
      */
     public Map<String, Integer> getChangedFilesDataByMonth(int year) {
-        Map<String, Integer> changedFilesData = new HashMap<>();
-
-        for (Document document : allDocuments) {
-            if (document instanceof MyFile && isYearMatch(document, year)) {
-                MyFile file = (MyFile) document;
-                LocalDateTime lastChangeDateTime = unixToLocalDateTime(file.getLastChangeDate());
-                String month = lastChangeDateTime.getMonth().toString();
-
-                changedFilesData.merge(month, 1, Integer::sum);
-            }
-        }
+        return calendarIndex.getFilesChangedByMonth(year);
+    }
 
-        return changedFilesData;
+    /**
+     * Ranks the files by the number of times they were edited since the file system was opened, the most edited
+     * first. Only the files that were edited are looked at.
+     *
+     * @param limit The most files to return.
+     * @return The files, with their number of edits and the bytes those edits churned.
+     * @throws IllegalArgumentException If the limit is negative.
+     */
+    public List<ChangeLog.FileChanges> getMostChangedFiles(int limit) {
+        return changeLog.getMostChanged(limit);
     }
 
     /**
-     * Checks if the creation year of the document matches the specified year.
+     * Counts the edits made on each day of a period, in UTC.
      *
-     * @param document The document to check.
-     * @param year     The year to compare.
-     * @return True if the creation year matches, false otherwise.
+     * @param from The start of the period, in epoch seconds, included.
+     * @param to   The end of the period, in epoch seconds, excluded.
+     * @return The number of edits of each day that has any, in date order.
+     * @throws IllegalArgumentException If the period ends before it starts.
      */
-    private boolean isYearMatch(Document document, int year) {
-        LocalDateTime dateTime = unixToLocalDateTime(document.getCreationDate());
-        return dateTime.getYear() == year;
+    public Map<LocalDate, Integer> getChangesPerDay(long from, long to) {
+        return changeLog.getChangesPerDay(from, to);
     }
 
     /**
-     * Converts a Unix timestamp to a LocalDateTime object.
+     * Sums the bytes added and removed by the edits made in a period.
      *
-     * @param timestamp The Unix timestamp to convert.
-     * @return The LocalDateTime object representing the timestamp.
+     * @param from The start of the period, in epoch seconds, included.
+     * @param to   The end of the period, in epoch seconds, excluded.
+     * @return The bytes churned.
+     * @throws IllegalArgumentException If the period ends before it starts.
      */
-    private LocalDateTime unixToLocalDateTime(long timestamp) {
-        return LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC);
+    public long getBytesChurned(long from, long to) {
+        return changeLog.getBytesChurned(from, to);
     }
 
 
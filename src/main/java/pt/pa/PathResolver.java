@@ -0,0 +1,285 @@
+package pt.pa;
+
+import pt.pa.Exceptions.InvalidNameException;
+import pt.pa.adts.InvalidPositionException;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The PathResolver class finds documents of a {@link PFS} by their path, such as {@code /root/Documents/notes.txt},
+ * and writes the path of a document, following the changes reported by the file system.
+ * <p>
+ * Each segment of a path is the name of a folder, or the name of a file followed by its extension. The children of
+ * a folder are indexed by name in the tree, so each segment is found in constant time and a path in time
+ * proportional to its depth. Resolved paths and the paths of
+ * their folders are kept in a bounded cache, least recently used first out, so a path resolved again, or another
+ * document of the same folder, costs one or two lookups.
+ * </p>
+ * <p>
+ * Renaming, moving or removing a document drops the cached paths at and below it. When a folder holds several
+ * children with the same name, the first one is found, as with {@link PFS#find(String)}.
+ * </p>
+ */
+public class PathResolver implements PfsChangeListener {
+
+    /**
+     * The separator of the segments of a path.
+     */
+    public static final char SEPARATOR = '/';
+
+    private static final int CACHE_CAPACITY = 4096;
+
+    private final PFS pfs;
+    private final Map<Position<Document>, String> cachedPaths = new IdentityHashMap<>();
+    private final Map<String, Position<Document>> cache = new LinkedHashMap<>(CACHE_CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Position<Document>> eldest) {
+            if (size() <= CACHE_CAPACITY) {
+                return false;
+            }
+            cachedPaths.remove(eldest.getValue(), eldest.getKey());
+            return true;
+        }
+    };
+
+    /**
+     * Constructs a PathResolver for a file system.
+     *
+     * @param pfs The file system.
+     */
+    public PathResolver(PFS pfs) {
+        this.pfs = pfs;
+    }
+
+    /**
+     * Retrieves the name of a document as a segment of a path.
+     *
+     * @param document The document.
+     * @return The name of a folder, or the name and extension of a file.
+     */
+    public static String segmentOf(Document document) {
+        return document instanceof MyFile file ? file.getName() + file.getExtensionName() : document.getName();
+    }
+
+    /**
+     * Finds the document at a path.
+     *
+     * @param path The absolute path, starting with the name of the root. Empty segments are ignored.
+     * @return The position of the document, or null if there is none.
+     * @throws InvalidNameException If the path is null or not absolute.
+     */
+    public synchronized Position<Document> resolve(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != SEPARATOR) {
+            throw new InvalidNameException("Invalid path: " + path);
+        }
+        TreeLinked<Document> tree = pfs.getPfs();
+        if (tree.isEmpty()) {
+            return null;
+        }
+        String normalized = normalize(path);
+        if (normalized.isEmpty()) {
+            return tree.root();
+        }
+        Position<Document> position = cache.get(normalized);
+        if (position != null) {
+            return position;
+        }
+        int lastSeparator = normalized.lastIndexOf(SEPARATOR);
+        String parentPath = normalized.substring(0, lastSeparator);
+        Position<Document> parent = parentPath.isEmpty() ? null : cache.get(parentPath);
+        if (parent == null) {
+            parent = walk(tree, parentPath);
+            if (parent == null) {
+                return parentPath.isEmpty() && segmentOf(tree.root().element()).equals(normalized.substring(1))
+                        ? remember(normalized, tree.root()) : null;
+            }
+            remember(parentPath, parent);
+        }
+        position = childNamed(parent, normalized.substring(lastSeparator + 1));
+        return position == null ? null : remember(normalized, position);
+    }
+
+    /**
+     * Writes the path of a document, from the root down.
+     *
+     * @param position The position of the document.
+     * @return The absolute path of the document.
+     * @throws InvalidPositionException If the position is null.
+     */
+    public synchronized String pathOf(Position<Document> position) {
+        if (position == null) {
+            throw new InvalidPositionException("Invalid Position");
+        }
+        String cached = cachedPaths.get(position);
+        if (cached != null) {
+            return cached;
+        }
+        TreeLinked<Document> tree = pfs.getPfs();
+        Deque<String> segments = new ArrayDeque<>();
+        String ancestorPath = "";
+        for (Position<Document> next = position; next != null; next = tree.parent(next)) {
+            String path = cachedPaths.get(next);
+            if (path != null) {
+                ancestorPath = path;
+                break;
+            }
+            segments.push(segmentOf(next.element()));
+        }
+        StringBuilder path = new StringBuilder(ancestorPath);
+        for (String segment : segments) {
+            path.append(SEPARATOR).append(segment);
+        }
+        return path.toString();
+    }
+
+    /**
+     * Drops the cached paths at and below a removed document.
+     *
+     * @param parent   The folder that held the document.
+     * @param position The position of the removed document.
+     */
+    @Override
+    public synchronized void documentRemoved(Position<Document> parent, Position<Document> position) {
+        if (parent == null) {
+            treeReplaced();
+        } else {
+            forgetPathsBelow(pathOf(parent) + SEPARATOR + segmentOf(position.element()));
+        }
+    }
+
+    /**
+     * Drops the cached paths at and below a moved document.
+     *
+     * @param oldParent The folder that held the document.
+     * @param newParent The folder now holding the document.
+     * @param position  The position of the moved document.
+     */
+    @Override
+    public synchronized void documentMoved(Position<Document> oldParent, Position<Document> newParent,
+                                           Position<Document> position) {
+        forgetPathsBelow(pathOf(oldParent) + SEPARATOR + segmentOf(position.element()));
+    }
+
+    /**
+     * Drops the cached paths at and below a renamed document. The old name is no longer known, so when the path of
+     * a renamed folder was not cached, every cached path is dropped.
+     *
+     * @param position The position of the renamed document.
+     */
+    @Override
+    public synchronized void documentRenamed(Position<Document> position) {
+        String oldPath = cachedPaths.get(position);
+        if (oldPath != null) {
+            forgetPathsBelow(oldPath);
+        } else if (!(position.element() instanceof MyFile)) {
+            treeReplaced();
+        }
+    }
+
+    /**
+     * Drops every cached path.
+     */
+    @Override
+    public synchronized void treeReplaced() {
+        cache.clear();
+        cachedPaths.clear();
+    }
+
+    /**
+     * Finds the child of a folder with a name.
+     *
+     * @param folder The position of the folder.
+     * @param name   The name of the child, with its extension for a file.
+     * @return The position of the child, or null if there is none.
+     */
+    private Position<Document> childNamed(Position<Document> folder, String name) {
+        return folder.element() instanceof Folder ? pfs.getPfs().child(folder, name) : null;
+    }
+
+    /**
+     * Caches the position a path resolved to.
+     *
+     * @param path     The path.
+     * @param position The position.
+     * @return The position.
+     */
+    private Position<Document> remember(String path, Position<Document> position) {
+        cache.put(path, position);
+        cachedPaths.put(position, path);
+        return position;
+    }
+
+    /**
+     * Follows a path from the root through the indexes of the folders.
+     *
+     * @param tree The tree.
+     * @param path The normalized path, or an empty string for no document.
+     * @return The position at the path, or null if there is none or the path is empty.
+     */
+    private Position<Document> walk(TreeLinked<Document> tree, String path) {
+        if (path.isEmpty()) {
+            return null;
+        }
+        int end = path.indexOf(SEPARATOR, 1);
+        if (end < 0) {
+            end = path.length();
+        }
+        if (!segmentOf(tree.root().element()).equals(path.substring(1, end))) {
+            return null;
+        }
+        Position<Document> position = tree.root();
+        while (position != null && end < path.length()) {
+            int start = end + 1;
+            end = path.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = path.length();
+            }
+            position = childNamed(position, path.substring(start, end));
+        }
+        return position;
+    }
+
+    /**
+     * Removes the empty segments of a path and its trailing separator.
+     *
+     * @param path The absolute path.
+     * @return The path with only non-empty segments, or an empty string if there are none.
+     */
+    private static String normalize(String path) {
+        boolean clean = path.charAt(path.length() - 1) != SEPARATOR && path.indexOf("//") < 0;
+        if (clean) {
+            return path;
+        }
+        StringBuilder normalized = new StringBuilder(path.length());
+        for (String segment : path.split(String.valueOf(SEPARATOR))) {
+            if (!segment.isEmpty()) {
+                normalized.append(SEPARATOR).append(segment);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Drops the cached paths at and below a path.
+     *
+     * @param path The path.
+     */
+    private void forgetPathsBelow(String path) {
+        String below = path + SEPARATOR;
+        Iterator<Map.Entry<String, Position<Document>>> entries = cache.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Position<Document>> entry = entries.next();
+            if (entry.getKey().equals(path) || entry.getKey().startsWith(below)) {
+                cachedPaths.remove(entry.getValue(), entry.getKey());
+                entries.remove();
+            }
+        }
+    }
+}
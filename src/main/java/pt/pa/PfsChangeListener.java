@@ -0,0 +1,67 @@
+package pt.pa;
+
+import pt.pa.adts.Position;
+
+/**
+ * The PfsChangeListener interface receives the changes made to a {@link PFS}, one document at a time, so a view can
+ * patch what it shows instead of reading the whole tree again.
+ * <p>
+ * Listeners are called on the thread that changed the file system, usually the command writer thread, right after
+ * the change. They must be quick and must not change the file system; a view hands the change over to its own
+ * thread. Every method does nothing by default.
+ * </p>
+ */
+public interface PfsChangeListener {
+
+    /**
+     * Called after a document is inserted. A pasted folder is inserted before its children, each of them being
+     * reported in turn. A document put back by an undo is reported here too, with the documents it held.
+     *
+     * @param parent   The folder holding the document.
+     * @param position The position of the inserted document.
+     */
+    default void documentInserted(Position<Document> parent, Position<Document> position) {
+    }
+
+    /**
+     * Called after a document is removed with everything it held.
+     *
+     * @param parent   The folder that held the document.
+     * @param position The position of the removed document.
+     */
+    default void documentRemoved(Position<Document> parent, Position<Document> position) {
+    }
+
+    /**
+     * Called after a document is moved to another folder with everything it holds.
+     *
+     * @param oldParent The folder that held the document.
+     * @param newParent The folder now holding the document.
+     * @param position  The position of the moved document.
+     */
+    default void documentMoved(Position<Document> oldParent, Position<Document> newParent,
+                               Position<Document> position) {
+    }
+
+    /**
+     * Called after a document is renamed.
+     *
+     * @param position The position of the renamed document.
+     */
+    default void documentRenamed(Position<Document> position) {
+    }
+
+    /**
+     * Called after the content of a file is changed.
+     *
+     * @param position The position of the file.
+     */
+    default void contentChanged(Position<Document> position) {
+    }
+
+    /**
+     * Called after the whole tree is replaced, for example when a backup is restored.
+     */
+    default void treeReplaced() {
+    }
+}
@@ -0,0 +1,27 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The BackupEvent class records a memento written to the backup folder.
+ * Mementos are opaque to the backup handler, so the event carries the size of the written file only.
+ */
+@Name("pt.pa.Backup")
+@Label("Backup")
+@Description("A memento written to the backup folder")
+@Category("PFS")
+public class BackupEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @Description("The size of the backup file")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+}
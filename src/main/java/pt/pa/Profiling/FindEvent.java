@@ -0,0 +1,61 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import pt.pa.Document;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The FindEvent class records a search of the tree by document name or by document.
+ * Its subtree size is the number of documents visited before the search ended.
+ */
+@Name("pt.pa.Find")
+@Label("Find")
+@Description("A search of the file system by name or by document")
+public class FindEvent extends PfsEvent {
+
+    @Label("Query")
+    @Description("The name searched for")
+    public String query;
+
+    @Label("Found")
+    public boolean found;
+
+    /**
+     * Sets the tree size, and the subtree size to the number of documents a depth-first search visits before it
+     * reaches the result. The documents are counted again here rather than during the search, which would slow
+     * down every search to describe the few that are recorded.
+     *
+     * @param tree   The searched tree.
+     * @param result The position found, or null if the search visited the whole tree.
+     */
+    public void describeSearch(TreeLinked<Document> tree, Position<Document> result) {
+        describe(tree, null);
+        if (result == null) {
+            subtreeSize = treeSize;
+            return;
+        }
+        subtreeSize = 0;
+        Deque<Position<Document>> stack = new ArrayDeque<>();
+        stack.push(tree.root());
+        while (!stack.isEmpty()) {
+            Position<Document> position = stack.pop();
+            subtreeSize++;
+            if (position == result) {
+                return;
+            }
+            List<Position<Document>> children = new ArrayList<>();
+            tree.children(position).forEach(children::add);
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
+        }
+    }
+}
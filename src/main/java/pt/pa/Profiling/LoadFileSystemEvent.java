@@ -0,0 +1,18 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The LoadFileSystemEvent class records the deserialization of a file system from disk.
+ * Its bytes are the size of the read file.
+ */
+@Name("pt.pa.LoadFileSystem")
+@Label("Load File System")
+@Description("A file system deserialized from disk")
+public class LoadFileSystemEvent extends PfsEvent {
+
+    @Label("Path")
+    public String path;
+}
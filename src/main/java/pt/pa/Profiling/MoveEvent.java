@@ -0,0 +1,15 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The MoveEvent class records the move of a subtree to another folder.
+ * Its subtree size and bytes are those of the moved subtree.
+ */
+@Name("pt.pa.Move")
+@Label("Move")
+@Description("A subtree moved to another folder")
+public class MoveEvent extends PfsEvent {
+}
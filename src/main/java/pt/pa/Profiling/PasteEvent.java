@@ -0,0 +1,15 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The PasteEvent class records the copy of a subtree into a folder.
+ * Its subtree size and bytes are those of the pasted copy.
+ */
+@Name("pt.pa.Paste")
+@Label("Paste")
+@Description("A copy of a subtree pasted into a folder")
+public class PasteEvent extends PfsEvent {
+}
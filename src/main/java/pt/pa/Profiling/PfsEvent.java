@@ -0,0 +1,71 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import pt.pa.Document;
+import pt.pa.MyFile;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+/**
+ * The PfsEvent class is the base of the JDK Flight Recorder events emitted by the file system operations.
+ * <p>
+ * Every event carries the size of the tree it ran on, the size of the subtree it worked on and the number of
+ * bytes it touched, so a slow operation in a recording can be told apart from an operation on a large tree.
+ * These sizes take a traversal to compute, so operations only fill them in once {@link #shouldCommit()} has
+ * confirmed the event is enabled and above its threshold; when recording is off an event costs an allocation
+ * the JIT removes and a check of a flag.
+ * </p>
+ * The events are configured by the "pfs.jfc" file at the root of the project.
+ */
+@Category("PFS")
+public abstract class PfsEvent extends Event {
+
+    @Label("Tree Size")
+    @Description("The number of documents in the tree")
+    public int treeSize;
+
+    @Label("Subtree Size")
+    @Description("The number of documents the operation worked on")
+    public int subtreeSize;
+
+    @Label("Bytes")
+    @Description("The number of bytes the operation touched")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    /**
+     * Sets the tree size to the size of the given tree, and the subtree size and bytes to the number of documents
+     * under a position and the content size of its files.
+     *
+     * @param tree     The tree.
+     * @param position The root of the subtree, or null to describe the tree alone.
+     */
+    public void describe(TreeLinked<Document> tree, Position<Document> position) {
+        treeSize = tree.size();
+        if (position != null) {
+            subtreeSize = 0;
+            bytes = 0;
+            addSubtree(tree, position);
+        }
+    }
+
+    /**
+     * Adds the documents under a position, and the content size of its files, to the subtree size and bytes.
+     *
+     * @param tree     The tree.
+     * @param position The root of the subtree.
+     */
+    private void addSubtree(TreeLinked<Document> tree, Position<Document> position) {
+        subtreeSize++;
+        if (position.element() instanceof MyFile file) {
+            bytes += file.getSizeInBytes();
+        }
+        for (Position<Document> child : tree.children(position)) {
+            addSubtree(tree, child);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The SaveFileSystemEvent class records the serialization of a file system to disk.
+ * Its bytes are the size of the written file.
+ */
+@Name("pt.pa.SaveFileSystem")
+@Label("Save File System")
+@Description("A file system serialized to disk")
+public class SaveFileSystemEvent extends PfsEvent {
+
+    @Label("Path")
+    public String path;
+}
@@ -0,0 +1,19 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The ZipEvent class records the compression or decompression of a file or folder by the Zipper.
+ * Its subtree size and bytes are those of the zipped or unzipped subtree, counted uncompressed.
+ */
+@Name("pt.pa.Zip")
+@Label("Zip")
+@Description("A file or folder zipped or unzipped")
+public class ZipEvent extends PfsEvent {
+
+    @Label("Operation")
+    @Description("zipFolder, zipFile, unzipFolder or unzipFile")
+    public String operation;
+}
@@ -0,0 +1,147 @@
+package pt.pa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.ToLongFunction;
+
+/**
+ * The RecencyIndex class keeps documents ordered by a date, most recent first, so the most recent documents can be
+ * listed without sorting every document.
+ * <p>
+ * Adding, moving and removing a document cost O(log n), and a page of k documents costs O(log n + offset + k).
+ * Each document is kept with the date it was added with, so a document whose date changed since can still be
+ * found and moved. Documents with the same date keep the order they were added in. Adding many documents at once
+ * sorts them first, so they are added to the tree in order, which walks the same path down the tree each time.
+ * </p>
+ *
+ * @param <D> The type of the documents.
+ */
+public class RecencyIndex<D extends Document> {
+
+    private static final Comparator<Entry<?>> COMPARATOR = RecencyIndex::compare;
+
+    private final TreeSet<Entry<D>> entries = new TreeSet<>(COMPARATOR);
+    private final Map<D, Entry<D>> entriesByDocument = new IdentityHashMap<>();
+    private long nextSequence;
+
+    /**
+     * A document with the date it is ordered by.
+     *
+     * @param date     The date, in epoch seconds.
+     * @param sequence Orders the documents with the same date.
+     * @param document The document.
+     * @param <D>      The type of the document.
+     */
+    private record Entry<D>(long date, long sequence, D document) {
+    }
+
+    /**
+     * Orders the entries by date, most recent first, then in the order they were added.
+     *
+     * @param first  An entry.
+     * @param second Another entry.
+     * @return A negative number if the first entry comes first, positive if it comes last, zero if they are equal.
+     */
+    private static int compare(Entry<?> first, Entry<?> second) {
+        if (first.date() != second.date()) {
+            return Long.compare(second.date(), first.date());
+        }
+        return Long.compare(first.sequence(), second.sequence());
+    }
+
+    /**
+     * Adds a document, or moves it to a new date if it is already in the index.
+     *
+     * @param document The document.
+     * @param date     Its date, in epoch seconds.
+     */
+    public synchronized void put(D document, long date) {
+        Entry<D> old = entriesByDocument.get(document);
+        if (old != null) {
+            if (old.date() == date) {
+                return;
+            }
+            entries.remove(old);
+        }
+        Entry<D> entry = new Entry<>(date, nextSequence++, document);
+        entries.add(entry);
+        entriesByDocument.put(document, entry);
+    }
+
+    /**
+     * Adds many documents, in the order given. Documents already in the index are left where they are.
+     *
+     * @param documents The documents.
+     * @param date      Retrieves the date of a document, in epoch seconds.
+     */
+    public synchronized void putAll(Collection<? extends D> documents, ToLongFunction<? super D> date) {
+        List<Entry<D>> added = new ArrayList<>(documents.size());
+        for (D document : documents) {
+            if (!entriesByDocument.containsKey(document)) {
+                Entry<D> entry = new Entry<>(date.applyAsLong(document), nextSequence++, document);
+                entriesByDocument.put(document, entry);
+                added.add(entry);
+            }
+        }
+        added.sort(RecencyIndex::compare);
+        entries.addAll(added);
+    }
+
+    /**
+     * Removes a document. Removing a document that is not in the index has no effect.
+     *
+     * @param document The document.
+     */
+    public synchronized void remove(D document) {
+        Entry<D> entry = entriesByDocument.remove(document);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    /**
+     * Removes every document.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        entriesByDocument.clear();
+    }
+
+    /**
+     * Lists a page of the documents, most recent first.
+     *
+     * @param offset The number of more recent documents to skip.
+     * @param limit  The most documents to list.
+     * @return The documents of the page, fewer than the limit on the last page.
+     * @throws IllegalArgumentException If the offset or the limit is negative.
+     */
+    public synchronized List<D> page(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("The offset and limit cannot be negative.");
+        }
+        List<D> page = new ArrayList<>(Math.min(limit, Math.max(0, entries.size() - offset)));
+        Iterator<Entry<D>> iterator = entries.iterator();
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next().document());
+        }
+        return page;
+    }
+
+    /**
+     * Retrieves the number of documents.
+     *
+     * @return The number of documents.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+}
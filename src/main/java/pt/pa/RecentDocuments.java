@@ -0,0 +1,162 @@
+package pt.pa;
+
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The RecentDocuments class keeps the documents of a file system ordered by creation date and its files ordered by
+ * the date of their last change, following the changes reported by the {@link PFS}, so the most recently created
+ * or changed documents are listed without looking at every document.
+ * <p>
+ * The documents are only indexed when they are first listed, and again after the tree is replaced, so a file
+ * system that is never asked for its recent documents does not pay for the index.
+ * </p>
+ */
+public class RecentDocuments implements PfsChangeListener {
+
+    private final PFS pfs;
+    private final RecencyIndex<Document> created = new RecencyIndex<>();
+    private final RecencyIndex<MyFile> changed = new RecencyIndex<>();
+    private boolean indexed;
+
+    /**
+     * Constructs a RecentDocuments for a file system.
+     *
+     * @param pfs The file system.
+     */
+    public RecentDocuments(PFS pfs) {
+        this.pfs = pfs;
+    }
+
+    /**
+     * Lists a page of the documents, most recently created first.
+     *
+     * @param offset The number of more recent documents to skip.
+     * @param limit  The most documents to list.
+     * @return The documents.
+     */
+    public synchronized List<Document> getCreated(int offset, int limit) {
+        index();
+        return created.page(offset, limit);
+    }
+
+    /**
+     * Lists a page of the files, most recently changed first.
+     *
+     * @param offset The number of more recent files to skip.
+     * @param limit  The most files to list.
+     * @return The files.
+     */
+    public synchronized List<MyFile> getChanged(int offset, int limit) {
+        index();
+        return changed.page(offset, limit);
+    }
+
+    /**
+     * Indexes an inserted document, with the documents it holds when an undo put it back.
+     *
+     * @param parent   The folder holding the document.
+     * @param position The position of the inserted document.
+     */
+    @Override
+    public synchronized void documentInserted(Position<Document> parent, Position<Document> position) {
+        if (!indexed) {
+            return;
+        }
+        TreeLinked<Document> tree = pfs.getPfs();
+        Deque<Position<Document>> pending = new ArrayDeque<>();
+        pending.push(position);
+        while (!pending.isEmpty()) {
+            Position<Document> next = pending.pop();
+            add(next.element());
+            tree.children(next).forEach(pending::push);
+        }
+    }
+
+    /**
+     * Stops indexing a removed document and the documents it held.
+     *
+     * @param parent   The folder that held the document.
+     * @param position The position of the removed document.
+     */
+    @Override
+    public synchronized void documentRemoved(Position<Document> parent, Position<Document> position) {
+        if (!indexed) {
+            return;
+        }
+        TreeLinked<Document> tree = pfs.getPfs();
+        Deque<Position<Document>> pending = new ArrayDeque<>();
+        pending.push(position);
+        while (!pending.isEmpty()) {
+            Position<Document> next = pending.pop();
+            created.remove(next.element());
+            if (next.element() instanceof MyFile file) {
+                changed.remove(file);
+            }
+            tree.children(next).forEach(pending::push);
+        }
+    }
+
+    /**
+     * Moves a changed file to the date of its last change.
+     *
+     * @param position The position of the file.
+     */
+    @Override
+    public synchronized void contentChanged(Position<Document> position) {
+        if (indexed && position.element() instanceof MyFile file) {
+            changed.put(file, file.getLastChangeDate());
+        }
+    }
+
+    /**
+     * Drops the index, to be built from the new tree when the recent documents are next listed.
+     */
+    @Override
+    public synchronized void treeReplaced() {
+        indexed = false;
+        created.clear();
+        changed.clear();
+    }
+
+    /**
+     * Indexes every document of the tree, in the order of {@link TreeLinked#positions()}, unless it was done.
+     */
+    private void index() {
+        if (indexed) {
+            return;
+        }
+        indexed = true;
+        TreeLinked<Document> tree = pfs.getPfs();
+        if (tree.isEmpty()) {
+            return;
+        }
+        List<Document> documents = new ArrayList<>(tree.size());
+        List<MyFile> files = new ArrayList<>();
+        for (Position<Document> position : tree.positions()) {
+            documents.add(position.element());
+            if (position.element() instanceof MyFile file) {
+                files.add(file);
+            }
+        }
+        created.putAll(documents, Document::getCreationDate);
+        changed.putAll(files, MyFile::getLastChangeDate);
+    }
+
+    /**
+     * Indexes a document.
+     *
+     * @param document The document.
+     */
+    private void add(Document document) {
+        created.put(document, document.getCreationDate());
+        if (document instanceof MyFile file) {
+            changed.put(file, file.getLastChangeDate());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package pt.pa.View;
+
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import pt.pa.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The DocumentGrid class shows the documents of a folder seven to a row, creating nodes only for the rows on
+ * screen.
+ * <p>
+ * It is a list view whose items are the rows of a {@link DocumentGridRows}. The list view creates a cell for each
+ * visible row and reuses it as rows scroll in and out, and each cell reuses its {@link DocumentGridItem}s for the
+ * documents of whatever row it shows. The selected document is remembered here, not by the items, since an item
+ * shows a different document once it is reused.
+ * </p>
+ */
+public class DocumentGrid extends ListView<List<Document>> {
+
+    /**
+     * The number of documents in each row.
+     */
+    public static final int COLUMNS = 7;
+
+    private static final double ROW_HEIGHT = 115;
+
+    private Supplier<DocumentGridItem> itemFactory = DocumentGridItem::new;
+    private Document selectedDocument;
+
+    /**
+     * Constructs an empty DocumentGrid.
+     */
+    public DocumentGrid() {
+        setFixedCellSize(ROW_HEIGHT);
+        setFocusTraversable(false);
+        setPadding(new Insets(10, 0, 0, 20));
+        setStyle("-fx-background-color: transparent; -fx-background-insets: 0;");
+        setCellFactory(listView -> new RowCell());
+    }
+
+    /**
+     * Sets how the items of the cells are created, so their clicks can be handled.
+     *
+     * @param itemFactory Creates an empty item.
+     */
+    public void setItemFactory(Supplier<DocumentGridItem> itemFactory) {
+        this.itemFactory = itemFactory;
+        refresh();
+    }
+
+    /**
+     * Shows a list of documents, scrolled to the top and with nothing selected.
+     *
+     * @param documents The documents.
+     */
+    public void showDocuments(List<Document> documents) {
+        selectedDocument = null;
+        setItems(FXCollections.observableList(new DocumentGridRows(List.copyOf(documents), COLUMNS)));
+        scrollTo(0);
+    }
+
+    /**
+     * Shows no documents.
+     */
+    public void clear() {
+        showDocuments(List.of());
+    }
+
+    /**
+     * Retrieves the selected document.
+     *
+     * @return The selected document, or null if none is selected.
+     */
+    public Document getSelectedDocument() {
+        return selectedDocument;
+    }
+
+    /**
+     * Selects a document, redrawing the visible rows.
+     *
+     * @param document The document to select, or null to select none.
+     */
+    public void setSelectedDocument(Document document) {
+        selectedDocument = document;
+        refresh();
+    }
+
+    /**
+     * The cell of a row, holding one item for each column.
+     */
+    private class RowCell extends ListCell<List<Document>> {
+
+        private final HBox row = new HBox(25);
+        private final List<DocumentGridItem> items = new ArrayList<>();
+
+        @Override
+        protected void updateItem(List<Document> documents, boolean empty) {
+            super.updateItem(documents, empty);
+            setText(null);
+            setStyle("-fx-background-color: transparent;");
+            if (empty || documents == null) {
+                setGraphic(null);
+                return;
+            }
+            while (items.size() < documents.size()) {
+                DocumentGridItem item = itemFactory.get();
+                items.add(item);
+                row.getChildren().add(item);
+            }
+            for (int i = 0; i < items.size(); i++) {
+                DocumentGridItem item = items.get(i);
+                boolean used = i < documents.size();
+                item.setVisible(used);
+                if (used) {
+                    item.setDocument(documents.get(i));
+                    item.setSelected(documents.get(i) == selectedDocument);
+                }
+            }
+            setGraphic(row);
+        }
+    }
+}
@@ -1,117 +1,68 @@
 package pt.pa.View;
 
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.VBox;
 import pt.pa.Document;
-import pt.pa.Folder;
-import pt.pa.MyFile;
-import pt.pa.adts.Position;
 
 /**
- * Represents an item in a document grid.
+ * Represents an item in a document grid. An item is reused by the {@link DocumentGrid} for the documents of
+ * whichever row it is shown in, so the document it shows can be changed. Icons come from the {@link IconCache}.
  */
 public class DocumentGridItem extends VBox {
 
-    private final Position<Document> position;
-    private final Document document;
+    private final ImageView imageView = new ImageView();
+    private final Label nameLabel = new Label();
+    private Document document;
     private boolean selected;
 
     /**
-     * Constructs a DocumentGridItem with the specified position and document.
-     *
-     * @param position The position of the document.
-     * @param document The document associated with this grid item.
+     * Constructs an empty DocumentGridItem, showing no document until {@link #setDocument(Document)} is called.
      */
-    public DocumentGridItem(Position<Document> position, Document document) {
+    public DocumentGridItem() {
         super();
-        this.position = position;
-        this.document = document;
         this.selected = false;
         initialize();
     }
 
+    /**
+     * Constructs a DocumentGridItem showing the specified document.
+     *
+     * @param document The document associated with this grid item.
+     */
+    public DocumentGridItem(Document document) {
+        this();
+        setDocument(document);
+    }
+
     /**
      * Initializes the DocumentGridItem by setting alignment, spacing, and adding child nodes.
      */
     private void initialize() {
         setAlignment(Pos.CENTER);
         setSpacing(5);
+        setPrefWidth(80);
 
-        Node documentNode = createDocumentNode(document);
-        getChildren().add(documentNode);
+        imageView.setFitWidth(IconCache.GRID_SIZE);
+        imageView.setFitHeight(IconCache.GRID_SIZE);
+        getChildren().add(imageView);
 
-        Label nameLabel = new Label(document.getName());
         nameLabel.setWrapText(true);
         getChildren().add(nameLabel);
     }
 
     /**
-     * Creates a graphical representation (Node) for the given document.
-     *
-     * @param document The document for which to create a graphical representation.
-     * @return A Node representing the document.
-     */
-    private Node createDocumentNode(Document document) {
-        if (document instanceof MyFile myFile && myFile.isAccessable()) {
-            String extension = myFile.getExtension().getExtension().toLowerCase();
-            return createImageView("file:src/main/java/pt/pa/view/images/" + getIconNameForExtension(extension) + ".png");
-        } else if (document instanceof Folder && document.isAccessable()) {
-            return createImageView("file:src/main/java/pt/pa/view/images/folderFull.png");
-        } else if (document instanceof Folder && !document.isAccessable()) {
-            return createImageView("file:src/main/java/pt/pa/view/images/zipFolder.png");
-        } else if (document instanceof MyFile myFile && !myFile.isAccessable()) {
-            return createImageView("file:src/main/java/pt/pa/view/images/zipFile.png");
-        } else {
-            return new Label(document.getName());
-        }
-    }
-
-    /**
-     * Gets the icon name for the given file extension.
+     * Shows a document in this item, with the icon of its type.
      *
-     * @param extension The file extension.
-     * @return The icon name corresponding to the extension.
+     * @param document The document.
      */
-    private String getIconNameForExtension(String extension) {
-        return switch (extension) {
-            case ".doc" -> "doc";
-            case ".pdf" -> "pdf";
-            case ".jpg" -> "jpg";
-            case ".png" -> "png";
-            case ".html" -> "html";
-            case ".xml" -> "xml";
-            case ".csv" -> "csv";
-            case ".zip" -> "zip";
-            case ".mp3" -> "mp3";
-            case ".mp4" -> "mp4";
-            default -> "txt";
-        };
-    }
-
-    /**
-     * Creates an ImageView for the given image path with specified dimensions.
-     *
-     * @param imagePath The path to the image file.
-     * @return An ImageView representing the image.
-     */
-    private ImageView createImageView(String imagePath) {
-        ImageView imageView = new ImageView(imagePath);
-        imageView.setFitWidth(70);
-        imageView.setFitHeight(70);
-        return imageView;
-    }
-
-
-    /**
-     * Gets the position of the document in the grid.
-     *
-     * @return The position of the document.
-     */
-    public Position<Document> getPosition() {
-        return position;
+    public void setDocument(Document document) {
+        this.document = document;
+        IconCache.Icon icon = IconCache.gridIcon(document);
+        imageView.setImage(icon == null ? null : IconCache.get(icon, IconCache.GRID_SIZE));
+        imageView.setManaged(icon != null);
+        nameLabel.setText(document.getName());
     }
 
     /**
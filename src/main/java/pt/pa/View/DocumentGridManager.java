@@ -1,12 +1,10 @@
 package pt.pa.View;
 
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.TreeItem;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import pt.pa.Document;
 import pt.pa.Folder;
@@ -18,57 +16,45 @@ import java.util.List;
 
 /**
  * The DocumentGridManager class is responsible for managing the display of documents
- * in a JavaFX GridPane. It provides methods to add a list of documents to the GridPane,
- * creating visual representations for each document.
+ * in a {@link DocumentGrid}. It provides methods to show a list of documents in the grid,
+ * and creates the items of the grid with the handlers of their clicks.
  */
 public class DocumentGridManager {
-    private final GridPane documentGrid;
+    private final DocumentGrid documentGrid;
     private PFS model;
     private GUI gui;
 
 
     /**
-     * Constructs a DocumentGridManager with the specified GridPane.
+     * Constructs a DocumentGridManager with the specified DocumentGrid.
      *
-     * @param documentGrid The GridPane where documents will be displayed.
+     * @param documentGrid The DocumentGrid where documents will be displayed.
      */
-    public DocumentGridManager(GridPane documentGrid, PFS model, GUI gui) {
+    public DocumentGridManager(DocumentGrid documentGrid, PFS model, GUI gui) {
         this.documentGrid = documentGrid;
         this.model = model;
         this.gui = gui;
+        documentGrid.setItemFactory(this::getDocumentGridItem);
     }
 
     /**
-     * Adds a list of documents to the GridPane, creating visual representations for each document.
-     * Clears the existing children in the GridPane before adding new documents.
+     * Shows a list of documents in the DocumentGrid, replacing the documents shown before.
+     * Only the items of the visible rows are created.
      *
-     * @param documents The list of documents to be added to the GridPane.
+     * @param documents The list of documents to be shown.
      */
     public void addDocumentsToGrid(List<Document> documents) {
-        documentGrid.getChildren().clear();
-
-        for (int i = 0; i < documents.size(); i++) {
-            Document document = documents.get(i);
-            Position<Document> position = model.findPositionByElement(document);
-
-            DocumentGridItem documentItem = getDocumentGridItem(position, document);
-
-            documentGrid.add(documentItem, i % 7, i / 7);
-        }
-
-        documentGrid.layout();
+        documentGrid.showDocuments(documents);
     }
 
     /**
-     * Creates a {@link DocumentGridItem} with the specified position and document, and sets
-     * the event handler for mouse clicks to handle single and double clicks.
+     * Creates an empty {@link DocumentGridItem} for a cell of the grid, and sets the event handler
+     * for mouse clicks to handle single and double clicks on whatever document it shows.
      *
-     * @param position The position of the document.
-     * @param document The document to be represented by the grid item.
      * @return The created {@link DocumentGridItem}.
      */
-    private DocumentGridItem getDocumentGridItem(Position<Document> position, Document document) {
-        DocumentGridItem documentItem = new DocumentGridItem(position, document);
+    private DocumentGridItem getDocumentGridItem() {
+        DocumentGridItem documentItem = new DocumentGridItem();
 
         documentItem.setOnMouseClicked(event -> {
             if (event.getButton() == MouseButton.PRIMARY) {
@@ -90,13 +76,8 @@ public class DocumentGridManager {
      * @param clickedItem The clicked {@link DocumentGridItem}.
      */
     private void handleSingleClickSelection(DocumentGridItem clickedItem) {
-        clearSelection();
-        if (clickedItem.isSelected()) {
-            clickedItem.setSelected(false);
-        } else {
-            clickedItem.setSelected(true);
-            gui.getGuiTreeView().getSelectionModel().clearSelection();
-        }
+        documentGrid.setSelectedDocument(clickedItem.getDocument());
+        gui.getGuiTreeView().getSelectionModel().clearSelection();
     }
 
     /**
@@ -138,21 +119,17 @@ public class DocumentGridManager {
     }
 
     /**
-     * Clears the selection of all {@link DocumentGridItem}s within the associated {@link GridPane}.
+     * Clears the selection of the associated {@link DocumentGrid}.
      */
     public void clearSelection() {
-        for (Node node : documentGrid.getChildren()) {
-            if (node instanceof DocumentGridItem) {
-                ((DocumentGridItem) node).setSelected(false);
-            }
-        }
+        documentGrid.setSelectedDocument(null);
     }
 
     /**
-     * Clears all children from the associated {@link GridPane}.
+     * Clears all documents from the associated {@link DocumentGrid}.
      */
     public void clearGrid() {
-        documentGrid.getChildren().clear();
+        documentGrid.clear();
     }
 
 }
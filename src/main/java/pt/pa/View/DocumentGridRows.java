@@ -0,0 +1,56 @@
+package pt.pa.View;
+
+import pt.pa.Document;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The DocumentGridRows class splits the documents of a folder into the rows of the document grid. It is a view over
+ * the list of documents, so no row is built until it is asked for and showing a folder costs the same whatever the
+ * number of documents it holds.
+ */
+public class DocumentGridRows extends AbstractList<List<Document>> implements RandomAccess {
+
+    private final List<Document> documents;
+    private final int columns;
+
+    /**
+     * Constructs a DocumentGridRows over a list of documents.
+     *
+     * @param documents The documents, which must not change while the rows are in use.
+     * @param columns   The number of documents in each row.
+     */
+    public DocumentGridRows(List<Document> documents, int columns) {
+        if (columns < 1) {
+            throw new IllegalArgumentException("A row needs at least one column");
+        }
+        this.documents = documents;
+        this.columns = columns;
+    }
+
+    /**
+     * Retrieves the documents of a row, the last row holding what is left.
+     *
+     * @param row The index of the row.
+     * @return The documents of the row.
+     */
+    @Override
+    public List<Document> get(int row) {
+        Objects.checkIndex(row, size());
+        int from = row * columns;
+        return documents.subList(from, Math.min(from + columns, documents.size()));
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return The number of rows.
+     */
+    @Override
+    public int size() {
+        return (documents.size() + columns - 1) / columns;
+    }
+}
@@ -0,0 +1,104 @@
+package pt.pa.View;
+
+import javafx.collections.ObservableList;
+import javafx.event.Event;
+import javafx.scene.control.TreeItem;
+import javafx.scene.image.ImageView;
+import pt.pa.Document;
+import pt.pa.adts.Position;
+
+import java.util.List;
+
+/**
+ * The DocumentTreeItem class is the tree view item of a document, remembering the position of the document so
+ * the document it shows never has to be searched for in the file system.
+ * <p>
+ * The items of its children are only created the first time they are asked for, which the tree view does when
+ * this item is expanded; until then whether it is a leaf is answered from the number of children its position had
+ * when the updater last saw it change. Only the folders the user opened cost items, however large the file system.
+ * </p>
+ */
+public class DocumentTreeItem extends TreeItem<Document> {
+
+    private final Position<Document> position;
+    private final TreeViewUpdater updater;
+    private boolean loaded;
+    private int degree;
+
+    /**
+     * Constructs a DocumentTreeItem showing the document at a position, with the icon of its type.
+     *
+     * @param position The position of the document.
+     * @param degree   The number of children of the document.
+     * @param updater  The updater creating the items of its children.
+     */
+    DocumentTreeItem(Position<Document> position, int degree, TreeViewUpdater updater) {
+        super(position.element());
+        this.position = position;
+        this.degree = degree;
+        this.updater = updater;
+        IconCache.Icon icon = IconCache.treeIcon(position.element());
+        if (icon != null) {
+            setGraphic(new ImageView(IconCache.get(icon, IconCache.TREE_SIZE)));
+        }
+    }
+
+    /**
+     * Retrieves the position of the document shown by this item.
+     *
+     * @return The position of the document.
+     */
+    public Position<Document> getPosition() {
+        return position;
+    }
+
+    /**
+     * Retrieves the items of the children, creating them the first time.
+     *
+     * @return The items of the children.
+     */
+    @Override
+    public ObservableList<TreeItem<Document>> getChildren() {
+        if (!loaded) {
+            loaded = true;
+            List<TreeItem<Document>> children = updater.createChildren(this);
+            super.getChildren().setAll(children);
+        }
+        return super.getChildren();
+    }
+
+    /**
+     * Checks whether this item has no children, without creating their items.
+     *
+     * @return True if the document holds nothing.
+     */
+    @Override
+    public boolean isLeaf() {
+        return loaded ? super.getChildren().isEmpty() : degree == 0;
+    }
+
+    /**
+     * Sets the number of children of the document, while their items were not created.
+     *
+     * @param degree The number of children.
+     */
+    void setDegree(int degree) {
+        this.degree = degree;
+    }
+
+    /**
+     * Checks whether the items of the children were created.
+     *
+     * @return True if the children were created.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Redraws the cell showing this item, after the document was renamed or changed.
+     */
+    public void refresh() {
+        Event.fireEvent(this, new TreeModificationEvent<>(valueChangedEvent(), this, getValue()));
+    }
+}
@@ -1,7 +1,7 @@
 package pt.pa.View;
 
 import javafx.event.ActionEvent;
-import javafx.geometry.Insets;
+import javafx.scene.Cursor;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import pt.pa.Document;
@@ -15,7 +15,7 @@ public class GUI extends BorderPane {
     private TreeView<Document> guiTreeView;
     private PFS model;
     private DocumentGridManager documentGridManager;
-    private GridPane documentGrid;
+    private DocumentGrid documentGrid;
     private TextArea documentContent;
     private TreeItem<Document> root;
     private TextField searchBar;
@@ -46,9 +46,23 @@ public class GUI extends BorderPane {
         return guiTreeView;
     }
 
-    public GridPane getDocumentGrid() {
+    public DocumentGrid getDocumentGrid() {
         return documentGrid;
     }
+
+    /**
+     * Disables the toolbars, the tree view and the document grid while the command writer changes the file system,
+     * so the user cannot start anything that reads the tree while another thread changes it. The window keeps
+     * being drawn, and the tree view keeps following the changes.
+     *
+     * @param busy True to disable them, false to enable them again.
+     */
+    public void setBusy(boolean busy) {
+        getTop().setDisable(busy);
+        guiTreeView.setDisable(busy);
+        documentGrid.setDisable(busy);
+        setCursor(busy ? Cursor.WAIT : Cursor.DEFAULT);
+    }
     private void createPanel() {
         initializeButtons();
         initializeSearchBar();
@@ -113,16 +127,14 @@ public class GUI extends BorderPane {
     private void initializeTreeView() {
         root = new TreeItem<>(model.getRoot().element());
         guiTreeView = new TreeView<>(root);
+        guiTreeView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         setLeft(guiTreeView);
         guiTreeView.getSelectionModel().select(root);
         guiTreeView.getSelectionModel().getSelectedItem().setExpanded(true);
     }
 
     private void initializeDocumentGrid() {
-        documentGrid = new GridPane();
-        documentGrid.setHgap(25);
-        documentGrid.setVgap(10);
-        documentGrid.setPadding(new Insets(10, 0, 0, 20));
+        documentGrid = new DocumentGrid();
 
         setCenter(documentGrid);
     }
@@ -181,20 +193,10 @@ public class GUI extends BorderPane {
             }
         });
         undoBtn.setOnAction((ActionEvent event) -> {
-            try {
-                controller.doUndo();
-
-            } catch (IOException e) {
-                System.err.println("Error executing doUndo: " + e.getMessage());
-            }
+            controller.doUndo();
         });
         redoBtn.setOnAction((ActionEvent event) -> {
-            try {
-                controller.doRedo();
-
-            } catch (IOException e) {
-                System.err.println("Error executing doRedo: " + e.getMessage());
-            }
+            controller.doRedo();
         });
 
         moveBtn.setOnAction((ActionEvent event) -> {
@@ -1,13 +1,11 @@
 package pt.pa.View;
 
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TreeItem;
-import javafx.scene.control.TreeView;
-import javafx.scene.image.ImageView;
 import pt.pa.Commands.*;
 import pt.pa.Document;
 import pt.pa.Folder;
-import pt.pa.MyFile;
 import pt.pa.PFS;
 import pt.pa.adts.Position;
 import pt.pa.adts.TreeLinked;
@@ -15,7 +13,10 @@ import pt.pa.adts.TreeLinked;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EmptyStackException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The GUIController class handles user interactions and updates the graphical user interface accordingly.
@@ -25,11 +26,13 @@ public class GUIController {
     private PFS model;
     private GUI gui;
     private Position<Document> previousSelection;
-    private TreeItem<Document> previousItem;
 
     private DocumentGridManager documentGridManager;
+    private final TreeViewUpdater treeViewUpdater;
+    private final StatisticsService statistics;
     private List<Document> lastAddedDocuments = Collections.emptyList();
     private AlertUtils alertUtils = new AlertUtils();
+    private int pendingChanges;
 
     /**
      * Constructs a GUIController with the specified model and GUI components.
@@ -41,8 +44,12 @@ public class GUIController {
         this.model = model;
         this.gui = gui;
         this.documentGridManager = new DocumentGridManager(gui.getDocumentGrid(),model,gui);
+        this.treeViewUpdater = new TreeViewUpdater(model, gui.getGuiTreeView());
+        this.statistics = new StatisticsService(model);
+        model.getCommandManager().startWriter();
         gui.setTriggers(this);
         createTreeView(model.getPfs());
+        model.addChangeListener(treeViewUpdater);
     }
 
     /**
@@ -52,7 +59,8 @@ public class GUIController {
         Position<Document> selectedPosition = getSelectedPosition();
         if (selectedPosition != null) {
             try {
-                CreateFileCommand createFileCommand = new CreateFileCommand(model, selectedPosition, "newFile");
+                CreateFileCommand createFileCommand = new CreateFileCommand(model, selectedPosition,
+                        model.freeName(selectedPosition, "newFile", ".txt"));
                 model.getCommandManager().executeCommand(createFileCommand);
                 update();
             } catch (IOException e) {
@@ -71,7 +79,8 @@ public class GUIController {
         Position<Document> selectedPosition = getSelectedPosition();
         if (selectedPosition != null) {
             try {
-                CreateFolderCommand createFolderCommand = new CreateFolderCommand(model, selectedPosition, "newFolder");
+                CreateFolderCommand createFolderCommand = new CreateFolderCommand(model, selectedPosition,
+                        model.freeName(selectedPosition, "newFolder", ""));
                 model.getCommandManager().executeCommand(createFolderCommand);
                 update();
             } catch (IOException e) {
@@ -110,28 +119,37 @@ public class GUIController {
                 return;
             }
             PasteCommand pasteCommand = new PasteCommand(model, getSelectedPosition());
-            model.getCommandManager().executeCommand(pasteCommand);
-            update();
-        } catch (IOException e) {
+            whenChanged(model.getCommandManager().submit(pasteCommand), "Paste Operation Failed", this::refresh);
+        } catch (RuntimeException e) {
             alertUtils.showAlert(Alert.AlertType.ERROR, "Error", "Paste Operation Failed", "An error occurred during the paste operation: " + e.getMessage());
         }
     }
 
     /**
-     * Initiates the move operation.
+     * Initiates the move operation. When several documents are selected, they are all moved as one transaction,
+     * undone as one step and saved once.
      */
     public void doMove() {
+        List<Position<Document>> sourcePositions = getSelectedPositions();
         Position<Document> sourcePosition = getSelectedPosition();
         System.out.println("Select the destination position.");
         gui.getGuiTreeView().setOnMouseClicked(destinationMouseEvent -> {
             if (destinationMouseEvent.getClickCount() == 1) {
                 Position<Document> destinationPosition = getSelectedPosition();
-                if (sourcePosition != destinationPosition) {
+                if (sourcePositions.size() > 1) {
+                    List<Command> moves = new ArrayList<>();
+                    for (Position<Document> position : sourcePositions) {
+                        if (position != destinationPosition) {
+                            moves.add(new MoveCommand(model, position, destinationPosition));
+                        }
+                    }
+                    whenChanged(model.getCommandManager().submitAll(moves), "Move Operation Failed", this::refresh);
+                } else if (sourcePosition != destinationPosition) {
                     try {
                         MoveCommand moveCommand = new MoveCommand(model, sourcePosition, destinationPosition);
                         model.getCommandManager().executeCommand(moveCommand);
                         update();
-                    } catch (IOException e) {
+                    } catch (IOException | RuntimeException e) {
                         alertUtils.showAlert(Alert.AlertType.ERROR, "Error", "Move Operation Failed", "An error occurred during the move operation: " + e.getMessage());
                         e.printStackTrace();
                     }
@@ -149,23 +167,29 @@ public class GUIController {
      */
 
     public void doRemove() {
+        List<Position<Document>> selectedPositions = getSelectedPositions();
+        if (selectedPositions.size() > 1) {
+            previousSelection = model.getPfs().parent(selectedPositions.get(0));
+            List<Command> removals = new ArrayList<>();
+            for (Position<Document> position : selectedPositions) {
+                removals.add(new RemoveCommand(model, position));
+            }
+            whenChanged(model.getCommandManager().submitAll(removals), "Remove Operation Failed", this::refresh);
+            return;
+        }
         try {
             TreeItem<Document> selectedItem = getSelectedItem();
             Position<Document> selectedPosition = getSelectedPosition();
             previousSelection = selectedPosition;
-            previousItem = selectedItem;
+            TreeItem<Document> parent = selectedItem.getParent();
             RemoveCommand removeCommand = new RemoveCommand(model, selectedPosition);
             model.getCommandManager().executeCommand(removeCommand);
-            TreeItem<Document> parent = selectedItem.getParent();
 
             if (parent != null) {
-                parent.getChildren().remove(selectedItem);
                 List<Document> documentsInFolder = model.getDirectDescendants(model.getPfs().parent(previousSelection), "all");
 
                 addDocumentToGrid(documentsInFolder);
                 updateDocumentGrid();
-            } else {
-                gui.getGuiTreeView().setRoot(null);
             }
         } catch (IOException e) {
             alertUtils.showAlert(Alert.AlertType.ERROR, "Error", "Remove Operation Failed", "An error occurred during the remove operation: " + e.getMessage());
@@ -202,70 +226,160 @@ public class GUIController {
             Position<Document> selectedPosition = getSelectedPosition();
             if (selectedPosition.element().isAccessable()) {
                 ZipCommand zipCommand = new ZipCommand(model, model.getZipper(), selectedPosition);
-                model.getCommandManager().executeCommand(zipCommand);
-                updateDocumentGrid();
+                whenChanged(model.getCommandManager().submit(zipCommand), "Zip Operation Failed", this::refreshDocumentGrid);
             } else {
                 alertUtils.showAlert(Alert.AlertType.WARNING, "Error", "Zip Operation Failed", "Cannot zip a zipped element");
             }
-        } catch (IOException e) {
+        } catch (RuntimeException e) {
             alertUtils.showAlert(Alert.AlertType.WARNING, "Error", "Zip Operation Failed", "An error occurred during the zip operation: " + e.getMessage());
         }
     }
 
     public void doExtract() {
-        try {
-            Position<Document> selectedPosition = getSelectedPosition();
-            if (!selectedPosition.element().isAccessable()) {
-                ExtractCommand extractCommand = new ExtractCommand(model, model.getZipper(), selectedPosition);
-                model.getCommandManager().executeCommand(extractCommand);
-                updateDocumentGrid();
-            } else {
-                alertUtils.showAlert(Alert.AlertType.WARNING, "Error", "Zip Operation Failed", "Cannot extract something that is not zipped");
-            }
-        } catch (IOException ex) {
-            throw new RuntimeException(ex);
+        Position<Document> selectedPosition = getSelectedPosition();
+        if (!selectedPosition.element().isAccessable()) {
+            ExtractCommand extractCommand = new ExtractCommand(model, model.getZipper(), selectedPosition);
+            whenChanged(model.getCommandManager().submit(extractCommand), "Extract Operation Failed", this::refreshDocumentGrid);
+        } else {
+            alertUtils.showAlert(Alert.AlertType.WARNING, "Error", "Zip Operation Failed", "Cannot extract something that is not zipped");
         }
     }
 
     public void doInfo() throws IOException {
         InfoGUI infoGUI = new InfoGUI(model);
-        new InfoController(model, infoGUI);
+        new InfoController(model, infoGUI, statistics);
     }
 
     public void doProperties() throws IOException {
         PropertiesGUI propGUI = new PropertiesGUI(model);
-        new PropertiesController(model, propGUI);
+        new PropertiesController(model, propGUI, statistics);
 
     }
 
     /**
      * Undoes the last executed command.
      */
-    public void doUndo() throws IOException {
-        if (model.getCommandManager().getCommandLog().isEmpty()) {
-            alertUtils.showAlert(Alert.AlertType.ERROR, "Error", "Extract Operation Failed", "Command stack is empty");
-        } else {
-            model.getCommandManager().undoCommand();
-        }
-        update();
+    public void doUndo() {
+        whenChanged(describeEmptyStack(model.getCommandManager().submitUndo(), "Command stack is empty"),
+                "Undo Operation Failed", this::refresh);
     }
 
     /**
      * Redoes the last undone command.
      */
-    public void doRedo() throws IOException {
-        if (model.getCommandManager().getUndoneCommands().isEmpty()) {
-            alertUtils.showAlert(Alert.AlertType.ERROR, "Error", "Extract Operation Failed", "Undone commands stack is empty");
-        } else {
-            model.getCommandManager().redoCommand();
-        }
-        update();
+    public void doRedo() {
+        whenChanged(describeEmptyStack(model.getCommandManager().submitRedo(), "Undone commands stack is empty"),
+                "Redo Operation Failed", this::refresh);
+    }
+
+    /**
+     * Replaces the failure of an undo or redo with nothing to undo or redo by one carrying a message for the alert.
+     *
+     * @param work    The undo or redo.
+     * @param message The message shown when there is nothing to undo or redo.
+     * @return A future completed as the work completes.
+     */
+    private static CompletableFuture<Void> describeEmptyStack(CompletableFuture<Void> work, String message) {
+        return work.exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            throw new CompletionException(cause instanceof EmptyStackException
+                    ? new IllegalStateException(message) : cause);
+        });
     }
 
     public void doBackUp() throws IOException {
         BackupCommand backupCommand = new BackupCommand(model);
-        backupCommand.execute();
-        alertUtils.showAlert(Alert.AlertType.INFORMATION, "Backup Operation", "Backup done", "Backup was successful and was stored in:  /src/main/java/pt/pa/Backup/Backups");
+        CompletableFuture<Void> backup = model.getCommandManager().submitTask(() -> {
+            backupCommand.execute();
+            return null;
+        });
+        whenDone(backup, "Backup Failed", () -> alertUtils.showAlert(Alert.AlertType.INFORMATION, "Backup Operation", "Backup done", "Backup was successful and was stored in:  /src/main/java/pt/pa/Backup/Backups"));
+    }
+
+    /**
+     * Runs an action on the JavaFX application thread once work submitted to the command writer completes,
+     * or shows an error alert if the work failed. Only for work that reads the file system, such as a save or a
+     * backup, during which the views can still read it too.
+     *
+     * @param work      The submitted work.
+     * @param header    The header of the error alert.
+     * @param onSuccess The action to run if the work succeeded.
+     */
+    private void whenDone(CompletableFuture<?> work, String header, Runnable onSuccess) {
+        work.whenComplete((result, error) -> Platform.runLater(() -> done(error, header, onSuccess)));
+    }
+
+    /**
+     * Keeps the toolbars, the tree view and the document grid disabled while work submitted to the command writer
+     * changes the file system, then runs an action on the JavaFX application thread, or shows an error alert if the
+     * work failed. The JavaFX application thread walks the tree to fill the views, so they must not be used while
+     * the writer changes it; the action runs once no other change is pending.
+     *
+     * @param work      The submitted work, which changes the file system.
+     * @param header    The header of the error alert.
+     * @param onSuccess The action to run if the work succeeded.
+     */
+    private void whenChanged(CompletableFuture<?> work, String header, Runnable onSuccess) {
+        if (pendingChanges++ == 0) {
+            gui.setBusy(true);
+        }
+        work.whenComplete((result, error) -> Platform.runLater(() -> {
+            boolean idle = --pendingChanges == 0;
+            if (idle) {
+                gui.setBusy(false);
+            }
+            done(error, header, idle ? onSuccess : () -> { });
+        }));
+    }
+
+    /**
+     * Runs the action following completed work, or shows an error alert if the work failed.
+     *
+     * @param error     The failure of the work, or null if it succeeded.
+     * @param header    The header of the error alert.
+     * @param onSuccess The action to run if the work succeeded.
+     */
+    private void done(Throwable error, String header, Runnable onSuccess) {
+        if (error == null) {
+            onSuccess.run();
+        } else {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            alertUtils.showAlert(Alert.AlertType.ERROR, "Error", header, "An error occurred: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * Updates the tree view after asynchronous work, showing an alert if the update fails.
+     */
+    private void refresh() {
+        try {
+            update();
+        } catch (IOException e) {
+            alertUtils.showAlert(Alert.AlertType.ERROR, "Error", "Update Failed", "An error occurred while updating the view: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Updates the document grid after asynchronous work, showing an alert if the update fails.
+     */
+    private void refreshDocumentGrid() {
+        try {
+            updateDocumentGrid();
+        } catch (IOException e) {
+            alertUtils.showAlert(Alert.AlertType.ERROR, "Error", "Update Failed", "An error occurred while updating the view: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the file system on the command writer thread, so the JavaFX application thread does not wait for
+     * the serialization and the tree is not read while another command changes it.
+     */
+    private void saveFileSystem() {
+        CompletableFuture<Void> save = model.getCommandManager().submitTask(() -> {
+            model.saveFileSystem();
+            return null;
+        });
+        whenDone(save, "Save Failed", () -> { });
     }
 
     /**
@@ -285,31 +399,60 @@ public class GUIController {
      */
 
     private Position<Document> getSelectedPosition() {
-        return model.findPositionByElement(gui.getGuiTreeView().getSelectionModel().getSelectedItem().getValue());
+        return positionOf(gui.getGuiTreeView().getSelectionModel().getSelectedItem());
     }
 
     /**
-     * Creates the tree view based on the given tree structure.
+     * Retrieves the positions of every selected item in the tree view, leaving out the documents held by another
+     * selected folder, since they follow that folder.
      *
-     * @param tree The tree structure representing the file system.
+     * @return The positions of the selected items, in selection order.
      */
-    public void createTreeView(TreeLinked<Document> tree) {
-        if (tree.root() != null) {
-            TreeView<Document> treeView = gui.getGuiTreeView();
-            TreeItem<Document> item = treeView.getRoot();
-            Position<Document> rootPos = tree.root();
-            recursiveCreateTreeView(tree, rootPos, item);
+    private List<Position<Document>> getSelectedPositions() {
+        List<Position<Document>> selected = new ArrayList<>();
+        for (TreeItem<Document> item : gui.getGuiTreeView().getSelectionModel().getSelectedItems()) {
+            Position<Document> position = item == null ? null : positionOf(item);
+            if (position != null && !selected.contains(position)) {
+                selected.add(position);
+            }
+        }
+        TreeLinked<Document> tree = model.getPfs();
+        List<Position<Document>> positions = new ArrayList<>();
+        for (Position<Document> position : selected) {
+            boolean held = false;
+            for (Position<Document> other : selected) {
+                if (other != position && tree.isAncestor(position, other)) {
+                    held = true;
+                    break;
+                }
+            }
+            if (!held) {
+                positions.add(position);
+            }
         }
+        return positions;
     }
 
-    private void recursiveCreateTreeView
-            (TreeLinked<Document> tree, Position<Document> currentPosition, TreeItem<Document> parentItem) {
-        for (Position<Document> child : tree.children(currentPosition)) {
-            TreeItem<Document> childItem = new TreeItem<>(child.element());
-            setItemImage(childItem);
-            parentItem.getChildren().add(childItem);
-            recursiveCreateTreeView(tree, child, childItem);
-        }
+    /**
+     * Retrieves the position of the document shown by a tree view item, searching the file system only for items
+     * that were not created by the tree view, such as those built from the document grid.
+     *
+     * @param item The tree view item.
+     * @return The position of its document, or null if it is not in the file system.
+     */
+    private Position<Document> positionOf(TreeItem<Document> item) {
+        Position<Document> position = treeViewUpdater.getPosition(item);
+        return position != null ? position : model.findPositionByElement(item.getValue());
+    }
+
+    /**
+     * Creates the tree view based on the given tree structure.
+     * Afterwards the tree view follows the changes made to the file system, one document at a time.
+     *
+     * @param tree The tree structure representing the file system.
+     */
+    public void createTreeView(TreeLinked<Document> tree) {
+        treeViewUpdater.rebuild();
     }
 
 
@@ -321,7 +464,7 @@ public class GUIController {
     public void handleTreeViewItemClick(TreeItem<Document> selectedItem) {
         if (selectedItem != null) {
 
-            Position<Document> selectedPosition = model.findPositionByElement(selectedItem.getValue());
+            Position<Document> selectedPosition = positionOf(selectedItem);
 
             if (selectedPosition != null && selectedPosition.element() instanceof Folder) {
                 List<Document> documentsInFolder = model.getDirectDescendants(selectedPosition, "all");
@@ -330,52 +473,23 @@ public class GUIController {
         }
     }
 
-    private void setItemImage(TreeItem<Document> item) {
-        Document document = item.getValue();
-        if (document instanceof MyFile) {
-            item.setGraphic(new ImageView("file:src/main/java/pt/pa/View/Images/file1.png"));
-        } else if (document instanceof Folder) {
-            item.setGraphic(new ImageView("file:src/main/java/pt/pa/View/Images/folder1.png"));
-        }
-    }
-
-
+    /**
+     * Updates the views after an operation. The tree view items were already patched by the
+     * {@link TreeViewUpdater}, so only the document grid of the selected folder is filled again.
+     */
     private void update() throws IOException {
         TreeItem<Document> selectedItem = gui.getGuiTreeView().getSelectionModel().getSelectedItem();
         if (selectedItem != null) {
-            previousSelection = model.findPositionByElement(selectedItem.getValue());
-        }
-        TreeItem<Document> root = new TreeItem<>(model.getRoot().element());
-        gui.getGuiTreeView().setRoot(root);
-        createTreeView(model.getPfs());
-
-        if (previousSelection != null) {
-            TreeItem<Document> newSelectedItem = findTreeViewItem(previousSelection, gui.getGuiTreeView().getRoot());
-            if (newSelectedItem != null) {
-                gui.getGuiTreeView().getSelectionModel().select(newSelectedItem);
-            }
+            previousSelection = positionOf(selectedItem);
         }
         if (previousSelection != null && previousSelection.element() instanceof Folder) {
             List<Document> documentsInFolder = model.getDirectDescendants(previousSelection, "all");
             addDocumentToGrid(documentsInFolder);
         }
-        gui.getGuiTreeView().getSelectionModel().getSelectedItem().setExpanded(true);
-        PFS.saveFileSystem(model.getPfs());
-    }
-
-    private TreeItem<Document> findTreeViewItem(Position<Document> target, TreeItem<Document> currentNode) {
-        if (currentNode.getValue().equals(target.element())) {
-            return currentNode;
-        }
-
-        for (TreeItem<Document> child : currentNode.getChildren()) {
-            TreeItem<Document> result = findTreeViewItem(target, child);
-            if (result != null) {
-                return result;
-            }
+        if (selectedItem != null) {
+            selectedItem.setExpanded(true);
         }
-
-        return null;
+        saveFileSystem();
     }
 
     /**
@@ -386,13 +500,12 @@ public class GUIController {
         addDocumentToGrid(lastAddedDocuments);
 
         if (previousSelection != null) {
-            TreeItem<Document> newSelectedItem = findTreeViewItem(previousSelection, previousItem);
-            System.out.println(newSelectedItem);
+            TreeItem<Document> newSelectedItem = treeViewUpdater.reveal(previousSelection);
             if (newSelectedItem != null) {
                 gui.getGuiTreeView().getSelectionModel().select(newSelectedItem);
             }
         }
-        PFS.saveFileSystem(model.getPfs());
+        saveFileSystem();
     }
 
 
@@ -0,0 +1,133 @@
+package pt.pa.View;
+
+import javafx.scene.image.Image;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.MyFile;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The IconCache class holds the icons of the documents, decoding each icon once for each size it is shown at and
+ * sharing the image between every {@link javafx.scene.image.ImageView} showing it.
+ * <p>
+ * Images are decoded straight to the size they are shown at, so a large icon is never kept whole to be scaled down
+ * each time it is drawn. They load in the background: an image view shows its icon as soon as it is decoded,
+ * without holding up the first frame.
+ * </p>
+ */
+public final class IconCache {
+
+    /**
+     * The size of the icons of the tree view.
+     */
+    public static final double TREE_SIZE = 15;
+
+    /**
+     * The size of the icons of the document grid.
+     */
+    public static final double GRID_SIZE = 70;
+
+    private static final String LOCATION = "file:src/main/java/pt/pa/View/Images/";
+
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    /**
+     * The icons, each naming its image file.
+     */
+    public enum Icon {
+        FILE("file1.png"),
+        FOLDER("folder1.png"),
+        FOLDER_FULL("folderFull.png"),
+        ZIP_FOLDER("zipFolder.png"),
+        ZIP_FILE("zipFile.png"),
+        TXT("txt.png"),
+        DOC("doc.png"),
+        PDF("PDF.png"),
+        JPG("jpg.png"),
+        PNG("png.png"),
+        HTML("html.png"),
+        XML("xml.png"),
+        CSV("csv.png"),
+        MP3("mp3.png"),
+        MP4("mp4.png");
+
+        private final String fileName;
+
+        Icon(String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * Retrieves the name of the image file of this icon.
+         *
+         * @return The file name.
+         */
+        public String getFileName() {
+            return fileName;
+        }
+    }
+
+    private IconCache() {
+    }
+
+    /**
+     * Retrieves an icon at a size, decoding it the first time.
+     *
+     * @param icon The icon.
+     * @param size The width and height the icon is shown at.
+     * @return The image, shared by every caller asking for the same icon and size.
+     */
+    public static Image get(Icon icon, double size) {
+        return IMAGES.computeIfAbsent(icon.name() + "@" + size,
+                key -> new Image(LOCATION + icon.getFileName(), size, size, true, true, true));
+    }
+
+    /**
+     * Retrieves the icon of a document in the tree view.
+     *
+     * @param document The document.
+     * @return The icon, or null if the document has none.
+     */
+    public static Icon treeIcon(Document document) {
+        if (document instanceof MyFile) {
+            return Icon.FILE;
+        } else if (document instanceof Folder) {
+            return Icon.FOLDER;
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the icon of a document in the document grid: the type of an accessible file, or whether a folder
+     * or file is zipped.
+     *
+     * @param document The document.
+     * @return The icon, or null if the document has none.
+     */
+    public static Icon gridIcon(Document document) {
+        if (document instanceof MyFile myFile && myFile.isAccessable()) {
+            return switch (myFile.getExtension().getExtension().toLowerCase()) {
+                case ".doc" -> Icon.DOC;
+                case ".pdf" -> Icon.PDF;
+                case ".jpg" -> Icon.JPG;
+                case ".png" -> Icon.PNG;
+                case ".html" -> Icon.HTML;
+                case ".xml" -> Icon.XML;
+                case ".csv" -> Icon.CSV;
+                case ".zip" -> Icon.ZIP_FILE;
+                case ".mp3" -> Icon.MP3;
+                case ".mp4" -> Icon.MP4;
+                default -> Icon.TXT;
+            };
+        } else if (document instanceof Folder && document.isAccessable()) {
+            return Icon.FOLDER_FULL;
+        } else if (document instanceof Folder) {
+            return Icon.ZIP_FOLDER;
+        } else if (document instanceof MyFile) {
+            return Icon.ZIP_FILE;
+        }
+        return null;
+    }
+}
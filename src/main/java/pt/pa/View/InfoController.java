@@ -3,11 +3,15 @@ package pt.pa.View;
 import javafx.collections.FXCollections;
 import javafx.scene.chart.BarChart;
 import javafx.scene.chart.XYChart;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableView;
+import pt.pa.ChangeLog;
 import pt.pa.Document;
 import pt.pa.MyFile;
 import pt.pa.PFS;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -15,25 +19,42 @@ import java.util.Map;
  * The {@code InfoController} class is responsible for handling user interactions and managing
  * the information display in the application. It connects the graphical user
  * interface ({@link InfoGUI}) with the underlying file system model ({@link PFS}) and updates the
- * displayed information based on user input.
+ * displayed information based on user input. Every query runs as a background {@link StatisticsTask},
+ * whose progress is shown in the window, and is answered at once while the model is unchanged.
  *
  * @author Your Name
  * @version 1.0
  */
 public class InfoController {
 
+    /**
+     * The number of files listed in the "# Changes" tab.
+     */
+    private static final int MOST_CHANGED = 20;
+
+    /**
+     * The number of days summed up above the most changed files.
+     */
+    private static final int RECENT_DAYS = 30;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
     private PFS model;
     private InfoGUI infoGUI;
+    private StatisticsService statistics;
+    private final List<StatisticsTask<?>> tasks = new ArrayList<>();
 
     /**
      * Constructs an {@code InfoController} with the specified model and graphical user interface.
      *
-     * @param model   The underlying file system model ({@link PFS}).
-     * @param infoGUI The graphical user interface ({@link InfoGUI}).
+     * @param model      The underlying file system model ({@link PFS}).
+     * @param infoGUI    The graphical user interface ({@link InfoGUI}).
+     * @param statistics Computes the information in the background and keeps it while the model is unchanged.
      */
-    public InfoController(PFS model, InfoGUI infoGUI) {
+    public InfoController(PFS model, InfoGUI infoGUI, StatisticsService statistics) {
         this.model = model;
         this.infoGUI = infoGUI;
+        this.statistics = statistics;
         showChangedFiles();
         infoGUI.setTriggers(this);
     }
@@ -42,23 +63,41 @@ public class InfoController {
      * Retrieves the last 10 changed files from the model and updates the corresponding table in the GUI.
      */
     private void getLast10ChangedFiles() {
-        List<MyFile> lastChangedFiles = model.getLast10Altered();
-        getChangedTableView().setItems(FXCollections.observableArrayList(lastChangedFiles));
+        track(statistics.<List<MyFile>>compute("changed", task -> model.getLast10Altered(),
+                lastChangedFiles -> getChangedTableView().setItems(
+                        FXCollections.observableArrayList(lastChangedFiles))));
     }
 
     /**
      * Retrieves the last 20 created files from the model and updates the corresponding table in the GUI.
      */
     private void getLast20CreatedFiles() {
-        List<Document> lastCreatedFiles = model.getLast20CreatedFiles();
-        getCreatedTableView().setItems(FXCollections.observableArrayList(lastCreatedFiles));
+        track(statistics.<List<Document>>compute("created", task -> model.getLast20CreatedFiles(),
+                lastCreatedFiles -> getCreatedTableView().setItems(
+                        FXCollections.observableArrayList(lastCreatedFiles))));
     }
 
     /**
-     * Display the number of changed files.
+     * Retrieves the most changed files and the edits of the last days from the change log, and updates the
+     * corresponding tab in the GUI.
      */
     private void getNumChangeFiles() {
-        // To be implemented
+        track(statistics.<List<ChangeLog.FileChanges>>compute("mostChanged",
+                task -> model.getMostChangedFiles(MOST_CHANGED),
+                mostChanged -> infoGUI.getNumChangesTableView().setItems(
+                        FXCollections.observableArrayList(mostChanged))));
+        long to = Instant.now().getEpochSecond() + 1;
+        long from = to - RECENT_DAYS * SECONDS_PER_DAY;
+        track(statistics.<String>compute("churn",
+                task -> {
+                    int edits = 0;
+                    for (int count : model.getChangesPerDay(from, to).values()) {
+                        edits += count;
+                    }
+                    return edits + " edits, " + model.getBytesChurned(from, to) + " bytes churned in the last "
+                            + RECENT_DAYS + " days";
+                },
+                summary -> infoGUI.getChurnLabel().setText(summary)));
     }
 
     /**
@@ -76,7 +115,7 @@ public class InfoController {
     }
 
     /**
-     * Placeholder method for future functionality related to the number of changed files.
+     * Displays the most changed files in the GUI.
      */
     public void showNumChangedFiles() {
         getNumChangeFiles();
@@ -89,7 +128,9 @@ public class InfoController {
      */
     public void showCreatedFilesBarChart(int year) {
         BarChart<String, Number> chart = infoGUI.getCreatedFilesChart();
-        showBarChart(chart, year, model.getCreatedFilesDataByMonth(year));
+        track(statistics.<Map<String, Integer>>compute("createdByMonth:" + year,
+                task -> model.getCreatedFilesDataByMonth(year),
+                data -> showBarChart(chart, year, data)));
     }
 
     /**
@@ -99,7 +140,9 @@ public class InfoController {
      */
     public void showChangedFilesBarChart(int year) {
         BarChart<String, Number> chart = infoGUI.getChangedFilesChart();
-        showBarChart(chart, year, model.getChangedFilesDataByMonth(year));
+        track(statistics.<Map<String, Integer>>compute("changedByMonth:" + year,
+                task -> model.getChangedFilesDataByMonth(year),
+                data -> showBarChart(chart, year, data)));
     }
 
     /**
@@ -107,8 +150,46 @@ public class InfoController {
      */
     public void showDocumentsBySelectedYear() {
         int selectedYear = infoGUI.getSelectedYear();
-        List<Document> documents = model.getDocumentsBySelectedYear(selectedYear);
-        getCreatedTableView().setItems(FXCollections.observableArrayList(documents));
+        track(statistics.<List<Document>>compute("documentsByYear:" + selectedYear,
+                task -> model.getDocumentsBySelectedYear(selectedYear),
+                documents -> getCreatedTableView().setItems(FXCollections.observableArrayList(documents))));
+    }
+
+    /**
+     * Cancels every query still running, when the window is closed.
+     */
+    public void cancel() {
+        for (StatisticsTask<?> task : tasks) {
+            task.cancel();
+        }
+        tasks.clear();
+    }
+
+    /**
+     * Shows the progress of a query in the GUI until it is done.
+     *
+     * @param task The task running the query, or null if it was answered at once.
+     */
+    private void track(StatisticsTask<?> task) {
+        ProgressBar progressBar = infoGUI.getProgressBar();
+        if (task == null) {
+            if (tasks.isEmpty()) {
+                progressBar.setVisible(false);
+            }
+            return;
+        }
+        tasks.add(task);
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressBar.setVisible(true);
+        task.runningProperty().addListener((observable, wasRunning, running) -> {
+            if (!running) {
+                tasks.remove(task);
+                if (tasks.isEmpty()) {
+                    progressBar.progressProperty().unbind();
+                    progressBar.setVisible(false);
+                }
+            }
+        });
     }
 
     /**
@@ -1,5 +1,7 @@
 package pt.pa.View;
 
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -12,6 +14,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import pt.pa.ChangeLog;
 import pt.pa.Document;
 import pt.pa.MyFile;
 import pt.pa.PFS;
@@ -31,7 +34,8 @@ public class InfoGUI extends VBox {
     private PFS model;
     private InfoController infoController;
     private Stage primaryStage;
-    private TableView<MyFile> changedTableView, numChangesTableView;
+    private TableView<MyFile> changedTableView;
+    private TableView<ChangeLog.FileChanges> numChangesTableView;
     private TableView<Document> createdTableView;
     private TabPane tabPane;
     private Tab changedTab, createdTab, numChangesTab, graphTab;
@@ -39,6 +43,8 @@ public class InfoGUI extends VBox {
     private BarChart<String, Number> createdFilesChart, changedFilesChart;
     private Button closeButton, createdFilesChartButton, changedFilesChartButton;
     private ComboBox<Integer> yearComboBox;
+    private ProgressBar progressBar;
+    private Label churnLabel;
 
     /**
      * Constructs an EditGUI with the specified model.
@@ -79,8 +85,11 @@ public class InfoGUI extends VBox {
         changedTableView = new TableView<>();
         createdTableView = new TableView<>();
         numChangesTableView = new TableView<>();
+        churnLabel = new Label();
 
         closeButton = new Button("Close");
+        progressBar = new ProgressBar();
+        progressBar.setVisible(false);
 
         configureChangedFilesTable();
         configureCreatedDocumentsTable();
@@ -91,14 +100,17 @@ public class InfoGUI extends VBox {
 
         changedTabContent.getChildren().addAll(changedTableView);
         createdTabContent.getChildren().addAll(createdTableView);
-        numChangesTabContent.getChildren().addAll(numChangesTableView);
+        numChangesTabContent.getChildren().addAll(churnLabel, numChangesTableView);
 
         changedTab.setContent(changedTabContent);
         createdTab.setContent(createdTabContent);
         numChangesTab.setContent(numChangesTabContent);
         graphTab.setContent(graphTabContent);
 
-        getChildren().addAll(tabPane, closeButton);
+        HBox bottomBox = new HBox(5, progressBar, closeButton);
+        bottomBox.setAlignment(Pos.CENTER_LEFT);
+
+        getChildren().addAll(tabPane, bottomBox);
     }
 
     /**
@@ -121,6 +133,8 @@ public class InfoGUI extends VBox {
      * @param controller O LastAlteredFilesController para lidar com as ações dos botões.
      */
     public void setTriggers(InfoController controller) {
+        infoController = controller;
+
         changedTab.setOnSelectionChanged(event -> {
             if (changedTab.isSelected()) {
                 controller.showChangedFiles();
@@ -146,6 +160,7 @@ public class InfoGUI extends VBox {
         });
 
         closeButton.setOnAction(event -> primaryStage.close());
+        primaryStage.setOnHidden(event -> controller.cancel());
     }
 
     /**
@@ -190,21 +205,24 @@ public class InfoGUI extends VBox {
     }
 
     /**
-     * Configures the table for displaying the number of changes.
+     * Configures the table for displaying the most changed files.
      */
     private void configureNumChangesTable() {
-        TableColumn<MyFile, Integer> changeCountColumn = new TableColumn<>("# Changes");
-        changeCountColumn.setCellValueFactory(new PropertyValueFactory<>("changes"));
+        TableColumn<ChangeLog.FileChanges, String> fileNameColumn = new TableColumn<>("File Name");
+        fileNameColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().file().getName()));
 
-        TableColumn<MyFile, Integer> totalColumn = new TableColumn<>("Total");
-        totalColumn.setCellValueFactory(new PropertyValueFactory<>("total"));
+        TableColumn<ChangeLog.FileChanges, Number> changeCountColumn = new TableColumn<>("# Changes");
+        changeCountColumn.setCellValueFactory(cellData -> new SimpleIntegerProperty(cellData.getValue().changes()));
 
-        changeCountColumn.setPrefWidth(248);
-        totalColumn.setPrefWidth(248);
-        numChangesTableView.setPrefHeight(525);
+        TableColumn<ChangeLog.FileChanges, Number> churnedColumn = new TableColumn<>("Bytes Churned");
+        churnedColumn.setCellValueFactory(cellData -> new SimpleLongProperty(cellData.getValue().bytesChurned()));
 
-        numChangesTableView.getColumns().addAll(changeCountColumn, totalColumn);
-        getNumChangesTableView().refresh();
+        fileNameColumn.setPrefWidth(166);
+        changeCountColumn.setPrefWidth(165);
+        churnedColumn.setPrefWidth(165);
+        numChangesTableView.setPrefHeight(500);
+
+        numChangesTableView.getColumns().addAll(fileNameColumn, changeCountColumn, churnedColumn);
     }
 
     /**
@@ -274,10 +292,19 @@ public class InfoGUI extends VBox {
         return createdTableView;
     }
 
-    public TableView<MyFile> getNumChangesTableView() {
+    public TableView<ChangeLog.FileChanges> getNumChangesTableView() {
         return numChangesTableView;
     }
 
+    /**
+     * Gets the label summing up the recent edits, above the most changed files.
+     *
+     * @return The label.
+     */
+    public Label getChurnLabel() {
+        return churnLabel;
+    }
+
     public BarChart<String, Number> getCreatedFilesChart() {
         return createdFilesChart;
     }
@@ -286,6 +313,15 @@ public class InfoGUI extends VBox {
         return changedFilesChart;
     }
 
+    /**
+     * Gets the progress bar showing the progress of the queries being computed.
+     *
+     * @return The progress bar.
+     */
+    public ProgressBar getProgressBar() {
+        return progressBar;
+    }
+
     /**
      * Converts a Unix timestamp to LocalDateTime.
      *
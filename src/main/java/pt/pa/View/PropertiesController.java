@@ -1,5 +1,6 @@
 package pt.pa.View;
 
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.VBox;
 import javafx.scene.control.Label;
 import pt.pa.Document;
@@ -7,9 +8,13 @@ import pt.pa.Folder;
 import pt.pa.MyFile;
 import pt.pa.PFS;
 import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,61 +22,135 @@ import java.util.stream.Collectors;
  * The PropertiesController class is responsible for managing and updating properties information
  * displayed in the PropertiesGUI. It connects the graphical user interface with the underlying
  * file system model (PFS) and updates the displayed information based on user input or changes in the model.
+ * The properties are computed in one pass over the tree by a background {@link StatisticsTask}, whose progress
+ * is shown in the window.
  */
 public class PropertiesController {
     private PFS model;
     private PropertiesGUI propertiesGUI;
+    private StatisticsService statistics;
     private VBox vbox;
-    private int currentDepth;
+    private StatisticsTask<Properties> task;
+
+    /**
+     * The properties of the file system shown in the window.
+     *
+     * @param directories    The number of directories below the root.
+     * @param files          The number of files.
+     * @param depth          The depth of the root.
+     * @param topDirectories The names of the 5 directories with the most descendants.
+     */
+    private record Properties(int directories, int files, int depth, List<String> topDirectories) {
+    }
 
     /**
      * Constructs a PropertiesController with the specified model and associated graphical user interface.
      *
-     * @param model        The PFS model.
+     * @param model         The PFS model.
      * @param propertiesGUI The graphical user interface for displaying properties.
+     * @param statistics    Computes the properties in the background and keeps them while the model is unchanged.
      */
-    public PropertiesController(PFS model, PropertiesGUI propertiesGUI) {
+    public PropertiesController(PFS model, PropertiesGUI propertiesGUI, StatisticsService statistics) {
         this.model = model;
         this.propertiesGUI = propertiesGUI;
+        this.statistics = statistics;
         this.vbox = propertiesGUI.getVBox();
         propertiesGUI.setTriggers(this);
         updateProperties();
     }
 
     /**
-     * Updates the displayed properties information.
+     * Updates the displayed properties information, computing it in the background unless the model is unchanged
+     * since it was last computed.
      */
     public void updateProperties() {
-        updateDirectoriesFilesCount();
-        updateDepth();
-        updateTopDirectories();
+        cancel();
+        task = statistics.compute("properties", this::computeProperties, this::showProperties);
+        ProgressBar progressBar = propertiesGUI.getProgressBar();
+        progressBar.progressProperty().unbind();
+        if (task != null) {
+            progressBar.progressProperty().bind(task.progressProperty());
+            progressBar.visibleProperty().bind(task.runningProperty());
+        } else {
+            progressBar.visibleProperty().unbind();
+            progressBar.setVisible(false);
+        }
     }
 
     /**
-     * Atualiza a contagem de diretórios e arquivos na interface gráfica.
+     * Cancels the computation of the properties, if one is running.
      */
-    private void updateDirectoriesFilesCount() {
-        int[] directoriesFilesCount = countDirectoriesAndFiles(model.getRoot());
-        Label labelDirectoriesFiles = (Label) vbox.getChildren().get(1);
-        labelDirectoriesFiles.setText("Directories: " + directoriesFilesCount[0] + ", Files: " + directoriesFilesCount[1]);
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
     }
 
     /**
-     * Atualiza a profundidade na interface gráfica.
+     * Shows the computed properties in the graphical user interface.
+     *
+     * @param properties The properties.
      */
-    private void updateDepth() {
-        int depth = calculateDepth(model.getRoot());
+    private void showProperties(Properties properties) {
+        Label labelDirectoriesFiles = (Label) vbox.getChildren().get(1);
+        labelDirectoriesFiles.setText("Directories: " + properties.directories() + ", Files: " + properties.files());
         Label labelDepth = (Label) vbox.getChildren().get(2);
-        labelDepth.setText("Depth: " + depth);
+        labelDepth.setText("Depth: " + properties.depth());
+        Label labelTopDirectories = (Label) vbox.getChildren().get(3);
+        labelTopDirectories.setText("Top 5 Directories: " + String.join(", ", properties.topDirectories()));
     }
 
     /**
-     * Atualiza a lista dos top 5 diretórios na interface gráfica.
+     * Computes the properties in a single post-order walk of the tree, counting the directories, files and
+     * descendants of every directory at once.
+     *
+     * @param task The task running the computation.
+     * @return The properties.
      */
-    private void updateTopDirectories() {
-        List<String> topDirectories = getTopDirectories(model.getRoot());
-        Label labelTopDirectories = (Label) vbox.getChildren().get(3);
-        labelTopDirectories.setText("Top 5 Directories: " + String.join(", ", topDirectories));
+    private Properties computeProperties(StatisticsTask<Properties> task) {
+        TreeLinked<Document> tree = model.getPfs();
+        task.begin(tree.size());
+        Position<Document> root = tree.root();
+        int directories = 0;
+        int files = 0;
+        List<DirectoryDescendantsCount> directoryCounts = new ArrayList<>();
+        Deque<Iterator<Position<Document>>> pending = new ArrayDeque<>();
+        Deque<Position<Document>> path = new ArrayDeque<>();
+        Deque<int[]> descendants = new ArrayDeque<>();
+        path.push(root);
+        pending.push(tree.children(root).iterator());
+        descendants.push(new int[1]);
+        while (!path.isEmpty()) {
+            if (pending.peek().hasNext()) {
+                Position<Document> child = pending.peek().next();
+                task.visited();
+                if (child.element() instanceof Folder) {
+                    directories++;
+                } else if (child.element() instanceof MyFile) {
+                    files++;
+                }
+                path.push(child);
+                pending.push(tree.children(child).iterator());
+                descendants.push(new int[1]);
+            } else {
+                Position<Document> directory = path.pop();
+                pending.pop();
+                int descendantsCount = descendants.pop()[0];
+                if (directory.element() instanceof Folder) {
+                    directoryCounts.add(new DirectoryDescendantsCount(directory, descendantsCount));
+                }
+                if (!descendants.isEmpty()) {
+                    descendants.peek()[0] += descendantsCount + 1;
+                }
+            }
+        }
+        directoryCounts.sort(Collections.reverseOrder());
+        List<String> topDirectories = directoryCounts.stream()
+                .limit(5)
+                .map(count -> count.getDirectory().element().getName())
+                .collect(Collectors.toList());
+        return new Properties(directories, files, calculateDepth(root), topDirectories);
     }
 
     /**
@@ -115,37 +194,6 @@ public class PropertiesController {
         return 0;
     }
 
-    /**
-     * Counts the number of directories and files in a given directory.
-     *
-     * @param position The position of the directory.
-     * @return An array containing the count of directories at index 0 and files at index 1.
-     */
-    private int[] countDirectoriesAndFiles(Position<Document> position) {
-        int[] count = {0, 0};
-        countDirectoriesAndFilesRecursive(position, count);
-        return count;
-    }
-
-    /**
-     * Recursively counts the number of directories and files starting from the given position.
-     *
-     * @param position The starting position for counting directories and files.
-     * @param count    The array to store the count, with directories at index 0 and files at index 1.
-     */
-    private void countDirectoriesAndFilesRecursive(Position<Document> position, int[] count) {
-        if (position.element() instanceof Folder) {
-            for (Position<Document> child : model.getPfs().children(position)) {
-                if (child.element() instanceof Folder) {
-                    count[0]++;
-                    countDirectoriesAndFilesRecursive(child, count);
-                } else if (child.element() instanceof MyFile) {
-                    count[1]++;
-                }
-            }
-        }
-    }
-
     /**
      * Calculates the depth of a given position in the file system.
      *
@@ -6,6 +6,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ToolBar;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -25,6 +26,7 @@ public class PropertiesGUI extends VBox {
     private ListView listView;
     private Label labelSpace, labelDirectoriesFiles, labelDepth, labelTopDirectories;
     private Button refreshButton, closeButton;
+    private ProgressBar progressBar;
     private VBox vbox;
 
     /**
@@ -52,6 +54,8 @@ public class PropertiesGUI extends VBox {
         labelTopDirectories = new Label("Top 5 Directories:");
         refreshButton = new Button("Refresh");
         closeButton = new Button("Close");
+        progressBar = new ProgressBar();
+        progressBar.setVisible(false);
     }
 
     private void setupLayout() {
@@ -65,7 +69,7 @@ public class PropertiesGUI extends VBox {
 
     private HBox createButtonsHBox() {
         HBox buttonsHBox = new HBox(5);
-        buttonsHBox.getChildren().addAll(refreshButton, closeButton);
+        buttonsHBox.getChildren().addAll(progressBar, refreshButton, closeButton);
         buttonsHBox.setAlignment(Pos.CENTER_RIGHT);
         return buttonsHBox;
     }
@@ -87,16 +91,24 @@ public class PropertiesGUI extends VBox {
         return vbox;
     }
 
+    /**
+     * Retrieves the progress bar showing the progress of the properties being computed.
+     *
+     * @return The progress bar.
+     */
+    public ProgressBar getProgressBar() {
+        return progressBar;
+    }
+
     /**
      * Sets event triggers for the buttons in the PropertiesGUI.
+     * Closing the window cancels the properties being computed.
      *
      * @param controller The controller managing the properties updates.
      */
     public void setTriggers(PropertiesController controller) {
-        closeButton.setOnAction(event -> {
-            controller.updateProperties();
-            primaryStage.close();
-        });
+        closeButton.setOnAction(event -> primaryStage.close());
+        primaryStage.setOnHidden(event -> controller.cancel());
 
         refreshButton.setOnAction(event -> controller.updateProperties());
     }
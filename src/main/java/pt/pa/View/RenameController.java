@@ -55,7 +55,6 @@ public class RenameController {
     public void save(String newName) throws IOException {
         try {
             executeRenameCommand(newName);
-            updateDocumentTreeItem();
             guiController.updateDocumentGrid();
         } catch (IOException e) {
             handleCommandExecutionError(e);
@@ -73,14 +72,6 @@ public class RenameController {
         model.getCommandManager().executeCommand(renameCommand);
     }
 
-    /**
-     * Updates the TreeItem representing the document in the GUI after a successful rename operation.
-     */
-    private void updateDocumentTreeItem() {
-        document.setValue(null);
-        document.setValue(selectedPosition.element());
-    }
-
     /**
      * Handles errors that occur during the execution of the RenameCommand.
      *
@@ -8,6 +8,7 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import pt.pa.Exceptions.InvalidNameException;
 import pt.pa.PFS;
 
 import java.io.IOException;
@@ -112,6 +113,8 @@ public class RenameGUI extends VBox {
                 controller.save(textField.getText());
                 textField.clear();
                 primaryStage.close();
+            } catch (InvalidNameException e) {
+                new AlertUtils().showErrorAlert("Error", "Rename Failed", e.getMessage());
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -0,0 +1,68 @@
+package pt.pa.View;
+
+import pt.pa.PFS;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * The StatisticsService class runs the statistics shown by the Info and Properties windows as
+ * {@link StatisticsTask}s and keeps their results, each tagged with the version of the file system it was computed
+ * from. Asking again for statistics of an unchanged file system answers at once from the kept result.
+ * <p>
+ * The tasks read the tree, so they are queued on the command writer thread like any other work reading the file
+ * system, and never run on the JavaFX application thread. Results are handed over on the JavaFX application thread.
+ * </p>
+ */
+public class StatisticsService {
+
+    private final PFS model;
+    private final Map<String, Result> results = new ConcurrentHashMap<>();
+
+    /**
+     * A kept result with the version of the file system it was computed from.
+     *
+     * @param version The version of the file system.
+     * @param value   The statistics.
+     */
+    private record Result(long version, Object value) {
+    }
+
+    /**
+     * Constructs a StatisticsService for a file system.
+     *
+     * @param model The file system.
+     */
+    public StatisticsService(PFS model) {
+        this.model = model;
+    }
+
+    /**
+     * Computes statistics in the background, unless they were already computed for the current version of the file
+     * system.
+     *
+     * @param key         Names the statistics and their parameters, such as "createdByMonth:2024".
+     * @param computation Computes the statistics.
+     * @param onDone      Receives the statistics on the JavaFX application thread, unless the task is cancelled.
+     * @param <T>         The type of the statistics.
+     * @return The task computing the statistics, or null if the kept result was handed over at once.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StatisticsTask<T> compute(String key, StatisticsTask.Computation<T> computation, Consumer<T> onDone) {
+        long version = model.getVersion();
+        Result result = results.get(key);
+        if (result != null && result.version() == version) {
+            onDone.accept((T) result.value());
+            return null;
+        }
+        StatisticsTask<T> task = new StatisticsTask<>(computation);
+        task.setOnSucceeded(event -> {
+            results.put(key, new Result(version, task.getValue()));
+            onDone.accept(task.getValue());
+        });
+        model.getCommandManager().submitTask(Executors.callable(task));
+        return task;
+    }
+}
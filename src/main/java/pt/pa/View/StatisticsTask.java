@@ -0,0 +1,77 @@
+package pt.pa.View;
+
+import javafx.concurrent.Task;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * The StatisticsTask class computes statistics of the file system off the JavaFX application thread. A computation
+ * that walks the tree counts the documents it visits, which reports its progress and stops it soon after the task
+ * is cancelled; a computation that does not stays indeterminate.
+ *
+ * @param <T> The type of the statistics.
+ */
+public class StatisticsTask<T> extends Task<T> {
+
+    private static final int PROGRESS_INTERVAL = 1024;
+
+    private final Computation<T> computation;
+    private long total;
+    private long visited;
+
+    /**
+     * The work of a StatisticsTask.
+     *
+     * @param <T> The type of the statistics.
+     */
+    @FunctionalInterface
+    public interface Computation<T> {
+
+        /**
+         * Computes the statistics.
+         *
+         * @param task The task running the computation, to report progress to.
+         * @return The statistics.
+         */
+        T compute(StatisticsTask<T> task);
+    }
+
+    /**
+     * Constructs a StatisticsTask running a computation.
+     *
+     * @param computation The computation.
+     */
+    public StatisticsTask(Computation<T> computation) {
+        this.computation = computation;
+    }
+
+    @Override
+    protected T call() {
+        return computation.compute(this);
+    }
+
+    /**
+     * Starts counting the documents visited by the computation.
+     *
+     * @param total The number of documents the computation will visit.
+     */
+    public void begin(long total) {
+        this.total = total;
+        this.visited = 0;
+        updateProgress(0, total);
+    }
+
+    /**
+     * Counts a visited document, reporting progress and checking for cancellation every so many documents.
+     *
+     * @throws CancellationException If the task was cancelled.
+     */
+    public void visited() {
+        if (++visited % PROGRESS_INTERVAL == 0) {
+            if (isCancelled()) {
+                throw new CancellationException("Statistics cancelled");
+            }
+            updateProgress(visited, total);
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package pt.pa.View;
+
+import javafx.application.Platform;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+import pt.pa.Document;
+import pt.pa.PFS;
+import pt.pa.PfsChangeListener;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * The TreeViewUpdater class keeps a {@link TreeView} in step with a {@link PFS} by patching only the items touched
+ * by each change, instead of building every item again after each operation.
+ * <p>
+ * The items are indexed by the position of their document, so the item of a changed document is found at once and
+ * an update costs in proportion to the documents it changed. Changes arrive on the thread that made them, usually
+ * the command writer thread, and the items are patched on the JavaFX application thread, in the order the changes
+ * were made. Items and their selection survive updates, so the
+ * selection does not have to be searched for again.
+ * </p>
+ * <p>
+ * Items are created lazily: a {@link DocumentTreeItem} creates the items of its children the first time the tree
+ * view expands it. Changes below a folder whose children were never shown only redraw the folder, since its items
+ * will be created from the tree when it is opened.
+ * </p>
+ * <p>
+ * The JavaFX application thread never reads the tree while the command writer may be changing it. Each change
+ * hands the patch the number of children of the folders it touched, counted on the thread that made the change,
+ * and items answer whether they are leaves from those counts. The children of an expanded folder and the folders
+ * above a revealed document are read by a task run through the {@link pt.pa.Commands.CommandManager}, in order
+ * with the changes; the GUI only does so while no change of its own is running, so that task does not wait.
+ * </p>
+ */
+public class TreeViewUpdater implements PfsChangeListener {
+
+    private final PFS model;
+    private final TreeView<Document> treeView;
+    private final Executor fxThread;
+    private final Map<Position<Document>, DocumentTreeItem> items = new IdentityHashMap<>();
+
+    /**
+     * A document and the number of its children, read on the thread changing the file system.
+     *
+     * @param position The position of the document.
+     * @param degree   The number of its children.
+     */
+    record Snapshot(Position<Document> position, int degree) {
+    }
+
+    /**
+     * Constructs a TreeViewUpdater that patches the tree view on the JavaFX application thread.
+     *
+     * @param model    The file system shown by the tree view.
+     * @param treeView The tree view.
+     */
+    public TreeViewUpdater(PFS model, TreeView<Document> treeView) {
+        this(model, treeView, Platform::runLater);
+    }
+
+    /**
+     * Constructs a TreeViewUpdater that patches the tree view through the given executor.
+     *
+     * @param model    The file system shown by the tree view.
+     * @param treeView The tree view.
+     * @param fxThread Runs the patches on the thread owning the tree view.
+     */
+    TreeViewUpdater(PFS model, TreeView<Document> treeView, Executor fxThread) {
+        this.model = model;
+        this.treeView = treeView;
+        this.fxThread = fxThread;
+    }
+
+    /**
+     * Builds every item of the tree view from the file system, selecting and expanding the root.
+     * Must be called on the JavaFX application thread.
+     */
+    public void rebuild() {
+        rebuild(readTree(this::snapshotRoot));
+    }
+
+    /**
+     * Builds every item of the tree view from a snapshot of the root, selecting and expanding the root.
+     *
+     * @param rootSnapshot The root of the file system, or null if it is empty.
+     */
+    private void rebuild(Snapshot rootSnapshot) {
+        DocumentTreeItem root = build(rootSnapshot);
+        treeView.setRoot(root);
+        if (root != null) {
+            treeView.getSelectionModel().select(root);
+            root.setExpanded(true);
+        }
+    }
+
+    /**
+     * Creates the item of the root of the file system, replacing the index. The other items are created as the
+     * folders holding them are expanded.
+     *
+     * @param rootSnapshot The root of the file system, or null if it is empty.
+     * @return The item of the root, or null if the file system is empty.
+     */
+    DocumentTreeItem build(Snapshot rootSnapshot) {
+        items.clear();
+        if (rootSnapshot == null) {
+            return null;
+        }
+        DocumentTreeItem root = new DocumentTreeItem(rootSnapshot.position(), rootSnapshot.degree(), this);
+        items.put(rootSnapshot.position(), root);
+        return root;
+    }
+
+    /**
+     * Retrieves the item showing a document.
+     *
+     * @param position The position of the document.
+     * @return The item, or null if the document is not shown.
+     */
+    public TreeItem<Document> getItem(Position<Document> position) {
+        return items.get(position);
+    }
+
+    /**
+     * Retrieves the item showing a document, creating the items of the folders above it and expanding them when
+     * the document was not shown yet.
+     *
+     * @param position The position of the document.
+     * @return The item, or null if the document is not in the file system.
+     */
+    public TreeItem<Document> reveal(Position<Document> position) {
+        List<Position<Document>> ancestors = readTree(() -> ancestorsOf(position));
+        Deque<Position<Document>> path = new ArrayDeque<>();
+        DocumentTreeItem item = null;
+        for (Position<Document> next : ancestors) {
+            item = items.get(next);
+            if (item != null) {
+                break;
+            }
+            path.push(next);
+        }
+        if (item == null) {
+            return null;
+        }
+        while (!path.isEmpty()) {
+            item.getChildren();
+            item.setExpanded(true);
+            item = items.get(path.pop());
+            if (item == null) {
+                return null;
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Retrieves the position of the document shown by an item.
+     *
+     * @param item The item.
+     * @return The position, or null if the item was not created by this updater.
+     */
+    public Position<Document> getPosition(TreeItem<Document> item) {
+        return item instanceof DocumentTreeItem documentItem ? documentItem.getPosition() : null;
+    }
+
+    /**
+     * Adds the item of an inserted document, if the items of its folder were created.
+     *
+     * @param parent   The folder holding the document.
+     * @param position The position of the inserted document.
+     */
+    @Override
+    public void documentInserted(Position<Document> parent, Position<Document> position) {
+        int parentDegree = degreeOf(parent);
+        int degree = degreeOf(position);
+        fxThread.execute(() -> {
+            DocumentTreeItem parentItem = items.get(parent);
+            if (parentItem == null) {
+                return;
+            }
+            if (!parentItem.isLoaded()) {
+                parentItem.setDegree(parentDegree);
+                parentItem.refresh();
+            } else if (!items.containsKey(position)) {
+                DocumentTreeItem item = new DocumentTreeItem(position, degree, this);
+                items.put(position, item);
+                parentItem.getChildren().add(item);
+            }
+        });
+    }
+
+    /**
+     * Removes the item of a removed document with the items it holds.
+     *
+     * @param parent   The folder that held the document.
+     * @param position The position of the removed document.
+     */
+    @Override
+    public void documentRemoved(Position<Document> parent, Position<Document> position) {
+        int parentDegree = degreeOf(parent);
+        fxThread.execute(() -> {
+            DocumentTreeItem item = items.get(position);
+            if (item != null) {
+                forget(item);
+                if (item.getParent() != null) {
+                    item.getParent().getChildren().remove(item);
+                } else {
+                    treeView.setRoot(null);
+                }
+            }
+            refreshUnloaded(parent, parentDegree);
+        });
+    }
+
+    /**
+     * Moves the item of a moved document under the item of its new folder, creating it when the document was not
+     * shown, or drops it when the children of the new folder were never shown.
+     *
+     * @param oldParent The folder that held the document.
+     * @param newParent The folder now holding the document.
+     * @param position  The position of the moved document.
+     */
+    @Override
+    public void documentMoved(Position<Document> oldParent, Position<Document> newParent,
+                              Position<Document> position) {
+        int oldDegree = degreeOf(oldParent);
+        int newDegree = degreeOf(newParent);
+        int degree = degreeOf(position);
+        fxThread.execute(() -> {
+            DocumentTreeItem item = items.get(position);
+            DocumentTreeItem newParentItem = items.get(newParent);
+            if (newParentItem != null && newParentItem.isLoaded()) {
+                if (item == null) {
+                    item = new DocumentTreeItem(position, degree, this);
+                    items.put(position, item);
+                } else if (item.getParent() == newParentItem) {
+                    return;
+                } else if (item.getParent() != null) {
+                    item.getParent().getChildren().remove(item);
+                }
+                newParentItem.getChildren().add(item);
+            } else {
+                if (item != null) {
+                    forget(item);
+                    if (item.getParent() != null) {
+                        item.getParent().getChildren().remove(item);
+                    }
+                }
+                refreshUnloaded(newParent, newDegree);
+            }
+            refreshUnloaded(oldParent, oldDegree);
+        });
+    }
+
+    /**
+     * Redraws the item of a renamed document.
+     *
+     * @param position The position of the renamed document.
+     */
+    @Override
+    public void documentRenamed(Position<Document> position) {
+        fxThread.execute(() -> refresh(position));
+    }
+
+    /**
+     * Redraws the item of a changed file.
+     *
+     * @param position The position of the file.
+     */
+    @Override
+    public void contentChanged(Position<Document> position) {
+        fxThread.execute(() -> refresh(position));
+    }
+
+    /**
+     * Builds every item again for the new tree.
+     */
+    @Override
+    public void treeReplaced() {
+        Snapshot root = snapshotRoot();
+        fxThread.execute(() -> rebuild(root));
+    }
+
+    /**
+     * Creates the items of the children of an item, the first time it is expanded. A child whose item already
+     * exists elsewhere, because it was moved here before that change reached the tree view, keeps its item.
+     *
+     * @param parentItem The item.
+     * @return The items of its children.
+     */
+    List<TreeItem<Document>> createChildren(DocumentTreeItem parentItem) {
+        List<TreeItem<Document>> children = new ArrayList<>();
+        for (Snapshot child : readTree(() -> snapshotChildren(parentItem.getPosition()))) {
+            DocumentTreeItem item = items.get(child.position());
+            if (item == null) {
+                item = new DocumentTreeItem(child.position(), child.degree(), this);
+                items.put(child.position(), item);
+            } else if (item.getParent() != null) {
+                item.getParent().getChildren().remove(item);
+            }
+            children.add(item);
+        }
+        return children;
+    }
+
+    /**
+     * Reads the tree in order with the changes made to it, on the command writer thread when it runs.
+     *
+     * @param reader Reads the tree.
+     * @param <T>    The type of what is read.
+     * @return What was read.
+     */
+    private <T> T readTree(Callable<T> reader) {
+        try {
+            return model.getCommandManager().submitTask(reader).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Counts the children of a document. Called on the thread changing the file system.
+     *
+     * @param position The position of the document, or null.
+     * @return The number of its children, or 0 if there is no document.
+     */
+    private int degreeOf(Position<Document> position) {
+        return position == null ? 0 : model.getPfs().degree(position);
+    }
+
+    /**
+     * Takes a snapshot of the root of the file system. Called on the thread changing the file system.
+     *
+     * @return The snapshot, or null if the file system is empty.
+     */
+    private Snapshot snapshotRoot() {
+        TreeLinked<Document> tree = model.getPfs();
+        return tree.isEmpty() ? null : new Snapshot(tree.root(), tree.degree(tree.root()));
+    }
+
+    /**
+     * Takes a snapshot of the children of a document. Called on the thread changing the file system.
+     *
+     * @param position The position of the document.
+     * @return The snapshots of its children, in order.
+     */
+    private List<Snapshot> snapshotChildren(Position<Document> position) {
+        TreeLinked<Document> tree = model.getPfs();
+        List<Snapshot> children = new ArrayList<>();
+        for (Position<Document> child : tree.children(position)) {
+            children.add(new Snapshot(child, tree.degree(child)));
+        }
+        return children;
+    }
+
+    /**
+     * Lists a document and the folders above it. Called on the thread changing the file system.
+     *
+     * @param position The position of the document.
+     * @return The document followed by its folders, up to the root.
+     */
+    private List<Position<Document>> ancestorsOf(Position<Document> position) {
+        TreeLinked<Document> tree = model.getPfs();
+        List<Position<Document>> ancestors = new ArrayList<>();
+        for (Position<Document> next = position; next != null; next = tree.parent(next)) {
+            ancestors.add(next);
+        }
+        return ancestors;
+    }
+
+    /**
+     * Removes an item and the items under it from the index.
+     *
+     * @param item The item.
+     */
+    private void forget(TreeItem<Document> item) {
+        Deque<TreeItem<Document>> pending = new ArrayDeque<>();
+        pending.push(item);
+        while (!pending.isEmpty()) {
+            TreeItem<Document> next = pending.pop();
+            if (next instanceof DocumentTreeItem documentItem) {
+                items.remove(documentItem.getPosition());
+                if (documentItem.isLoaded()) {
+                    documentItem.getChildren().forEach(pending::push);
+                }
+            }
+        }
+    }
+
+    /**
+     * Redraws the item of a folder whose children were never shown, so whether it is a leaf is asked again.
+     *
+     * @param position The position of the folder.
+     * @param degree   The number of its children, counted when it changed.
+     */
+    private void refreshUnloaded(Position<Document> position, int degree) {
+        DocumentTreeItem item = items.get(position);
+        if (item != null && !item.isLoaded()) {
+            item.setDegree(degree);
+            item.refresh();
+        }
+    }
+
+    /**
+     * Redraws the item of a document, if it is shown.
+     *
+     * @param position The position of the document.
+     */
+    private void refresh(Position<Document> position) {
+        DocumentTreeItem item = items.get(position);
+        if (item != null) {
+            item.refresh();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package pt.pa.Workload;
+
+import pt.pa.Commands.Command;
+import pt.pa.Commands.CommandManager;
+import pt.pa.Commands.CopyCommand;
+import pt.pa.Commands.ExtractCommand;
+import pt.pa.Commands.PasteCommand;
+import pt.pa.Commands.ZipCommand;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.Generator.TreeGenerator;
+import pt.pa.PFS;
+import pt.pa.PfsChangeListener;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The FrameStallProbe class measures how long the JavaFX application thread stops drawing frames while the GUI runs
+ * its long operations, without a display.
+ * <p>
+ * A single thread stands for the JavaFX application thread: it draws a frame every {@link #FRAME_NANOS}, receives
+ * one task per change of the file system, as the tree view updater posts them, and starts the operations. The
+ * scripted workload copies the largest folder of a generated file system, pastes it, zips it and extracts it, the
+ * operations the GUI hands to the command writer. They run either on that thread, as every command did before the
+ * writer existed, or on the writer thread, with their completion handed back to that thread. A stall is a gap
+ * between two frames longer than {@link #STALL_NANOS}.
+ * </p>
+ * Run it with {@code FrameStallProbe [documents] [seed]}.
+ */
+public class FrameStallProbe {
+
+    /**
+     * The time between two frames, at 60 frames per second.
+     */
+    public static final long FRAME_NANOS = 16_666_667;
+    /**
+     * The shortest gap between two frames counted as a stall, three frames.
+     */
+    public static final long STALL_NANOS = 3 * FRAME_NANOS;
+
+    private final long seed;
+    private final int documents;
+
+    /**
+     * The frames drawn while a workload ran.
+     *
+     * @param frames        The number of frames drawn.
+     * @param stalls        The number of gaps between frames longer than {@link #STALL_NANOS}.
+     * @param longestNanos  The longest gap between two frames, in nanoseconds.
+     * @param stalledNanos  The time spent in those gaps, in nanoseconds.
+     * @param elapsedNanos  The time the workload took, in nanoseconds.
+     */
+    public record FrameStalls(int frames, int stalls, long longestNanos, long stalledNanos, long elapsedNanos) {
+
+        /**
+         * Formats the stalls on one line, times in milliseconds.
+         *
+         * @return The formatted stalls.
+         */
+        public String format() {
+            return String.format("%d frames in %.0f ms, %d stalls, longest %.1f ms, %.0f ms stalled", frames,
+                    elapsedNanos / 1e6, stalls, longestNanos / 1e6, stalledNanos / 1e6);
+        }
+    }
+
+    /**
+     * Constructs a FrameStallProbe for file systems generated with the given seed and number of documents.
+     *
+     * @param seed      The seed of the generator.
+     * @param documents The number of documents of the file system.
+     */
+    public FrameStallProbe(long seed, int documents) {
+        this.seed = seed;
+        this.documents = documents;
+    }
+
+    /**
+     * Generates a file system and runs the workload against it, drawing frames meanwhile.
+     *
+     * @param writer True to run the operations on the command writer thread, false to run them on the frame thread.
+     * @return The frames drawn while the workload ran.
+     * @throws Exception If an operation fails.
+     */
+    public FrameStalls run(boolean writer) throws Exception {
+        TreeLinked<Document> tree = new TreeGenerator(seed, documents).generate();
+        PFS pfs = new PFS(tree);
+        Position<Document> source = largestFolder(tree);
+        Position<Document> destination = pfs.createFolder("Pasted", pfs.getRoot());
+        CommandManager manager = pfs.getCommandManager();
+        if (writer) {
+            manager.startWriter();
+        }
+        ScheduledExecutorService frameThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "probe-fx");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pfs.addChangeListener(new PfsChangeListener() {
+            @Override
+            public void documentInserted(Position<Document> parent, Position<Document> position) {
+                frameThread.execute(position::element);
+            }
+
+            @Override
+            public void contentChanged(Position<Document> position) {
+                frameThread.execute(position::element);
+            }
+        });
+
+        Frames frames = new Frames();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ScheduledFuture<?> ticks = frameThread.scheduleAtFixedRate(frames::draw, 0, FRAME_NANOS, TimeUnit.NANOSECONDS);
+        long started = System.nanoTime();
+        try {
+            List<Supplier<Command>> steps = List.of(
+                    () -> new CopyCommand(pfs, source),
+                    () -> new PasteCommand(pfs, destination),
+                    () -> new ZipCommand(pfs, pfs.getZipper(), source),
+                    () -> new ExtractCommand(pfs, pfs.getZipper(), source));
+            for (Supplier<Command> step : steps) {
+                CompletableFuture<Void> done = new CompletableFuture<>();
+                frameThread.execute(() -> {
+                    Command command = step.get();
+                    if (writer) {
+                        manager.submit(command).whenComplete((result, error) -> frameThread.execute(() ->
+                                complete(done, error)));
+                    } else {
+                        try {
+                            manager.executeCommand(command);
+                            done.complete(null);
+                        } catch (Exception e) {
+                            done.completeExceptionally(e);
+                        }
+                    }
+                });
+                done.get();
+                Thread.sleep(FRAME_NANOS * 4 / 1_000_000);
+            }
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            ticks.cancel(false);
+            frameThread.shutdown();
+            frameThread.awaitTermination(10, TimeUnit.SECONDS);
+            manager.stopWriter();
+            System.setOut(out);
+            frames.elapsedNanos = elapsed;
+        }
+        return frames.stalls();
+    }
+
+    /**
+     * Runs the workload on the frame thread and then on the writer thread, printing the frames drawn each time.
+     *
+     * @param args The number of documents, 20000 by default, and the seed, 1 by default.
+     * @throws Exception If an operation fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int documents = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        FrameStallProbe probe = new FrameStallProbe(seed, documents);
+        probe.run(false);
+        probe.run(true);
+        System.out.printf("Copy, paste, zip and extract of the largest folder of %d documents%n", documents);
+        System.out.println("  on the frame thread:  " + probe.run(false).format());
+        System.out.println("  on the writer thread: " + probe.run(true).format());
+    }
+
+    /**
+     * Completes a future as the work it waits for completed.
+     *
+     * @param done  The future.
+     * @param error The failure of the work, or null if it succeeded.
+     */
+    private static void complete(CompletableFuture<Void> done, Throwable error) {
+        if (error == null) {
+            done.complete(null);
+        } else {
+            done.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Finds the folder below the root holding the most documents.
+     *
+     * @param tree The tree.
+     * @return The position of the folder.
+     * @throws IllegalArgumentException If the root holds no folder.
+     */
+    private static Position<Document> largestFolder(TreeLinked<Document> tree) {
+        Position<Document> largest = null;
+        int largestSize = 0;
+        for (Position<Document> child : tree.children(tree.root())) {
+            if (child.element() instanceof Folder) {
+                int size = sizeOf(tree, child);
+                if (size > largestSize) {
+                    largest = child;
+                    largestSize = size;
+                }
+            }
+        }
+        if (largest == null) {
+            throw new IllegalArgumentException("The generated file system has no folder below its root.");
+        }
+        return largest;
+    }
+
+    /**
+     * Counts the documents of a subtree.
+     *
+     * @param tree     The tree.
+     * @param position The root of the subtree.
+     * @return The number of documents, the root included.
+     */
+    private static int sizeOf(TreeLinked<Document> tree, Position<Document> position) {
+        Deque<Position<Document>> pending = new ArrayDeque<>();
+        pending.push(position);
+        int size = 0;
+        while (!pending.isEmpty()) {
+            size++;
+            for (Position<Document> child : tree.children(pending.pop())) {
+                pending.push(child);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The frames drawn by the frame thread.
+     */
+    private static final class Frames {
+        private long last;
+        private int frames;
+        private int stalls;
+        private long longestNanos;
+        private long stalledNanos;
+        private long elapsedNanos;
+
+        /**
+         * Draws a frame, measuring the gap since the previous one.
+         */
+        void draw() {
+            long now = System.nanoTime();
+            if (frames++ > 0) {
+                long gap = now - last;
+                longestNanos = Math.max(longestNanos, gap);
+                if (gap > STALL_NANOS) {
+                    stalls++;
+                    stalledNanos += gap;
+                }
+            }
+            last = now;
+        }
+
+        /**
+         * Retrieves the stalls measured.
+         *
+         * @return The frames drawn.
+         */
+        FrameStalls stalls() {
+            return new FrameStalls(frames, stalls, longestNanos, stalledNanos, elapsedNanos);
+        }
+    }
+}
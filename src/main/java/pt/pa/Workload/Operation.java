@@ -0,0 +1,64 @@
+package pt.pa.Workload;
+
+/**
+ * Enum representing the operations a workload can run, as the user would from the GUI.
+ */
+public enum Operation {
+    CREATE_FILE("create_file"),
+    CREATE_FOLDER("create_folder"),
+    RENAME("rename"),
+    MOVE("move"),
+    COPY("copy"),
+    PASTE("paste"),
+    EDIT("edit"),
+    ZIP("zip"),
+    UNDO("undo"),
+    REDO("redo"),
+    BACKUP("backup");
+
+    private final String key;
+
+    /**
+     * Constructs an Operation with the name used in workload scripts and reports.
+     *
+     * @param key The name of the operation.
+     */
+    Operation(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Retrieves the name of the operation used in workload scripts and reports.
+     *
+     * @return The name of the operation.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Finds the operation with a name.
+     *
+     * @param key The name of the operation.
+     * @return The operation.
+     * @throws IllegalArgumentException If no operation has this name.
+     */
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+
+    /**
+     * Provides a string representation of the operation.
+     *
+     * @return The name of the operation.
+     */
+    @Override
+    public String toString() {
+        return key;
+    }
+}
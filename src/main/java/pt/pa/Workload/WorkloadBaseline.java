@@ -0,0 +1,167 @@
+package pt.pa.Workload;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The WorkloadBaseline class keeps the figures of a reference run of a workload, to detect regressions in later runs.
+ * <p>
+ * A baseline holds the throughput and the median and 99th percentile latency of each operation. A run regresses
+ * when its throughput is lower than the baseline by more than the tolerance, or when the median or 99th percentile
+ * of an operation is higher by more than the tolerance. Percentiles of operations with fewer than
+ * {@link #MIN_SAMPLES} runs, in the baseline or in the run, are too noisy and are not compared.
+ * </p>
+ * Baselines are stored as properties files, one operation after the other, so they can be reviewed and committed
+ * next to the workload script. The figures depend on the machine: a baseline should be recorded on the machine that
+ * runs the check.
+ */
+public class WorkloadBaseline {
+
+    /**
+     * The minimum number of runs of an operation for its percentiles to be compared.
+     */
+    public static final long MIN_SAMPLES = 100;
+
+    private final double throughput;
+    private final Map<Operation, long[]> percentiles = new EnumMap<>(Operation.class);
+
+    /**
+     * Constructs a WorkloadBaseline from a reference run.
+     *
+     * @param result The result of the run.
+     */
+    public WorkloadBaseline(WorkloadResult result) {
+        this.throughput = result.getThroughput();
+        for (Operation operation : Operation.values()) {
+            long count = result.getLatency(operation).getCount();
+            if (count > 0) {
+                percentiles.put(operation, new long[]{count, result.getLatency(operation).getValueAtPercentile(50),
+                        result.getLatency(operation).getValueAtPercentile(99)});
+            }
+        }
+    }
+
+    /**
+     * Constructs a WorkloadBaseline from stored figures.
+     *
+     * @param properties The figures, as written by {@link #save(Path)}.
+     * @throws IllegalArgumentException If the throughput is missing or a figure is not a number.
+     */
+    private WorkloadBaseline(Properties properties) {
+        String storedThroughput = properties.getProperty("throughput");
+        if (storedThroughput == null) {
+            throw new IllegalArgumentException("The baseline has no throughput.");
+        }
+        this.throughput = Double.parseDouble(storedThroughput.trim());
+        for (Operation operation : Operation.values()) {
+            String count = properties.getProperty(operation.getKey() + ".count");
+            if (count != null) {
+                percentiles.put(operation, new long[]{Long.parseLong(count.trim()),
+                        Long.parseLong(properties.getProperty(operation.getKey() + ".p50", "0").trim()),
+                        Long.parseLong(properties.getProperty(operation.getKey() + ".p99", "0").trim())});
+            }
+        }
+    }
+
+    /**
+     * Reads a stored baseline.
+     *
+     * @param file The baseline file.
+     * @return The baseline.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a valid baseline.
+     */
+    public static WorkloadBaseline load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return new WorkloadBaseline(properties);
+    }
+
+    /**
+     * Stores the baseline, latencies in nanoseconds.
+     *
+     * @param file The baseline file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Workload baseline: throughput in ops/s, latencies in ns" + System.lineSeparator());
+            writer.write(String.format(Locale.ROOT, "throughput=%.1f%n", throughput));
+            for (Map.Entry<Operation, long[]> entry : percentiles.entrySet()) {
+                String key = entry.getKey().getKey();
+                writer.write(String.format("%s.count=%d%n%s.p50=%d%n%s.p99=%d%n", key, entry.getValue()[0], key,
+                        entry.getValue()[1], key, entry.getValue()[2]));
+            }
+        }
+    }
+
+    /**
+     * Compares a run to the baseline.
+     *
+     * @param result    The result of the run.
+     * @param tolerance The accepted relative change, such as 0.25 for 25%.
+     * @return One line describing each regression, empty if the run did not regress.
+     * @throws IllegalArgumentException If the tolerance is negative.
+     */
+    public List<String> regressions(WorkloadResult result, double tolerance) {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("The tolerance cannot be negative.");
+        }
+        List<String> regressions = new ArrayList<>();
+        if (result.getThroughput() < throughput * (1 - tolerance)) {
+            regressions.add(String.format("throughput %.1f ops/s is below the baseline %.1f ops/s",
+                    result.getThroughput(), throughput));
+        }
+        for (Map.Entry<Operation, long[]> entry : percentiles.entrySet()) {
+            Operation operation = entry.getKey();
+            long[] baseline = entry.getValue();
+            if (baseline[0] < MIN_SAMPLES || result.getLatency(operation).getCount() < MIN_SAMPLES) {
+                continue;
+            }
+            compare(regressions, operation, "p50", result.getLatency(operation).getValueAtPercentile(50),
+                    baseline[1], tolerance);
+            compare(regressions, operation, "p99", result.getLatency(operation).getValueAtPercentile(99),
+                    baseline[2], tolerance);
+        }
+        return regressions;
+    }
+
+    /**
+     * Retrieves the throughput of the reference run.
+     *
+     * @return The throughput in operations per second.
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Adds a regression if a latency exceeds its baseline by more than the tolerance.
+     *
+     * @param regressions The regressions found so far.
+     * @param operation   The operation.
+     * @param percentile  The name of the percentile.
+     * @param measured    The measured latency in nanoseconds.
+     * @param baseline    The baseline latency in nanoseconds.
+     * @param tolerance   The accepted relative change.
+     */
+    private static void compare(List<String> regressions, Operation operation, String percentile, long measured,
+                                long baseline, double tolerance) {
+        if (measured > baseline * (1 + tolerance)) {
+            regressions.add(String.format("%s %s %.1f us is above the baseline %.1f us", operation, percentile,
+                    measured / 1e3, baseline / 1e3));
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package pt.pa.Workload;
+
+import pt.pa.Commands.BackupCommand;
+import pt.pa.Commands.CommandManager;
+import pt.pa.Commands.CopyCommand;
+import pt.pa.Commands.CreateFileCommand;
+import pt.pa.Commands.CreateFolderCommand;
+import pt.pa.Commands.EditCommand;
+import pt.pa.Commands.MoveCommand;
+import pt.pa.Commands.PasteCommand;
+import pt.pa.Commands.RenameCommand;
+import pt.pa.Commands.ZipCommand;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.Generator.TreeGenerator;
+import pt.pa.MyFile;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * The WorkloadDriver class replays a {@link WorkloadScript} against a {@link PFS} and its {@link CommandManager}
+ * without the GUI, measuring throughput and the latency of each operation.
+ * <p>
+ * The file system is generated with a {@link TreeGenerator} from the seed of the script. Operations are then picked
+ * according to the mix and run as the GUI runs them: commands go through the command manager, on its writer thread
+ * if the script asks for it, and backups are submitted as tasks. Targets are picked at random among the documents
+ * known to the driver, those of the generated tree and those the workload created, skipping documents that an undo
+ * removed and targets the operation refuses, such as a move into the moved folder. Copies and zips are limited to
+ * small subtrees, as a user would select them.
+ * </p>
+ * <p>
+ * The warm-up operations run first and are not measured. Each measured operation is timed from the creation of its
+ * command to its completion. Messages the file system prints while the workload runs are discarded.
+ * </p>
+ * Run it with {@code WorkloadDriver [script] [--baseline file] [--tolerance fraction] [--save-baseline file]}:
+ * with a baseline the driver exits with status 1 when the run regresses.
+ */
+public class WorkloadDriver {
+
+    /**
+     * The largest subtree a workload copies or zips.
+     */
+    public static final int MAX_SUBTREE = 64;
+    /**
+     * The default tolerance of the regression check.
+     */
+    public static final double DEFAULT_TOLERANCE = 0.25;
+
+    private static final int MAX_ATTEMPTS = 16;
+    private static final String[] WORDS = {"lorem", "ipsum", "draft", "total", "note", "todo", "fixed", "value"};
+
+    private final WorkloadScript script;
+    private final SplittableRandom random;
+    private final List<Position<Document>> folders = new ArrayList<>();
+    private final List<Position<Document>> files = new ArrayList<>();
+    private PFS pfs;
+    private CommandManager manager;
+    private int created;
+
+    /**
+     * Constructs a WorkloadDriver for a script.
+     *
+     * @param script The workload to run.
+     */
+    public WorkloadDriver(WorkloadScript script) {
+        this.script = script;
+        this.random = new SplittableRandom(script.getSeed());
+    }
+
+    /**
+     * Generates the file system and runs the workload. A driver runs its workload once.
+     *
+     * @return The measures of the run.
+     * @throws IllegalStateException If the workload was already run.
+     */
+    public WorkloadResult run() {
+        if (pfs != null) {
+            throw new IllegalStateException("The workload was already run.");
+        }
+        TreeLinked<Document> tree = new TreeGenerator(script.getSeed(), script.getDocuments()).generate();
+        for (Position<Document> position : tree.positions()) {
+            (position.element() instanceof Folder ? folders : files).add(position);
+        }
+        pfs = new PFS(tree);
+        manager = pfs.getCommandManager();
+        if (script.isWriter()) {
+            manager.startWriter();
+        }
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(discard);
+        System.setErr(discard);
+        try {
+            runOperations(script.getWarmup(), new WorkloadResult());
+            WorkloadResult result = new WorkloadResult();
+            long started = System.nanoTime();
+            runOperations(script.getOperations(), result);
+            result.setElapsedNanos(System.nanoTime() - started);
+            return result;
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+            manager.stopWriter();
+        }
+    }
+
+    /**
+     * Retrieves the file system the workload ran against.
+     *
+     * @return The file system, or null before the workload runs.
+     */
+    public PFS getPfs() {
+        return pfs;
+    }
+
+    /**
+     * Runs a workload script and prints the result, optionally checking it against a baseline.
+     *
+     * @param args The script, followed by the options {@code --baseline file}, {@code --tolerance fraction} and
+     *             {@code --save-baseline file}. Without a script the default workload runs.
+     * @throws IOException If the script or the baseline cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path scriptFile = null;
+        Path baselineFile = null;
+        Path saveFile = null;
+        double tolerance = DEFAULT_TOLERANCE;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baseline" -> baselineFile = Paths.get(args[++i]);
+                case "--save-baseline" -> saveFile = Paths.get(args[++i]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                default -> scriptFile = Paths.get(args[i]);
+            }
+        }
+        WorkloadScript script = scriptFile == null ? WorkloadScript.defaults(1) : WorkloadScript.load(scriptFile);
+        System.out.printf("Workload %s: %d documents, %d warm-up and %d measured operations%n",
+                scriptFile == null ? "default" : scriptFile, script.getDocuments(), script.getWarmup(),
+                script.getOperations());
+        WorkloadResult result = new WorkloadDriver(script).run();
+        System.out.print(result.format());
+        if (saveFile != null) {
+            new WorkloadBaseline(result).save(saveFile);
+            System.out.println("Baseline saved to " + saveFile);
+        }
+        if (baselineFile != null) {
+            List<String> regressions = WorkloadBaseline.load(baselineFile).regressions(result, tolerance);
+            if (!regressions.isEmpty()) {
+                System.out.printf("Regressions against %s (tolerance %.0f%%):%n", baselineFile, tolerance * 100);
+                regressions.forEach(regression -> System.out.println("  " + regression));
+                System.exit(1);
+            }
+            System.out.printf("No regression against %s (tolerance %.0f%%)%n", baselineFile, tolerance * 100);
+        }
+    }
+
+    /**
+     * Runs a number of operations picked from the mix.
+     *
+     * @param count  The number of operations.
+     * @param result Receives the measures.
+     */
+    private void runOperations(int count, WorkloadResult result) {
+        for (int i = 0; i < count; i++) {
+            Operation operation = script.pick(random);
+            try {
+                long started = System.nanoTime();
+                if (perform(operation)) {
+                    result.recordLatency(operation, System.nanoTime() - started);
+                } else {
+                    result.recordSkip(operation);
+                }
+            } catch (IOException | RuntimeException e) {
+                result.recordFailure(operation);
+            }
+        }
+    }
+
+    /**
+     * Runs one operation on targets picked at random.
+     *
+     * @param operation The operation.
+     * @return True if the operation ran, false if it was skipped because it cannot run in the current state.
+     * @throws IOException If a command fails with an I/O error.
+     */
+    private boolean perform(Operation operation) throws IOException {
+        switch (operation) {
+            case CREATE_FILE -> {
+                Position<Document> parent = pick(folders, position -> true);
+                if (parent == null) {
+                    return false;
+                }
+                CreateFileCommand command = new CreateFileCommand(pfs, parent, "workload_" + created++);
+                manager.executeCommand(command);
+                files.add(command.getNewPosition());
+            }
+            case CREATE_FOLDER -> {
+                Position<Document> parent = pick(folders, position -> true);
+                if (parent == null) {
+                    return false;
+                }
+                CreateFolderCommand command = new CreateFolderCommand(pfs, parent, "workload_" + created++);
+                manager.executeCommand(command);
+                folders.add(command.getNewPosition());
+            }
+            case RENAME -> {
+                Position<Document> document = pick(random.nextInt(4) == 0 ? folders : files, position -> true);
+                if (document == null) {
+                    return false;
+                }
+                manager.executeCommand(new RenameCommand(pfs, document, "renamed_" + created++));
+            }
+            case MOVE -> {
+                TreeLinked<Document> tree = pfs.getPfs();
+                Position<Document> document = pick(random.nextInt(4) == 0 ? folders : files,
+                        position -> !tree.isRoot(position));
+                if (document == null) {
+                    return false;
+                }
+                Position<Document> destination = pick(folders,
+                        position -> position != document && !tree.isAncestor(position, document));
+                if (destination == null) {
+                    return false;
+                }
+                manager.executeCommand(new MoveCommand(pfs, document, destination));
+            }
+            case COPY -> {
+                Position<Document> document = pick(random.nextInt(4) == 0 ? folders : files, this::isSmall);
+                if (document == null) {
+                    return false;
+                }
+                manager.executeCommand(new CopyCommand(pfs, document));
+            }
+            case PASTE -> {
+                TreeLinked<Document> tree = pfs.getPfs();
+                Position<Document> copied = pfs.getClipboard().getContent();
+                if (copied == null || !isLive(copied) || !isSmall(copied)) {
+                    return false;
+                }
+                Position<Document> destination = pick(folders, position -> position != copied
+                        && !tree.isAncestor(position, copied) && !tree.isAncestor(copied, position));
+                if (destination == null) {
+                    return false;
+                }
+                manager.executeCommand(new PasteCommand(pfs, destination));
+            }
+            case EDIT -> {
+                Position<Document> file = pick(files, position -> position.element().isAccessable());
+                if (file == null) {
+                    return false;
+                }
+                manager.executeCommand(new EditCommand(pfs, file, edited(((MyFile) file.element()).getContent())));
+            }
+            case ZIP -> {
+                Position<Document> document = pick(random.nextInt(2) == 0 ? folders : files,
+                        position -> position.element().isAccessable() && isSmall(position));
+                if (document == null) {
+                    return false;
+                }
+                manager.executeCommand(new ZipCommand(pfs, pfs.getZipper(), document));
+            }
+            case UNDO -> {
+                if (manager.getCommandLog().isEmpty()) {
+                    return false;
+                }
+                manager.undoCommand();
+            }
+            case REDO -> {
+                if (manager.getUndoneCommands().isEmpty()) {
+                    return false;
+                }
+                manager.redoCommand();
+            }
+            case BACKUP -> {
+                BackupCommand command = new BackupCommand(pfs);
+                manager.submitTask(() -> {
+                    command.execute();
+                    return null;
+                }).join();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Picks a document of a pool that is still in the tree and suits the operation, forgetting the documents found
+     * to have left the tree.
+     *
+     * @param pool   The folders or the files known to the driver.
+     * @param usable Tells if a document suits the operation.
+     * @return The document, or null if none was found in a few attempts.
+     */
+    private Position<Document> pick(List<Position<Document>> pool, Predicate<Position<Document>> usable) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && !pool.isEmpty(); attempt++) {
+            int index = random.nextInt(pool.size());
+            Position<Document> position = pool.get(index);
+            if (!isLive(position)) {
+                pool.set(index, pool.get(pool.size() - 1));
+                pool.remove(pool.size() - 1);
+            } else if (usable.test(position)) {
+                return position;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a document is in the tree. Removed documents keep their parent, so every position up to the root
+     * must still be one of the children of its parent.
+     *
+     * @param position The position of the document.
+     * @return True if the document is in the tree.
+     */
+    private boolean isLive(Position<Document> position) {
+        TreeLinked<Document> tree = pfs.getPfs();
+        Position<Document> child = position;
+        for (Position<Document> parent = tree.parent(child); parent != null; parent = tree.parent(parent)) {
+            boolean found = false;
+            for (Position<Document> sibling : tree.children(parent)) {
+                if (sibling == child) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+            child = parent;
+        }
+        return child == tree.root();
+    }
+
+    /**
+     * Checks if a subtree is small enough to be copied or zipped, counting at most {@link #MAX_SUBTREE} documents.
+     *
+     * @param position The root of the subtree.
+     * @return True if the subtree has at most {@link #MAX_SUBTREE} documents.
+     */
+    private boolean isSmall(Position<Document> position) {
+        TreeLinked<Document> tree = pfs.getPfs();
+        Deque<Position<Document>> pending = new ArrayDeque<>();
+        pending.push(position);
+        int count = 0;
+        while (!pending.isEmpty()) {
+            if (++count > MAX_SUBTREE) {
+                return false;
+            }
+            for (Position<Document> child : tree.children(pending.pop())) {
+                pending.push(child);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Changes a content as a user typing would: a word inserted at a random place, or the last word removed.
+     *
+     * @param content The current content.
+     * @return The new content.
+     */
+    private String edited(String content) {
+        if (!content.isEmpty() && random.nextInt(4) == 0) {
+            int cut = content.lastIndexOf(' ');
+            return content.substring(0, Math.max(cut, 0));
+        }
+        int at = content.isEmpty() ? 0 : random.nextInt(content.length() + 1);
+        return content.substring(0, at) + WORDS[random.nextInt(WORDS.length)] + " " + content.substring(at);
+    }
+}
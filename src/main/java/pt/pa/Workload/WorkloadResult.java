@@ -0,0 +1,155 @@
+package pt.pa.Workload;
+
+import pt.pa.Commands.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The WorkloadResult class holds what a {@link WorkloadDriver} measured: the latency of every operation, the
+ * operations that failed or were skipped, and the time the whole run took.
+ * <p>
+ * An operation is skipped when it cannot run in the current state, such as an undo with nothing to undo or a paste
+ * with an empty clipboard; skipped operations are neither timed nor counted in the throughput.
+ * </p>
+ */
+public class WorkloadResult {
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Long> failures = new EnumMap<>(Operation.class);
+    private final Map<Operation, Long> skips = new EnumMap<>(Operation.class);
+    private long elapsedNanos;
+
+    /**
+     * Constructs an empty WorkloadResult.
+     */
+    public WorkloadResult() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            failures.put(operation, 0L);
+            skips.put(operation, 0L);
+        }
+    }
+
+    /**
+     * Records an operation that ran.
+     *
+     * @param operation The operation.
+     * @param nanos     Its latency in nanoseconds.
+     */
+    void recordLatency(Operation operation, long nanos) {
+        latencies.get(operation).record(nanos);
+    }
+
+    /**
+     * Records an operation that failed.
+     *
+     * @param operation The operation.
+     */
+    void recordFailure(Operation operation) {
+        failures.merge(operation, 1L, Long::sum);
+    }
+
+    /**
+     * Records an operation that was skipped.
+     *
+     * @param operation The operation.
+     */
+    void recordSkip(Operation operation) {
+        skips.merge(operation, 1L, Long::sum);
+    }
+
+    /**
+     * Sets the time the measured operations took.
+     *
+     * @param elapsedNanos The time in nanoseconds.
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Retrieves the latencies of an operation.
+     *
+     * @param operation The operation.
+     * @return The latencies of the runs of the operation that did not fail.
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * Retrieves the number of runs of an operation that failed.
+     *
+     * @param operation The operation.
+     * @return The number of failures.
+     */
+    public long getFailures(Operation operation) {
+        return failures.get(operation);
+    }
+
+    /**
+     * Retrieves the number of times an operation was skipped.
+     *
+     * @param operation The operation.
+     * @return The number of skips.
+     */
+    public long getSkips(Operation operation) {
+        return skips.get(operation);
+    }
+
+    /**
+     * Retrieves the number of operations that ran successfully.
+     *
+     * @return The number of operations.
+     */
+    public long getCompleted() {
+        long completed = 0;
+        for (LatencyHistogram latency : latencies.values()) {
+            completed += latency.getCount();
+        }
+        return completed;
+    }
+
+    /**
+     * Retrieves the time the measured operations took, skipped operations and the choice of targets included.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Calculates the number of operations that ran successfully per second.
+     *
+     * @return The throughput, or 0 if no time was measured.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getCompleted() / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Formats the result as a table with one line per operation that was picked, latencies in microseconds.
+     *
+     * @return The formatted result.
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d operations in %.2f s, %.1f ops/s%n", getCompleted(), elapsedNanos / 1e9,
+                getThroughput()));
+        text.append(String.format("%-14s %8s %7s %7s %9s %9s %9s %9s %9s%n", "operation", "count", "failed",
+                "skipped", "mean(us)", "p50", "p90", "p99", "max"));
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram latency = latencies.get(operation);
+            if (latency.getCount() + failures.get(operation) + skips.get(operation) == 0) {
+                continue;
+            }
+            text.append(String.format("%-14s %8d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", operation,
+                    latency.getCount(), failures.get(operation), skips.get(operation), latency.getMean() / 1e3,
+                    latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(90) / 1e3,
+                    latency.getValueAtPercentile(99) / 1e3, latency.getMax() / 1e3));
+        }
+        return text.toString();
+    }
+}
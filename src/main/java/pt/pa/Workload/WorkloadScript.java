@@ -0,0 +1,228 @@
+package pt.pa.Workload;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * The WorkloadScript class describes a workload for the {@link WorkloadDriver}: the file system it starts from, how
+ * many operations it runs and how often each operation is picked.
+ * <p>
+ * Scripts are properties files:
+ * </p>
+ * <pre>
+ * seed=42                 # seed of the generated file system and of the operation choices
+ * documents=10000         # documents of the generated file system
+ * warmup=2000             # operations run before measuring
+ * operations=20000        # operations measured
+ * writer=true             # run commands on the command writer thread, as the GUI does
+ * mix.edit=25             # relative weight of each operation, by name
+ * mix.undo=5
+ * </pre>
+ * Every key is optional. Without any {@code mix.} key the default mix is used; with some, the operations left out
+ * are not run.
+ */
+public class WorkloadScript {
+
+    private static final Map<Operation, Double> DEFAULT_MIX = defaultMix();
+
+    private final long seed;
+    private final int documents;
+    private final int warmup;
+    private final int operations;
+    private final boolean writer;
+    private final Map<Operation, Double> mix;
+    private final Operation[] picks;
+    private final double[] cumulativeWeights;
+
+    /**
+     * Constructs a WorkloadScript.
+     *
+     * @param seed       The seed of the generated file system and of the operation choices.
+     * @param documents  The number of documents of the generated file system.
+     * @param warmup     The number of operations run before measuring.
+     * @param operations The number of operations measured.
+     * @param writer     True to run commands on the command writer thread.
+     * @param mix        The relative weight of each operation.
+     * @throws IllegalArgumentException If a count is out of range, a weight is negative or no weight is positive.
+     */
+    public WorkloadScript(long seed, int documents, int warmup, int operations, boolean writer,
+                          Map<Operation, Double> mix) {
+        if (documents < 1 || warmup < 0 || operations < 1) {
+            throw new IllegalArgumentException("A workload needs documents and operations.");
+        }
+        Map<Operation, Double> used = new EnumMap<>(Operation.class);
+        for (Map.Entry<Operation, Double> entry : mix.entrySet()) {
+            if (!(entry.getValue() >= 0)) {
+                throw new IllegalArgumentException("Operation weights cannot be negative.");
+            }
+            if (entry.getValue() > 0) {
+                used.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (used.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation must have a positive weight.");
+        }
+        this.seed = seed;
+        this.documents = documents;
+        this.warmup = warmup;
+        this.operations = operations;
+        this.writer = writer;
+        this.mix = Collections.unmodifiableMap(used);
+        picks = used.keySet().toArray(new Operation[0]);
+        cumulativeWeights = new double[picks.length];
+        double total = 0;
+        for (int i = 0; i < picks.length; i++) {
+            total += used.get(picks[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Creates the default workload: 10000 documents, 1000 warm-up and 10000 measured operations of the default mix,
+     * run on the writer thread.
+     *
+     * @param seed The seed of the generated file system and of the operation choices.
+     * @return The workload.
+     */
+    public static WorkloadScript defaults(long seed) {
+        return new WorkloadScript(seed, 10000, 1000, 10000, true, DEFAULT_MIX);
+    }
+
+    /**
+     * Reads a workload script.
+     *
+     * @param file The script file.
+     * @return The workload.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If a value is invalid or an operation is unknown.
+     */
+    public static WorkloadScript load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return parse(properties);
+    }
+
+    /**
+     * Reads a workload script from properties.
+     *
+     * @param properties The properties.
+     * @return The workload.
+     * @throws IllegalArgumentException If a value is invalid or an operation is unknown.
+     */
+    public static WorkloadScript parse(Properties properties) {
+        Map<Operation, Double> mix = new EnumMap<>(Operation.class);
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith("mix.")) {
+                mix.put(Operation.fromKey(name.substring(4)), Double.parseDouble(properties.getProperty(name).trim()));
+            }
+        }
+        return new WorkloadScript(
+                Long.parseLong(properties.getProperty("seed", "1").trim()),
+                Integer.parseInt(properties.getProperty("documents", "10000").trim()),
+                Integer.parseInt(properties.getProperty("warmup", "1000").trim()),
+                Integer.parseInt(properties.getProperty("operations", "10000").trim()),
+                Boolean.parseBoolean(properties.getProperty("writer", "true").trim()),
+                mix.isEmpty() ? DEFAULT_MIX : mix);
+    }
+
+    /**
+     * Picks an operation according to the weights of the mix.
+     *
+     * @param random The source of randomness.
+     * @return The operation.
+     */
+    Operation pick(SplittableRandom random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < picks.length - 1; i++) {
+            if (target < cumulativeWeights[i]) {
+                return picks[i];
+            }
+        }
+        return picks[picks.length - 1];
+    }
+
+    /**
+     * Retrieves the seed of the generated file system and of the operation choices.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the number of documents of the generated file system.
+     *
+     * @return The number of documents.
+     */
+    public int getDocuments() {
+        return documents;
+    }
+
+    /**
+     * Retrieves the number of operations run before measuring.
+     *
+     * @return The number of warm-up operations.
+     */
+    public int getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Retrieves the number of operations measured.
+     *
+     * @return The number of measured operations.
+     */
+    public int getOperations() {
+        return operations;
+    }
+
+    /**
+     * Checks if commands run on the command writer thread.
+     *
+     * @return True if the writer thread is used.
+     */
+    public boolean isWriter() {
+        return writer;
+    }
+
+    /**
+     * Retrieves the relative weight of each operation that is run.
+     *
+     * @return An unmodifiable map of the positive weights.
+     */
+    public Map<Operation, Double> getMix() {
+        return mix;
+    }
+
+    /**
+     * Creates the default mix, weighted towards edits as in an editing session.
+     *
+     * @return The default weights.
+     */
+    private static Map<Operation, Double> defaultMix() {
+        Map<Operation, Double> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.CREATE_FILE, 15.0);
+        mix.put(Operation.CREATE_FOLDER, 5.0);
+        mix.put(Operation.RENAME, 10.0);
+        mix.put(Operation.MOVE, 10.0);
+        mix.put(Operation.COPY, 8.0);
+        mix.put(Operation.PASTE, 8.0);
+        mix.put(Operation.EDIT, 25.0);
+        mix.put(Operation.ZIP, 4.0);
+        mix.put(Operation.UNDO, 8.0);
+        mix.put(Operation.REDO, 6.0);
+        mix.put(Operation.BACKUP, 0.05);
+        return Collections.unmodifiableMap(mix);
+    }
+}
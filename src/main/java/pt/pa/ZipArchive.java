@@ -0,0 +1,91 @@
+package pt.pa;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ZipArchive class describes a zipped folder: the preset dictionaries shared by its files,
+ * one per file extension, and the byte counts before and after compression.
+ * Each dictionary is stored once here and referenced by every file compressed with it, so the
+ * serialized file system keeps a single copy of it per archive.
+ */
+public class ZipArchive implements Serializable {
+
+    private final Map<String, byte[]> dictionaries = new HashMap<>();
+    private long originalBytes;
+    private long compressedBytes;
+
+    /**
+     * Registers the preset dictionary used for files with the given extension.
+     *
+     * @param extension  The file extension the dictionary was trained for.
+     * @param dictionary The dictionary bytes.
+     */
+    void addDictionary(String extension, byte[] dictionary) {
+        dictionaries.put(extension, dictionary);
+    }
+
+    /**
+     * Retrieves the preset dictionary used for files with the given extension.
+     *
+     * @param extension The file extension.
+     * @return The dictionary bytes, or null if files with that extension were compressed without one.
+     */
+    public byte[] getDictionary(String extension) {
+        return dictionaries.get(extension);
+    }
+
+    /**
+     * Retrieves the dictionaries of this archive, keyed by file extension.
+     *
+     * @return An unmodifiable view of the dictionaries.
+     */
+    public Map<String, byte[]> getDictionaries() {
+        return Collections.unmodifiableMap(dictionaries);
+    }
+
+    /**
+     * Accounts for one compressed file.
+     *
+     * @param original   The size of the file content before compression.
+     * @param compressed The size of the file content after compression.
+     */
+    void addFile(long original, long compressed) {
+        originalBytes += original;
+        compressedBytes += compressed;
+    }
+
+    /**
+     * Retrieves the total size of the archived file contents before compression.
+     *
+     * @return The uncompressed size in bytes.
+     */
+    public long getOriginalBytes() {
+        return originalBytes;
+    }
+
+    /**
+     * Retrieves the total size of the archive, including the dictionaries.
+     *
+     * @return The compressed size in bytes.
+     */
+    public long getCompressedBytes() {
+        long size = compressedBytes;
+        for (byte[] dictionary : dictionaries.values()) {
+            size += dictionary.length;
+        }
+        return size;
+    }
+
+    /**
+     * Calculates the compression ratio of the archive (original size divided by compressed size).
+     *
+     * @return The compression ratio, or 1 if the archive is empty.
+     */
+    public double getCompressionRatio() {
+        long compressed = getCompressedBytes();
+        return compressed == 0 ? 1 : (double) originalBytes / compressed;
+    }
+}
@@ -1,14 +1,41 @@
 package pt.pa;
 
+import pt.pa.Profiling.ZipEvent;
 import pt.pa.adts.InvalidPositionException;
 import pt.pa.adts.Position;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
 /**
  * The Zipper class provides methods to zip and unzip the content of a file system.
- * Zipping a folder makes its content inaccessible, while unzipping makes it accessible again.
+ * Zipping a folder makes its content inaccessible and compresses every file in it, while unzipping
+ * restores the content and makes it accessible again.
+ * <p>
+ * Small files of the same type compress poorly on their own, so when a folder holds several files
+ * with the same extension a preset dictionary is trained from a sample of them and shared by all
+ * of them. The dictionaries are kept once in the folder's {@link ZipArchive}.
+ * </p>
  */
 public class Zipper {
 
+    /**
+     * Minimum number of files with the same extension needed to train a dictionary for them.
+     */
+    static final int MIN_FILES_FOR_DICTIONARY = 4;
+    /**
+     * Maximum dictionary size; deflate cannot reference further back than its 32 KB window.
+     */
+    static final int MAX_DICTIONARY_SIZE = 16 * 1024;
+    private static final int MAX_SAMPLES = 64;
+    private static final int GRAM_LENGTH = 8;
+    private static final int SEGMENT_LENGTH = 32;
+
     private final PFS pfs;
 
     /**
@@ -28,24 +55,238 @@ public class Zipper {
      */
     public void zipFolder(Position<Document> folderPosition) throws InvalidPositionException {
         validateFolderPosition(folderPosition);
-        zipFolderContents(folderPosition);
+        ZipEvent event = new ZipEvent();
+        event.begin();
+        List<MyFile> files = new ArrayList<>();
+        zipFolderContents(folderPosition, files);
+        ((Folder) folderPosition.element()).setArchive(compressFiles(files));
         folderPosition.element().setAccess(false);
+        commitEvent(event, "zipFolder", folderPosition);
     }
 
     /**
      * Recursively zips the contents of a folder and makes all MyFile instances within it inaccessible.
      *
      * @param folderPosition The position of the folder whose contents are to be zipped.
+     * @param files          The list collecting the files that still have to be compressed.
      * @throws InvalidPositionException If the provided folder position is invalid.
      */
-    private void zipFolderContents(Position<Document> folderPosition) throws InvalidPositionException {
+    private void zipFolderContents(Position<Document> folderPosition, List<MyFile> files)
+            throws InvalidPositionException {
         for (Position<Document> child : pfs.getPfs().children(folderPosition)) {
             if (child.element() instanceof MyFile myFile) {
                 myFile.setAccess(false);
+                if (!myFile.isCompressed()) {
+                    files.add(myFile);
+                }
             } else if (child.element() instanceof Folder) {
-                zipFolderContents(child);
+                zipFolderContents(child, files);
+            }
+        }
+    }
+
+    /**
+     * Compresses the given files, sharing one trained dictionary among the files of each extension
+     * that has enough files to make it worthwhile.
+     *
+     * @param files The files to compress.
+     * @return The archive holding the dictionaries and the compression totals.
+     */
+    ZipArchive compressFiles(List<MyFile> files) {
+        ZipArchive archive = new ZipArchive();
+        Map<String, List<MyFile>> byExtension = new HashMap<>();
+        for (MyFile file : files) {
+            byExtension.computeIfAbsent(file.getExtensionName().toLowerCase(), k -> new ArrayList<>()).add(file);
+        }
+
+        for (Map.Entry<String, List<MyFile>> entry : byExtension.entrySet()) {
+            List<MyFile> group = entry.getValue();
+            byte[] dictionary = null;
+            if (group.size() >= MIN_FILES_FOR_DICTIONARY) {
+                dictionary = trainDictionary(sampleContents(group), dictionarySizeFor(group));
+                if (dictionary.length > 0) {
+                    archive.addDictionary(entry.getKey(), dictionary);
+                } else {
+                    dictionary = null;
+                }
+            }
+            for (MyFile file : group) {
+                long original = file.getSizeInBytes();
+                file.compress(dictionary);
+                archive.addFile(original, file.getCompressedSizeInBytes());
+            }
+        }
+        return archive;
+    }
+
+    /**
+     * Picks up to {@value #MAX_SAMPLES} files spread evenly over the group and returns their contents.
+     *
+     * @param group The files sharing an extension.
+     * @return The sampled contents as UTF-8 bytes.
+     */
+    private List<byte[]> sampleContents(List<MyFile> group) {
+        List<byte[]> samples = new ArrayList<>();
+        int step = Math.max(1, group.size() / MAX_SAMPLES);
+        for (int i = 0; i < group.size() && samples.size() < MAX_SAMPLES; i += step) {
+            samples.add(group.get(i).getContent().getBytes(StandardCharsets.UTF_8));
+        }
+        return samples;
+    }
+
+    /**
+     * Bounds the dictionary of a group to an eighth of its content, so that the dictionary stored in
+     * the archive never costs more than it can save.
+     *
+     * @param group The files sharing an extension.
+     * @return The maximum dictionary size for the group.
+     */
+    private int dictionarySizeFor(List<MyFile> group) {
+        long total = 0;
+        for (MyFile file : group) {
+            total += file.getSizeInBytes();
+        }
+        return (int) Math.min(MAX_DICTIONARY_SIZE, total / 8);
+    }
+
+    /**
+     * Trains a preset dictionary from sample contents.
+     * <p>
+     * Every sample is cut into fixed-size segments, and each segment is scored by how many other
+     * samples share its {@value #GRAM_LENGTH}-byte substrings. The best distinct segments are kept until
+     * the size limit is reached and are laid out with the most common ones last, since deflate encodes
+     * nearer matches more cheaply.
+     * </p>
+     *
+     * @param samples The sample contents.
+     * @param maxSize The maximum dictionary size in bytes.
+     * @return The dictionary, empty if the samples share nothing.
+     */
+    static byte[] trainDictionary(List<byte[]> samples, int maxSize) {
+        Map<Long, Integer> documentFrequency = new HashMap<>();
+        for (byte[] sample : samples) {
+            Set<Long> grams = new HashSet<>();
+            for (int i = 0; i + GRAM_LENGTH <= sample.length; i++) {
+                grams.add(gramAt(sample, i));
+            }
+            for (Long gram : grams) {
+                documentFrequency.merge(gram, 1, Integer::sum);
+            }
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        for (byte[] sample : samples) {
+            for (int start = 0; start < sample.length; start += SEGMENT_LENGTH) {
+                int end = Math.min(sample.length, start + SEGMENT_LENGTH);
+                long score = 0;
+                for (int i = start; i + GRAM_LENGTH <= end; i++) {
+                    score += documentFrequency.get(gramAt(sample, i)) - 1;
+                }
+                if (score > 0) {
+                    segments.add(new Segment(Arrays.copyOfRange(sample, start, end), score));
+                }
             }
         }
+        segments.sort(Comparator.comparingLong(Segment::score).reversed());
+
+        List<byte[]> chosen = new ArrayList<>();
+        Set<ByteBuffer> seen = new HashSet<>();
+        int size = 0;
+        for (Segment segment : segments) {
+            if (size + segment.bytes().length > maxSize) {
+                continue;
+            }
+            if (seen.add(ByteBuffer.wrap(segment.bytes()))) {
+                chosen.add(segment.bytes());
+                size += segment.bytes().length;
+            }
+        }
+
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(size);
+        for (int i = chosen.size() - 1; i >= 0; i--) {
+            dictionary.writeBytes(chosen.get(i));
+        }
+        return dictionary.toByteArray();
+    }
+
+    /**
+     * Packs the {@value #GRAM_LENGTH} bytes starting at the given offset into a long.
+     */
+    private static long gramAt(byte[] data, int offset) {
+        long gram = 0;
+        for (int i = 0; i < GRAM_LENGTH; i++) {
+            gram = (gram << 8) | (data[offset + i] & 0xFF);
+        }
+        return gram;
+    }
+
+    /**
+     * A candidate dictionary segment and its score.
+     */
+    private record Segment(byte[] bytes, long score) {
+    }
+
+    /**
+     * Compresses data into a raw deflate stream, optionally primed with a preset dictionary.
+     *
+     * @param data       The data to compress.
+     * @param dictionary The preset dictionary, or null.
+     * @return The compressed data.
+     */
+    static byte[] deflate(byte[] data, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(16, data.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses a raw deflate stream produced by {@link #deflate(byte[], byte[])}.
+     *
+     * @param data       The compressed data.
+     * @param dictionary The preset dictionary used to compress it, or null.
+     * @param length     The size of the decompressed data.
+     * @return The decompressed data.
+     * @throws IllegalStateException If the compressed data is corrupt.
+     */
+    static byte[] inflate(byte[] data, byte[] dictionary, int length) {
+        Inflater inflater = new Inflater(true);
+        try {
+            if (dictionary != null) {
+                inflater.setDictionary(dictionary);
+            }
+            inflater.setInput(data);
+            byte[] result = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int count = inflater.inflate(result, offset, length - offset);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += count;
+            }
+            if (offset != length) {
+                throw new IllegalStateException("Corrupt compressed content");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed content", e);
+        } finally {
+            inflater.end();
+        }
     }
 
     /**
@@ -56,7 +297,11 @@ public class Zipper {
      */
     public void zipFile(Position<Document> filePosition) throws InvalidPositionException {
         validateFilePosition(filePosition);
+        ZipEvent event = new ZipEvent();
+        event.begin();
+        ((MyFile) filePosition.element()).compress(null);
         filePosition.element().setAccess(false);
+        commitEvent(event, "zipFile", filePosition);
     }
 
     /**
@@ -67,8 +312,12 @@ public class Zipper {
      */
     public void unzipFolder(Position<Document> folderPosition) throws InvalidPositionException {
         validateFolderPosition(folderPosition);
+        ZipEvent event = new ZipEvent();
+        event.begin();
         unzipFolderContents(folderPosition);
+        ((Folder) folderPosition.element()).setArchive(null);
         folderPosition.element().setAccess(true);
+        commitEvent(event, "unzipFolder", folderPosition);
     }
 
     /**
@@ -80,8 +329,10 @@ public class Zipper {
     private void unzipFolderContents(Position<Document> folderPosition) throws InvalidPositionException {
         for (Position<Document> child : pfs.getPfs().children(folderPosition)) {
             if (child.element() instanceof MyFile myFile) {
+                myFile.decompress();
                 myFile.setAccess(true);
-            } else if (child.element() instanceof Folder) {
+            } else if (child.element() instanceof Folder folder) {
+                folder.setArchive(null);
                 unzipFolderContents(child);
             }
         }
@@ -95,7 +346,27 @@ public class Zipper {
      */
     public void unzipFile(Position<Document> filePosition) throws InvalidPositionException {
         validateFilePosition(filePosition);
+        ZipEvent event = new ZipEvent();
+        event.begin();
+        ((MyFile) filePosition.element()).decompress();
         filePosition.element().setAccess(true);
+        commitEvent(event, "unzipFile", filePosition);
+    }
+
+    /**
+     * Ends a zip event and commits it, describing the subtree it worked on, if it is being recorded.
+     *
+     * @param event     The event, begun before the operation.
+     * @param operation The name of the operation.
+     * @param position  The position of the zipped or unzipped document.
+     */
+    private void commitEvent(ZipEvent event, String operation, Position<Document> position) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.describe(pfs.getPfs(), position);
+            event.operation = operation;
+            event.commit();
+        }
     }
 
     /**
@@ -3,9 +3,17 @@ package pt.pa.adts;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
+ * The children of a node are kept in order, and can also be indexed by a key of their elements, such as a name,
+ * with {@link #indexChildrenBy(Function)}. A node builds the index of its children the first time one of them is
+ * looked up with {@link #child(Position, Object)}, and insert, remove and move keep it up to date, so a child is
+ * found by key in constant time however many children its parent has. The indexes are not serialized.
+ *
  * @param <E> type of elements of the tree
  * @author patricia.macedo
  */
@@ -14,6 +22,8 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
     //** TreeNode implemented as an inner class at the end **/
 
     private TreeNode root;
+    private transient Function<? super E, ?> keyOf;
+    private transient int keyGeneration;
 
     public TreeLinked() {
         this.root = null;
@@ -54,6 +64,9 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
         TreeNode node = checkPosition(position);
         E replacedElem = node.element;
         node.element = e;
+        if (keyOf != null) {
+            rekey(node, keyOf.apply(replacedElem));
+        }
         return replacedElem;
     }
 
@@ -107,6 +120,7 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
         TreeNode parentNode = checkPosition(parent);
         TreeNode node = new TreeNode(elem, parentNode);
         parentNode.children.add(node);
+        index(parentNode, node);
         return node;
     }
 
@@ -128,6 +142,7 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
 
         TreeNode node = new TreeNode(elem, parentNode);
         parentNode.children.add(order, node);
+        index(parentNode, node);
         return node;
     }
 
@@ -141,6 +156,7 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
         }
 
         aux.parent.children.remove(aux);
+        unindex(aux.parent, aux, keyOf == null ? null : keyOf.apply(elem));
         return elem;
     }
 
@@ -233,9 +249,12 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
         TreeNode newParentNode = checkPosition(newParent);
 
         oldParentNode.children.remove(existingPosition);
+        unindex(oldParentNode, (TreeNode) existingPosition,
+                keyOf == null ? null : keyOf.apply(existingPosition.element()));
 
         newParentNode.children.add((TreeNode)existingPosition);
         ((TreeNode) existingPosition).parent = newParentNode;
+        index(newParentNode, (TreeNode) existingPosition);
     }
 
     @Override
@@ -273,6 +292,95 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
         return node.children.size();
     }
 
+    /**
+     * Indexes the children of every node by a key of their elements. The indexes built for another key are
+     * dropped, and the index of a node is built again the first time one of its children is looked up.
+     *
+     * @param keyOf Computes the key of an element, or null to stop indexing.
+     */
+    public void indexChildrenBy(Function<? super E, ?> keyOf) {
+        if (this.keyOf != keyOf) {
+            this.keyOf = keyOf;
+            keyGeneration++;
+        }
+    }
+
+    /**
+     * Finds the child of a node whose element has a key. When several children have the key, the first one
+     * indexed is found.
+     *
+     * @param parent The position of the node.
+     * @param key    The key.
+     * @return The position of the child, or null if no child has the key.
+     * @throws InvalidPositionException If the position is invalid.
+     * @throws IllegalStateException    If the children are not indexed.
+     */
+    public Position<E> child(Position<E> parent, Object key) throws InvalidPositionException {
+        TreeNode node = checkPosition(parent);
+        if (keyOf == null) {
+            throw new IllegalStateException("The children are not indexed.");
+        }
+        ChildIndex index = node.index;
+        if (index == null || index.generation != keyGeneration) {
+            index = new ChildIndex(keyGeneration);
+            for (TreeNode child : node.children) {
+                index.add(keyOf.apply(child.element), child);
+            }
+            node.index = index;
+        }
+        return index.byKey.get(key);
+    }
+
+    /**
+     * Moves a node to its new key in the index of its parent, after its element changed in place.
+     *
+     * @param position The position of the node.
+     * @param oldKey   The key the element had before it changed.
+     * @throws InvalidPositionException If the position is invalid.
+     */
+    public void rekey(Position<E> position, Object oldKey) throws InvalidPositionException {
+        TreeNode node = checkPosition(position);
+        if (keyOf != null) {
+            rekey(node, oldKey);
+        }
+    }
+
+    /**
+     * Moves a node to the key of its element in the index of its parent.
+     */
+    private void rekey(TreeNode node, Object oldKey) {
+        if (node.parent != null) {
+            unindex(node.parent, node, oldKey);
+            index(node.parent, node);
+        }
+    }
+
+    /**
+     * Adds a node to the index of its parent, if the index was built.
+     */
+    private void index(TreeNode parentNode, TreeNode node) {
+        ChildIndex index = parentNode.index;
+        if (index != null && index.generation == keyGeneration && keyOf != null) {
+            index.add(keyOf.apply(node.element), node);
+        }
+    }
+
+    /**
+     * Takes a node out of the index of its parent. An index where several children had the same key is dropped
+     * instead, since another child may now be found under the key, and built again when it is next needed.
+     */
+    private void unindex(TreeNode parentNode, TreeNode node, Object key) {
+        ChildIndex index = parentNode.index;
+        if (index == null || index.generation != keyGeneration || keyOf == null) {
+            return;
+        }
+        if (index.shadowed) {
+            parentNode.index = null;
+        } else {
+            index.byKey.remove(key, node);
+        }
+    }
+
     /**
      *  auxiliary method to write Tree, using preorder approach
      *  */
@@ -292,6 +400,26 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
         return Collections.nCopies(level,"  ") + "-";
     }
 
+    /**
+     * inner class - the children of a node by key, built for one key function.
+     */
+    private class ChildIndex {
+
+        private final Map<Object, TreeNode> byKey = new HashMap<>();
+        private final int generation;
+        private boolean shadowed;  // some children share a key; only the first is indexed
+
+        ChildIndex(int generation) {
+            this.generation = generation;
+        }
+
+        void add(Object key, TreeNode node) {
+            if (byKey.putIfAbsent(key, node) != null) {
+                shadowed = true;
+            }
+        }
+    }
+
     /**
      * inner class - represent a node of a tree. Each node have a list of children, that can be empty.
      */
@@ -300,6 +428,7 @@ public class TreeLinked<E> implements Tree<E>, Serializable {
         private E element;  // element stored at this node
         private TreeNode parent;  // adjacent node
         private List<TreeNode> children;  // children nodes
+        private transient ChildIndex index;  // children by key, built on the first lookup
 
         TreeNode(E element) {
             this.element = element;
@@ -0,0 +1,79 @@
+package pt.pa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.pa.adts.Position;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static pt.pa.DatedFileSystem.createFile;
+
+/**
+ * Test cases for the {@link CalendarIndex} class, through the queries of {@link PFS}.
+ */
+class CalendarIndexTest {
+
+    /**
+     * 2020-01-15, 2020-03-01 and 2021-02-10, at midnight UTC.
+     */
+    private static final long JANUARY_2020 = 1579046400L;
+    private static final long MARCH_2020 = 1583020800L;
+    private static final long FEBRUARY_2021 = 1612915200L;
+
+    private PFS pfs;
+    private Position<Document> root;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pfs = DatedFileSystem.create();
+        root = pfs.getRoot();
+    }
+
+    /**
+     * Test that documents are listed and counted by the year and month they were created in, and dropped when
+     * removed.
+     */
+    @Test
+    void testCreatedByYearAndMonth() {
+        Folder folderDocument = new Folder("folder");
+        folderDocument.setCreationDate(JANUARY_2020);
+        Position<Document> folder = pfs.insertDoc(root, folderDocument);
+        createFile(pfs, "a", folder, JANUARY_2020);
+        createFile(pfs, "b", root, MARCH_2020);
+        createFile(pfs, "c", root, FEBRUARY_2021);
+
+        assertEquals(List.of("a", "b", "folder"),
+                pfs.getDocumentsBySelectedYear(2020).stream().map(Document::getName).sorted().toList());
+        assertEquals(Map.of("JANUARY", 1, "MARCH", 1), pfs.getCreatedFilesDataByMonth(2020));
+        assertEquals(List.of("JANUARY", "MARCH"), List.copyOf(pfs.getCreatedFilesDataByMonth(2020).keySet()));
+        assertTrue(pfs.getCreatedFilesDataByMonth(2019).isEmpty());
+
+        pfs.remove(folder);
+        assertEquals(List.of("b"), pfs.getDocumentsBySelectedYear(2020).stream().map(Document::getName).toList());
+        assertEquals(Map.of("MARCH", 1), pfs.getCreatedFilesDataByMonth(2020));
+        assertEquals(Map.of("FEBRUARY", 1), pfs.getCreatedFilesDataByMonth(2021));
+    }
+
+    /**
+     * Test that an edited file is counted in the month of its last change, and that a restored tree is indexed
+     * again.
+     */
+    @Test
+    void testChangedByMonth() {
+        Position<Document> file = createFile(pfs, "a", root, JANUARY_2020);
+        assertEquals(Map.of("JANUARY", 1), pfs.getChangedFilesDataByMonth(2020));
+
+        pfs.edit(file, "changed");
+        LocalDate changed = LocalDate.ofEpochDay(((MyFile) file.element()).getLastChangeDate() / 86_400);
+        Map<String, Integer> expected = Map.of(changed.getMonth().toString(), 1);
+        assertTrue(pfs.getChangedFilesDataByMonth(2020).isEmpty());
+        assertEquals(expected, pfs.getChangedFilesDataByMonth(changed.getYear()));
+
+        pfs.setState(pfs.saveState());
+        assertEquals(expected, pfs.getChangedFilesDataByMonth(changed.getYear()));
+        assertEquals(Map.of("JANUARY", 1), pfs.getCreatedFilesDataByMonth(2020));
+    }
+}
@@ -0,0 +1,89 @@
+package pt.pa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.pa.adts.Position;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link ChangeLog} class.
+ */
+class ChangeLogTest {
+
+    /**
+     * 2020-01-15 at midnight UTC.
+     */
+    private static final long DAY = 1579046400L;
+
+    private PFS pfs;
+    private Position<Document> root;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pfs = new PFS(new Folder("root"));
+        root = pfs.getRoot();
+    }
+
+    /**
+     * Test that editing a file counts the change, dates it and ranks the file by its edits.
+     */
+    @Test
+    void testEditRecordsChanges() {
+        Position<Document> often = pfs.insertDoc(root, new MyFile("often", ".txt"));
+        Position<Document> once = pfs.insertDoc(root, new MyFile("once", ".txt"));
+        pfs.insertDoc(root, new MyFile("never", ".txt"));
+        pfs.edit(often, "a");
+        pfs.edit(often, "abc");
+        pfs.edit(often, "ab");
+        pfs.edit(once, "abcdef");
+
+        MyFile file = (MyFile) often.element();
+        assertEquals(3, file.getChanges());
+        assertTrue(file.getLastChangeDate() > 0);
+
+        List<ChangeLog.FileChanges> ranked = pfs.getMostChangedFiles(10);
+        assertEquals(2, ranked.size());
+        assertSame(file, ranked.get(0).file());
+        assertEquals(3, ranked.get(0).changes());
+        assertEquals(ranked.get(0).bytesChurned() + ranked.get(1).bytesChurned(),
+                pfs.getBytesChurned(0, Long.MAX_VALUE));
+        assertEquals(1, pfs.getMostChangedFiles(1).size());
+        assertThrows(IllegalArgumentException.class, () -> pfs.getMostChangedFiles(-1));
+
+        pfs.remove(often);
+        assertEquals(List.of("once"), pfs.getMostChangedFiles(10).stream().map(c -> c.file().getName()).toList());
+        pfs.insertDoc(root, file);
+        assertEquals("often", pfs.getMostChangedFiles(10).get(0).file().getName());
+    }
+
+    /**
+     * Test that the edits of a period are counted per day and their bytes summed.
+     */
+    @Test
+    void testPeriods() {
+        ChangeLog log = new ChangeLog(pfs);
+        MyFile file = new MyFile("file", ".txt");
+        long[] dates = {DAY, DAY + 3600, DAY + 86_400, DAY + 3 * 86_400};
+        long[] deltas = {10, -4, 7, 100};
+        for (int i = 0; i < dates.length; i++) {
+            file.setChangeHistory(i + 1, dates[i]);
+            log.record(file, deltas[i]);
+        }
+        file.setChangeHistory(5, DAY);
+        log.record(file, 1);
+
+        LocalDate first = LocalDate.of(2020, 1, 15);
+        assertEquals(Map.of(first, 2, first.plusDays(1), 1), log.getChangesPerDay(DAY, DAY + 2 * 86_400));
+        assertEquals(List.of(first, first.plusDays(1), first.plusDays(3)),
+                List.copyOf(log.getChangesPerDay(0, Long.MAX_VALUE).keySet()));
+        assertEquals(21, log.getBytesChurned(DAY, DAY + 2 * 86_400));
+        assertEquals(122, log.getBytesChurned(0, Long.MAX_VALUE));
+        assertEquals(0, log.getBytesChurned(DAY + 3600 + 1, DAY + 86_400));
+        assertThrows(IllegalArgumentException.class, () -> log.getBytesChurned(1, 0));
+    }
+}
@@ -0,0 +1,353 @@
+/**
+ * JUnit test class for the CommandManager class.
+ */
+package pt.pa.Commands;
+
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.MyFile;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link pt.pa.Commands.CommandManager} class.
+ */
+class CommandManagerTest {
+
+    private PFS pfs;
+    private Position<Document> file;
+
+    /**
+     * Set up the test environment with a file to edit.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        pfs = new PFS(new Folder("root"));
+        file = pfs.createFile("notes", ".txt", pfs.getRoot());
+    }
+
+    /**
+     * Test that the oldest commands are evicted once the command limit is reached.
+     */
+    @Test
+    void testCommandLimitEvictsOldest() throws IOException {
+        CommandManager manager = new CommandManager(3, Long.MAX_VALUE);
+        manager.setCoalesceWindowMillis(0);
+        for (int i = 0; i < 5; i++) {
+            manager.executeCommand(new EditCommand(pfs, file, "v" + i));
+        }
+        assertEquals(3, manager.getHistorySize());
+        assertEquals(2, manager.getEvictedCommands());
+
+        manager.undoCommand();
+        manager.undoCommand();
+        manager.undoCommand();
+        assertEquals("v1", ((MyFile) file.element()).getContent());
+        assertTrue(manager.getCommandLog().isEmpty());
+    }
+
+    /**
+     * Test that the history stays under the memory limit and tracks its retained size.
+     */
+    @Test
+    void testMemoryLimitEvictsOldest() throws IOException {
+        CommandManager manager = new CommandManager(1000, 10_000);
+        manager.setCoalesceWindowMillis(0);
+        for (int i = 0; i < 20; i++) {
+            manager.executeCommand(new EditCommand(pfs, file, String.valueOf((char) ('a' + i)).repeat(1000)));
+        }
+        assertTrue(manager.getRetainedBytes() <= 10_000);
+        assertTrue(manager.getEvictedBytes() > 0);
+        assertTrue(manager.getPeakRetainedBytes() >= manager.getRetainedBytes());
+
+        long retained = 0;
+        for (Command command : manager.getCommandLog()) {
+            retained += command.estimatedSize();
+        }
+        assertEquals(retained, manager.getRetainedBytes());
+    }
+
+    /**
+     * Test that undo and redo keep the retained size consistent.
+     */
+    @Test
+    void testUndoRedoKeepsRetainedBytes() throws IOException {
+        CommandManager manager = new CommandManager();
+        manager.setCoalesceWindowMillis(0);
+        manager.executeCommand(new EditCommand(pfs, file, "first"));
+        manager.executeCommand(new EditCommand(pfs, file, "second"));
+        long retained = manager.getRetainedBytes();
+
+        manager.undoCommand();
+        manager.redoCommand();
+        assertEquals(retained, manager.getRetainedBytes());
+        assertEquals("second", ((MyFile) file.element()).getContent());
+
+        manager.undoCommand();
+        manager.executeCommand(new EditCommand(pfs, file, "third"));
+        assertTrue(manager.getUndoneCommands().isEmpty());
+        assertEquals(2, manager.getHistorySize());
+    }
+
+    /**
+     * Test that an edit only retains the changed region and still undoes and redoes correctly.
+     */
+    @Test
+    void testEditRetainsOnlyChangedRegion() throws IOException {
+        CommandManager manager = new CommandManager();
+        String large = "a".repeat(100_000) + "b".repeat(100_000);
+        pfs.edit(file, large);
+
+        String edited = "a".repeat(100_000) + "XYZ" + "b".repeat(99_999);
+        EditCommand edit = new EditCommand(pfs, file, edited);
+        manager.executeCommand(edit);
+        assertTrue(edit.estimatedSize() < 1_000);
+        assertEquals(edited, ((MyFile) file.element()).getContent());
+        manager.undoCommand();
+        assertEquals(large, ((MyFile) file.element()).getContent());
+        manager.redoCommand();
+        assertEquals(edited, ((MyFile) file.element()).getContent());
+
+        String diverged = "a".repeat(100_000) + "QRS" + "b".repeat(99_999);
+        pfs.edit(file, diverged);
+        assertThrows(IllegalStateException.class, manager::undoCommand);
+        assertEquals(diverged, ((MyFile) file.element()).getContent());
+    }
+
+    /**
+     * Test consecutive edits that insert, delete and replace text.
+     */
+    @Test
+    void testConsecutiveEditsUndoInOrder() throws IOException {
+        CommandManager manager = new CommandManager();
+        manager.setCoalesceWindowMillis(0);
+        String[] versions = {"hello", "hello world", "help world", "", "again"};
+        for (String version : versions) {
+            manager.executeCommand(new EditCommand(pfs, file, version));
+        }
+        for (int i = versions.length - 2; i >= 0; i--) {
+            manager.undoCommand();
+            assertEquals(versions[i], ((MyFile) file.element()).getContent());
+        }
+        manager.undoCommand();
+        assertEquals("", ((MyFile) file.element()).getContent());
+    }
+
+    /**
+     * Test that typing into a file within the coalescing window produces a single undo entry.
+     */
+    @Test
+    void testTypingIsCoalesced() throws IOException {
+        CommandManager manager = new CommandManager();
+        manager.setCoalesceWindowMillis(60_000);
+        pfs.edit(file, "Dear ,\nBye");
+        String[] typed = {"Dear J,\nBye", "Dear Jo,\nBye", "Dear Jo,\nBye", "Dear J,\nBye", "Dear Jim,\nBye"};
+        for (String version : typed) {
+            manager.executeCommand(new EditCommand(pfs, file, version));
+        }
+        assertEquals(1, manager.getHistorySize());
+        assertEquals(4, manager.getCoalescedCommands());
+
+        manager.undoCommand();
+        assertEquals("Dear ,\nBye", ((MyFile) file.element()).getContent());
+        manager.redoCommand();
+        assertEquals("Dear Jim,\nBye", ((MyFile) file.element()).getContent());
+    }
+
+    /**
+     * Test that edits to distant regions, and edits after an undo, are kept as separate entries.
+     */
+    @Test
+    void testDistantEditsAndUndoAreNotCoalesced() throws IOException {
+        CommandManager manager = new CommandManager();
+        manager.setCoalesceWindowMillis(60_000);
+        pfs.edit(file, "start middle end");
+        manager.executeCommand(new EditCommand(pfs, file, "START middle end"));
+        manager.executeCommand(new EditCommand(pfs, file, "START middle END"));
+        assertEquals(2, manager.getHistorySize());
+
+        manager.undoCommand();
+        manager.executeCommand(new EditCommand(pfs, file, "START middle en"));
+        assertEquals(2, manager.getCommandLog().size());
+        manager.undoCommand();
+        manager.undoCommand();
+        assertEquals("start middle end", ((MyFile) file.element()).getContent());
+    }
+
+    /**
+     * Test that a composite command is executed, undone and redone as a single history entry.
+     */
+    @Test
+    void testCompositeCommandIsOneEntry() throws IOException {
+        CommandManager manager = new CommandManager();
+        CompositeCommand batch = new CompositeCommand();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new CreateFileCommand(pfs, pfs.getRoot(), "batch" + i));
+        }
+        manager.executeCommand(batch);
+        assertEquals(1, manager.getHistorySize());
+        assertEquals(11, pfs.getPfs().degree(pfs.getRoot()));
+
+        manager.undoCommand();
+        assertEquals(1, pfs.getPfs().degree(pfs.getRoot()));
+        manager.redoCommand();
+        assertEquals(11, pfs.getPfs().degree(pfs.getRoot()));
+    }
+
+    /**
+     * Test that a failing command rolls back the commands of the composite already executed.
+     */
+    @Test
+    void testCompositeCommandRollsBackOnFailure() {
+        CommandManager manager = new CommandManager();
+        CompositeCommand batch = new CompositeCommand()
+                .add(new CreateFileCommand(pfs, pfs.getRoot(), "first"))
+                .add(new CreateFolderCommand(pfs, pfs.getRoot(), "second"))
+                .add(new MoveCommand(pfs, pfs.getRoot(), file));
+
+        assertThrows(RuntimeException.class, () -> manager.executeCommand(batch));
+        assertEquals(1, pfs.getPfs().degree(pfs.getRoot()));
+        assertTrue(manager.getCommandLog().isEmpty());
+    }
+
+    /**
+     * Test that a committed transaction is recorded as one entry and an abandoned one is rolled back.
+     */
+    @Test
+    void testTransactionCommitAndRollback() throws IOException {
+        CommandManager manager = new CommandManager();
+        try (Transaction transaction = manager.beginTransaction()) {
+            CreateFolderCommand folder = new CreateFolderCommand(pfs, pfs.getRoot(), "Reports");
+            transaction.execute(folder);
+            transaction.execute(new CreateFileCommand(pfs, folder.getNewPosition(), "summary"));
+            transaction.commit();
+        }
+        assertEquals(1, manager.getHistorySize());
+        assertNotNull(pfs.find("summary"));
+
+        try (Transaction transaction = manager.beginTransaction()) {
+            transaction.execute(new CreateFileCommand(pfs, pfs.getRoot(), "abandoned"));
+        }
+        assertNull(pfs.find("abandoned"));
+        assertEquals(1, manager.getHistorySize());
+
+        manager.undoCommand();
+        assertNull(pfs.find("Reports"));
+    }
+
+    /**
+     * Test that commands submitted together run on the writer as one transaction, recorded or rolled back whole.
+     */
+    @Test
+    void testSubmitAllIsOneTransaction() throws Exception {
+        CommandManager manager = new CommandManager();
+        manager.startWriter();
+        try {
+            Position<Document> folder = pfs.createFolder("Archive", pfs.getRoot());
+            List<Command> moves = List.of(new MoveCommand(pfs, file, folder),
+                    new CreateFileCommand(pfs, pfs.getRoot(), "report"));
+            assertEquals(2, manager.submitAll(moves).get().getCommands().size());
+            assertEquals(1, manager.getHistorySize());
+            assertSame(folder, pfs.getPfs().parent(file));
+
+            List<Command> failing = List.of(new MoveCommand(pfs, file, pfs.getRoot()),
+                    new MoveCommand(pfs, pfs.getRoot(), folder));
+            assertThrows(ExecutionException.class, () -> manager.submitAll(failing).get());
+            assertSame(folder, pfs.getPfs().parent(file));
+            assertEquals(1, manager.getHistorySize());
+
+            manager.undoCommand();
+            assertSame(pfs.getRoot(), pfs.getPfs().parent(file));
+            assertNull(pfs.find("report"));
+        } finally {
+            manager.stopWriter();
+        }
+    }
+
+    /**
+     * Test that submitted commands run in order on the writer thread and report failures through their futures.
+     */
+    @Test
+    void testWriterExecutesSubmittedCommands() throws Exception {
+        CommandManager manager = new CommandManager();
+        manager.setCoalesceWindowMillis(0);
+        manager.startWriter();
+        try {
+            Thread caller = Thread.currentThread();
+            CompletableFuture<Thread> writer = manager.submitTask(Thread::currentThread);
+            for (int i = 0; i < 100; i++) {
+                manager.submit(new EditCommand(pfs, file, "v" + i));
+            }
+            manager.submitUndo().get();
+            assertNotSame(caller, writer.get());
+            assertEquals("v98", ((MyFile) file.element()).getContent());
+
+            CompletableFuture<Void> failed = manager.submit(new MoveCommand(pfs, pfs.getRoot(), file));
+            ExecutionException error = assertThrows(ExecutionException.class, failed::get);
+            assertInstanceOf(RuntimeException.class, error.getCause());
+
+            manager.executeCommand(new EditCommand(pfs, file, "sync"));
+            assertEquals("sync", ((MyFile) file.element()).getContent());
+            assertEquals(100, manager.getCommandLog().size());
+        } finally {
+            manager.stopWriter();
+        }
+    }
+
+    /**
+     * Test that stopping the writer waits for the work queued on it before commands run on the caller again.
+     */
+    @Test
+    void testStopWriterWaitsForQueuedWork() throws Exception {
+        CommandManager manager = new CommandManager();
+        manager.setCoalesceWindowMillis(0);
+        manager.startWriter();
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < 100; i++) {
+            last = manager.submit(new EditCommand(pfs, file, "v" + i));
+        }
+        manager.stopWriter();
+        assertTrue(last.isDone());
+        assertEquals("v99", ((MyFile) file.element()).getContent());
+
+        Thread caller = Thread.currentThread();
+        assertSame(caller, manager.submitTask(Thread::currentThread).get());
+    }
+
+    /**
+     * Test that executes, undos, redos and failures are counted and timed per command class.
+     */
+    @Test
+    void testMetricsArePerCommandClass() throws IOException {
+        CommandManager manager = new CommandManager();
+        manager.setCoalesceWindowMillis(0);
+        for (int i = 0; i < 3; i++) {
+            manager.executeCommand(new EditCommand(pfs, file, "v" + i));
+        }
+        manager.undoCommand();
+        manager.redoCommand();
+        assertThrows(RuntimeException.class, () -> manager.executeCommand(new MoveCommand(pfs, pfs.getRoot(), file)));
+
+        CommandMetrics edits = manager.getMetrics().get("EditCommand");
+        assertEquals(3, edits.getExecutes());
+        assertEquals(1, edits.getUndos());
+        assertEquals(1, edits.getRedos());
+        assertEquals(0, edits.getFailures());
+        assertTrue(edits.getExecuteLatency().getValueAtPercentile(100) >= edits.getExecuteLatency().getValueAtPercentile(50));
+        assertEquals(edits.getExecuteLatency().getMax(), edits.getExecuteLatency().getValueAtPercentile(100));
+
+        CommandMetrics moves = manager.getMetrics().get("MoveCommand");
+        assertEquals(0, moves.getExecutes());
+        assertEquals(1, moves.getFailures());
+        assertTrue(manager.formatMetrics().contains("MoveCommand"));
+    }
+}
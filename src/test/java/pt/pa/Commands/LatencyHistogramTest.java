@@ -0,0 +1,47 @@
+/**
+ * JUnit test class for the LatencyHistogram class.
+ */
+package pt.pa.Commands;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link pt.pa.Commands.LatencyHistogram} class.
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Test that percentiles of a uniform distribution are reported within the precision of the buckets.
+     */
+    @Test
+    void testPercentilesAreWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(1_000_000, histogram.getCount());
+        assertEquals(1_000_000_000L, histogram.getMax());
+        assertEquals(500_000_500.0, histogram.getMean(), 1);
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            double expected = percentile / 100 * 1_000_000_000L;
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected * 1.016, percentile + "th: " + actual);
+        }
+    }
+
+    /**
+     * Test that small values are exact and out-of-range values are clamped.
+     */
+    @Test
+    void testSmallAndOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(42);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(42, histogram.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+}
@@ -0,0 +1,43 @@
+package pt.pa;
+
+import pt.pa.adts.Position;
+
+import java.io.IOException;
+
+/**
+ * The DatedFileSystem class builds file systems whose documents carry chosen dates, for the tests of the indexes
+ * the change listeners of {@link PFS} keep by date.
+ */
+final class DatedFileSystem {
+
+    private DatedFileSystem() {
+    }
+
+    /**
+     * Creates a file system holding only a root folder created at the epoch.
+     *
+     * @return The file system.
+     * @throws IOException If the file system cannot be created.
+     */
+    static PFS create() throws IOException {
+        Folder rootFolder = new Folder("root");
+        rootFolder.setCreationDate(0);
+        return new PFS(rootFolder);
+    }
+
+    /**
+     * Creates a file with a given creation date, as the change listeners see it.
+     *
+     * @param pfs    The file system.
+     * @param name   The name of the file.
+     * @param parent The folder holding the file.
+     * @param date   The creation and last change date, in seconds since the epoch.
+     * @return The position of the file.
+     */
+    static Position<Document> createFile(PFS pfs, String name, Position<Document> parent, long date) {
+        MyFile file = new MyFile(name, ".txt");
+        file.setCreationDate(date);
+        file.setChangeHistory(0, date);
+        return pfs.insertDoc(parent, file);
+    }
+}
@@ -0,0 +1,104 @@
+package pt.pa.Generator;
+
+import org.junit.jupiter.api.Test;
+import pt.pa.Document;
+import pt.pa.MyFile;
+import pt.pa.MyFile.FileExtensions;
+import pt.pa.adts.Position;
+import pt.pa.adts.TreeLinked;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the TreeGenerator class.
+ */
+class TreeGeneratorTest {
+
+    /**
+     * Test that the same seed builds the same tree with exactly the requested number of documents.
+     */
+    @Test
+    void testDeterministicAndExactSize() {
+        TreeLinked<Document> first = new TreeGenerator(42, 5000).generate();
+        TreeLinked<Document> second = new TreeGenerator(42, 5000).generate();
+        TreeLinked<Document> other = new TreeGenerator(43, 5000).generate();
+
+        assertEquals(5000, first.size());
+        assertEquals(describe(first), describe(second));
+        assertNotEquals(describe(first), describe(other));
+    }
+
+    /**
+     * Test that the depth, extensions, names and dates follow the settings.
+     */
+    @Test
+    void testSettingsAreRespected() {
+        TreeGenerator generator = new TreeGenerator(7, 3000)
+                .maxDepth(3)
+                .extensionWeights(Map.of(FileExtensions.TXT, 3.0, FileExtensions.PDF, 1.0))
+                .creationRange(1000, 2000)
+                .changes(1, IntDistribution.constant(2));
+        TreeLinked<Document> tree = generator.generate();
+
+        assertTrue(generator.getMaxDepth() <= 3);
+        assertEquals(3000, generator.getFolders() + generator.getFiles());
+        Set<String> names = new HashSet<>();
+        long bytes = 0;
+        for (Position<Document> position : tree.positions()) {
+            Document document = position.element();
+            assertTrue(names.add(document.getName()), document.getName());
+            assertTrue(document.getCreationDate() >= 1000 && document.getCreationDate() <= 2000);
+            if (document instanceof MyFile file) {
+                assertTrue(file.getExtensionName().equals(".txt") || file.getExtensionName().equals(".pdf"));
+                assertEquals(2, file.getChanges());
+                assertTrue(file.getLastChangeDate() >= file.getCreationDate() && file.getLastChangeDate() <= 2000);
+                bytes += file.getContent().length();
+            }
+        }
+        assertEquals(generator.getContentBytes(), bytes);
+    }
+
+    /**
+     * Test that a name collision rate makes documents share names.
+     */
+    @Test
+    void testNameCollisions() {
+        TreeLinked<Document> tree = new TreeGenerator(1, 2000).nameCollisionRate(0.5).generate();
+        Set<String> names = new HashSet<>();
+        for (Document document : tree.elements()) {
+            names.add(document.getName());
+        }
+        assertTrue(names.size() > 900 && names.size() < 1100, "" + names.size());
+    }
+
+    /**
+     * Describes every document of a tree in pre-order.
+     *
+     * @param tree The tree.
+     * @return One line per document.
+     */
+    private static List<String> describe(TreeLinked<Document> tree) {
+        List<String> lines = new ArrayList<>();
+        describe(tree, tree.root(), 0, lines);
+        return lines;
+    }
+
+    private static void describe(TreeLinked<Document> tree, Position<Document> position, int depth,
+                                 List<String> lines) {
+        Document document = position.element();
+        String line = depth + " " + document + " " + document.getCreationDate();
+        if (document instanceof MyFile file) {
+            line += " " + file.getContent().hashCode() + " " + file.getChanges() + " " + file.getLastChangeDate();
+        }
+        lines.add(line);
+        for (Position<Document> child : tree.children(position)) {
+            describe(tree, child, depth + 1, lines);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * JUnit test class for the AsyncLogWriter class.
+ */
+package pt.pa.Log;
+
+import pt.pa.Commands.Command;
+import pt.pa.Commands.RenameCommand;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link pt.pa.Log.AsyncLogWriter} class.
+ */
+class AsyncLogWriterTest {
+
+    /**
+     * A command that does nothing, identified by a number.
+     */
+    private record NumberedCommand(int number) implements Command {
+        @Override
+        public void execute() {
+        }
+
+        @Override
+        public void unexecute() {
+        }
+
+        @Override
+        public String toString() {
+            return "NumberedCommand " + number;
+        }
+    }
+
+    /**
+     * Test that records logged by several threads through a small ring buffer are all written, each thread's in order.
+     */
+    @Test
+    void testConcurrentRecordsAreWrittenInOrder(@TempDir Path folder) throws Exception {
+        Path file = folder.resolve("log.txt");
+        AsyncLogWriter writer = new AsyncLogWriter(file, 16);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 1000;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    writer.publish("Execute:", new NumberedCommand(offset + i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(writer.flush(10_000));
+        writer.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(8000, lines.size());
+        int[] last = {-1, 999, 1999, 2999};
+        for (int i = 1; i < lines.size(); i += 2) {
+            assertTrue(lines.get(i).startsWith("INFO: Execute: NumberedCommand "));
+            int number = Integer.parseInt(lines.get(i).substring(lines.get(i).lastIndexOf(' ') + 1));
+            assertTrue(number > last[number / 1000]);
+            last[number / 1000] = number;
+        }
+        assertEquals(4000, writer.getWrittenRecords());
+    }
+
+    /**
+     * Test that records logged after the writer is closed are dropped rather than failing the logging thread.
+     */
+    @Test
+    void testRecordsAfterCloseAreDropped(@TempDir Path folder) throws Exception {
+        Path file = folder.resolve("log.txt");
+        AsyncLogWriter writer = new AsyncLogWriter(file, 16);
+        writer.publish("Execute:", new NumberedCommand(1));
+        writer.close();
+        for (int i = 0; i < 100; i++) {
+            writer.publish("Execute:", new NumberedCommand(i));
+        }
+
+        assertEquals(2, Files.readAllLines(file).size());
+        assertEquals(1, writer.getWrittenRecords());
+        assertEquals(100, writer.getDroppedRecords());
+    }
+
+    /**
+     * Test that a record describes its command as it was when it was logged, even if the background thread writes
+     * it after the command's target changed again.
+     */
+    @Test
+    void testRecordsAreFormattedWhenLogged() throws Exception {
+        PFS pfs = new PFS(new Folder("root"));
+        Position<Document> file = pfs.createFile("notes", ".txt", pfs.getRoot());
+        CountDownLatch renamed = new CountDownLatch(1);
+        List<String> written = new ArrayList<>();
+        LogSink sink = new LogSink() {
+            @Override
+            public void write(LogEvent event) throws IOException {
+                try {
+                    renamed.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                written.add(event.command);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncLogWriter writer = new AsyncLogWriter(List.of(sink), 16);
+        for (int i = 0; i < 3; i++) {
+            RenameCommand rename = new RenameCommand(pfs, file, "N" + i);
+            rename.execute();
+            writer.publish("Execute:", rename);
+        }
+        renamed.countDown();
+        assertTrue(writer.flush(10_000));
+        writer.close();
+
+        assertEquals(List.of("RenameCommand - N0 renamed as N0", "RenameCommand - N1 renamed as N1",
+                "RenameCommand - N2 renamed as N2"), written);
+    }
+
+    /**
+     * Test that the logging levels filter commands as described by the "LogProperties" file.
+     */
+    @Test
+    void testLevelsFilterCommands() {
+        Command command = new NumberedCommand(1);
+        assertTrue(LogLevel.parse("ALL").accepts(command));
+        assertTrue(LogLevel.parse("FILES").accepts(command));
+        assertFalse(LogLevel.parse("DEL").accepts(command));
+        assertThrows(IllegalArgumentException.class, () -> LogLevel.parse("VERBOSE"));
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * JUnit test class for the OperationLogReader class.
+ */
+package pt.pa.Log;
+
+import pt.pa.Commands.Command;
+import pt.pa.Commands.EditCommand;
+import pt.pa.Commands.RenameCommand;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link pt.pa.Log.OperationLogReader} class.
+ */
+class OperationLogReaderTest {
+
+    @TempDir
+    Path folder;
+
+    private Command edit;
+    private Command rename;
+
+    /**
+     * Set up two commands targeting a file.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        PFS pfs = new PFS(new Folder("root"));
+        Position<Document> file = pfs.createFile("notes", ".txt", pfs.getRoot());
+        edit = new EditCommand(pfs, file, "content");
+        rename = new RenameCommand(pfs, file, "renamed");
+    }
+
+    /**
+     * Writes operations with consecutive timestamps, alternating between the edit and the rename.
+     *
+     * @param sink  The sink to write to.
+     * @param first The timestamp of the first operation.
+     * @param count The number of operations.
+     */
+    private void writeOperations(BinaryLogSink sink, long first, int count) throws IOException {
+        LogEvent event = new LogEvent();
+        for (int i = 0; i < count; i++) {
+            event.set(first + i, 1000 + i, "Execute:", i % 2 == 0 ? edit : rename);
+            sink.write(event);
+        }
+    }
+
+    /**
+     * Test that queries by command type and time range return exactly the matching operations.
+     */
+    @Test
+    void testQueryByTypeAndTimeRange() throws IOException {
+        Path file = folder.resolve("operation_log.bin");
+        BinaryLogSink sink = new BinaryLogSink(file);
+        writeOperations(sink, 1_000, 5_000);
+        sink.close();
+
+        try (OperationLogReader reader = new OperationLogReader(file)) {
+            assertEquals(5_000, reader.getRecordCount());
+            assertEquals(5, reader.getBlockCount());
+
+            List<OperationRecord> edits = reader.query("EditCommand", 2_000, 2_999);
+            assertEquals(500, edits.size());
+            for (OperationRecord record : edits) {
+                assertEquals("EditCommand", record.getCommandType());
+                assertEquals("Execute:", record.getAction());
+                assertTrue(record.getTimestamp() >= 2_000 && record.getTimestamp() <= 2_999);
+                assertEquals(List.of("notes"), record.getTargets());
+            }
+            assertEquals(1_000, reader.query(null, 2_000, 2_999).size());
+            assertTrue(reader.query("MoveCommand", 0, Long.MAX_VALUE).isEmpty());
+            assertEquals(1_000 + 4_999, reader.readAll().get(4_999).getDurationNanos());
+        }
+    }
+
+    /**
+     * Test that targets are recorded by the name they had when the command was logged, not when it was written.
+     */
+    @Test
+    void testTargetsAreNamedWhenLogged() throws IOException {
+        Path file = folder.resolve("operation_log.bin");
+        BinaryLogSink sink = new BinaryLogSink(file);
+        LogEvent event = new LogEvent();
+        event.set(1_000, 0, "Execute:", edit);
+        rename.execute();
+        sink.write(event);
+        event.set(2_000, 0, "Execute:", edit);
+        sink.write(event);
+        sink.close();
+
+        try (OperationLogReader reader = new OperationLogReader(file)) {
+            List<OperationRecord> records = reader.readAll();
+            assertEquals(List.of("notes"), records.get(0).getTargets());
+            assertEquals(List.of("renamed"), records.get(1).getTargets());
+        }
+    }
+
+    /**
+     * Test that reopening a log whose last record was cut by a crash drops that record and keeps appending.
+     */
+    @Test
+    void testReopenAfterTruncatedRecord() throws IOException {
+        Path file = folder.resolve("operation_log.bin");
+        BinaryLogSink sink = new BinaryLogSink(file);
+        writeOperations(sink, 1_000, 10);
+        sink.flush();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        BinaryLogSink reopened = new BinaryLogSink(file);
+        writeOperations(reopened, 2_000, 10);
+        reopened.close();
+
+        try (OperationLogReader reader = new OperationLogReader(file)) {
+            assertEquals(19, reader.getRecordCount());
+            assertEquals(10, reader.query(null, 2_000, 2_999).size());
+            assertEquals(5, reader.query("RenameCommand", 2_000, 2_999).size());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * JUnit test class for the RotatingLogSink class.
+ */
+package pt.pa.Log;
+
+import pt.pa.Commands.Command;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link pt.pa.Log.RotatingLogSink} class.
+ */
+class RotatingLogSinkTest {
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    @TempDir
+    Path folder;
+
+    private final SegmentCompressor compressor = new SegmentCompressor();
+    private final Clock clock = Clock.fixed(LocalDate.of(2024, 1, 10).atStartOfDay().toInstant(ZoneOffset.UTC),
+            ZoneOffset.UTC);
+
+    /**
+     * A command that does nothing.
+     */
+    private static final Command COMMAND = new Command() {
+        @Override
+        public void execute() {
+        }
+
+        @Override
+        public void unexecute() {
+        }
+
+        @Override
+        public String toString() {
+            return "TestCommand - nothing";
+        }
+    };
+
+    /**
+     * Writes records with the given timestamp, flushing every ten records.
+     */
+    private void write(RotatingLogSink sink, long timestamp, int count) throws IOException {
+        LogEvent event = new LogEvent();
+        for (int i = 0; i < count; i++) {
+            event.set(timestamp, 0, "Execute:", COMMAND);
+            sink.write(event);
+            if (i % 10 == 9) {
+                sink.flush();
+            }
+        }
+        sink.flush();
+    }
+
+    /**
+     * Lists the names of the files of the test folder.
+     */
+    private List<String> files() throws IOException {
+        try (Stream<Path> stream = Files.list(folder)) {
+            return stream.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Test that a log reaching the maximum size is rotated, compressed and trimmed to the maximum number of segments.
+     */
+    @Test
+    void testRotatesBySizeAndKeepsNewestSegments() throws Exception {
+        Path file = folder.resolve("procedure_log.txt");
+        RotatingLogSink sink = new RotatingLogSink(List.of(file), () -> new TextLogSink(file),
+                new LogRotationPolicy(2_000, false, 3, 0), compressor, clock);
+        write(sink, clock.millis(), 200);
+        sink.close();
+        compressor.submit(() -> { }).get();
+
+        assertTrue(sink.getRotations() >= 5);
+        List<String> files = files();
+        assertEquals(4, files.size());
+        assertTrue(files.contains("procedure_log.txt"));
+        long last = sink.getRotations();
+        assertTrue(files.contains("procedure_log-2024-01-10-" + last + ".txt.gz"));
+        assertFalse(files.contains("procedure_log-2024-01-10-" + (last - 3) + ".txt.gz"));
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(folder.resolve(files.get(0))))) {
+            String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(content.contains("INFO: Execute: TestCommand - nothing"));
+            assertTrue(content.length() >= 2_000);
+        }
+    }
+
+    /**
+     * Test that the first record of a new day starts a new segment, named after the day of the previous one.
+     */
+    @Test
+    void testRotatesWhenTheDayChanges() throws Exception {
+        Path file = folder.resolve("procedure_log.txt");
+        RotatingLogSink sink = new RotatingLogSink(List.of(file), () -> new TextLogSink(file),
+                new LogRotationPolicy(0, true, 0, 0), compressor, clock);
+        write(sink, clock.millis(), 5);
+        write(sink, clock.millis() + DAY_MILLIS, 3);
+        sink.close();
+        compressor.submit(() -> { }).get();
+
+        assertEquals(List.of("procedure_log-2024-01-10-1.txt.gz", "procedure_log.txt"), files());
+        assertEquals(6, Files.readAllLines(file).size());
+    }
+}
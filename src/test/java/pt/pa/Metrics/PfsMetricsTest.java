@@ -0,0 +1,102 @@
+/**
+ * JUnit test class for the PfsMetrics class.
+ */
+package pt.pa.Metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.pa.Commands.CommandManager;
+import pt.pa.Commands.RemoveCommand;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link pt.pa.Metrics.PfsMetrics} class.
+ */
+class PfsMetricsTest {
+
+    private PFS pfs;
+    private Position<Document> docs;
+
+    /**
+     * Set up the test environment with a folder holding a nested folder and two files.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        pfs = new PFS(new Folder("root"));
+        docs = pfs.createFolder("Docs", pfs.getRoot());
+        Position<Document> nested = pfs.createFolder("Nested", docs);
+        pfs.edit(pfs.createFile("a", ".txt", docs), "hello");
+        pfs.edit(pfs.createFile("b", ".txt", nested), "wörld");
+    }
+
+    /**
+     * Test that the gauges follow inserts, edits, pastes, moves, removals and undos as a full count would.
+     */
+    @Test
+    void testGaugesMatchFullCount() throws IOException {
+        PfsMetrics metrics = pfs.getMetrics();
+        assertEquals(5, metrics.getDocuments());
+        assertEquals(3, metrics.getFolders());
+        assertEquals(2, metrics.getFiles());
+        assertEquals(11, metrics.getContentBytes());
+        assertEquals(3, metrics.getMaxDepth());
+        assertCounted();
+
+        pfs.copy(docs);
+        Position<Document> deep = pfs.createFolder("Deep", pfs.createFolder("Other", pfs.getRoot()));
+        Position<Document> copy = pfs.paste(deep);
+        assertEquals(5, metrics.getMaxDepth());
+        assertCounted();
+
+        pfs.rename(copy, "Docs copy");
+        pfs.move(copy, pfs.getRoot());
+        assertEquals(3, metrics.getMaxDepth());
+        assertCounted();
+
+        CommandManager manager = pfs.getCommandManager();
+        manager.executeCommand(new RemoveCommand(pfs, docs));
+        assertEquals(7, metrics.getDocuments());
+        assertCounted();
+        manager.undoCommand();
+        assertEquals(11, metrics.getDocuments());
+        assertCounted();
+
+        pfs.edit(pfs.find("a"), "");
+        assertCounted();
+    }
+
+    /**
+     * Test that the exported gauges include the undo stack and clipboard state read from the file system.
+     */
+    @Test
+    void testExportedGauges() throws IOException {
+        pfs.getCommandManager().executeCommand(new RemoveCommand(pfs, pfs.find("a")));
+        pfs.copy(docs);
+        String text = new PrometheusExporter(pfs.getMetrics().getRegistry()).format();
+        assertTrue(text.contains("# TYPE pfs_documents gauge\npfs_documents 4\n"), text);
+        assertTrue(text.contains("\npfs_undo_stack_size 1\n"), text);
+        assertTrue(text.contains("\npfs_clipboard_occupied 1\n"), text);
+        assertTrue(text.contains("\npfs_last_save_duration_seconds 0\n"), text);
+    }
+
+    /**
+     * Asserts that the gauges of the file system equal those of a full count of its tree.
+     */
+    private void assertCounted() {
+        PfsMetrics counted = new PfsMetrics(new MetricsRegistry(), () -> 0, () -> false);
+        counted.reset(pfs.getPfs());
+        PfsMetrics metrics = pfs.getMetrics();
+        assertEquals(counted.getDocuments(), metrics.getDocuments());
+        assertEquals(counted.getFolders(), metrics.getFolders());
+        assertEquals(counted.getFiles(), metrics.getFiles());
+        assertEquals(counted.getContentBytes(), metrics.getContentBytes());
+        assertEquals(counted.getMaxDepth(), metrics.getMaxDepth());
+    }
+}
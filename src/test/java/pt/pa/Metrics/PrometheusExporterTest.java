@@ -0,0 +1,53 @@
+/**
+ * JUnit test class for the PrometheusExporter class.
+ */
+package pt.pa.Metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link pt.pa.Metrics.PrometheusExporter} class.
+ */
+class PrometheusExporterTest {
+
+    @TempDir
+    Path folder;
+
+    /**
+     * Test that the metrics are written in the exposition format to a file and served to a local scraper.
+     */
+    @Test
+    void testFileAndHttpExport() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.longGauge("test_items", "Items.\nCounted.").set(42);
+        registry.gauge("test_ratio", "A ratio.", () -> 0.25);
+        String expected = "# HELP test_items Items.\\nCounted.\n# TYPE test_items gauge\ntest_items 42\n"
+                + "# HELP test_ratio A ratio.\n# TYPE test_ratio gauge\ntest_ratio 0.25\n";
+
+        try (PrometheusExporter exporter = new PrometheusExporter(registry)) {
+            Path file = folder.resolve("pfs.prom");
+            exporter.writeTo(file);
+            assertEquals(expected, Files.readString(file));
+
+            int port = exporter.serve(0);
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertEquals(PrometheusExporter.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(""));
+            assertEquals(expected, response.body());
+        }
+        assertThrows(IllegalArgumentException.class, () -> registry.longGauge("test_items", "Again."));
+        assertThrows(IllegalArgumentException.class, () -> registry.longGauge("bad name", "Invalid."));
+    }
+}
@@ -4,6 +4,7 @@
 package pt.pa;
 
 import pt.pa.Exceptions.InvalidMoveException;
+import pt.pa.Exceptions.InvalidNameException;
 import pt.pa.adts.InvalidPositionException;
 import pt.pa.adts.Position;
 import org.junit.jupiter.api.BeforeEach;
@@ -261,6 +262,69 @@ class PFSTest {
         assertEquals(folder, pfs.getPfs().parent(file));
     }
 
+    /**
+     * Test that every change moves the version on, and that reading the file system does not.
+     */
+    @Test
+    public void testVersion() throws InvalidMoveException {
+        Position<Document> root = pfs.find("Root");
+        long version = pfs.getVersion();
+        Position<Document> file = pfs.createFile("Versioned", root);
+        assertTrue(pfs.getVersion() > version);
+        version = pfs.getVersion();
+        pfs.find("Versioned");
+        pfs.getLast20CreatedFiles();
+        assertEquals(version, pfs.getVersion());
+        pfs.rename(file, "Renamed");
+        assertTrue(pfs.getVersion() > version);
+        version = pfs.getVersion();
+        pfs.edit(file, "content");
+        assertTrue(pfs.getVersion() > version);
+        version = pfs.getVersion();
+        pfs.move(file, pfs.createFolder("Target", root));
+        assertTrue(pfs.getVersion() > version);
+        version = pfs.getVersion();
+        pfs.remove(file);
+        assertTrue(pfs.getVersion() > version);
+    }
+
+    /**
+     * Test that a folder cannot hold two documents with the same name, and that pasting picks a free name.
+     */
+    @Test
+    public void testNameCollisions() throws IOException {
+        PFS names = new PFS(new Folder("root"));
+        Position<Document> root = names.getRoot();
+        Position<Document> folder = names.createFolder("Folder", root);
+        Position<Document> file = names.createFile("notes", root);
+        names.createFile("notes", ".md", root);
+        names.createFile("notes", folder);
+
+        assertThrows(InvalidNameException.class, () -> names.createFile("notes", root));
+        assertThrows(InvalidNameException.class, () -> names.createFolder("Folder", root));
+        assertThrows(InvalidNameException.class, () -> names.rename(folder, "notes.txt"));
+        assertThrows(InvalidMoveException.class, () -> names.move(file, folder));
+        names.rename(file, "notes");
+        names.rename(folder, "Other");
+
+        assertTrue(names.hasChild(root, file.element()));
+        assertSame(folder, names.findChild(root, "Other"));
+        assertNull(names.findChild(root, "Folder"));
+        assertEquals("notes (2)", names.freeName(root, "notes", ".txt"));
+        assertEquals("notes", names.freeName(folder, "notes", ".md"));
+
+        names.copy(file);
+        assertEquals("notes_copy", names.paste(folder).element().getName());
+        assertEquals("notes_copy (2)", names.paste(folder).element().getName());
+
+        names.remove(file);
+        Position<Document> taken = names.createFile("notes", root);
+        assertThrows(InvalidMoveException.class, () -> names.move(file, root));
+        names.remove(taken);
+        names.move(file, root);
+        assertSame(file, names.findChild(root, "notes.txt"));
+    }
+
     /**
      * Test for obtaining a string representation of the file system.
      */
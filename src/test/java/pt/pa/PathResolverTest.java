@@ -0,0 +1,94 @@
+package pt.pa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.pa.Exceptions.InvalidNameException;
+import pt.pa.adts.Position;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link PathResolver} class, through {@link PFS#resolve(String)} and {@link PFS#pathOf}.
+ */
+class PathResolverTest {
+
+    private PFS pfs;
+    private Position<Document> root;
+    private Position<Document> documents;
+    private Position<Document> github;
+    private Position<Document> notes;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pfs = new PFS(new Folder("root"));
+        root = pfs.getRoot();
+        documents = pfs.createFolder("Documents", root);
+        github = pfs.createFolder("Github", documents);
+        notes = pfs.createFile("notes", github);
+    }
+
+    /**
+     * Test that paths resolve to their documents and that documents write their paths.
+     */
+    @Test
+    void testResolveAndPathOf() {
+        assertSame(notes, pfs.resolve("/root/Documents/Github/notes.txt"));
+        assertSame(notes, pfs.resolve("/root/Documents/Github/notes.txt"));
+        assertSame(github, pfs.resolve("//root/Documents/Github/"));
+        assertSame(root, pfs.resolve("/"));
+        assertNull(pfs.resolve("/root/Documents/notes.txt"));
+        assertNull(pfs.resolve("/other/Documents"));
+        assertNull(pfs.resolve("/root/Documents/Github/notes.txt/deeper"));
+        assertThrows(InvalidNameException.class, () -> pfs.resolve("root/Documents"));
+        assertThrows(InvalidNameException.class, () -> pfs.resolve(null));
+
+        assertEquals("/root/Documents/Github/notes.txt", pfs.pathOf(notes));
+        assertEquals("/root", pfs.pathOf(root));
+
+        Position<Document> created = pfs.createFile("todo", ".md", github);
+        assertSame(created, pfs.resolve("/root/Documents/Github/todo.md"));
+    }
+
+    /**
+     * Test that renaming, moving and removing documents changes what their old and new paths resolve to.
+     */
+    @Test
+    void testChangesInvalidatePaths() throws Exception {
+        assertSame(notes, pfs.resolve("/root/Documents/Github/notes.txt"));
+
+        pfs.rename(github, "Projects");
+        assertNull(pfs.resolve("/root/Documents/Github/notes.txt"));
+        assertNull(pfs.resolve("/root/Documents/Github"));
+        assertSame(notes, pfs.resolve("/root/Documents/Projects/notes.txt"));
+        assertEquals("/root/Documents/Projects/notes.txt", pfs.pathOf(notes));
+
+        pfs.move(github, root);
+        assertNull(pfs.resolve("/root/Documents/Projects/notes.txt"));
+        assertSame(notes, pfs.resolve("/root/Projects/notes.txt"));
+        assertEquals("/root/Projects/notes.txt", pfs.pathOf(notes));
+
+        pfs.remove(github);
+        assertNull(pfs.resolve("/root/Projects/notes.txt"));
+        assertNull(pfs.resolve("/root/Projects"));
+        Position<Document> replacement = pfs.createFolder("Projects", root);
+        assertSame(replacement, pfs.resolve("/root/Projects"));
+
+        pfs.setState(pfs.saveState());
+        Position<Document> restored = pfs.resolve("/root/Projects");
+        assertNotNull(restored);
+        assertEquals("/root/Projects", pfs.pathOf(restored));
+    }
+
+    /**
+     * Test that a folder holding two children with the same name, as a loaded tree may, finds the other one once
+     * the first is removed.
+     */
+    @Test
+    void testDuplicateNames() {
+        Position<Document> first = pfs.insertDoc(root, new Folder("Same"));
+        Position<Document> second = pfs.insertDoc(root, new Folder("Same"));
+        assertSame(first, pfs.resolve("/root/Same"));
+        pfs.remove(first);
+        assertSame(second, pfs.resolve("/root/Same"));
+    }
+}
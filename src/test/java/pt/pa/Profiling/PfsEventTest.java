@@ -0,0 +1,87 @@
+package pt.pa.Profiling;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pt.pa.Document;
+import pt.pa.Folder;
+import pt.pa.PFS;
+import pt.pa.adts.Position;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the Flight Recorder events emitted by the file system operations.
+ */
+class PfsEventTest {
+
+    @TempDir
+    Path folder;
+
+    /**
+     * Test that searches, pastes, moves and zips are recorded with the sizes they worked on.
+     */
+    @Test
+    void testOperationsEmitEvents() throws Exception {
+        PFS pfs = new PFS(new Folder("root"));
+        Position<Document> source = pfs.createFolder("Source", pfs.getRoot());
+        Position<Document> target = pfs.createFolder("Target", pfs.getRoot());
+        for (int i = 0; i < 3; i++) {
+            pfs.edit(pfs.createFile("file" + i, ".txt", source), "content" + i);
+        }
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("pt.pa.Find", "pt.pa.Paste", "pt.pa.Move", "pt.pa.Zip")) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            assertNotNull(pfs.find("file2"));
+            pfs.copy(source);
+            Position<Document> copy = pfs.paste(target);
+            pfs.move(copy, source);
+            pfs.getZipper().zipFolder(target);
+            recording.stop();
+            Path file = folder.resolve("pfs.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        RecordedEvent find = single(events, "pt.pa.Find");
+        assertEquals("file2", find.getString("query"));
+        assertTrue(find.getBoolean("found"));
+        assertEquals(6, find.getInt("treeSize"));
+        assertEquals(5, find.getInt("subtreeSize"));
+
+        RecordedEvent paste = single(events, "pt.pa.Paste");
+        assertEquals(10, paste.getInt("treeSize"));
+        assertEquals(4, paste.getInt("subtreeSize"));
+        assertEquals("content0content1content2".length(), paste.getLong("bytes"));
+
+        RecordedEvent move = single(events, "pt.pa.Move");
+        assertEquals(4, move.getInt("subtreeSize"));
+
+        RecordedEvent zip = single(events, "pt.pa.Zip");
+        assertEquals("zipFolder", zip.getString("operation"));
+        assertEquals(1, zip.getInt("subtreeSize"));
+    }
+
+    /**
+     * Finds the only recorded event of a type.
+     *
+     * @param events The recorded events.
+     * @param name   The event name.
+     * @return The event.
+     */
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,75 @@
+package pt.pa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.pa.adts.Position;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static pt.pa.DatedFileSystem.createFile;
+
+/**
+ * Test cases for the {@link RecentDocuments} and {@link RecencyIndex} classes, through the queries of {@link PFS}.
+ */
+class RecentDocumentsTest {
+
+    private PFS pfs;
+    private Position<Document> root;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pfs = DatedFileSystem.create();
+        root = pfs.getRoot();
+    }
+
+    /**
+     * Test that the documents are listed most recent first, page by page, and that removed documents are dropped.
+     */
+    @Test
+    void testCreatedPagesAndRemove() {
+        Folder folderDocument = new Folder("folder");
+        folderDocument.setCreationDate(1);
+        Position<Document> folder = pfs.insertDoc(root, folderDocument);
+        Position<Document> moved = createFile(pfs, "a", folder, 1);
+        pfs.move(moved, root);
+        for (int i = 0; i < 30; i++) {
+            createFile(pfs, "f" + i, folder, 100 + i);
+        }
+
+        List<Document> first = pfs.getRecentlyCreated(0, 20);
+        assertEquals(20, first.size());
+        assertEquals("f29", first.get(0).getName());
+        assertEquals(first, pfs.getLast20CreatedFiles());
+        List<Document> second = pfs.getRecentlyCreated(20, 20);
+        assertEquals(13, second.size());
+        assertEquals("f9", second.get(0).getName());
+
+        pfs.remove(folder);
+        List<Document> left = pfs.getRecentlyCreated(0, 20);
+        assertEquals(2, left.size());
+        assertSame(moved.element(), left.get(0));
+        assertThrows(IllegalArgumentException.class, () -> pfs.getRecentlyCreated(-1, 20));
+    }
+
+    /**
+     * Test that an edited file moves to the front of the recently changed files, and that a restored tree is
+     * indexed again.
+     */
+    @Test
+    void testChangedAndRestore() {
+        Position<Document> old = createFile(pfs, "old", root, 10);
+        createFile(pfs, "new", root, 20);
+        assertEquals("new", pfs.getLast10Altered().get(0).getName());
+
+        ((MyFile) old.element()).setChangeHistory(1, 30);
+        pfs.edit(old, "changed");
+        assertEquals("old", pfs.getLast10Altered().get(0).getName());
+
+        PFS other = new PFS(pfs.getPfs());
+        assertEquals(pfs.getLast10Altered(), other.getLast10Altered());
+        pfs.setState(pfs.saveState());
+        assertEquals(List.of("old", "new"),
+                pfs.getRecentlyChanged(0, 10).stream().map(Document::getName).toList());
+    }
+}
@@ -0,0 +1,57 @@
+package pt.pa.Workload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the WorkloadDriver and WorkloadBaseline classes.
+ */
+class WorkloadDriverTest {
+
+    @TempDir
+    Path folder;
+
+    /**
+     * Test that every operation of the mix runs and that a run does not regress against its own baseline.
+     */
+    @Test
+    void testRunAndBaseline() throws Exception {
+        Map<Operation, Double> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            if (operation != Operation.BACKUP) {
+                mix.put(operation, 1.0);
+            }
+        }
+        WorkloadScript script = new WorkloadScript(3, 500, 100, 2000, false, mix);
+        WorkloadResult result = new WorkloadDriver(script).run();
+
+        long accounted = 0;
+        for (Operation operation : Operation.values()) {
+            assertEquals(0, result.getFailures(operation), operation.getKey());
+            accounted += result.getLatency(operation).getCount() + result.getSkips(operation);
+        }
+        assertEquals(2000, accounted);
+        for (Operation operation : mix.keySet()) {
+            assertTrue(result.getLatency(operation).getCount() > 0, operation.getKey());
+        }
+        assertEquals(0, result.getLatency(Operation.BACKUP).getCount());
+        assertTrue(result.getThroughput() > 0);
+
+        Path file = folder.resolve("baseline.properties");
+        new WorkloadBaseline(result).save(file);
+        WorkloadBaseline baseline = WorkloadBaseline.load(file);
+        assertEquals(result.getThroughput(), baseline.getThroughput(), 0.1);
+        assertTrue(baseline.regressions(result, 0.01).isEmpty());
+
+        WorkloadResult slower = new WorkloadResult();
+        slower.recordLatency(Operation.EDIT, 1);
+        slower.setElapsedNanos(1_000_000_000L);
+        assertFalse(baseline.regressions(slower, 0.25).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * JUnit test class for the Zipper class.
+ */
+package pt.pa;
+
+import pt.pa.adts.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the {@link pt.pa.Zipper} class.
+ */
+class ZipperTest {
+
+    private PFS pfs;
+    private Position<Document> folder;
+
+    /**
+     * Set up the test environment with a folder of small, similar CSV files.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        pfs = new PFS(new Folder("root"));
+        folder = pfs.createFolder("Orders", pfs.getRoot());
+        for (int i = 0; i < 20; i++) {
+            Position<Document> file = pfs.createFile("order" + i, ".csv", folder);
+            pfs.edit(file, "id,customer,product,quantity,unit_price,country\n"
+                    + i + ",Customer " + (i * 7) + ",Product " + (i % 5) + "," + (i % 3 + 1) + ",19.99,Portugal\n");
+        }
+    }
+
+    /**
+     * Test that zipping a folder compresses its files and unzipping restores their content.
+     */
+    @Test
+    void testZipAndUnzipFolderRoundTrip() {
+        Position<Document> first = pfs.find("order3");
+        String original = ((MyFile) first.element()).getContent();
+
+        pfs.getZipper().zipFolder(folder);
+        MyFile zipped = (MyFile) first.element();
+        assertTrue(zipped.isCompressed());
+        assertFalse(zipped.isAccessable());
+        assertEquals(original, zipped.getContent());
+        assertNotNull(((Folder) folder.element()).getArchive().getDictionary(".csv"));
+
+        pfs.getZipper().unzipFolder(folder);
+        assertFalse(zipped.isCompressed());
+        assertTrue(zipped.isAccessable());
+        assertEquals(original, zipped.getContent());
+        assertNull(((Folder) folder.element()).getArchive());
+    }
+
+    /**
+     * Test that the shared dictionary compresses the small files better than compressing each one alone.
+     */
+    @Test
+    void testDictionaryImprovesCompression() {
+        long withoutDictionary = 0;
+        for (Position<Document> child : pfs.getPfs().children(folder)) {
+            String content = ((MyFile) child.element()).getContent();
+            withoutDictionary += Zipper.deflate(content.getBytes(), null).length;
+        }
+
+        pfs.getZipper().zipFolder(folder);
+        ZipArchive archive = ((Folder) folder.element()).getArchive();
+        assertTrue(archive.getCompressedBytes() < withoutDictionary);
+        assertTrue(archive.getCompressionRatio() > 1);
+    }
+
+    /**
+     * Test that zipping a single file compresses it without a dictionary.
+     */
+    @Test
+    void testZipAndUnzipFile() {
+        Position<Document> file = pfs.find("order0");
+        String original = ((MyFile) file.element()).getContent();
+
+        pfs.getZipper().zipFile(file);
+        assertTrue(((MyFile) file.element()).isCompressed());
+        assertEquals(original, ((MyFile) file.element()).getContent());
+
+        pfs.getZipper().unzipFile(file);
+        assertEquals(original, ((MyFile) file.element()).getContent());
+    }
+}